@@ -0,0 +1,63 @@
+package com.loiane.ecommerce.product.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${product.cache.counts.ttl:30s}") Duration countsTtl,
+            @Value("${product.cache.counts.max-size:10000}") long countsMaxSize,
+            @Value("${product.cache.facets.ttl:60s}") Duration facetsTtl,
+            @Value("${product.cache.facets.max-size:10000}") long facetsMaxSize,
+            @Value("${product.cache.search-results.ttl:5m}") Duration searchResultsTtl,
+            @Value("${product.cache.search-results.max-size:1000}") long searchResultsMaxSize,
+            @Value("${product.cache.price-histograms.ttl:10m}") Duration priceHistogramsTtl,
+            @Value("${product.cache.price-histograms.max-size:10000}") long priceHistogramsMaxSize,
+            @Value("${product.cache.listings.ttl:5m}") Duration listingsTtl,
+            @Value("${product.cache.listings.max-size:10000}") long listingsMaxSize,
+            @Value("${product.cache.category-tree.ttl:10m}") Duration categoryTreeTtl,
+            @Value("${product.cache.not-found.ttl:30s}") Duration notFoundTtl,
+            @Value("${product.cache.not-found.max-size:100000}") long notFoundMaxSize) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheNames.PRODUCT_COUNTS, Caffeine.newBuilder()
+                .expireAfterWrite(countsTtl)
+                .maximumSize(countsMaxSize)
+                .build());
+        cacheManager.registerCustomCache(CacheNames.PRODUCT_FACETS, Caffeine.newBuilder()
+                .expireAfterWrite(facetsTtl)
+                .maximumSize(facetsMaxSize)
+                .build());
+        cacheManager.registerCustomCache(CacheNames.SEARCH_RESULTS, Caffeine.newBuilder()
+                .expireAfterWrite(searchResultsTtl)
+                .maximumSize(searchResultsMaxSize)
+                .build());
+        cacheManager.registerCustomCache(CacheNames.PRICE_HISTOGRAMS, Caffeine.newBuilder()
+                .expireAfterWrite(priceHistogramsTtl)
+                .maximumSize(priceHistogramsMaxSize)
+                .build());
+        cacheManager.registerCustomCache(CacheNames.PRODUCT_LISTINGS, Caffeine.newBuilder()
+                .expireAfterWrite(listingsTtl)
+                .maximumSize(listingsMaxSize)
+                .build());
+        cacheManager.registerCustomCache(CacheNames.CATEGORY_TREE, Caffeine.newBuilder()
+                .expireAfterWrite(categoryTreeTtl)
+                .maximumSize(1)
+                .build());
+        cacheManager.registerCustomCache(CacheNames.NOT_FOUND, Caffeine.newBuilder()
+                .expireAfterWrite(notFoundTtl)
+                .maximumSize(notFoundMaxSize)
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,18 @@
+package com.loiane.ecommerce.product.config;
+
+/**
+ * Names of the local caches registered in {@link CacheConfig}.
+ */
+public final class CacheNames {
+
+    public static final String PRODUCT_COUNTS = "productCounts";
+    public static final String PRODUCT_FACETS = "productFacets";
+    public static final String SEARCH_RESULTS = "searchResults";
+    public static final String PRICE_HISTOGRAMS = "priceHistograms";
+    public static final String PRODUCT_LISTINGS = "productListings";
+    public static final String CATEGORY_TREE = "categoryTree";
+    public static final String NOT_FOUND = "notFound";
+
+    private CacheNames() {
+    }
+}
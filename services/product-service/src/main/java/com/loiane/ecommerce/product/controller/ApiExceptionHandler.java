@@ -0,0 +1,36 @@
+package com.loiane.ecommerce.product.controller;
+
+import com.loiane.ecommerce.product.exception.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps the business exceptions of every endpoint to their status codes, with an empty body like the
+ * endpoints always answered them.
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler({ProductNotFoundException.class, CategoryNotFoundException.class})
+    public ResponseEntity<Void> handleNotFound() {
+        return ResponseEntity.notFound().build();
+    }
+
+    // The request is valid but clashes with the current state: a taken SKU or slug, stock already gone,
+    // reservations that do not cover the quantity, a category that still holds products
+    @ExceptionHandler({DuplicateSkuException.class, SkuAlreadyExistsException.class, DuplicateSlugException.class,
+            InsufficientStockException.class, IllegalOperationException.class})
+    public ResponseEntity<Void> handleConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    // Malformed cursors, unsupported sorts, empty price ranges, and categories that cannot take products.
+    // Only these: any other IllegalArgumentException is a bug, and stays a 500
+    @ExceptionHandler({InvalidCursorException.class, InvalidSortException.class, InvalidPriceRangeException.class,
+            InactiveCategoryException.class, UnknownCategoryException.class})
+    public ResponseEntity<Void> handleBadRequest() {
+        return ResponseEntity.badRequest().build();
+    }
+}
@@ -1,60 +1,138 @@
 package com.loiane.ecommerce.product.controller;
 
+import com.loiane.ecommerce.product.dto.CountStrategy;
+import com.loiane.ecommerce.product.dto.CursorPage;
+import com.loiane.ecommerce.product.dto.PagedResponse;
 import com.loiane.ecommerce.product.dto.product.*;
-import com.loiane.ecommerce.product.exception.*;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.exception.UnknownCategoryException;
 import com.loiane.ecommerce.product.mapper.ProductMapper;
 import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductFilter;
+import com.loiane.ecommerce.product.repository.ProductSort;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import com.loiane.ecommerce.product.search.ProductSuggester;
+import com.loiane.ecommerce.product.service.ProductFacetService;
+import com.loiane.ecommerce.product.service.ProductPriceHistogramService;
 import com.loiane.ecommerce.product.service.ProductService;
 import jakarta.validation.Valid;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/products")
 public class ProductController {
 
+    private static final int MAX_SUGGESTIONS = 20;
+
     private final ProductService productService;
+    private final ProductFacetService productFacetService;
+    private final ProductPriceHistogramService productPriceHistogramService;
+    private final ProductSuggester productSuggester;
     private final ProductMapper productMapper;
     private final CategoryRepository categoryRepository;
 
-    public ProductController(ProductService productService, ProductMapper productMapper, CategoryRepository categoryRepository) {
+    public ProductController(ProductService productService, ProductFacetService productFacetService,
+                             ProductPriceHistogramService productPriceHistogramService, ProductSuggester productSuggester, ProductMapper productMapper,
+                             CategoryRepository categoryRepository) {
         this.productService = productService;
+        this.productFacetService = productFacetService;
+        this.productPriceHistogramService = productPriceHistogramService;
+        this.productSuggester = productSuggester;
         this.productMapper = productMapper;
         this.categoryRepository = categoryRepository;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> findById(@PathVariable String id) {
-        try {
-            var product = productService.findById(id);
-            var response = productMapper.toResponse(product);
-            return ResponseEntity.ok(response);
-        } catch (ProductNotFoundException _) {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<ProductResponse> findById(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Set<String> include) {
+        var product = productService.findById(id, include != null && include.contains("description"));
+        var response = productMapper.toResponse(product);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<Page<ProductResponse>> findActiveProducts(
-            @PageableDefault(size = 20) Pageable pageable) {
-        var products = productService.findActiveProducts(pageable);
-        var response = products.map(productMapper::toResponse);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<PagedResponse<ProductListItem>> findActiveProducts(
+            @PageableDefault(size = 20) Pageable pageable,
+            @RequestParam(defaultValue = "EXACT") CountStrategy count,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(defaultValue = "false") boolean facets,
+            WebRequest request) {
+        ProductSort.checkDirections(request.getParameterValues("sort"));
+        var page = productService.findActiveProducts(pageable, count, inStock);
+        if (facets) {
+            page = page.withFacets(productFacetService.findActiveProductFacets(null, null, inStock));
+        }
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductResponse>> searchActiveProducts(
+    public ResponseEntity<CursorPage<ProductListItem>> searchActiveProducts(
             @RequestParam String q,
-            @PageableDefault(size = 20) Pageable pageable) {
-        var products = productService.searchActiveProducts(q, pageable);
-        var response = products.map(productMapper::toResponse);
-        return ResponseEntity.ok(response);
+            @RequestParam(defaultValue = "FULL_TEXT") SearchMode mode,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean facets) {
+        var page = productService.searchActiveProducts(q, mode, inStock, cursor, size);
+        if (facets) {
+            page = page.withFacets(productFacetService.findActiveProductFacets(q, mode, inStock));
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    // Called on every keystroke: answered from memory, without touching the database
+    @GetMapping("/suggest")
+    public ResponseEntity<List<Suggestion>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productSuggester.suggest(q, Math.clamp(limit, 1, MAX_SUGGESTIONS)));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ProductListItem>> scrollActiveProducts(
+            @RequestParam(defaultValue = "NEWEST") ProductSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        var page = productService.scrollActiveProducts(sort, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    // Every filter is optional; together they compile to one keyset query
+    @GetMapping("/filter")
+    public ResponseEntity<CursorPage<ProductListItem>> filterProducts(
+            @RequestParam(required = false) UUID categoryId,
+            @RequestParam(defaultValue = "false") boolean includeDescendants,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) ProductStatus status,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "NEWEST") ProductSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        var filter = new ProductFilter(categoryId, includeDescendants, minPrice, maxPrice, status, inStock, q);
+        var page = productService.filterProducts(filter, sort, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    // Bucket counts for a price range slider, so clients no longer download whole result sets to compute them
+    @GetMapping("/price-histogram")
+    public ResponseEntity<PriceHistogram> findPriceHistogram(
+            @RequestParam(required = false) UUID category,
+            @RequestParam(defaultValue = "false") boolean includeDescendants,
+            @RequestParam(defaultValue = "20") int buckets) {
+        return ResponseEntity.ok(productPriceHistogramService.findActivePriceHistogram(category, includeDescendants, buckets));
     }
 
     @GetMapping("/low-stock")
@@ -66,122 +144,74 @@ public class ProductController {
 
     @PostMapping
     public ResponseEntity<ProductResponse> createProduct(@Valid @RequestBody CreateProductRequest request) {
-        try {
-            var entity = productMapper.toEntity(request);
+        var entity = productMapper.toEntity(request);
             
-            // Set category from repository
-            var category = categoryRepository.findById(request.categoryId())
-                    .orElseThrow(() -> new IllegalArgumentException("Category not found"));
-            entity.setCategory(category);
+        // Set category from repository
+        var category = categoryRepository.findById(request.categoryId())
+                .orElseThrow(() -> new UnknownCategoryException("Category not found"));
+        entity.setCategory(category);
             
-            var savedEntity = productService.createProduct(entity);
-            var response = productMapper.toResponse(savedEntity);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (DuplicateSkuException _) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
-        } catch (InactiveCategoryException _) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        } catch (IllegalArgumentException _) {
-            return ResponseEntity.badRequest().build();
-        }
+        var savedEntity = productService.createProduct(entity);
+        var response = productMapper.toResponse(savedEntity);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponse> updateProduct(
-            @PathVariable String id,
+            @PathVariable UUID id,
             @Valid @RequestBody UpdateProductRequest request) {
-        try {
-            var existingProduct = productService.findById(id);
-            productMapper.updateEntity(existingProduct, request);
-            var updatedEntity = productService.updateProduct(id, existingProduct);
-            var response = productMapper.toResponse(updatedEntity);
-            return ResponseEntity.ok(response);
-        } catch (ProductNotFoundException _) {
-            return ResponseEntity.notFound().build();
-        } catch (DuplicateSkuException _) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
-        }
+        var existingProduct = productService.findById(id);
+        productMapper.updateEntity(existingProduct, request);
+        var updatedEntity = productService.updateProduct(id, existingProduct);
+        var response = productMapper.toResponse(updatedEntity);
+        return ResponseEntity.ok(response);
     }
 
     @PutMapping("/{id}/publish")
-    public ResponseEntity<ProductResponse> publishProduct(@PathVariable String id) {
-        try {
-            var updatedProduct = productService.publishProduct(id);
-            var response = productMapper.toResponse(updatedProduct);
-            return ResponseEntity.ok(response);
-        } catch (ProductNotFoundException _) {
-            return ResponseEntity.notFound().build();
-        } catch (IllegalOperationException _) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
-        }
+    public ResponseEntity<ProductResponse> publishProduct(@PathVariable UUID id) {
+        var updatedProduct = productService.publishProduct(id);
+        var response = productMapper.toResponse(updatedProduct);
+        return ResponseEntity.ok(response);
     }
 
     @PutMapping("/{id}/discontinue")
-    public ResponseEntity<ProductResponse> discontinueProduct(@PathVariable String id) {
-        try {
-            var updatedProduct = productService.discontinueProduct(id);
-            var response = productMapper.toResponse(updatedProduct);
-            return ResponseEntity.ok(response);
-        } catch (ProductNotFoundException _) {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<ProductResponse> discontinueProduct(@PathVariable UUID id) {
+        var updatedProduct = productService.discontinueProduct(id);
+        var response = productMapper.toResponse(updatedProduct);
+        return ResponseEntity.ok(response);
     }
 
     @PutMapping("/{id}/stock/reserve")
     public ResponseEntity<Void> reserveStock(
-            @PathVariable String id,
+            @PathVariable UUID id,
             @RequestParam int quantity) {
-        try {
-            productService.reserveStock(id, quantity);
-            return ResponseEntity.ok().build();
-        } catch (ProductNotFoundException _) {
-            return ResponseEntity.notFound().build();
-        } catch (InsufficientStockException _) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
-        } catch (IllegalArgumentException _) {
-            return ResponseEntity.badRequest().build();
-        }
+        productService.reserveStock(id, quantity);
+        return ResponseEntity.ok().build();
     }
 
     @PutMapping("/{id}/stock/release")
     public ResponseEntity<Void> releaseStock(
-            @PathVariable String id,
+            @PathVariable UUID id,
             @RequestParam int quantity) {
-        try {
-            productService.releaseStock(id, quantity);
-            return ResponseEntity.ok().build();
-        } catch (ProductNotFoundException _) {
-            return ResponseEntity.notFound().build();
-        } catch (IllegalArgumentException _) {
-            return ResponseEntity.badRequest().build();
-        }
+        productService.releaseStock(id, quantity);
+        return ResponseEntity.ok().build();
     }
 
     @PutMapping("/{id}/stock/confirm")
     public ResponseEntity<Void> confirmStock(
-            @PathVariable String id,
+            @PathVariable UUID id,
             @RequestParam int quantity) {
-        try {
-            productService.confirmStock(id, quantity);
-            return ResponseEntity.ok().build();
-        } catch (ProductNotFoundException _) {
-            return ResponseEntity.notFound().build();
-        } catch (IllegalArgumentException _) {
-            return ResponseEntity.badRequest().build();
-        }
+        productService.confirmStock(id, quantity);
+        return ResponseEntity.ok().build();
     }
 
     @PutMapping("/bulk/status")
     public ResponseEntity<Void> bulkUpdateStatus(@Valid @RequestBody BulkUpdateStatusRequest request) {
-        try {
-            int updatedCount = productService.bulkUpdateStatus(request.productIds(), request.status());
-            if (updatedCount > 0) {
-                return ResponseEntity.ok().build();
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception _) {
-            return ResponseEntity.badRequest().build();
+        int updatedCount = productService.bulkUpdateStatus(request.productIds(), request.status());
+        if (updatedCount > 0) {
+            return ResponseEntity.ok().build();
+        } else {
+            return ResponseEntity.notFound().build();
         }
     }
 }
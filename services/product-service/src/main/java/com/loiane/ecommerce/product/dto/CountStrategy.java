@@ -0,0 +1,21 @@
+package com.loiane.ecommerce.product.dto;
+
+/**
+ * How the total of a paginated response is obtained.
+ */
+public enum CountStrategy {
+    /**
+     * Exact COUNT(*) on every request
+     */
+    EXACT,
+
+    /**
+     * Query planner row estimate; cheap but approximate
+     */
+    ESTIMATED,
+
+    /**
+     * Exact count cached per filter for a short TTL
+     */
+    CACHED
+}
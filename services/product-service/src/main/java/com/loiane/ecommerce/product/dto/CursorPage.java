@@ -0,0 +1,29 @@
+package com.loiane.ecommerce.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.loiane.ecommerce.product.dto.product.ProductFacets;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Lean keyset page envelope: the page items and an opaque cursor for the next page,
+ * or {@code null} when there are no more rows. Facets are only present when requested.
+ */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        @JsonInclude(JsonInclude.Include.NON_NULL) ProductFacets facets
+) {
+    public CursorPage(List<T> items, String nextCursor) {
+        this(items, nextCursor, null);
+    }
+
+    public CursorPage<T> withFacets(ProductFacets facets) {
+        return new CursorPage<>(items, nextCursor, facets);
+    }
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(items.stream().<R>map(mapper).toList(), nextCursor, facets);
+    }
+}
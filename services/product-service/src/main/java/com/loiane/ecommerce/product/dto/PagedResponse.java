@@ -0,0 +1,49 @@
+package com.loiane.ecommerce.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.loiane.ecommerce.product.dto.product.ProductFacets;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Offset page envelope that reports which {@link CountStrategy} produced {@code totalElements}.
+ * Facets are only present when requested.
+ */
+public record PagedResponse<T>(
+        List<T> content,
+        int page,
+        int size,
+        long totalElements,
+        int totalPages,
+        boolean hasNext,
+        CountStrategy countStrategy,
+        @JsonInclude(JsonInclude.Include.NON_NULL) ProductFacets facets
+) {
+    public PagedResponse(List<T> content, int page, int size, long totalElements, int totalPages, boolean hasNext,
+                         CountStrategy countStrategy) {
+        this(content, page, size, totalElements, totalPages, hasNext, countStrategy, null);
+    }
+
+    public static <T> PagedResponse<T> of(Page<T> page) {
+        return new PagedResponse<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages(), page.hasNext(), CountStrategy.EXACT);
+    }
+
+    public static <T> PagedResponse<T> of(Slice<T> slice, long totalElements, CountStrategy countStrategy) {
+        int totalPages = slice.getSize() == 0 ? 1 : (int) Math.ceil((double) totalElements / slice.getSize());
+        return new PagedResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                totalElements, totalPages, slice.hasNext(), countStrategy);
+    }
+
+    public PagedResponse<T> withFacets(ProductFacets facets) {
+        return new PagedResponse<>(content, page, size, totalElements, totalPages, hasNext, countStrategy, facets);
+    }
+
+    public <R> PagedResponse<R> map(Function<? super T, ? extends R> mapper) {
+        return new PagedResponse<>(content.stream().<R>map(mapper).toList(), page, size,
+                totalElements, totalPages, hasNext, countStrategy, facets);
+    }
+}
@@ -11,6 +11,9 @@ public record CategoryResponse(
         Integer level,
         Integer displayOrder,
         boolean active,
+        Integer activeProductCount,
+        Integer totalProductCount,
+        Integer childCount,
         CategorySummary parent,
         List<CategoryResponse> children,
         OffsetDateTime createdAt,
@@ -2,6 +2,8 @@ package com.loiane.ecommerce.product.dto.category;
 
 import jakarta.validation.constraints.*;
 
+import java.util.UUID;
+
 public record CreateCategoryRequest(
         @NotBlank(message = "Category name is required")
         @Size(min = 2, max = 100, message = "Category name must be between 2 and 100 characters")
@@ -15,13 +17,13 @@ public record CreateCategoryRequest(
         @Size(max = 500, message = "Description cannot exceed 500 characters")
         String description,
         
-        String parentId,
+        UUID parentId,
         
         @Min(value = 0, message = "Display order cannot be negative")
         Integer displayOrder
 ) {
     // Provide default values through a static factory method if needed
-    public static CreateCategoryRequest withDefaults(String name, String slug, String description, String parentId) {
+    public static CreateCategoryRequest withDefaults(String name, String slug, String description, UUID parentId) {
         return new CreateCategoryRequest(name, slug, description, parentId, 0);
     }
 }
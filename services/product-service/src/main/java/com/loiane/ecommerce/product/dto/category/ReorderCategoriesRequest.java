@@ -0,0 +1,13 @@
+package com.loiane.ecommerce.product.dto.category;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+
+public record ReorderCategoriesRequest(
+        @NotEmpty(message = "Display orders cannot be empty")
+        Map<UUID, @NotNull @Min(value = 0, message = "Display order cannot be negative") Integer> displayOrders
+) {}
@@ -0,0 +1,5 @@
+package com.loiane.ecommerce.product.dto.category;
+
+public record ReorderCategoriesResponse(
+        int updatedCount
+) {}
@@ -0,0 +1,6 @@
+package com.loiane.ecommerce.product.dto.category;
+
+public record SubtreeOperationResponse(
+        String rootCategoryId,
+        int affectedCategories
+) {}
@@ -5,13 +5,14 @@ import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Request DTO for bulk updating product status.
  */
 public record BulkUpdateStatusRequest(
         @NotEmpty(message = "Product IDs list cannot be empty")
-        List<String> productIds,
+        List<UUID> productIds,
         
         @NotNull(message = "Product status is required")
         ProductStatus status
@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 /**
  * Request DTO for creating a new product.
@@ -22,8 +23,8 @@ public record CreateProductRequest(
         @Positive(message = "Base price must be positive")
         BigDecimal basePrice,
         
-        @NotBlank(message = "Category ID is required")
-        String categoryId,
+        @NotNull(message = "Category ID is required")
+        UUID categoryId,
         
         @Positive(message = "Stock quantity must be positive")
         Integer stockQuantity,
@@ -0,0 +1,13 @@
+package com.loiane.ecommerce.product.dto.product;
+
+/**
+ * Number of matching products that share one facet value.
+ *
+ * @param value filterable value: a category id, a status, IN_STOCK/OUT_OF_STOCK, or a price band such as "25-50" or "500+"
+ * @param label display name, for categories only
+ */
+public record FacetCount(
+        String value,
+        String label,
+        long count
+) {}
@@ -0,0 +1,21 @@
+package com.loiane.ecommerce.product.dto.product;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Equal-width price buckets over active products, for price range sliders. {@code minPrice} and
+ * {@code maxPrice} are the lowest and highest base price; both are {@code null} and {@code buckets} is
+ * empty when there are no active products.
+ */
+public record PriceHistogram(
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        long productCount,
+        List<Bucket> buckets
+) {
+    /**
+     * Products priced from {@code from} (inclusive) up to {@code to}; the last bucket includes {@code to}.
+     */
+    public record Bucket(BigDecimal from, BigDecimal to, long count) {}
+}
@@ -0,0 +1,13 @@
+package com.loiane.ecommerce.product.dto.product;
+
+import java.util.List;
+
+/**
+ * Facet counts over every product matching a search or listing, not just the current page.
+ */
+public record ProductFacets(
+        List<FacetCount> categories,
+        List<FacetCount> statuses,
+        List<FacetCount> availability,
+        List<FacetCount> priceBands
+) {}
@@ -0,0 +1,33 @@
+package com.loiane.ecommerce.product.dto.product;
+
+import com.loiane.ecommerce.product.entity.ProductStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Everything the search index stores or matches for one product: the listing columns plus the
+ * searchable text, including the long description from the side table.
+ */
+public record ProductIndexRow(
+        UUID id,
+        String name,
+        String shortDescription,
+        String description,
+        String sku,
+        BigDecimal basePrice,
+        ProductStatus status,
+        Integer stockQuantity,
+        Integer reservedQuantity,
+        Boolean available,
+        OffsetDateTime publishedAt,
+        UUID categoryId,
+        String categoryName,
+        String categorySlug
+) {
+    public ProductListItem toListItem() {
+        return new ProductListItem(id, name, sku, basePrice, status, stockQuantity, reservedQuantity, publishedAt,
+                categoryId, categoryName, categorySlug);
+    }
+}
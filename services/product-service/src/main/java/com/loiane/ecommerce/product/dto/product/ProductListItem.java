@@ -0,0 +1,33 @@
+package com.loiane.ecommerce.product.dto.product;
+
+import com.loiane.ecommerce.product.entity.ProductStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Listing projection of a Product: only the columns a catalog page shows, with its category joined in.
+ */
+public record ProductListItem(
+        String id,
+        String name,
+        String sku,
+        BigDecimal basePrice,
+        ProductStatus status,
+        CategorySummary category,
+        Integer stockQuantity,
+        Integer reservedQuantity,
+        OffsetDateTime publishedAt
+) {
+    /**
+     * Flat constructor targeted by JPQL constructor expressions.
+     */
+    public ProductListItem(UUID id, String name, String sku, BigDecimal basePrice, ProductStatus status,
+                           Integer stockQuantity, Integer reservedQuantity, OffsetDateTime publishedAt,
+                           UUID categoryId, String categoryName, String categorySlug) {
+        this(id.toString(), name, sku, basePrice, status,
+                categoryId != null ? new CategorySummary(categoryId.toString(), categoryName, categorySlug) : null,
+                stockQuantity, reservedQuantity, publishedAt);
+    }
+}
@@ -0,0 +1,13 @@
+package com.loiane.ecommerce.product.dto.product;
+
+import java.util.UUID;
+
+/**
+ * What autocomplete needs from one active product: the texts it suggests and a popularity weight.
+ */
+public record ProductSuggestRow(
+        UUID id,
+        String name,
+        String sku,
+        Integer reservedQuantity
+) {}
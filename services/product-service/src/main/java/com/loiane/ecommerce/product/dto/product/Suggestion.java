@@ -0,0 +1,19 @@
+package com.loiane.ecommerce.product.dto.product;
+
+/**
+ * One autocomplete entry.
+ *
+ * @param text what to show and, once picked, what to search for
+ * @param id   the product or category it leads to
+ */
+public record Suggestion(
+        String text,
+        Type type,
+        String id
+) {
+    public enum Type {
+        PRODUCT,
+        SKU,
+        CATEGORY
+    }
+}
@@ -4,19 +4,21 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.UUID;
 
 @Entity
 @Table(name = "categories")
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
 
     @NotBlank(message = "Category name is required")
     @Size(max = 100, message = "Category name must not exceed 100 characters")
@@ -53,6 +55,19 @@ public class Category {
     @OneToMany(mappedBy = "category", fetch = FetchType.LAZY)
     private List<Product> products = new ArrayList<>();
 
+    // Denormalized counters, maintained with atomic SQL increments by the service layer
+    @Column(name = "active_product_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private Integer activeProductCount = 0;
+
+    @Column(name = "total_product_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private Integer totalProductCount = 0;
+
+    @Column(name = "child_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private Integer childCount = 0;
+
     // Timestamps
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -119,11 +134,11 @@ public class Category {
     }
 
     // Getters and Setters
-    public String getId() {
+    public UUID getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(UUID id) {
         this.id = id;
     }
 
@@ -199,6 +214,30 @@ public class Category {
         this.products = products;
     }
 
+    public Integer getActiveProductCount() {
+        return activeProductCount;
+    }
+
+    public void setActiveProductCount(Integer activeProductCount) {
+        this.activeProductCount = activeProductCount;
+    }
+
+    public Integer getTotalProductCount() {
+        return totalProductCount;
+    }
+
+    public void setTotalProductCount(Integer totalProductCount) {
+        this.totalProductCount = totalProductCount;
+    }
+
+    public Integer getChildCount() {
+        return childCount;
+    }
+
+    public void setChildCount(Integer childCount) {
+        this.childCount = childCount;
+    }
+
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
@@ -4,25 +4,28 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.Objects;
+import java.util.UUID;
 
 @Entity
 @Table(name = "products")
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private String id;
+    @UuidGenerator(algorithm = UuidV7Generator.class)
+    private UUID id;
 
     @NotBlank(message = "Product name is required")
     @Size(max = 255, message = "Product name must not exceed 255 characters")
     @Column(nullable = false)
     private String name;
 
-    @Column(columnDefinition = "TEXT")
+    // Stored in product_descriptions (see ProductDescription); only populated when explicitly requested
+    @Transient
     private String description;
 
     @Size(max = 500, message = "Short description must not exceed 500 characters")
@@ -65,6 +68,10 @@ public class Product {
     @Column(name = "track_inventory", nullable = false)
     private Boolean trackInventory = true;
 
+    // isInStock() as a column, so in-stock listings can filter through an index; see refreshAvailability()
+    @Column(nullable = false)
+    private Boolean available = false;
+
     // Timestamps
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -96,6 +103,14 @@ public class Product {
         return !trackInventory || getAvailableQuantity() > 0;
     }
 
+    /**
+     * Brings the stored {@code available} flag in line with {@link #isInStock()}. Every write to the stock
+     * quantities or to {@code trackInventory} must call it before the product is saved.
+     */
+    public void refreshAvailability() {
+        this.available = isInStock();
+    }
+
     public boolean isLowStock() {
         return trackInventory && getAvailableQuantity() <= lowStockThreshold;
     }
@@ -119,11 +134,11 @@ public class Product {
     }
 
     // Getters and Setters
-    public String getId() {
+    public UUID getId() {
         return id;
     }
 
-    public void setId(String id) {
+    public void setId(UUID id) {
         this.id = id;
     }
 
@@ -219,6 +234,10 @@ public class Product {
         this.trackInventory = trackInventory;
     }
 
+    public Boolean getAvailable() {
+        return available;
+    }
+
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
@@ -377,6 +396,7 @@ public class Product {
             product.createdAt = this.createdAt;
             product.updatedAt = this.updatedAt;
             product.publishedAt = this.publishedAt;
+            product.refreshAvailability();
             return product;
         }
     }
@@ -0,0 +1,74 @@
+package com.loiane.ecommerce.product.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Long-form (often rich HTML) product description, kept out of the products row so that
+ * listing, inventory and bulk paths never read it. Shares its primary key with the product.
+ */
+@Entity
+@Table(name = "product_descriptions")
+public class ProductDescription {
+
+    @Id
+    @Column(name = "product_id")
+    private UUID productId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String content;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private OffsetDateTime updatedAt;
+
+    public ProductDescription() {}
+
+    public ProductDescription(Product product, String content) {
+        this.product = product;
+        this.content = content;
+    }
+
+    public UUID getProductId() {
+        return productId;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public OffsetDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ProductDescription that = (ProductDescription) o;
+        return Objects.equals(productId, that.productId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId);
+    }
+}
@@ -0,0 +1,49 @@
+package com.loiane.ecommerce.product.entity;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * How often a normalized {@code /search} query was asked, recently weighted. Written in batches by
+ * {@code SearchQueryLog}; the search result cache warms the most asked ones on startup.
+ */
+@Entity
+@Table(name = "search_queries")
+public class SearchQuery {
+
+    @EmbeddedId
+    private SearchQueryId id;
+
+    @Column(name = "search_count", nullable = false)
+    private Long searchCount;
+
+    public SearchQuery() {}
+
+    public SearchQuery(SearchQueryId id, Long searchCount) {
+        this.id = id;
+        this.searchCount = searchCount;
+    }
+
+    public SearchQueryId getId() {
+        return id;
+    }
+
+    public Long getSearchCount() {
+        return searchCount;
+    }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SearchQuery that = (SearchQuery) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,50 @@
+package com.loiane.ecommerce.product.entity;
+
+import com.loiane.ecommerce.product.repository.SearchMode;
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Key of a {@link SearchQuery}: the search mode and the normalized query text.
+ */
+@Embeddable
+public class SearchQueryId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "search_mode", nullable = false, length = 20)
+    private SearchMode searchMode;
+
+    @Column(nullable = false, length = 255)
+    private String query;
+
+    public SearchQueryId() {}
+
+    public SearchQueryId(SearchMode searchMode, String query) {
+        this.searchMode = searchMode;
+        this.query = query;
+    }
+
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    // equals and hashCode
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SearchQueryId that = (SearchQueryId) o;
+        return searchMode == that.searchMode && Objects.equals(query, that.query);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(searchMode, query);
+    }
+}
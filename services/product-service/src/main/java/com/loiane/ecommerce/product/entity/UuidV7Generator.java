@@ -0,0 +1,51 @@
+package com.loiane.ecommerce.product.entity;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Time-ordered UUID version 7 (RFC 9562): a 48-bit Unix millisecond timestamp followed by random bits.
+ * New ids land at the right-hand edge of the primary key btree instead of on random pages.
+ * <p>
+ * The 12-bit {@code rand_a} field is used as a counter within the same millisecond so ids generated by
+ * one JVM are strictly increasing (RFC 9562, section 6.2, method 1).
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int MAX_COUNTER = 0xFFF;
+
+    private static long lastTimestamp;
+    private static int counter;
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    public static UUID next() {
+        long timestamp;
+        int sequence;
+        synchronized (UuidV7Generator.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastTimestamp) {
+                lastTimestamp = now;
+                // Start low in the counter space so a burst within one millisecond rarely overflows it
+                counter = RANDOM.nextInt(MAX_COUNTER + 1) >>> 1;
+            } else if (++counter > MAX_COUNTER) {
+                // Counter exhausted (or clock went backwards): borrow the next millisecond
+                lastTimestamp++;
+                counter = 0;
+            }
+            timestamp = lastTimestamp;
+            sequence = counter;
+        }
+
+        long mostSignificantBits = (timestamp << 16) | 0x7000L | sequence;
+        long leastSignificantBits = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
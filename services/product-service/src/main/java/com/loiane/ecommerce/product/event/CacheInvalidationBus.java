@@ -0,0 +1,238 @@
+package com.loiane.ecommerce.product.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loiane.ecommerce.product.event.ProductChangedEvent.Placement;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Keeps the local caches of every instance coherent over PostgreSQL {@code LISTEN/NOTIFY}, without a
+ * broker of its own.
+ * <p>
+ * A transaction publishing product, category or price events also sends them, with the ids they carry, as
+ * a notification on {@code product.cache-bus.channel}. {@code NOTIFY} is transactional: the other instances
+ * hear of a write only once it has committed, and never of one that rolled back. Each instance listens on a
+ * dedicated connection outside the pool and republishes what other instances sent as local events, so the
+ * listeners that keep caches and indexes in step handle them like their own writes. Notifications sent
+ * while the listener is disconnected are lost, so every (re)connect clears all local caches.
+ */
+@Component
+@ConditionalOnProperty(name = "product.cache-bus.enabled", havingValue = "true")
+public class CacheInvalidationBus implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    // PostgreSQL refuses payloads of 8000 bytes or more; longer id lists are split across notifications
+    private static final int MAX_PAYLOAD = 7900;
+    private static final int MAX_IDS = 100;
+    private static final int POLL_MILLIS = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcConnectionDetails connectionDetails;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final Duration reconnectDelay;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile boolean running;
+    private Thread listener;
+
+    public CacheInvalidationBus(JdbcTemplate jdbcTemplate, JdbcConnectionDetails connectionDetails,
+                                ApplicationEventPublisher eventPublisher, CacheManager cacheManager,
+                                ObjectMapper objectMapper,
+                                @Value("${product.cache-bus.channel:product_cache}") String channel,
+                                @Value("${product.cache-bus.reconnect-delay:5s}") Duration reconnectDelay) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("product.cache-bus.channel must be a lowercase identifier: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.connectionDetails = connectionDetails;
+        this.eventPublisher = eventPublisher;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    // Before commit, inside the writing transaction: the notification is delivered when, and only if, it commits
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        send(Type.PRODUCT, List.copyOf(event.productIds()), List.copyOf(event.placements()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        send(Type.CATEGORY, List.copyOf(event.categoryIds()), List.of());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onPricesChanged(ProductPricesChangedEvent event) {
+        send(Type.PRICES, List.copyOf(event.categoryIds()), List.of());
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        // Subscribed before the application is ready, so that its cache flush never empties what the startup
+        // warm-up loads; the listener thread retries when the database cannot be reached yet
+        Connection subscribed;
+        try {
+            subscribed = subscribe();
+        } catch (SQLException _) {
+            subscribed = null;
+        }
+        Connection first = subscribed;
+        listener = Thread.ofPlatform().name("cache-bus-listener").daemon().start(() -> listen(first));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void send(Type type, List<UUID> ids, List<Placement> placements) {
+        String payload = encode(new Message(instanceId, type, ids, placements));
+        if (payload.length() <= MAX_PAYLOAD) {
+            notify(payload);
+            return;
+        }
+        // Without placements, listeners assume any placement, which only invalidates more
+        for (int from = 0; from < ids.size(); from += MAX_IDS) {
+            List<UUID> chunk = ids.subList(from, Math.min(from + MAX_IDS, ids.size()));
+            notify(encode(new Message(instanceId, type, chunk, List.of())));
+        }
+    }
+
+    private void notify(String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+    }
+
+    private void listen(Connection first) {
+        Connection subscribed = first;
+        while (running) {
+            try (Connection connection = subscribed != null ? subscribed : subscribe()) {
+                subscribed = null;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    for (PGNotification notification : Objects.requireNonNullElse(notifications, new PGNotification[0])) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener disconnected, reconnecting in {}: {}", reconnectDelay, e.getMessage());
+                    pause();
+                }
+            }
+        }
+    }
+
+    private Connection subscribe() throws SQLException {
+        Connection connection = connect();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LISTEN " + channel);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        // Whatever was sent while no one listened is lost
+        clearCaches();
+        log.info("Listening for cache invalidations on channel {}", channel);
+        return connection;
+    }
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", connectionDetails.getUsername());
+        properties.setProperty("password", connectionDetails.getPassword());
+        properties.setProperty("ApplicationName", "product-service-cache-bus");
+        properties.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(connectionDetails.getJdbcUrl(), properties);
+    }
+
+    void receive(String payload) {
+        try {
+            Message message = objectMapper.readValue(payload, Message.class);
+            if (instanceId.equals(message.origin())) {
+                return;
+            }
+            // Published outside a transaction; the listeners run at once (fallbackExecution)
+            switch (message.type()) {
+                case PRODUCT -> eventPublisher.publishEvent(new ProductChangedEvent(message.ids(), message.placements()));
+                case CATEGORY -> eventPublisher.publishEvent(new CategoryChangedEvent(message.ids()));
+                case PRICES -> eventPublisher.publishEvent(new ProductPricesChangedEvent(message.ids()));
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Could not apply cache invalidation '{}', clearing all caches: {}", payload, e.getMessage());
+            clearCaches();
+        }
+    }
+
+    private void clearCaches() {
+        cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(Objects::nonNull)
+                .forEach(Cache::clear);
+    }
+
+    private String encode(Message message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode cache invalidation " + message, e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(reconnectDelay);
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    enum Type {
+        PRODUCT, CATEGORY, PRICES
+    }
+
+    /**
+     * One notification: what changed, and which instance changed it so that it can ignore its own.
+     */
+    record Message(String origin, Type type, List<UUID> ids, List<Placement> placements) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.loiane.ecommerce.product.event;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published by the service layer whenever a category is created, renamed, moved, deactivated or deleted.
+ * Subtree operations name every category of the subtree, so that listeners keyed by category need not
+ * walk the tree, which a delete has already removed. A move names only the moved category.
+ * Like {@link ProductChangedEvent}, listeners should react after commit.
+ */
+public record CategoryChangedEvent(Set<UUID> categoryIds) {
+
+    public CategoryChangedEvent(Collection<UUID> categoryIds) {
+        this(Set.copyOf(categoryIds));
+    }
+
+    public CategoryChangedEvent(UUID categoryId) {
+        this(Set.of(categoryId));
+    }
+}
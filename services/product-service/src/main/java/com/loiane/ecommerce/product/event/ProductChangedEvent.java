@@ -0,0 +1,40 @@
+package com.loiane.ecommerce.product.event;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published by the service layer whenever products are written. Listeners that keep derived state
+ * (such as the search index) in step should react after commit, so they never see a rolled-back write.
+ * <p>
+ * {@code placements} holds where the written products sat before and after the write, for listeners that
+ * invalidate by category or price. It is empty when the publisher does not know them, in which case such
+ * listeners must assume any placement.
+ * <p>
+ * Writes committed by other instances arrive through {@link CacheInvalidationBus}, published outside any
+ * transaction; listeners set {@code fallbackExecution} so that they receive those too. The same goes for
+ * {@link CategoryChangedEvent} and {@link ProductPricesChangedEvent}.
+ */
+public record ProductChangedEvent(Set<UUID> productIds, Set<Placement> placements) {
+
+    /**
+     * A product's category ({@code null} when uncategorized) and base price.
+     */
+    public record Placement(UUID categoryId, BigDecimal basePrice) {
+    }
+
+    public ProductChangedEvent(Collection<UUID> productIds, Collection<Placement> placements) {
+        this(Set.copyOf(productIds), Set.copyOf(placements));
+    }
+
+    public ProductChangedEvent(Collection<UUID> productIds) {
+        this(productIds, Set.of());
+    }
+
+    public static ProductChangedEvent of(UUID productId, Placement... placements) {
+        return new ProductChangedEvent(List.of(productId), List.of(placements));
+    }
+}
@@ -0,0 +1,18 @@
+package com.loiane.ecommerce.product.event;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published by the service layer when the prices of the active products in some categories change: a
+ * base price edit, a product entering or leaving the active set, or one moving between categories.
+ * {@code categoryIds} leaves out uncategorized products, which only the catalog-wide figures include.
+ * Like {@link ProductChangedEvent}, listeners should react after commit.
+ */
+public record ProductPricesChangedEvent(Set<UUID> categoryIds) {
+
+    public ProductPricesChangedEvent(Collection<UUID> categoryIds) {
+        this(Set.copyOf(categoryIds));
+    }
+}
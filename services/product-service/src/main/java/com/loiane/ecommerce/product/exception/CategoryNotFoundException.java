@@ -3,7 +3,7 @@ package com.loiane.ecommerce.product.exception;
 /**
  * Exception thrown when attempting to find a category that does not exist.
  */
-public class CategoryNotFoundException extends RuntimeException {
+public class CategoryNotFoundException extends DomainException {
     
     public CategoryNotFoundException(String message) {
         super(message);
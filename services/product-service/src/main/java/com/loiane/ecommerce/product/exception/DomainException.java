@@ -0,0 +1,17 @@
+package com.loiane.ecommerce.product.exception;
+
+/**
+ * Base of the business exceptions, which the API answers with a status code rather than a stack trace.
+ * They carry no stack trace of their own: filling one in cost more than the lookup that failed, on paths
+ * such as not-found ids that bots request over and over. The message and cause still tell what happened.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+
+    protected DomainException(String message, Throwable cause) {
+        super(message, cause, false, false);
+    }
+}
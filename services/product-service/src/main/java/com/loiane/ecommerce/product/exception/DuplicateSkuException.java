@@ -3,7 +3,7 @@ package com.loiane.ecommerce.product.exception;
 /**
  * Exception thrown when attempting to create a product with a SKU that already exists.
  */
-public class DuplicateSkuException extends RuntimeException {
+public class DuplicateSkuException extends DomainException {
     
     public DuplicateSkuException(String message) {
         super(message);
@@ -3,7 +3,7 @@ package com.loiane.ecommerce.product.exception;
 /**
  * Exception thrown when attempting to create a category with a slug that already exists.
  */
-public class DuplicateSlugException extends RuntimeException {
+public class DuplicateSlugException extends DomainException {
     
     public DuplicateSlugException(String message) {
         super(message);
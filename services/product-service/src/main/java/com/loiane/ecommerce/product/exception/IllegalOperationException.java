@@ -3,7 +3,7 @@ package com.loiane.ecommerce.product.exception;
 /**
  * Exception thrown when attempting to perform an illegal or invalid business operation.
  */
-public class IllegalOperationException extends RuntimeException {
+public class IllegalOperationException extends DomainException {
     
     public IllegalOperationException(String message) {
         super(message);
@@ -3,7 +3,7 @@ package com.loiane.ecommerce.product.exception;
 /**
  * Exception thrown when attempting to add a product to an inactive category.
  */
-public class InactiveCategoryException extends RuntimeException {
+public class InactiveCategoryException extends DomainException {
     
     public InactiveCategoryException(String message) {
         super(message);
@@ -3,7 +3,7 @@ package com.loiane.ecommerce.product.exception;
 /**
  * Exception thrown when there is insufficient stock to fulfill a reservation request.
  */
-public class InsufficientStockException extends RuntimeException {
+public class InsufficientStockException extends DomainException {
     
     public InsufficientStockException(String message) {
         super(message);
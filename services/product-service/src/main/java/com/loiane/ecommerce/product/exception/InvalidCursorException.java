@@ -0,0 +1,15 @@
+package com.loiane.ecommerce.product.exception;
+
+/**
+ * Exception thrown when a page cursor is malformed or was issued for another sort or search mode.
+ */
+public class InvalidCursorException extends DomainException {
+    
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+    
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.loiane.ecommerce.product.exception;
+
+/**
+ * Exception thrown when a product filter's minimum price exceeds its maximum.
+ */
+public class InvalidPriceRangeException extends DomainException {
+    
+    public InvalidPriceRangeException(String message) {
+        super(message);
+    }
+    
+    public InvalidPriceRangeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.loiane.ecommerce.product.exception;
+
+/**
+ * Exception thrown when a listing is asked for a sort order that no index serves.
+ */
+public class InvalidSortException extends DomainException {
+    
+    public InvalidSortException(String message) {
+        super(message);
+    }
+    
+    public InvalidSortException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -3,7 +3,7 @@ package com.loiane.ecommerce.product.exception;
 /**
  * Exception thrown when attempting to find a product that does not exist.
  */
-public class ProductNotFoundException extends RuntimeException {
+public class ProductNotFoundException extends DomainException {
     
     public ProductNotFoundException(String message) {
         super(message);
@@ -3,7 +3,7 @@ package com.loiane.ecommerce.product.exception;
 /**
  * Exception thrown when attempting to create a product with a SKU that already exists.
  */
-public class SkuAlreadyExistsException extends RuntimeException {
+public class SkuAlreadyExistsException extends DomainException {
     
     public SkuAlreadyExistsException(String message) {
         super(message);
@@ -0,0 +1,15 @@
+package com.loiane.ecommerce.product.exception;
+
+/**
+ * Exception thrown when a product is assigned a category that does not exist.
+ */
+public class UnknownCategoryException extends DomainException {
+    
+    public UnknownCategoryException(String message) {
+        super(message);
+    }
+    
+    public UnknownCategoryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,178 @@
+package com.loiane.ecommerce.product.job;
+
+import com.loiane.ecommerce.product.dto.CountStrategy;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductFilter;
+import com.loiane.ecommerce.product.repository.ProductSort;
+import com.loiane.ecommerce.product.search.SearchResultCache;
+import com.loiane.ecommerce.product.service.CategoryService;
+import com.loiane.ecommerce.product.service.ProductCountService;
+import com.loiane.ecommerce.product.service.ProductFacetService;
+import com.loiane.ecommerce.product.service.ProductPriceHistogramService;
+import com.loiane.ecommerce.product.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warms a starting instance before it takes traffic, so that a rollout does not put cold instances behind
+ * the load balancer, each sending its first requests straight to the database: fills the category tree, the
+ * listing totals, the listing facets, the first page of the newest products, the first listing pages and
+ * price histograms of the categories with the most active products, the catalog's price histogram, and the
+ * results of the most asked searches. Only reads with a local cache behind them are loaded; the others would
+ * be read again by the first request anyway. There are no view counts to rank products by, so the newest
+ * stand in for the most viewed.
+ * <p>
+ * The loads run in parallel on a few threads of their own, fewer than the connection pool holds, and are
+ * given up on once the time budget runs out.
+ */
+@Component
+public class CacheWarmUpJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmUpJob.class);
+
+    // The histogram endpoint's default bucket count: the requests clients send most
+    private static final int HISTOGRAM_BUCKETS = 20;
+    // Likewise the listing endpoints' default page size and order
+    private static final int LISTING_PAGE_SIZE = 20;
+    private static final ProductSort LISTING_SORT = ProductSort.NEWEST;
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+    private final ProductService productService;
+    private final ProductCountService productCountService;
+    private final ProductFacetService productFacetService;
+    private final ProductPriceHistogramService productPriceHistogramService;
+    private final SearchResultCache searchResultCache;
+    private final boolean enabled;
+    private final int parallelism;
+    private final Duration budget;
+    private final int categories;
+
+    public CacheWarmUpJob(CategoryRepository categoryRepository, CategoryService categoryService,
+                          ProductService productService, ProductCountService productCountService,
+                          ProductFacetService productFacetService,
+                          ProductPriceHistogramService productPriceHistogramService,
+                          SearchResultCache searchResultCache,
+                          @Value("${product.warm-up.enabled:true}") boolean enabled,
+                          @Value("${product.warm-up.parallelism:4}") int parallelism,
+                          @Value("${product.warm-up.budget:30s}") Duration budget,
+                          @Value("${product.warm-up.categories:20}") int categories) {
+        this.categoryRepository = categoryRepository;
+        this.categoryService = categoryService;
+        this.productService = productService;
+        this.productCountService = productCountService;
+        this.productFacetService = productFacetService;
+        this.productPriceHistogramService = productPriceHistogramService;
+        this.searchResultCache = searchResultCache;
+        this.enabled = enabled;
+        this.parallelism = Math.max(parallelism, 1);
+        this.budget = budget;
+        this.categories = categories;
+    }
+
+    // Last of the startup listeners, after the search index is built. Spring Boot reports the instance ready
+    // (readinessState) only once every ApplicationReadyEvent listener has returned, so this holds it back
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long deadline = System.nanoTime() + budget.toNanos();
+        List<Load> loads = loads();
+        AtomicInteger done = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                Thread.ofPlatform().name("cache-warm-up-", 0).daemon().factory());
+        try {
+            CompletableFuture<?>[] running = loads.stream()
+                    .map(load -> CompletableFuture.runAsync(() -> run(load, done), executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(running).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException _) {
+            log.warn("Cache warm-up ran out of its {} budget, taking traffic with {} of {} loads done",
+                    budget, done.get(), loads.size());
+        } catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // run() catches what a load throws
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Warmed the caches with {} of {} loads", done.get(), loads.size());
+    }
+
+    private List<Load> loads() {
+        List<Load> loads = new ArrayList<>();
+        loads.add(new Load("category tree", categoryService::getCategoryHierarchy));
+        for (boolean inStockOnly : new boolean[]{true, false}) {
+            for (boolean publishedOnly : new boolean[]{true, false}) {
+                loads.add(new Load("listing total", () -> productCountService.countActiveProducts(
+                        CountStrategy.CACHED, inStockOnly, publishedOnly)));
+            }
+        }
+        loads.add(new Load("listing facets", () -> productFacetService.findActiveProductFacets(null, null, false)));
+        loads.add(new Load("newest products",
+                () -> productService.scrollActiveProducts(LISTING_SORT, null, LISTING_PAGE_SIZE)));
+        loads.add(new Load("catalog price histogram",
+                () -> productPriceHistogramService.findActivePriceHistogram(null, false, HISTOGRAM_BUCKETS)));
+        for (UUID categoryId : busiestCategoryIds()) {
+            for (boolean includeDescendants : new boolean[]{false, true}) {
+                ProductFilter listing = new ProductFilter(categoryId, includeDescendants, null, null, null, false, null);
+                loads.add(new Load("category " + categoryId + " listing",
+                        () -> productService.filterProducts(listing, LISTING_SORT, null, LISTING_PAGE_SIZE)));
+                loads.add(new Load("category " + categoryId + " price histogram",
+                        () -> productPriceHistogramService.findActivePriceHistogram(categoryId, includeDescendants,
+                                HISTOGRAM_BUCKETS)));
+            }
+        }
+        searchResultCache.warmUpLoads().forEach(load -> loads.add(new Load("search query", load)));
+        return loads;
+    }
+
+    private List<UUID> busiestCategoryIds() {
+        if (categories <= 0) {
+            return List.of();
+        }
+        try {
+            return categoryRepository.findByIsActiveTrueOrderByActiveProductCountDesc(Limit.of(categories)).stream()
+                    .map(Category::getId)
+                    .toList();
+        } catch (RuntimeException e) {
+            log.warn("Could not find the busiest categories to warm: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static void run(Load load, AtomicInteger done) {
+        try {
+            load.action().run();
+            done.incrementAndGet();
+        } catch (RuntimeException e) {
+            log.warn("Could not warm {}: {}", load.name(), e.getMessage());
+        }
+    }
+
+    private record Load(String name, Runnable action) {
+    }
+}
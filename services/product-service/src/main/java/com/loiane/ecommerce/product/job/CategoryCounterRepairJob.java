@@ -0,0 +1,29 @@
+package com.loiane.ecommerce.product.job;
+
+import com.loiane.ecommerce.product.service.CategoryService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically recomputes the denormalized category counters in bulk, correcting any drift
+ * introduced by writes that bypass the service layer.
+ */
+@Component
+public class CategoryCounterRepairJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryCounterRepairJob.class);
+
+    private final CategoryService categoryService;
+
+    public CategoryCounterRepairJob(CategoryService categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    @Scheduled(cron = "${product.category-counters.repair-cron:0 0 3 * * *}")
+    public void repairCounters() {
+        int updated = categoryService.repairCounters();
+        log.info("Recomputed counters for {} categories", updated);
+    }
+}
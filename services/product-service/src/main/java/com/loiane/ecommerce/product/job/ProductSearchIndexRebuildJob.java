@@ -0,0 +1,47 @@
+package com.loiane.ecommerce.product.job;
+
+import com.loiane.ecommerce.product.search.LuceneIndexUpdater;
+import com.loiane.ecommerce.product.search.LuceneProductSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the Lucene product index from the database: on startup when the index is empty, and
+ * periodically to pick up writes made through other nodes or outside the service layer.
+ */
+@Component
+@ConditionalOnProperty(name = "product.search.engine", havingValue = "lucene")
+public class ProductSearchIndexRebuildJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndexRebuildJob.class);
+
+    private final LuceneProductSearchIndex index;
+    private final LuceneIndexUpdater updater;
+
+    public ProductSearchIndexRebuildJob(LuceneProductSearchIndex index, LuceneIndexUpdater updater) {
+        this.index = index;
+        this.updater = updater;
+    }
+
+    // Ahead of the other startup listeners, so the search cache never warms up from an empty index
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void rebuildIfEmpty() {
+        if (index.isEmpty()) {
+            rebuildIndex();
+        }
+    }
+
+    @Scheduled(cron = "${product.search.lucene.rebuild-cron:0 30 3 * * *}")
+    public void rebuildIndex() {
+        int indexed = updater.rebuild();
+        log.info("Rebuilt the product search index with {} products", indexed);
+    }
+}
@@ -5,24 +5,61 @@ import com.loiane.ecommerce.product.entity.Category;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
 
 @Component
 public class CategoryMapper {
     
+    // Children are mapped one level deep; their own childCount tells clients whether to drill down
     public CategoryResponse toResponse(Category category) {
         if (category == null) return null;
-        
+
+        var children = category.getChildren() == null ? List.<CategoryResponse>of() : category.getChildren().stream()
+                .map(child -> toResponse(child, List.of()))
+                .toList();
+        return toResponse(category, children);
+    }
+
+    // Builds every node's subtree from a single flat list instead of walking lazy children collections
+    public List<CategoryResponse> toResponseTree(List<Category> categories) {
+        if (categories == null) return new ArrayList<>();
+
+        Map<UUID, List<Category>> childrenByParentId = new HashMap<>();
+        for (Category category : categories) {
+            if (category.getParent() != null) {
+                childrenByParentId.computeIfAbsent(category.getParent().getId(), _ -> new ArrayList<>()).add(category);
+            }
+        }
+        return categories.stream()
+                .map(category -> toTreeResponse(category, childrenByParentId))
+                .toList();
+    }
+
+    private CategoryResponse toTreeResponse(Category category, Map<UUID, List<Category>> childrenByParentId) {
+        var children = childrenByParentId.getOrDefault(category.getId(), List.of()).stream()
+                .map(child -> toTreeResponse(child, childrenByParentId))
+                .toList();
+        return toResponse(category, children);
+    }
+
+    private CategoryResponse toResponse(Category category, List<CategoryResponse> children) {
         return new CategoryResponse(
-                category.getId(),
+                Objects.toString(category.getId(), null),
                 category.getName(),
                 category.getSlug(),
                 category.getDescription(),
                 category.getLevel(),
                 category.getDisplayOrder(),
                 category.getIsActive(),
+                category.getActiveProductCount(),
+                category.getTotalProductCount(),
+                category.getChildCount(),
                 toSummary(category.getParent()),
-                toResponseList(category.getChildren()),
+                children,
                 category.getCreatedAt(),
                 category.getUpdatedAt()
         );
@@ -32,7 +69,7 @@ public class CategoryMapper {
         if (category == null) return null;
         
         return new CategorySummary(
-                category.getId(),
+                Objects.toString(category.getId(), null),
                 category.getName(),
                 category.getSlug()
         );
@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 @Component
 public class ProductMapper {
@@ -16,7 +17,7 @@ public class ProductMapper {
         if (product == null) return null;
         
         return new ProductResponse(
-                product.getId(),
+                Objects.toString(product.getId(), null),
                 product.getName(),
                 product.getSku(),
                 product.getDescription(),
@@ -37,7 +38,7 @@ public class ProductMapper {
         if (category == null) return null;
         
         return new CategorySummary(
-                category.getId(),
+                Objects.toString(category.getId(), null),
                 category.getName(),
                 category.getSlug()
         );
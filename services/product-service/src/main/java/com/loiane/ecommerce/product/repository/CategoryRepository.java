@@ -1,15 +1,19 @@
 package com.loiane.ecommerce.product.repository;
 
 import com.loiane.ecommerce.product.entity.Category;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface CategoryRepository extends JpaRepository<Category, String> {
+public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
     // Basic find methods
     Optional<Category> findBySlug(String slug);
@@ -26,8 +30,21 @@ public interface CategoryRepository extends JpaRepository<Category, String> {
 
     List<Category> findByNameContainingIgnoreCase(String name);
 
+    // Fetch plans: everything a response needs is loaded before the transaction ends
+    @EntityGraph(attributePaths = {"parent", "children"})
+    Optional<Category> findWithParentAndChildrenBySlug(String slug);
+
+    @EntityGraph(attributePaths = {"parent", "children"})
+    Optional<Category> findWithParentAndChildrenById(UUID id);
+
+    @EntityGraph(attributePaths = "parent")
+    @Query("SELECT c FROM Category c ORDER BY c.level ASC, c.displayOrder ASC")
+    List<Category> findAllWithParent();
+
     // Sorting and filtering
     List<Category> findByParentAndIsActiveTrueOrderByDisplayOrder(Category parent);
+
+    List<Category> findByIsActiveTrueOrderByActiveProductCountDesc(Limit limit);
     
     // Additional methods for service layer
     @Query("SELECT c FROM Category c WHERE c.parent IS NULL ORDER BY c.displayOrder ASC")
@@ -40,10 +57,124 @@ public interface CategoryRepository extends JpaRepository<Category, String> {
 
     long countByParent(Category parent);
 
-    // Custom queries for hierarchy management
-    @Query("SELECT DISTINCT c FROM Category c WHERE EXISTS (SELECT 1 FROM Category child WHERE child.parent = c)")
+    // Custom queries for hierarchy management (served from the maintained child_count)
+    @Query("SELECT c FROM Category c WHERE c.childCount > 0")
     List<Category> findCategoriesWithChildren();
 
-    @Query("SELECT c FROM Category c WHERE NOT EXISTS (SELECT 1 FROM Category child WHERE child.parent = c)")
+    @Query("SELECT c FROM Category c WHERE c.childCount = 0")
     List<Category> findLeafCategories();
+
+    // Set-based subtree operations (recursive CTEs, no entity hydration).
+    // Modifying statements collect the subtree into an array first: "= ANY (ARRAY(...))" is planned as a
+    // one-off init plan plus index lookups, where "IN (cte)" let a poor CTE row estimate pick a full-table hash join.
+    @Query(value = """
+            WITH RECURSIVE subtree(id) AS (
+                SELECT id FROM categories WHERE id = :categoryId
+                UNION ALL
+                SELECT c.id FROM categories c JOIN subtree s ON c.parent_id = s.id
+            )
+            SELECT EXISTS (
+                SELECT 1 FROM products p
+                WHERE p.category_id IN (SELECT id FROM subtree) AND p.status = 'ACTIVE'
+            )
+            """, nativeQuery = true)
+    boolean existsActiveProductInSubtree(UUID categoryId);
+
+    // HQL rather than SQL, so that the ids come back typed on every database
+    @Query("""
+            WITH subtree AS (
+                SELECT c.id AS id FROM Category c WHERE c.id = :categoryId
+                UNION ALL
+                SELECT c.id AS id FROM Category c JOIN subtree s ON c.parent.id = s.id
+            )
+            SELECT s.id FROM subtree s
+            """)
+    List<UUID> findSubtreeIds(UUID categoryId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE categories SET is_active = false, updated_at = CURRENT_TIMESTAMP
+            WHERE is_active = true AND id = ANY (ARRAY(
+                WITH RECURSIVE subtree(id) AS (
+                    SELECT id FROM categories WHERE id = :categoryId
+                    UNION ALL
+                    SELECT c.id FROM categories c JOIN subtree s ON c.parent_id = s.id
+                )
+                SELECT id FROM subtree
+            ))
+            """, nativeQuery = true)
+    int deactivateSubtree(UUID categoryId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE products SET category_id = NULL, updated_at = CURRENT_TIMESTAMP
+            WHERE category_id = ANY (ARRAY(
+                WITH RECURSIVE subtree(id) AS (
+                    SELECT id FROM categories WHERE id = :categoryId
+                    UNION ALL
+                    SELECT c.id FROM categories c JOIN subtree s ON c.parent_id = s.id
+                )
+                SELECT id FROM subtree
+            ))
+            """, nativeQuery = true)
+    int detachProductsFromSubtree(UUID categoryId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            DELETE FROM categories WHERE id = ANY (ARRAY(
+                WITH RECURSIVE subtree(id) AS (
+                    SELECT id FROM categories WHERE id = :categoryId
+                    UNION ALL
+                    SELECT c.id FROM categories c JOIN subtree s ON c.parent_id = s.id
+                )
+                SELECT id FROM subtree
+            ))
+            """, nativeQuery = true)
+    int deleteSubtree(UUID categoryId);
+
+    // The given categories and every category above them, walking parent links up through pk_categories
+    @Query(value = """
+            WITH RECURSIVE ancestors(id, parent_id) AS (
+                SELECT id, parent_id FROM categories WHERE id = ANY (CAST(:categoryIds AS uuid[]))
+                UNION
+                SELECT c.id, c.parent_id FROM categories c JOIN ancestors a ON c.id = a.parent_id
+            )
+            SELECT id FROM ancestors
+            """, nativeQuery = true)
+    List<UUID> findSelfAndAncestorIds(UUID[] categoryIds);
+
+    // Batched reordering: one UPDATE for the whole sibling set
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE categories c
+            SET display_order = v.display_order, updated_at = CURRENT_TIMESTAMP
+            FROM unnest(CAST(:ids AS uuid[]), CAST(:displayOrders AS integer[])) AS v(id, display_order)
+            WHERE c.id = v.id
+            """, nativeQuery = true)
+    int updateDisplayOrders(UUID[] ids, Integer[] displayOrders);
+
+    // Counter maintenance (atomic increments, never read-modify-write)
+    @Modifying
+    @Query(value = """
+            UPDATE categories
+            SET active_product_count = active_product_count + :activeDelta,
+                total_product_count = total_product_count + :totalDelta
+            WHERE id = :categoryId
+            """, nativeQuery = true)
+    int adjustProductCounts(UUID categoryId, int activeDelta, int totalDelta);
+
+    @Modifying
+    @Query(value = "UPDATE categories SET child_count = child_count + :delta WHERE id = :categoryId", nativeQuery = true)
+    int adjustChildCount(UUID categoryId, int delta);
+
+    // Bulk repair: recomputes every counter from the source tables in one statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE categories
+            SET child_count = (SELECT COUNT(*) FROM categories ch WHERE ch.parent_id = categories.id),
+                total_product_count = (SELECT COUNT(*) FROM products p WHERE p.category_id = categories.id),
+                active_product_count = (SELECT COUNT(*) FROM products p
+                                        WHERE p.category_id = categories.id AND p.status = 'ACTIVE')
+            """, nativeQuery = true)
+    int recomputeCounters();
 }
@@ -0,0 +1,47 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a keyset page: the sort key and id of that row.
+ * Travels to clients as an opaque, URL-safe token.
+ */
+public record ProductCursor(ProductSort sort, Object sortKey, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + id + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()} for the given sort.
+     *
+     * @throws InvalidCursorException if the token is malformed or was issued for another sort
+     */
+    public static ProductCursor decode(String token, ProductSort expectedSort) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+
+        // The sort key goes last so names containing the separator survive the split
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || !parts[0].equals(expectedSort.name())) {
+            throw new InvalidCursorException("Cursor does not match sort " + expectedSort);
+        }
+
+        try {
+            return new ProductCursor(expectedSort, expectedSort.parseSortKey(parts[2]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.entity.ProductDescription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ProductDescriptionRepository extends JpaRepository<ProductDescription, UUID> {
+
+    // Reads only the text, without loading the owning product
+    @Query("SELECT d.content FROM ProductDescription d WHERE d.productId = :productId")
+    Optional<String> findContentByProductId(UUID productId);
+}
@@ -0,0 +1,38 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.exception.InvalidPriceRangeException;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Filters of the composable product query. Every component is optional and they combine with AND;
+ * {@code null} and {@code false} leave a filter out.
+ *
+ * @param categoryId          only products of this category
+ * @param includeDescendants  with {@code categoryId}, also products of every category below it
+ * @param minPrice            lowest base price, inclusive
+ * @param maxPrice            highest base price, inclusive
+ * @param status              product status; {@code null} means {@link ProductStatus#ACTIVE}
+ * @param inStockOnly         only products with stock left to reserve, or whose inventory is not tracked
+ * @param text                free text in web search syntax, matched like {@link SearchMode#FULL_TEXT}
+ */
+public record ProductFilter(UUID categoryId, boolean includeDescendants, BigDecimal minPrice, BigDecimal maxPrice,
+                            ProductStatus status, boolean inStockOnly, String text) {
+
+    /**
+     * @throws InvalidPriceRangeException if the price range is empty
+     */
+    public ProductFilter {
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new InvalidPriceRangeException("minPrice must not exceed maxPrice");
+        }
+        if (status == null) {
+            status = ProductStatus.ACTIVE;
+        }
+        if (text != null && text.isBlank()) {
+            text = null;
+        }
+    }
+}
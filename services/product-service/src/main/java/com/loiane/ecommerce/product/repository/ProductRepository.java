@@ -1,24 +1,39 @@
 package com.loiane.ecommerce.product.repository;
 
+import com.loiane.ecommerce.product.dto.product.ProductIndexRow;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.dto.product.ProductSuggestRow;
 import com.loiane.ecommerce.product.entity.Category;
 import com.loiane.ecommerce.product.entity.Product;
 import com.loiane.ecommerce.product.entity.ProductStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, String> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductRepositoryCustom {
 
     // Basic find methods
     Optional<Product> findBySku(String sku);
 
+    // Product detail fetch plan: the category summary is rendered with every product response
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findWithCategoryById(UUID id);
+
     List<Product> findByStatus(ProductStatus status);
 
     List<Product> findByCategory(Category category);
@@ -32,7 +47,8 @@ public interface ProductRepository extends JpaRepository<Product, String> {
 
     long countByCategory(Category category);
 
-    // Convenience methods for common use cases (active products)
+    // Convenience methods for common use cases (active products). Fixed, unpaged combinations kept for
+    // existing callers; listings compose their filters through ProductRepositoryCustom.findProductsAfter
     @Query("SELECT p FROM Product p WHERE p.status = 'ACTIVE'")
     List<Product> findActiveProducts();
 
@@ -49,19 +65,98 @@ public interface ProductRepository extends JpaRepository<Product, String> {
     Page<Product> findByCategoryAndStatus(Category category, ProductStatus status, Pageable pageable);
     
     Page<Product> findByStatus(ProductStatus status, Pageable pageable);
-    
-    @Query("SELECT p FROM Product p WHERE p.status = 'ACTIVE' AND UPPER(p.name) LIKE UPPER(CONCAT('%', :name, '%'))")
-    Page<Product> findActiveProductsByNameContainingWithPagination(String name, Pageable pageable);
+
+    // Listing projections: one statement per page, no entity hydration and no lazy category loads
+    String LIST_ITEM_SELECT = "SELECT new com.loiane.ecommerce.product.dto.product.ProductListItem("
+            + "p.id, p.name, p.sku, p.basePrice, p.status, p.stockQuantity, p.reservedQuantity, p.publishedAt, "
+            + "c.id, c.name, c.slug) FROM Product p LEFT JOIN p.category c WHERE p.status = 'ACTIVE'";
+
+    @Query(value = LIST_ITEM_SELECT, countQuery = "SELECT COUNT(p) FROM Product p WHERE p.status = 'ACTIVE'")
+    Page<ProductListItem> findActiveListItems(Pageable pageable);
+
+    // Count-free variant, paired with a separately chosen count strategy
+    @Query(LIST_ITEM_SELECT)
+    Slice<ProductListItem> findActiveListItemsAsSlice(Pageable pageable);
+
+    // In-stock listing ("hide out of stock"): the maintained available flag, not the stock arithmetic,
+    // so the NEWEST order and the count read idx_products_available_published_at_id (V6 migration)
+    String AVAILABLE_LIST_ITEM_SELECT = LIST_ITEM_SELECT + " AND p.available = true";
+
+    @Query(value = AVAILABLE_LIST_ITEM_SELECT,
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.status = 'ACTIVE' AND p.available = true")
+    Page<ProductListItem> findAvailableActiveListItems(Pageable pageable);
+
+    @Query(AVAILABLE_LIST_ITEM_SELECT)
+    Slice<ProductListItem> findAvailableActiveListItemsAsSlice(Pageable pageable);
+
+    // The NEWEST order leaves out products never published, which have no place in it, like the keyset
+    // scroll does; PostgreSQL would otherwise sort their NULL published_at first in descending order
+    String PUBLISHED = " AND p.publishedAt IS NOT NULL";
+
+    @Query(value = LIST_ITEM_SELECT + PUBLISHED,
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.status = 'ACTIVE'" + PUBLISHED)
+    Page<ProductListItem> findPublishedActiveListItems(Pageable pageable);
+
+    @Query(LIST_ITEM_SELECT + PUBLISHED)
+    Slice<ProductListItem> findPublishedActiveListItemsAsSlice(Pageable pageable);
+
+    @Query(value = AVAILABLE_LIST_ITEM_SELECT + PUBLISHED,
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.status = 'ACTIVE' AND p.available = true" + PUBLISHED)
+    Page<ProductListItem> findPublishedAvailableActiveListItems(Pageable pageable);
+
+    @Query(AVAILABLE_LIST_ITEM_SELECT + PUBLISHED)
+    Slice<ProductListItem> findPublishedAvailableActiveListItemsAsSlice(Pageable pageable);
+
+    // Search index feeds: listing columns plus the searchable text, active products only
+    String INDEX_ROW_SELECT = "SELECT new com.loiane.ecommerce.product.dto.product.ProductIndexRow("
+            + "p.id, p.name, p.shortDescription, d.content, p.sku, p.basePrice, p.status, p.stockQuantity, "
+            + "p.reservedQuantity, p.available, p.publishedAt, c.id, c.name, c.slug) "
+            + "FROM Product p LEFT JOIN p.category c LEFT JOIN ProductDescription d ON d.productId = p.id "
+            + "WHERE p.status = 'ACTIVE'";
+
+    // Rebuilds read the whole table: with a fetch size inside a transaction, the PostgreSQL driver
+    // reads through a server-side cursor in batches instead of buffering every row
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(INDEX_ROW_SELECT)
+    Stream<ProductIndexRow> streamActiveIndexRows();
+
+    @Query(INDEX_ROW_SELECT + " AND p.id IN :ids")
+    List<ProductIndexRow> findActiveIndexRowsByIdIn(Collection<UUID> ids);
+
+    // Ids only: which products to re-index after their categories were renamed or moved
+    @Query("SELECT p.id FROM Product p WHERE p.status = 'ACTIVE' AND p.category.id IN :categoryIds")
+    List<UUID> findActiveIdsByCategoryIdIn(Collection<UUID> categoryIds);
+
+    // Autocomplete feeds: just the suggested texts and the popularity signal, active products only
+    String SUGGEST_ROW_SELECT = "SELECT new com.loiane.ecommerce.product.dto.product.ProductSuggestRow("
+            + "p.id, p.name, p.sku, p.reservedQuantity) FROM Product p WHERE p.status = 'ACTIVE'";
+
+    @Query(SUGGEST_ROW_SELECT)
+    List<ProductSuggestRow> findActiveSuggestRows();
+
+    @Query(SUGGEST_ROW_SELECT + " AND p.id IN :ids")
+    List<ProductSuggestRow> findActiveSuggestRowsByIdIn(Collection<UUID> ids);
 
     // Existence and counting methods for service layer
     boolean existsByCategoryAndStatus(Category category, ProductStatus status);
     
     long countByCategoryAndStatus(Category category, ProductStatus status);
 
+    long countByStatus(ProductStatus status);
+
+    long countByStatusAndAvailableTrue(ProductStatus status);
+
+    long countByStatusAndPublishedAtIsNotNull(ProductStatus status);
+
+    long countByStatusAndAvailableTrueAndPublishedAtIsNotNull(ProductStatus status);
+
     // Custom queries for inventory management
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity - p.reservedQuantity <= p.lowStockThreshold")
+    // Written to match the idx_products_low_stock expression (V2 migration) term for term
+    @EntityGraph(attributePaths = "category")
+    @Query("SELECT p FROM Product p WHERE p.stockQuantity - p.reservedQuantity - p.lowStockThreshold <= 0")
     List<Product> findProductsWithLowStock();
 
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity - p.reservedQuantity > 0")
+    // Products that can be sold now, untracked ones included, read from the maintained flag
+    @Query("SELECT p FROM Product p WHERE p.available = true")
     List<Product> findProductsInStock();
 }
@@ -0,0 +1,96 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.dto.product.PriceHistogram;
+import com.loiane.ecommerce.product.dto.product.ProductFacets;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hand-written queries that Spring Data cannot derive.
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * Keyset page of active products. Text queries page through {@link #searchActiveProducts}, ranked, or
+     * through {@link #findProductsAfter} in a sort order.
+     *
+     * @param sort  stable sort order
+     * @param after position of the last row of the previous page, or {@code null} for the first page
+     * @param limit maximum number of rows to return
+     */
+    List<ProductListItem> findActiveProductsAfter(ProductSort sort, ProductCursor after, int limit);
+
+    /**
+     * Keyset page of products matching every filter of {@code filter}, the composable form of the fixed
+     * per-combination finders. PostgreSQL only: the text filter reads the {@code search_vector} column.
+     * Each combination of filters, sort and cursor compiles to one SQL text with every value bound, so
+     * repeated requests reuse the driver's prepared statement for that shape.
+     *
+     * @param filter filters to apply, combined with AND
+     * @param sort   stable sort order
+     * @param after  position of the last row of the previous page, or {@code null} for the first page
+     * @param limit  maximum number of rows to return
+     */
+    List<ProductListItem> findProductsAfter(ProductFilter filter, ProductSort sort, ProductCursor after, int limit);
+
+    /**
+     * Ranked page of active products matching {@code query}, ordered by relevance and then id.
+     * PostgreSQL only: FULL_TEXT reads the {@code search_vector} column and FUZZY needs {@code pg_trgm}.
+     *
+     * @param query       FULL_TEXT: free text in web search syntax ({@code "quoted phrase"}, {@code or}, {@code -excluded});
+     *                    FUZZY: a possibly misspelled name or a SKU fragment
+     * @param mode        how rows are matched and ranked
+     * @param inStockOnly only products with stock left to reserve, or whose inventory is not tracked
+     * @param after       position of the last hit of the previous page, or {@code null} for the first page
+     * @param limit       maximum number of hits to return
+     */
+    List<ProductSearchHit> searchActiveProducts(String query, SearchMode mode, boolean inStockOnly,
+                                                SearchCursor after, int limit);
+
+    /**
+     * Facet counts (category, status, in stock, price band) over every active product matching {@code query},
+     * computed by a single GROUPING SETS query. PostgreSQL only, like {@link #searchActiveProducts}.
+     *
+     * @param query       search to count, as for {@link #searchActiveProducts}, or {@code null} for all active products
+     * @param mode        how {@code query} is matched; ignored without a query
+     * @param inStockOnly only count products in stock, like the "hide out of stock" page they are shown with
+     * @param priceBands  ascending price band boundaries: {@code [25, 50]} counts "0-25", "25-50" and "50+"
+     */
+    ProductFacets findActiveProductFacets(String query, SearchMode mode, boolean inStockOnly,
+                                          List<BigDecimal> priceBands);
+
+    /**
+     * Equal-width price histogram of the active products in a category, or in the whole catalog, computed
+     * by a single {@code width_bucket} aggregate. Buckets span the lowest to the highest price; when every
+     * product has the same price there is one bucket. PostgreSQL only.
+     *
+     * @param categoryId         category to cover, or {@code null} for all active products
+     * @param includeDescendants with {@code categoryId}, also cover every category below it
+     * @param buckets            number of buckets, at least 1
+     */
+    PriceHistogram findActivePriceHistogram(UUID categoryId, boolean includeDescendants, int buckets);
+
+    /**
+     * Planner row estimate for active products. Empty when the database cannot provide one.
+     */
+    OptionalLong estimateActiveProducts();
+
+    /**
+     * Planner row estimate for active products in stock, like {@link #estimateActiveProducts()}.
+     */
+    OptionalLong estimateAvailableActiveProducts();
+
+    /**
+     * Planner row estimate for published active products, the rows of the NEWEST listing.
+     */
+    OptionalLong estimatePublishedActiveProducts();
+
+    /**
+     * Planner row estimate for published active products in stock.
+     */
+    OptionalLong estimatePublishedAvailableActiveProducts();
+}
@@ -0,0 +1,455 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loiane.ecommerce.product.dto.product.FacetCount;
+import com.loiane.ecommerce.product.dto.product.PriceHistogram;
+import com.loiane.ecommerce.product.dto.product.ProductFacets;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductRepositoryImpl.class);
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // Filled in with the rank expression, query source and match predicate of a SearchShape
+    private static final String SEARCH_SELECT = """
+            SELECT p.id, p.name, p.sku, p.base_price, p.status, p.stock_quantity, p.reserved_quantity,
+                   p.published_at, c.id AS category_id, c.name AS category_name, c.slug AS category_slug,
+                   %1$s AS rank
+            FROM products p
+            CROSS JOIN %2$s q
+            LEFT JOIN categories c ON c.id = p.category_id
+            WHERE p.status = 'ACTIVE' AND %3$s""";
+
+    // The query is parsed with both configurations: english matches stemmed words in the name and
+    // description ("laptops" finds "Laptop"), simple matches SKUs verbatim. websearch_to_tsquery never
+    // rejects user input, it drops what it cannot parse.
+    private static final SearchShape FULL_TEXT = new SearchShape(
+            "ts_rank(p.search_vector, q.query)",
+            "(SELECT websearch_to_tsquery('english', :query) || websearch_to_tsquery('simple', :query) AS query)",
+            "p.search_vector @@ q.query",
+            "p.search_vector @@ (websearch_to_tsquery('english', :query) || websearch_to_tsquery('simple', :query))");
+
+    // Both sides are upper-cased to match the idx_products_{name,sku}_trgm expressions (V4 migration).
+    // "name %> term" is word_similarity(term, name) >= threshold: the term is compared with the closest
+    // run of words in the name, so "labtop" finds "Gaming Laptop".
+    private static final SearchShape FUZZY = new SearchShape(
+            "GREATEST(word_similarity(q.term, upper(p.name)), word_similarity(q.term, upper(p.sku)))",
+            "(SELECT upper(:query) AS term)",
+            "(upper(p.name) %> q.term OR upper(p.sku) LIKE upper(:skuPattern))",
+            "(upper(p.name) %> upper(:query) OR upper(p.sku) LIKE upper(:skuPattern))");
+
+    // One row per facet value: each grouping set aggregates the same matches by one dimension, so all four
+    // facets cost a single pass. Filled in with the in-stock and price band expressions, then the extra
+    // predicates: in stock only and the filter of a SearchShape (blank for the whole active catalog).
+    private static final String FACETS_SELECT = """
+            SELECT c.id AS category_id, c.name AS category_name, p.status,
+                   %1$s AS in_stock, %2$s AS price_band,
+                   GROUPING(c.id) = 0 AS by_category, GROUPING(p.status) = 0 AS by_status,
+                   GROUPING(%1$s) = 0 AS by_availability, COUNT(*) AS products
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            WHERE p.status = 'ACTIVE'%3$s
+            GROUP BY GROUPING SETS ((c.id, c.name), (p.status), (%1$s), (%2$s))""";
+
+    // width_bucket splits [low, high) into equal buckets and puts the highest price one past the last, so
+    // it is folded back in; a single distinct price would be an empty range and gets one bucket. Filled in
+    // with the category predicate, blank for the whole active catalog.
+    private static final String HISTOGRAM_SELECT = """
+            WITH scoped AS (
+                SELECT p.base_price FROM products p WHERE p.status = 'ACTIVE'%s
+            ), bounds AS (
+                SELECT MIN(base_price) AS low, MAX(base_price) AS high FROM scoped
+            )
+            SELECT b.low, b.high,
+                   CASE WHEN b.low = b.high THEN 1
+                        ELSE LEAST(width_bucket(s.base_price, b.low, b.high, :buckets), :buckets) END AS bucket,
+                   COUNT(*) AS products
+            FROM scoped s CROSS JOIN bounds b
+            GROUP BY b.low, b.high, bucket""";
+
+    // Filled in with the predicates and ORDER BY of a FilterShape. Same columns as SEARCH_SELECT, minus the rank.
+    private static final String FILTER_SELECT = """
+            SELECT p.id, p.name, p.sku, p.base_price, p.status, p.stock_quantity, p.reserved_quantity,
+                   p.published_at, c.id AS category_id, c.name AS category_name, c.slug AS category_slug
+            FROM products p
+            LEFT JOIN categories c ON c.id = p.category_id
+            WHERE %s
+            ORDER BY %s""";
+
+    // Collected into an array first, like the subtree statements of CategoryRepository, so the planner
+    // resolves the subtree once and then looks its products up through idx_products_category_id_status
+    private static final String IN_SUBTREE = """
+            p.category_id = ANY (ARRAY(
+                WITH RECURSIVE subtree(id) AS (
+                    SELECT id FROM categories WHERE id = :categoryId
+                    UNION ALL
+                    SELECT child.id FROM categories child JOIN subtree s ON child.parent_id = s.id
+                )
+                SELECT id FROM subtree
+            ))""";
+
+    // The maintained flag (V6 migration) rather than the stock arithmetic: it also counts untracked products
+    // as in stock, and matches idx_products_available_published_at_id
+    private static final String IN_STOCK = "p.available";
+
+    // One SQL text per filter shape, built on first use. Bounded by the number of shapes, a few thousand at most.
+    private static final Map<FilterShape, String> FILTER_SQL = new ConcurrentHashMap<>();
+
+    // pg_trgm's default of 0.6 rejects a single typo in a six-letter word; the ranking puts close matches first
+    private static final String FUZZY_THRESHOLD = "0.4";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductListItem> findActiveProductsAfter(ProductSort sort, ProductCursor after, int limit) {
+        String direction = sort.isAscending() ? "ASC" : "DESC";
+        String comparator = sort.isAscending() ? ">" : "<";
+
+        StringBuilder jpql = new StringBuilder(ProductRepository.LIST_ITEM_SELECT);
+        if (sort == ProductSort.NEWEST) {
+            // Only published products have a position in the "newest" ordering
+            jpql.append(" AND p.publishedAt IS NOT NULL");
+        }
+        if (after != null) {
+            // Row-value comparison lets the (status, key, id) index seek straight to the next row
+            jpql.append(" AND (p.").append(sort.property()).append(", p.id) ")
+                    .append(comparator).append(" (:afterKey, :afterId)");
+        }
+        jpql.append(" ORDER BY p.").append(sort.property()).append(' ').append(direction)
+                .append(", p.id ").append(direction);
+
+        TypedQuery<ProductListItem> query = entityManager.createQuery(jpql.toString(), ProductListItem.class);
+        if (after != null) {
+            query.setParameter("afterKey", after.sortKey());
+            query.setParameter("afterId", after.id());
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ProductListItem> findProductsAfter(ProductFilter filter, ProductSort sort, ProductCursor after, int limit) {
+        String sql = FILTER_SQL.computeIfAbsent(FilterShape.of(filter, sort, after), FilterShape::toSql);
+
+        NativeQuery<Object[]> nativeQuery = addListItemScalars(entityManager.createNativeQuery(sql).unwrap(NativeQuery.class));
+        if (filter.categoryId() != null) {
+            nativeQuery.setParameter("categoryId", filter.categoryId());
+        }
+        if (filter.minPrice() != null) {
+            nativeQuery.setParameter("minPrice", filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            nativeQuery.setParameter("maxPrice", filter.maxPrice());
+        }
+        if (filter.text() != null) {
+            nativeQuery.setParameter("query", filter.text());
+        }
+        if (after != null) {
+            nativeQuery.setParameter("afterKey", after.sortKey());
+            nativeQuery.setParameter("afterId", after.id());
+        }
+
+        return nativeQuery.setMaxResults(limit).getResultList().stream()
+                .map(ProductRepositoryImpl::toListItem)
+                .toList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ProductSearchHit> searchActiveProducts(String query, SearchMode mode, boolean inStockOnly,
+                                                       SearchCursor after, int limit) {
+        SearchShape shape = mode == SearchMode.FUZZY ? FUZZY : FULL_TEXT;
+        if (mode == SearchMode.FUZZY) {
+            lowerFuzzyThreshold();
+        }
+
+        StringBuilder sql = new StringBuilder(SEARCH_SELECT.formatted(shape.rank(), shape.source(), shape.match()));
+        if (inStockOnly) {
+            sql.append(" AND ").append(IN_STOCK);
+        }
+        if (after != null) {
+            // The rank is recomputed per row, so this cannot seek an index; the GIN scan has already
+            // narrowed the rows to the matches, and only those are ranked and compared
+            sql.append(" AND (").append(shape.rank()).append(", p.id) < (:afterRank, :afterId)");
+        }
+        sql.append(" ORDER BY rank DESC, p.id DESC");
+
+        NativeQuery<Object[]> nativeQuery = addListItemScalars(entityManager.createNativeQuery(sql.toString())
+                .unwrap(NativeQuery.class))
+                .addScalar("rank", Float.class);
+        nativeQuery.setParameter("query", query);
+        if (mode == SearchMode.FUZZY) {
+            nativeQuery.setParameter("skuPattern", "%" + escapeLike(query) + "%");
+        }
+        if (after != null) {
+            nativeQuery.setParameter("afterRank", after.rank());
+            nativeQuery.setParameter("afterId", after.id());
+        }
+
+        return nativeQuery.setMaxResults(limit).getResultList().stream()
+                .map(row -> new ProductSearchHit(toListItem(row), (Float) row[11]))
+                .toList();
+    }
+
+    private static NativeQuery<Object[]> addListItemScalars(NativeQuery<Object[]> query) {
+        return query
+                .addScalar("id", UUID.class)
+                .addScalar("name", String.class)
+                .addScalar("sku", String.class)
+                .addScalar("base_price", BigDecimal.class)
+                .addScalar("status", String.class)
+                .addScalar("stock_quantity", Integer.class)
+                .addScalar("reserved_quantity", Integer.class)
+                .addScalar("published_at", OffsetDateTime.class)
+                .addScalar("category_id", UUID.class)
+                .addScalar("category_name", String.class)
+                .addScalar("category_slug", String.class);
+    }
+
+    private static ProductListItem toListItem(Object[] row) {
+        return new ProductListItem((UUID) row[0], (String) row[1], (String) row[2], (BigDecimal) row[3],
+                ProductStatus.valueOf((String) row[4]), (Integer) row[5], (Integer) row[6],
+                (OffsetDateTime) row[7], (UUID) row[8], (String) row[9], (String) row[10]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ProductFacets findActiveProductFacets(String query, SearchMode mode, boolean inStockOnly,
+                                                 List<BigDecimal> priceBands) {
+        SearchShape shape = query == null ? null : mode == SearchMode.FUZZY ? FUZZY : FULL_TEXT;
+        if (shape == FUZZY) {
+            lowerFuzzyThreshold();
+        }
+
+        // Boundaries come from configuration, never from the request, so they are inlined as numeric literals
+        String bands = priceBands.stream().map(BigDecimal::toPlainString).collect(Collectors.joining(", "));
+        String sql = FACETS_SELECT.formatted(IN_STOCK, "width_bucket(p.base_price, ARRAY[" + bands + "]::numeric[])",
+                (inStockOnly ? " AND " + IN_STOCK : "") + (shape == null ? "" : " AND " + shape.filter()));
+
+        NativeQuery<Object[]> nativeQuery = entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addScalar("category_id", UUID.class)
+                .addScalar("category_name", String.class)
+                .addScalar("status", String.class)
+                .addScalar("in_stock", Boolean.class)
+                .addScalar("price_band", Integer.class)
+                .addScalar("by_category", Boolean.class)
+                .addScalar("by_status", Boolean.class)
+                .addScalar("by_availability", Boolean.class)
+                .addScalar("products", Long.class);
+        if (shape != null) {
+            nativeQuery.setParameter("query", query);
+        }
+        if (shape == FUZZY) {
+            nativeQuery.setParameter("skuPattern", "%" + escapeLike(query) + "%");
+        }
+
+        List<FacetCount> categories = new ArrayList<>();
+        List<FacetCount> statuses = new ArrayList<>();
+        List<FacetCount> availability = new ArrayList<>();
+        List<FacetCount> priceBandCounts = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>(nativeQuery.getResultList());
+        // Price bands in ascending order; every other facet by count
+        rows.sort(Comparator.comparing((Object[] row) -> (Integer) row[4], Comparator.nullsLast(Comparator.naturalOrder())));
+        for (Object[] row : rows) {
+            long count = (Long) row[8];
+            if ((Boolean) row[5]) {
+                // Uncategorized products have no value to filter by
+                if (row[0] != null) {
+                    categories.add(new FacetCount(row[0].toString(), (String) row[1], count));
+                }
+            } else if ((Boolean) row[6]) {
+                statuses.add(new FacetCount((String) row[2], null, count));
+            } else if ((Boolean) row[7]) {
+                availability.add(new FacetCount((Boolean) row[3] ? "IN_STOCK" : "OUT_OF_STOCK", null, count));
+            } else {
+                priceBandCounts.add(new FacetCount(priceBand((Integer) row[4], priceBands), null, count));
+            }
+        }
+        Comparator<FacetCount> byCount = Comparator.comparingLong(FacetCount::count).reversed()
+                .thenComparing(facet -> facet.label() != null ? facet.label() : facet.value());
+        categories.sort(byCount);
+        statuses.sort(byCount);
+        availability.sort(byCount);
+        return new ProductFacets(categories, statuses, availability, priceBandCounts);
+    }
+
+    @Override
+    public PriceHistogram findActivePriceHistogram(UUID categoryId, boolean includeDescendants, int buckets) {
+        String category = categoryId == null ? "" : " AND " + (includeDescendants ? IN_SUBTREE : "p.category_id = :categoryId");
+        NativeQuery<Object[]> nativeQuery = entityManager.createNativeQuery(HISTOGRAM_SELECT.formatted(category))
+                .unwrap(NativeQuery.class)
+                .addScalar("low", BigDecimal.class)
+                .addScalar("high", BigDecimal.class)
+                .addScalar("bucket", Integer.class)
+                .addScalar("products", Long.class)
+                .setParameter("buckets", buckets);
+        if (categoryId != null) {
+            nativeQuery.setParameter("categoryId", categoryId);
+        }
+
+        List<Object[]> rows = nativeQuery.getResultList();
+        if (rows.isEmpty()) {
+            return new PriceHistogram(null, null, 0, List.of());
+        }
+        BigDecimal low = (BigDecimal) rows.getFirst()[0];
+        BigDecimal high = (BigDecimal) rows.getFirst()[1];
+        int bucketCount = low.compareTo(high) == 0 ? 1 : buckets;
+        long[] counts = new long[bucketCount];
+        for (Object[] row : rows) {
+            counts[(Integer) row[2] - 1] = (Long) row[3];
+        }
+
+        // Only the non-empty buckets come back; the empty ones in between are filled in here
+        List<PriceHistogram.Bucket> histogram = new ArrayList<>(bucketCount);
+        BigDecimal width = high.subtract(low);
+        BigDecimal from = low;
+        for (int i = 1; i <= bucketCount; i++) {
+            BigDecimal to = i == bucketCount ? high
+                    : low.add(width.multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(bucketCount), 2, RoundingMode.HALF_UP));
+            histogram.add(new PriceHistogram.Bucket(from, to, counts[i - 1]));
+            from = to;
+        }
+        return new PriceHistogram(low, high, Arrays.stream(counts).sum(), histogram);
+    }
+
+    // width_bucket numbers the bands from 0 (below the first boundary) to the boundary count (at or above the last)
+    private static String priceBand(int bucket, List<BigDecimal> boundaries) {
+        String lower = bucket == 0 ? "0" : boundaries.get(bucket - 1).toPlainString();
+        return bucket == boundaries.size() ? lower + "+" : lower + "-" + boundaries.get(bucket).toPlainString();
+    }
+
+    // Transaction-local, so it needs the caller's transaction and never leaks to pooled connections
+    private void lowerFuzzyThreshold() {
+        entityManager.createNativeQuery("SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)")
+                .setParameter("threshold", FUZZY_THRESHOLD)
+                .getSingleResult();
+    }
+
+    // A SKU fragment is matched literally, so LIKE wildcards typed by the user are escaped
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Override
+    public OptionalLong estimateActiveProducts() {
+        return estimateRows("SELECT 1 FROM products p WHERE p.status = 'ACTIVE'");
+    }
+
+    @Override
+    public OptionalLong estimateAvailableActiveProducts() {
+        return estimateRows("SELECT 1 FROM products p WHERE p.status = 'ACTIVE' AND " + IN_STOCK);
+    }
+
+    @Override
+    public OptionalLong estimatePublishedActiveProducts() {
+        return estimateRows("SELECT 1 FROM products p WHERE p.status = 'ACTIVE' AND p.published_at IS NOT NULL");
+    }
+
+    @Override
+    public OptionalLong estimatePublishedAvailableActiveProducts() {
+        return estimateRows("SELECT 1 FROM products p WHERE p.status = 'ACTIVE' AND " + IN_STOCK
+                + " AND p.published_at IS NOT NULL");
+    }
+
+    private OptionalLong estimateRows(String select) {
+        String sql = "EXPLAIN (FORMAT JSON) " + select;
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return OptionalLong.empty();
+                }
+                JsonNode planRows = JSON.readTree(resultSet.getString(1)).path(0).path("Plan").path("Plan Rows");
+                return planRows.isNumber() ? OptionalLong.of(planRows.asLong()) : OptionalLong.empty();
+            } catch (Exception e) {
+                // Non-PostgreSQL databases (e.g. H2 in tests) don't support EXPLAIN (FORMAT JSON)
+                log.debug("Planner row estimate unavailable: {}", e.getMessage());
+                return OptionalLong.empty();
+            }
+        });
+    }
+
+    /**
+     * How one search mode matches and ranks rows. {@code match} reads the query from {@code source}, joined
+     * in as {@code q} so the ranked select computes it once; {@code filter} is the same predicate with the
+     * query inlined, for unranked aggregates, where the planner only matches the inlined form to the indexes.
+     */
+    private record SearchShape(String rank, String source, String match, String filter) {
+    }
+
+    /**
+     * Which predicates a {@link ProductFilter} query has, without their values. Requests with the same shape
+     * share one SQL text. The status is an enum and is inlined rather than bound: the partial indexes on
+     * {@code status = 'ACTIVE'} only match a literal, and a generic plan for a bound status could not use them.
+     */
+    private record FilterShape(ProductStatus status, boolean category, boolean descendants, boolean minPrice,
+                               boolean maxPrice, boolean inStock, boolean text, ProductSort sort, boolean after) {
+
+        static FilterShape of(ProductFilter filter, ProductSort sort, ProductCursor after) {
+            boolean category = filter.categoryId() != null;
+            return new FilterShape(filter.status(), category, category && filter.includeDescendants(),
+                    filter.minPrice() != null, filter.maxPrice() != null, filter.inStockOnly(), filter.text() != null,
+                    sort, after != null);
+        }
+
+        String toSql() {
+            List<String> predicates = new ArrayList<>();
+            predicates.add("p.status = '" + status.name() + "'");
+            if (category) {
+                predicates.add(descendants ? IN_SUBTREE : "p.category_id = :categoryId");
+            }
+            if (minPrice) {
+                predicates.add("p.base_price >= :minPrice");
+            }
+            if (maxPrice) {
+                predicates.add("p.base_price <= :maxPrice");
+            }
+            if (inStock) {
+                predicates.add(IN_STOCK);
+            }
+            if (text) {
+                predicates.add(FULL_TEXT.filter());
+            }
+            String column = "p." + sort.column();
+            if (sort == ProductSort.NEWEST) {
+                // Only published products have a position in the "newest" ordering
+                predicates.add(column + " IS NOT NULL");
+            }
+            String direction = sort.isAscending() ? "ASC" : "DESC";
+            if (after) {
+                // Row-value comparison lets the (status, key, id) index seek straight to the next row
+                predicates.add("(" + column + ", p.id) " + (sort.isAscending() ? ">" : "<") + " (:afterKey, :afterId)");
+            }
+            return FILTER_SELECT.formatted(String.join("\n  AND ", predicates),
+                    column + " " + direction + ", p.id " + direction);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+
+import java.util.UUID;
+
+/**
+ * A search match: the listing row and the relevance rank it was ordered by.
+ */
+public record ProductSearchHit(ProductListItem item, float rank) {
+
+    public SearchCursor cursor(SearchMode mode) {
+        return new SearchCursor(mode, rank, UUID.fromString(item.id()));
+    }
+}
@@ -0,0 +1,133 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.exception.InvalidSortException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Stable sort orders supported by keyset (seek) pagination, and the only orders the offset listing accepts.
+ * Every order is tie-broken by id and backed by a composite (status, key, id) index on products.
+ */
+public enum ProductSort {
+
+    /**
+     * Most recently published first
+     */
+    NEWEST("publishedAt", "published_at", false, ProductListItem::publishedAt, OffsetDateTime::parse),
+
+    /**
+     * Cheapest first
+     */
+    PRICE_ASC("basePrice", "base_price", true, ProductListItem::basePrice, BigDecimal::new),
+
+    /**
+     * Most expensive first
+     */
+    PRICE_DESC("basePrice", "base_price", false, ProductListItem::basePrice, BigDecimal::new),
+
+    /**
+     * Alphabetical by name
+     */
+    NAME("name", "name", true, ProductListItem::name, value -> value);
+
+    private final String property;
+    private final String column;
+    private final boolean ascending;
+    private final Function<ProductListItem, Object> keyExtractor;
+    private final Function<String, Object> keyParser;
+
+    ProductSort(String property, String column, boolean ascending,
+                Function<ProductListItem, Object> keyExtractor, Function<String, Object> keyParser) {
+        this.property = property;
+        this.column = column;
+        this.ascending = ascending;
+        this.keyExtractor = keyExtractor;
+        this.keyParser = keyParser;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    /**
+     * The products column behind {@link #property()}, for native queries
+     */
+    public String column() {
+        return column;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public Object sortKeyOf(ProductListItem item) {
+        return keyExtractor.apply(item);
+    }
+
+    public Object parseSortKey(String value) {
+        return keyParser.apply(value);
+    }
+
+    /**
+     * This order as a Spring Data sort, including the id tie-breaker that keeps offset pages stable.
+     */
+    public Sort toSort() {
+        return Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, property, "id");
+    }
+
+    /**
+     * The supported order a request's sort names: either a constant of this enum ({@code sort=PRICE_DESC}),
+     * which carries its own direction, or a property and direction ({@code sort=basePrice,desc}). Unsorted
+     * means {@link #NEWEST}. A constant is ascending when parsed without a direction, so only a descending
+     * order can contradict it here; {@link #checkDirections} catches the explicitly ascending ones.
+     *
+     * @throws InvalidSortException for any other sort, which no index could serve
+     */
+    public static ProductSort from(Sort sort) {
+        if (sort.isUnsorted()) {
+            return NEWEST;
+        }
+        List<Sort.Order> orders = sort.toList();
+        if (orders.size() == 1 && !orders.getFirst().isIgnoreCase()) {
+            Sort.Order order = orders.getFirst();
+            for (ProductSort candidate : values()) {
+                if (candidate.name().equals(order.getProperty()) && (order.isAscending() || !candidate.ascending)
+                        || candidate.property.equals(order.getProperty()) && candidate.ascending == order.isAscending()) {
+                    return candidate;
+                }
+            }
+        }
+        throw new InvalidSortException("Unsupported sort: " + sort);
+    }
+
+    /**
+     * Rejects a constant requested with the direction opposite to its own, such as {@code sort=NEWEST,asc}.
+     * Spring parses a bare {@code sort=NEWEST} as ascending too, so only the raw parameter tells them apart.
+     *
+     * @param requested values of the {@code sort} request parameter, {@code null} when there are none
+     * @throws InvalidSortException for a constant with the opposite direction
+     */
+    public static void checkDirections(String[] requested) {
+        if (requested == null) {
+            return;
+        }
+        for (String value : requested) {
+            String[] parts = value.split(",");
+            Optional<Sort.Direction> direction = parts.length == 2
+                    ? Sort.Direction.fromOptionalString(parts[1].strip())
+                    : Optional.empty();
+            for (ProductSort candidate : values()) {
+                if (direction.isPresent() && candidate.name().equals(parts[0].strip())
+                        && direction.get().isAscending() != candidate.ascending) {
+                    throw new InvalidSortException("Unsupported sort: " + value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last hit of a ranked search page: its relevance rank and id.
+ * Travels to clients as an opaque, URL-safe token, like {@link ProductCursor}.
+ */
+public record SearchCursor(SearchMode mode, float rank, UUID id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        // Float.toString is the shortest text that parses back to the same float, so the
+        // rank compares equal to the one the database computes for the same row
+        String raw = mode.name() + SEPARATOR + id + SEPARATOR + rank;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()} for the given mode.
+     *
+     * @throws InvalidCursorException if the token is malformed or was issued for another mode
+     */
+    public static SearchCursor decode(String token, SearchMode expectedMode) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+
+        // Ranks from different modes are on different scales, so a cursor only resumes its own mode
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || !parts[0].equals(expectedMode.name())) {
+            throw new InvalidCursorException("Cursor does not match search mode " + expectedMode);
+        }
+
+        try {
+            return new SearchCursor(expectedMode, Float.parseFloat(parts[2]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor", e);
+        }
+    }
+}
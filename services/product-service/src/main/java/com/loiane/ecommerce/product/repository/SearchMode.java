@@ -0,0 +1,13 @@
+package com.loiane.ecommerce.product.repository;
+
+/**
+ * How {@code /search} matches and ranks products.
+ */
+public enum SearchMode {
+
+    /** Words in the name, SKU and short description, stemmed and ranked by {@code ts_rank}. */
+    FULL_TEXT,
+
+    /** Misspelled names and SKU fragments, ranked by trigram word similarity. */
+    FUZZY
+}
@@ -0,0 +1,39 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.entity.SearchQuery;
+import com.loiane.ecommerce.product.entity.SearchQueryId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface SearchQueryRepository extends JpaRepository<SearchQuery, SearchQueryId> {
+
+    // Most asked queries first (idx_search_queries_search_count)
+    List<SearchQuery> findByOrderBySearchCountDesc(Limit limit);
+
+    // One batched upsert for every query counted since the last flush; the arrays are parallel
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO search_queries (search_mode, query, search_count)
+            SELECT * FROM unnest(CAST(:modes AS varchar[]), CAST(:queries AS varchar[]), CAST(:counts AS bigint[]))
+            ON CONFLICT (search_mode, query)
+            DO UPDATE SET search_count = search_queries.search_count + EXCLUDED.search_count
+            """, nativeQuery = true)
+    int addSearchCounts(String[] modes, String[] queries, Long[] counts);
+
+    // Decay, so the ranking follows recent traffic
+    @Modifying
+    @Query(value = "UPDATE search_queries SET search_count = search_count / 2", nativeQuery = true)
+    int halveSearchCounts();
+
+    @Modifying
+    @Query(value = "DELETE FROM search_queries WHERE search_count = 0", nativeQuery = true)
+    int deleteForgottenQueries();
+}
@@ -0,0 +1,212 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.dto.product.ProductIndexRow;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps {@link LuceneProductSearchIndex} in step with the products table.
+ * <p>
+ * Committed product writes are queued by id and applied in batches on the refresh timer, which then
+ * reopens the searcher: a change is searchable within one refresh interval. A changed category queues the
+ * active products of its subtree, whose indexed category path it may have renamed or moved. Index commits
+ * run on their own, slower timer. Changes committed by other application nodes arrive the same way, as the
+ * events {@link com.loiane.ecommerce.product.event.CacheInvalidationBus} republishes; only those sent while
+ * this node was not listening wait for the next {@link #rebuild()}.
+ */
+@Component
+@ConditionalOnProperty(name = "product.search.engine", havingValue = "lucene")
+public class LuceneIndexUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(LuceneIndexUpdater.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final LuceneProductSearchIndex index;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pendingCategories = ConcurrentHashMap.newKeySet();
+    // Serializes batches and rebuilds, so a refresh never publishes a half-finished rebuild
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LuceneIndexUpdater(LuceneProductSearchIndex index, ProductRepository productRepository,
+                              CategoryRepository categoryRepository, PlatformTransactionManager transactionManager) {
+        this.index = index;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // After commit only: a rolled-back write must never reach the index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pending.addAll(event.productIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        pendingCategories.addAll(event.categoryIds());
+    }
+
+    @Scheduled(fixedDelayString = "${product.search.lucene.refresh-interval:1s}")
+    public void refresh() {
+        lock.lock();
+        try {
+            queueCategoryProducts();
+            applyPending();
+            index.refresh();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${product.search.lucene.commit-interval:30s}")
+    public void commit() {
+        index.commit();
+    }
+
+    /**
+     * Re-reads every active product through a server-side cursor and rewrites the index from it.
+     * Searches keep seeing the previous contents until the rebuild completes.
+     *
+     * @return the number of products indexed
+     */
+    public int rebuild() {
+        lock.lock();
+        try {
+            long generation = index.beginGeneration();
+            int indexed = readOnlyTransaction.execute(_ -> {
+                Map<UUID, String> categoryPaths = categoryPaths();
+                int count = 0;
+                try (Stream<ProductIndexRow> rows = productRepository.streamActiveIndexRows()) {
+                    for (ProductIndexRow row : (Iterable<ProductIndexRow>) rows::iterator) {
+                        index.index(row, categoryPaths.get(row.categoryId()));
+                        count++;
+                    }
+                }
+                return count;
+            });
+            index.deleteOlderGenerations(generation);
+            index.commit();
+            index.refresh();
+            return indexed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void queueCategoryProducts() {
+        if (pendingCategories.isEmpty()) {
+            return;
+        }
+        List<UUID> categoryIds = new ArrayList<>(pendingCategories);
+        pendingCategories.removeAll(categoryIds);
+
+        try {
+            readOnlyTransaction.executeWithoutResult(_ -> {
+                Set<UUID> subtrees = subtrees(categoryIds);
+                if (!subtrees.isEmpty()) {
+                    pending.addAll(productRepository.findActiveIdsByCategoryIdIn(subtrees));
+                }
+            });
+        } catch (RuntimeException e) {
+            // Retried on the next refresh rather than lost
+            pendingCategories.addAll(categoryIds);
+            log.warn("Could not find the products of {} changed categories to re-index: {}", categoryIds.size(),
+                    e.getMessage());
+        }
+    }
+
+    // The given categories and everything below them; deleted ones are gone, and so are their products
+    private Set<UUID> subtrees(List<UUID> categoryIds) {
+        Map<UUID, List<UUID>> children = new HashMap<>();
+        Set<UUID> existing = new HashSet<>();
+        for (Category category : categoryRepository.findAllWithParent()) {
+            existing.add(category.getId());
+            if (category.getParent() != null) {
+                children.computeIfAbsent(category.getParent().getId(), _ -> new ArrayList<>()).add(category.getId());
+            }
+        }
+        Set<UUID> subtrees = new HashSet<>();
+        Deque<UUID> toVisit = new ArrayDeque<>(categoryIds.stream().filter(existing::contains).toList());
+        while (!toVisit.isEmpty()) {
+            UUID categoryId = toVisit.pop();
+            if (subtrees.add(categoryId)) {
+                toVisit.addAll(children.getOrDefault(categoryId, List.of()));
+            }
+        }
+        return subtrees;
+    }
+
+    private void applyPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = new ArrayList<>(pending);
+        pending.removeAll(ids);
+
+        try {
+            readOnlyTransaction.executeWithoutResult(_ -> {
+                Map<UUID, String> categoryPaths = categoryPaths();
+                for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                    List<UUID> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+                    List<ProductIndexRow> rows = productRepository.findActiveIndexRowsByIdIn(batch);
+                    rows.forEach(row -> index.index(row, categoryPaths.get(row.categoryId())));
+
+                    // Whatever did not come back is no longer active
+                    Set<UUID> active = rows.stream().map(ProductIndexRow::id).collect(Collectors.toSet());
+                    batch.stream().filter(id -> !active.contains(id)).forEach(index::delete);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Retried on the next refresh rather than lost
+            pending.addAll(ids);
+            log.warn("Could not update the product search index for {} products: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    // "Electronics > Computers > Laptops" for every category; the categories table is small
+    private Map<UUID, String> categoryPaths() {
+        Map<UUID, Category> categories = new HashMap<>();
+        categoryRepository.findAllWithParent().forEach(category -> categories.put(category.getId(), category));
+
+        Map<UUID, String> paths = new HashMap<>();
+        for (Category category : categories.values()) {
+            LinkedList<String> names = new LinkedList<>();
+            for (Category current = category; current != null && names.size() <= categories.size();
+                 current = current.getParent() != null ? categories.get(current.getParent().getId()) : null) {
+                names.addFirst(current.getName());
+            }
+            paths.put(category.getId(), String.join(" > ", names));
+        }
+        return paths;
+    }
+}
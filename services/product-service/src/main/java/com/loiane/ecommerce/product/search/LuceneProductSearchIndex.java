@@ -0,0 +1,350 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.dto.product.CategorySummary;
+import com.loiane.ecommerce.product.dto.product.ProductIndexRow;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.repository.ProductSearchHit;
+import com.loiane.ecommerce.product.repository.SearchCursor;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.WildcardQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-process Lucene index of active products.
+ * <p>
+ * Writes go through a single {@link IndexWriter} and become searchable at the next {@link #refresh()}
+ * (near-real-time: no commit needed); {@link #commit()} only makes them durable. Hits are built from
+ * stored fields, so searching never touches the database.
+ */
+@Component
+@ConditionalOnProperty(name = "product.search.engine", havingValue = "lucene")
+public class LuceneProductSearchIndex implements ProductSearchEngine {
+
+    static final String ID = "id";
+    static final String NAME = "name";
+    static final String NAME_WORDS = "name_words";
+    static final String SKU = "sku";
+    static final String SKU_KEYWORD = "sku_keyword";
+    static final String SHORT_DESCRIPTION = "short_description";
+    static final String DESCRIPTION = "description";
+    static final String CATEGORY_PATH = "category_path";
+    static final String PRICE = "price";
+    static final String STATUS = "status";
+    static final String AVAILABLE = "available";
+    static final String GENERATION = "generation";
+
+    private static final String STOCK_QUANTITY = "stock_quantity";
+    private static final String RESERVED_QUANTITY = "reserved_quantity";
+    private static final String PUBLISHED_AT = "published_at";
+    private static final String CATEGORY_ID = "category_id";
+    private static final String CATEGORY_NAME = "category_name";
+    private static final String CATEGORY_SLUG = "category_slug";
+
+    // Same precedence as the search_vector weights (name, then SKU, then short description);
+    // the long description and category path are only indexed here
+    private static final Map<String, Float> FULL_TEXT_FIELDS = Map.of(
+            NAME, 4f, SKU, 2f, SHORT_DESCRIPTION, 1f, CATEGORY_PATH, 1f, DESCRIPTION, 0.5f);
+
+    // Score, then id, both descending: the order of the PostgreSQL engine, and stable across pages
+    private static final Sort RELEVANCE = new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.STRING, true));
+
+    // Stemmed English everywhere except the fuzzy name field: "mechanicl" is two edits from "mechanical"
+    // but four from its stem "mechan"
+    private final Analyzer analyzer = new PerFieldAnalyzerWrapper(new EnglishAnalyzer(),
+            Map.of(NAME_WORDS, new StandardAnalyzer()));
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile long generation;
+
+    /**
+     * @param directoryPath where the index lives on disk; blank keeps it in memory and rebuilds it on every start
+     */
+    public LuceneProductSearchIndex(@Value("${product.search.lucene.directory:}") String directoryPath) throws IOException {
+        this.directory = directoryPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(directoryPath));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    // WRITE OPERATIONS
+
+    /** Adds or replaces the document of one active product. */
+    public void index(ProductIndexRow row, String categoryPath) {
+        try {
+            writer.updateDocument(new Term(ID, row.id().toString()), toDocument(row, categoryPath));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Removes a product that is no longer active (or no longer exists). */
+    public void delete(UUID productId) {
+        try {
+            writer.deleteDocuments(new Term(ID, productId.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Starts a rebuild: documents written from now on are stamped with a new generation, so that
+     * {@link #deleteOlderGenerations(long)} can drop whatever the rebuild did not rewrite. Until then
+     * the old documents stay searchable, and a failed rebuild leaves them in place.
+     */
+    public long beginGeneration() {
+        generation = System.currentTimeMillis();
+        return generation;
+    }
+
+    public void deleteOlderGenerations(long current) {
+        try {
+            writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, current - 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Makes the writes so far visible to searches. Cheap when nothing changed. */
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Makes the writes so far durable. Batched on a timer: a commit fsyncs every new segment file. */
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // READ OPERATIONS
+
+    public boolean isEmpty() {
+        return writer.getDocStats().numDocs == 0;
+    }
+
+    @Override
+    public List<ProductSearchHit> search(String query, SearchMode mode, boolean inStockOnly, SearchCursor after, int limit) {
+        Query luceneQuery = mode == SearchMode.FUZZY ? fuzzyQuery(query) : fullTextQuery(query);
+        if (luceneQuery == null) {
+            return List.of();
+        }
+        if (inStockOnly) {
+            // A filter clause narrows the matches without changing their scores, so cursors stay valid
+            luceneQuery = new BooleanQuery.Builder()
+                    .add(luceneQuery, Occur.MUST)
+                    .add(new TermQuery(new Term(AVAILABLE, "true")), Occur.FILTER)
+                    .build();
+        }
+
+        IndexSearcher searcher = acquire();
+        try {
+            // The cursor's (score, id) is a sort position, so paging does not depend on Lucene doc ids;
+            // the last doc id places the cursor after every hit with the same score and id
+            FieldDoc afterDoc = after == null ? null : new FieldDoc(searcher.getIndexReader().maxDoc() - 1,
+                    after.rank(), new Object[]{after.rank(), new BytesRef(after.id().toString())});
+            TopDocs top = searcher.searchAfter(afterDoc, luceneQuery, limit, RELEVANCE, true);
+            StoredFields storedFields = searcher.storedFields();
+            List<ProductSearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+            for (ScoreDoc scoreDoc : top.scoreDocs) {
+                float score = (Float) ((FieldDoc) scoreDoc).fields[0];
+                hits.add(new ProductSearchHit(toListItem(storedFields.document(scoreDoc.doc)), score));
+            }
+            return hits;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            release(searcher);
+        }
+    }
+
+    // Web-search style syntax like the PostgreSQL engine: "phrase", -excluded, a | b; never rejects input
+    private Query fullTextQuery(String query) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FULL_TEXT_FIELDS);
+        parser.setDefaultOperator(Occur.MUST);
+        return parser.parse(query);
+    }
+
+    // Every name word within a few edits of a query word, or the query as a SKU fragment
+    private Query fuzzyQuery(String query) {
+        BooleanQuery.Builder name = new BooleanQuery.Builder();
+        List<String> terms = analyze(query);
+        for (String term : terms) {
+            name.add(new FuzzyQuery(new Term(NAME_WORDS, term), maxEdits(term)), Occur.MUST);
+        }
+        String fragment = query.strip().toLowerCase(Locale.ROOT);
+        if (terms.isEmpty() && fragment.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder either = new BooleanQuery.Builder();
+        if (!terms.isEmpty()) {
+            either.add(name.build(), Occur.SHOULD);
+        }
+        if (!fragment.isEmpty()) {
+            either.add(new WildcardQuery(new Term(SKU_KEYWORD, "*" + escapeWildcards(fragment) + "*")), Occur.SHOULD);
+        }
+        return either.build();
+    }
+
+    // Short words tolerate fewer typos, or "cat" would match "car", "hat" and "cut"
+    private static int maxEdits(String term) {
+        return term.length() < 3 ? 0 : term.length() < 6 ? 1 : 2;
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(NAME_WORDS, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static String escapeWildcards(String fragment) {
+        return fragment.replace("\\", "\\\\").replace("*", "\\*").replace("?", "\\?");
+    }
+
+    private IndexSearcher acquire() {
+        try {
+            return searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(IndexSearcher searcher) {
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // DOCUMENT MAPPING
+
+    private Document toDocument(ProductIndexRow row, String categoryPath) {
+        Document document = new Document();
+        String id = row.id().toString();
+        document.add(new StringField(ID, id, Store.YES));
+        document.add(new SortedDocValuesField(ID, new BytesRef(id)));
+        document.add(new LongPoint(GENERATION, generation));
+
+        document.add(new TextField(NAME, row.name(), Store.YES));
+        document.add(new TextField(NAME_WORDS, row.name(), Store.NO));
+        document.add(new TextField(SKU, row.sku(), Store.YES));
+        document.add(new StringField(SKU_KEYWORD, row.sku().toLowerCase(Locale.ROOT), Store.NO));
+        if (row.shortDescription() != null) {
+            document.add(new TextField(SHORT_DESCRIPTION, row.shortDescription(), Store.NO));
+        }
+        if (row.description() != null) {
+            document.add(new TextField(DESCRIPTION, row.description(), Store.NO));
+        }
+        if (categoryPath != null) {
+            document.add(new TextField(CATEGORY_PATH, categoryPath, Store.NO));
+        }
+        document.add(new DoublePoint(PRICE, row.basePrice().doubleValue()));
+        document.add(new StoredField(PRICE, row.basePrice().toPlainString()));
+        document.add(new StringField(STATUS, row.status().name(), Store.YES));
+        document.add(new StringField(AVAILABLE, String.valueOf(Boolean.TRUE.equals(row.available())), Store.NO));
+
+        // Stored only, to render the listing row without a database round trip
+        document.add(new StoredField(STOCK_QUANTITY, row.stockQuantity()));
+        document.add(new StoredField(RESERVED_QUANTITY, row.reservedQuantity()));
+        if (row.publishedAt() != null) {
+            document.add(new StoredField(PUBLISHED_AT, row.publishedAt().toString()));
+        }
+        if (row.categoryId() != null) {
+            document.add(new StoredField(CATEGORY_ID, row.categoryId().toString()));
+            document.add(new StoredField(CATEGORY_NAME, row.categoryName()));
+            document.add(new StoredField(CATEGORY_SLUG, row.categorySlug()));
+        }
+        return document;
+    }
+
+    private static ProductListItem toListItem(Document document) {
+        String publishedAt = document.get(PUBLISHED_AT);
+        String categoryId = document.get(CATEGORY_ID);
+        return new ProductListItem(
+                document.get(ID),
+                document.get(NAME),
+                document.get(SKU),
+                new BigDecimal(document.get(PRICE)),
+                ProductStatus.valueOf(document.get(STATUS)),
+                categoryId != null ? new CategorySummary(categoryId, document.get(CATEGORY_NAME), document.get(CATEGORY_SLUG)) : null,
+                document.getField(STOCK_QUANTITY).numericValue().intValue(),
+                document.getField(RESERVED_QUANTITY).numericValue().intValue(),
+                publishedAt != null ? OffsetDateTime.parse(publishedAt) : null);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
@@ -0,0 +1,32 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.repository.ProductSearchHit;
+import com.loiane.ecommerce.product.repository.SearchCursor;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Searches with the database's own full-text and trigram indexes.
+ */
+@Component
+@ConditionalOnProperty(name = "product.search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresProductSearchEngine implements ProductSearchEngine {
+
+    private final ProductRepository productRepository;
+
+    public PostgresProductSearchEngine(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    // One transaction, so the fuzzy mode's similarity threshold applies to the query that follows it
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSearchHit> search(String query, SearchMode mode, boolean inStockOnly, SearchCursor after, int limit) {
+        return productRepository.searchActiveProducts(query, mode, inStockOnly, after, limit);
+    }
+}
@@ -0,0 +1,23 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.repository.ProductSearchHit;
+import com.loiane.ecommerce.product.repository.SearchCursor;
+import com.loiane.ecommerce.product.repository.SearchMode;
+
+import java.util.List;
+
+/**
+ * Answers {@code /search}. Chosen with {@code product.search.engine}: {@code postgres} (default) queries
+ * the database, {@code lucene} an in-process index kept in step by {@link LuceneIndexUpdater}.
+ */
+public interface ProductSearchEngine {
+
+    /**
+     * Ranked page of active products matching {@code query}, ordered by relevance and then id.
+     *
+     * @param inStockOnly only products with stock left to reserve, or whose inventory is not tracked
+     * @param after       position of the last hit of the previous page, or {@code null} for the first page
+     * @param limit       maximum number of hits to return
+     */
+    List<ProductSearchHit> search(String query, SearchMode mode, boolean inStockOnly, SearchCursor after, int limit);
+}
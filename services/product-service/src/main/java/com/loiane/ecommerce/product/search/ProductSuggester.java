@@ -0,0 +1,336 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.dto.product.ProductSuggestRow;
+import com.loiane.ecommerce.product.dto.product.Suggestion;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import org.apache.lucene.search.suggest.InputIterator;
+import org.apache.lucene.search.suggest.Lookup.LookupResult;
+import org.apache.lucene.search.suggest.fst.WFSTCompletionLookup;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Search-as-you-type over active product names, SKUs and active category names, answered from memory.
+ * <p>
+ * Suggestions live in weighted FSTs ({@link WFSTCompletionLookup}), compressed prefix automatons that
+ * return the most popular completions of a prefix. An FST cannot be modified and building one for the
+ * whole catalog takes seconds, so changes go to a small delta FST instead: it holds the products changed
+ * since the last compaction plus the categories, and the base FST skips the products it supersedes. Each
+ * update builds a new snapshot and swaps it in; lookups keep reading the previous one meanwhile. Product
+ * changes are applied by id after commit; categories, a small table, are re-read with every change.
+ * Changes committed by other application nodes arrive with the next {@link #reload()}.
+ */
+@Component
+public class ProductSuggester {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggester.class);
+    private static final int BATCH_SIZE = 500;
+
+    // Past this many changed products the delta is folded back into a new base
+    private static final int COMPACTION_THRESHOLD = 10_000;
+
+    // Keys are "<text from a word start><SEPARATOR><entry index>": unique, and a prefix of the text is a prefix of the key
+    private static final char SEPARATOR = '\u001f';
+
+    // "sle" also finds "Laptop Sleeve": names and category names are keyed from each of their first few words
+    private static final int MAX_WORD_STARTS = 4;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    // Current active products, and those changed since the base was built; guarded by the lock
+    private final Map<UUID, ProductSuggestRow> products = new HashMap<>();
+    private final Set<UUID> changedSinceCompaction = new HashSet<>();
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean categoriesChanged = new AtomicBoolean();
+    // Serializes updates; lookups never take it
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public ProductSuggester(ProductRepository productRepository, CategoryRepository categoryRepository) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * The most popular suggestions starting with {@code prefix}, ignoring case: products weighted by the
+     * units currently reserved for them (the demand signal the catalog holds), categories by their active
+     * product count. Suggestions with the same type and text are returned once.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        return key.isEmpty() ? List.of() : snapshot.lookup(key, limit);
+    }
+
+    // After commit only: a rolled-back write must never be suggested
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        pending.addAll(event.productIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categoriesChanged.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${product.suggest.refresh-interval:2s}")
+    public void refresh() {
+        if (pending.isEmpty() && !categoriesChanged.get()) {
+            return;
+        }
+        lock.lock();
+        try {
+            categoriesChanged.set(false);
+            List<UUID> ids = new ArrayList<>(pending);
+            pending.removeAll(ids);
+            try {
+                for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                    List<UUID> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+                    // Whatever does not come back is no longer active
+                    batch.forEach(products::remove);
+                    productRepository.findActiveSuggestRowsByIdIn(batch).forEach(row -> products.put(row.id(), row));
+                    changedSinceCompaction.addAll(batch);
+                }
+                // A product change can move a category's active count, so categories are always re-read
+                publish(categoryRepository.findByIsActiveTrue(), changedSinceCompaction.size() > COMPACTION_THRESHOLD);
+            } catch (RuntimeException e) {
+                // Retried on the next refresh rather than lost
+                pending.addAll(ids);
+                categoriesChanged.set(true);
+                log.warn("Could not update the suggestions for {} products: {}", ids.size(), e.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Re-reads every active product and category: on startup, and nightly for changes made through other nodes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${product.suggest.reload-cron:0 45 3 * * *}")
+    public void reload() {
+        lock.lock();
+        try {
+            // Cleared first: changes committed from here on are either read below or applied again later
+            pending.clear();
+            categoriesChanged.set(false);
+            products.clear();
+            productRepository.findActiveSuggestRows().forEach(row -> products.put(row.id(), row));
+            publish(categoryRepository.findByIsActiveTrue(), true);
+            log.info("Loaded {} products and their categories into the suggester", products.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void publish(List<Category> categories, boolean compact) {
+        Segment base = snapshot.base();
+        if (compact) {
+            changedSinceCompaction.clear();
+            SegmentBuilder builder = new SegmentBuilder();
+            products.values().forEach(builder::add);
+            base = builder.build();
+        }
+
+        SegmentBuilder delta = new SegmentBuilder();
+        for (UUID id : changedSinceCompaction) {
+            ProductSuggestRow row = products.get(id);
+            if (row != null) {
+                delta.add(row);
+            }
+        }
+        categories.forEach(delta::add);
+
+        Set<String> superseded = new HashSet<>();
+        changedSinceCompaction.forEach(id -> superseded.add(id.toString()));
+        snapshot = new Snapshot(base, delta.build(), superseded);
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Hit(Suggestion suggestion, long weight) {
+    }
+
+    /**
+     * One immutable generation of the suggestions. Base entries whose product id is in {@code superseded}
+     * are skipped; the delta holds their current version, if they are still active.
+     */
+    private record Snapshot(Segment base, Segment delta, Set<String> superseded) {
+
+        static final Snapshot EMPTY = new Snapshot(Segment.EMPTY, Segment.EMPTY, Set.of());
+
+        List<Suggestion> lookup(String prefix, int limit) {
+            List<Hit> hits = new ArrayList<>(delta.lookup(prefix, limit, Set.of()));
+            hits.addAll(base.lookup(prefix, limit, superseded));
+            hits.sort(Comparator.comparingLong(Hit::weight).reversed());
+
+            Set<String> seen = new HashSet<>();
+            List<Suggestion> suggestions = new ArrayList<>(limit);
+            for (Hit hit : hits) {
+                Suggestion suggestion = hit.suggestion();
+                if (suggestions.size() < limit && seen.add(suggestion.type() + ":" + normalize(suggestion.text()))) {
+                    suggestions.add(suggestion);
+                }
+            }
+            return suggestions;
+        }
+    }
+
+    /** An FST and the entries its keys point to. */
+    private record Segment(WFSTCompletionLookup fst, List<Suggestion> entries) {
+
+        static final Segment EMPTY = new Segment(null, List.of());
+
+        // Bounds the over-fetch when many of the best base hits are superseded
+        private static final int MAX_FETCH = 1024;
+
+        List<Hit> lookup(String prefix, int limit, Set<String> skipped) {
+            if (fst == null) {
+                return List.of();
+            }
+            // Over-fetch, since a product can match through more than one word start, or be superseded
+            int fetch = limit * 2;
+            while (true) {
+                List<LookupResult> results = fst.lookup(prefix, null, false, fetch);
+                List<Hit> hits = new ArrayList<>(results.size());
+                for (LookupResult result : results) {
+                    String key = result.key.toString();
+                    Suggestion suggestion = entries.get(Integer.parseInt(key.substring(key.lastIndexOf(SEPARATOR) + 1)));
+                    if (!skipped.contains(suggestion.id())) {
+                        hits.add(new Hit(suggestion, result.value));
+                    }
+                }
+                if (hits.size() >= limit * 2 || results.size() < fetch || fetch >= MAX_FETCH) {
+                    return hits;
+                }
+                fetch = Math.min(fetch * 4, MAX_FETCH);
+            }
+        }
+    }
+
+    private static final class SegmentBuilder {
+
+        private final List<Suggestion> entries = new ArrayList<>();
+        private final List<Input> inputs = new ArrayList<>();
+
+        void add(ProductSuggestRow row) {
+            long weight = row.reservedQuantity() != null ? row.reservedQuantity() : 0;
+            String id = row.id().toString();
+            add(new Suggestion(row.name(), Suggestion.Type.PRODUCT, id), weight, MAX_WORD_STARTS);
+            add(new Suggestion(row.sku(), Suggestion.Type.SKU, id), weight, 1);
+        }
+
+        void add(Category category) {
+            long weight = category.getActiveProductCount() != null ? category.getActiveProductCount() : 0;
+            add(new Suggestion(category.getName(), Suggestion.Type.CATEGORY, category.getId().toString()),
+                    weight, MAX_WORD_STARTS);
+        }
+
+        private void add(Suggestion suggestion, long weight, int wordStarts) {
+            String text = normalize(suggestion.text());
+            if (text.isEmpty()) {
+                return;
+            }
+            String suffix = SEPARATOR + Integer.toString(entries.size());
+            entries.add(suggestion);
+            // WFST weights are non-negative ints
+            long clamped = Math.clamp(weight, 0, Integer.MAX_VALUE);
+            int start = 0;
+            for (int word = 0; word < wordStarts && start >= 0; word++) {
+                inputs.add(new Input(text.substring(start) + suffix, clamped));
+                int space = text.indexOf(' ', start);
+                start = space < 0 ? -1 : space + 1;
+            }
+        }
+
+        Segment build() {
+            if (inputs.isEmpty()) {
+                return Segment.EMPTY;
+            }
+            // The temporary directory only holds the sort files of the build
+            try (ByteBuffersDirectory buildDirectory = new ByteBuffersDirectory()) {
+                WFSTCompletionLookup fst = new WFSTCompletionLookup(buildDirectory, "suggest", false);
+                fst.build(new Inputs(inputs.iterator()));
+                return new Segment(fst, List.copyOf(entries));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private record Input(String key, long weight) {
+    }
+
+    private static final class Inputs implements InputIterator {
+
+        private final Iterator<Input> iterator;
+        private Input current;
+
+        Inputs(Iterator<Input> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public BytesRef next() {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            current = iterator.next();
+            return new BytesRef(current.key());
+        }
+
+        @Override
+        public long weight() {
+            return current.weight();
+        }
+
+        @Override
+        public BytesRef payload() {
+            return null;
+        }
+
+        @Override
+        public boolean hasPayloads() {
+            return false;
+        }
+
+        @Override
+        public Set<BytesRef> contexts() {
+            return null;
+        }
+
+        @Override
+        public boolean hasContexts() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.entity.SearchQuery;
+import com.loiane.ecommerce.product.entity.SearchQueryId;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import com.loiane.ecommerce.product.repository.SearchQueryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the normalized {@code /search} queries, so {@link SearchResultCache} knows which ones to warm.
+ * Counting is in memory; the counts are added to the {@code search_queries} table in one batch per flush,
+ * never one write per search, and halved nightly.
+ */
+@Component
+public class SearchQueryLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchQueryLog.class);
+
+    // Longer queries are one-offs, never worth warming, and would not fit the column
+    private static final int MAX_QUERY_LENGTH = 255;
+
+    private final SearchQueryRepository searchQueryRepository;
+    private final Map<SearchQueryId, LongAdder> counts = new ConcurrentHashMap<>();
+
+    public SearchQueryLog(SearchQueryRepository searchQueryRepository) {
+        this.searchQueryRepository = searchQueryRepository;
+    }
+
+    public void record(SearchMode mode, String normalizedQuery) {
+        if (!normalizedQuery.isEmpty() && normalizedQuery.length() <= MAX_QUERY_LENGTH) {
+            counts.computeIfAbsent(new SearchQueryId(mode, normalizedQuery), _ -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * The most asked queries, most asked first.
+     */
+    @Transactional(readOnly = true)
+    public List<SearchQueryId> hotQueries(int limit) {
+        return searchQueryRepository.findByOrderBySearchCountDesc(Limit.of(limit)).stream()
+                .map(SearchQuery::getId)
+                .toList();
+    }
+
+    // Not transactional itself: the upsert commits or rolls back on its own, so a failure is only logged
+    @Scheduled(fixedDelayString = "${product.search-cache.query-log.flush-interval:1m}")
+    public void flush() {
+        List<String> modes = new ArrayList<>();
+        List<String> queries = new ArrayList<>();
+        List<Long> searchCounts = new ArrayList<>();
+        // A search counted while its entry is being removed may be lost; the counts rank queries, they are not a tally
+        for (SearchQueryId id : List.copyOf(counts.keySet())) {
+            LongAdder count = counts.remove(id);
+            modes.add(id.getSearchMode().name());
+            queries.add(id.getQuery());
+            searchCounts.add(count.sum());
+        }
+        if (queries.isEmpty()) {
+            return;
+        }
+        try {
+            searchQueryRepository.addSearchCounts(modes.toArray(String[]::new), queries.toArray(String[]::new),
+                    searchCounts.toArray(Long[]::new));
+        } catch (RuntimeException e) {
+            // The counts only steer the warm-up, so losing one batch is preferable to growing without bound
+            log.warn("Could not record {} search queries: {}", queries.size(), e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${product.search-cache.query-log.decay-cron:0 15 4 * * *}")
+    @Transactional
+    public void decay() {
+        searchQueryRepository.halveSearchCounts();
+        int forgotten = searchQueryRepository.deleteForgottenQueries();
+        log.info("Halved the search query counts and forgot {} queries", forgotten);
+    }
+}
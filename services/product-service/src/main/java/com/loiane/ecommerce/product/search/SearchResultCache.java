@@ -0,0 +1,255 @@
+package com.loiane.ecommerce.product.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.config.SingleFlight;
+import com.loiane.ecommerce.product.entity.SearchQueryId;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.repository.ProductSearchHit;
+import com.loiane.ecommerce.product.repository.SearchCursor;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * The first pages of {@code /search} results, kept in memory for the head queries that make up most of
+ * the search volume.
+ * <p>
+ * An entry holds the top hits of one query in one mode, with or without out-of-stock products, keyed by the
+ * query normalized (trimmed, whitespace collapsed, lowercased) so that spelling variants share it; pages and cursors within those hits are served
+ * without asking the engine. Every entry records the (category, price band) pairs its hits fall in. A
+ * committed product write drops only the entries touching the pairs the product had before or after it,
+ * and a category change only the entries showing that category. A product starting to match a query in a
+ * pair none of its cached hits has goes unnoticed until the entry expires, which bounds the staleness.
+ * A product selling out is in the hits of every in-stock entry that shows it, so those are dropped too.
+ * The most asked queries of the {@link SearchQueryLog} are loaded, in both variants, by the startup warm-up.
+ */
+@Component
+public class SearchResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultCache.class);
+
+    private final ProductSearchEngine productSearchEngine;
+    private final SearchQueryLog searchQueryLog;
+    private final TaskScheduler taskScheduler;
+    private final Cache<Object, Object> entries;
+    private final List<BigDecimal> priceBands;
+    private final int maxHits;
+    private final int warmUpQueries;
+    private final Duration reinvalidateAfter;
+    // Loads in progress, told about every invalidation that happens while they read
+    private final Set<PendingLoad> loading = ConcurrentHashMap.newKeySet();
+    private final SingleFlight<String, Entry> firstPageLoads = new SingleFlight<>();
+
+    public SearchResultCache(ProductSearchEngine productSearchEngine,
+                             SearchQueryLog searchQueryLog,
+                             TaskScheduler taskScheduler,
+                             CacheManager cacheManager,
+                             @Value("${product.facets.price-bands:25,50,100,250,500}") List<BigDecimal> priceBands,
+                             @Value("${product.search-cache.hits:100}") int maxHits,
+                             @Value("${product.search-cache.warm-up-queries:50}") int warmUpQueries,
+                             @Value("${product.search-cache.reinvalidate-after:2s}") Duration reinvalidateAfter) {
+        this.productSearchEngine = productSearchEngine;
+        this.searchQueryLog = searchQueryLog;
+        this.taskScheduler = taskScheduler;
+        this.entries = ((CaffeineCache) cacheManager.getCache(CacheNames.SEARCH_RESULTS)).getNativeCache();
+        this.priceBands = priceBands.stream().sorted().toList();
+        this.maxHits = maxHits;
+        this.warmUpQueries = warmUpQueries;
+        this.reinvalidateAfter = reinvalidateAfter;
+    }
+
+    /**
+     * Same contract as {@link ProductSearchEngine#search}. First pages are loaded into the cache; later
+     * pages are served from it when they lie within the cached hits, and from the engine otherwise.
+     */
+    public List<ProductSearchHit> search(String query, SearchMode mode, boolean inStockOnly, SearchCursor after, int limit) {
+        String normalized = normalize(query);
+        String key = key(mode, inStockOnly, normalized);
+        if (after == null) {
+            searchQueryLog.record(mode, normalized);
+        }
+
+        Entry entry = (Entry) entries.getIfPresent(key);
+        if (entry == null && after == null && limit <= maxHits) {
+            // Concurrent misses (an expired head query, a flush) share one engine read
+            entry = firstPageLoads.load(key, () -> {
+                Entry loaded = (Entry) entries.getIfPresent(key);
+                return loaded != null ? loaded : load(key, normalized, mode, inStockOnly);
+            });
+        }
+        List<ProductSearchHit> page = entry != null ? entry.page(after, limit) : null;
+        return page != null ? page : productSearchEngine.search(normalized, mode, inStockOnly, after, limit);
+    }
+
+    // After commit only, so a reload never reads the state from before the write
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Predicate<Entry> stale;
+        if (event.placements().isEmpty()) {
+            stale = _ -> true;
+        } else {
+            Set<Tag> tags = event.placements().stream()
+                    .map(placement -> new Tag(placement.categoryId() != null ? placement.categoryId().toString() : null,
+                            bandOf(placement.basePrice())))
+                    .collect(Collectors.toUnmodifiableSet());
+            stale = entry -> entry.touchesAny(tags);
+        }
+        invalidate(stale);
+        // An engine that indexes asynchronously (lucene) can still answer from before the write for a moment,
+        // and an entry reloaded meanwhile would keep that answer until it expires
+        taskScheduler.schedule(() -> invalidate(stale), Instant.now().plus(reinvalidateAfter));
+    }
+
+    // Hits show their category; a subtree operation names every category in it
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        Set<String> categoryIds = event.categoryIds().stream().map(UUID::toString).collect(Collectors.toUnmodifiableSet());
+        invalidate(entry -> entry.showsAny(categoryIds));
+    }
+
+    /**
+     * One load per query most asked according to the {@link SearchQueryLog}, for the startup warm-up to run;
+     * none when the cache is off or the log cannot be read.
+     */
+    public List<Runnable> warmUpLoads() {
+        if (maxHits == 0) {
+            return List.of();
+        }
+        List<SearchQueryId> hotQueries;
+        try {
+            hotQueries = searchQueryLog.hotQueries(warmUpQueries);
+        } catch (RuntimeException e) {
+            log.warn("Could not read the search query log, starting with a cold search cache: {}", e.getMessage());
+            return List.of();
+        }
+        return hotQueries.stream().<Runnable>map(hot -> () -> {
+            try {
+                // Most shoppers hide out-of-stock products, so both variants are worth warming
+                for (boolean inStockOnly : new boolean[]{true, false}) {
+                    load(key(hot.getSearchMode(), inStockOnly, hot.getQuery()), hot.getQuery(), hot.getSearchMode(),
+                            inStockOnly);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not warm search query '{}': {}", hot.getQuery(), e.getMessage());
+            }
+        }).toList();
+    }
+
+    private Entry load(String key, String query, SearchMode mode, boolean inStockOnly) {
+        PendingLoad pending = new PendingLoad();
+        loading.add(pending);
+        Entry entry;
+        try {
+            // One hit more than kept tells whether the kept hits are all there is
+            List<ProductSearchHit> hits = productSearchEngine.search(query, mode, inStockOnly, null, maxHits + 1);
+            List<ProductSearchHit> kept = List.copyOf(hits.subList(0, Math.min(hits.size(), maxHits)));
+            entry = new Entry(kept, hits.size() <= maxHits, tagsOf(kept));
+            entries.put(key, entry);
+        } finally {
+            loading.remove(pending);
+        }
+        // A write committed while the engine was read may be missing from the hits
+        if (pending.invalidations.stream().anyMatch(stale -> stale.test(entry))) {
+            entries.asMap().remove(key, entry);
+        }
+        return entry;
+    }
+
+    private void invalidate(Predicate<Entry> stale) {
+        loading.forEach(pending -> pending.invalidations.add(stale));
+        entries.asMap().values().removeIf(value -> stale.test((Entry) value));
+    }
+
+    private Set<Tag> tagsOf(List<ProductSearchHit> hits) {
+        return hits.stream()
+                .map(ProductSearchHit::item)
+                .map(item -> new Tag(item.category() != null ? item.category().id() : null, bandOf(item.basePrice())))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Index of the first boundary above the price, like width_bucket in the price facets
+    private int bandOf(BigDecimal price) {
+        int band = 0;
+        while (price != null && band < priceBands.size() && price.compareTo(priceBands.get(band)) >= 0) {
+            band++;
+        }
+        return band;
+    }
+
+    private static String key(SearchMode mode, boolean inStockOnly, String normalizedQuery) {
+        return mode + (inStockOnly ? ":in-stock:" : ":") + normalizedQuery;
+    }
+
+    static String normalize(String query) {
+        return query == null ? "" : query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Tag(String categoryId, int priceBand) {
+    }
+
+    private static final class PendingLoad {
+        final Queue<Predicate<Entry>> invalidations = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * The top hits of a query; {@code complete} when they are all of its hits.
+     */
+    private record Entry(List<ProductSearchHit> hits, boolean complete, Set<Tag> tags) {
+
+        // The page after the cursor, or null when it does not lie entirely within the cached hits
+        List<ProductSearchHit> page(SearchCursor after, int limit) {
+            int from = 0;
+            if (after != null) {
+                String afterId = after.id().toString();
+                from = indexOf(afterId) + 1;
+                if (from == 0) {
+                    return null;
+                }
+            }
+            int to = from + limit;
+            if (to > hits.size() && !complete) {
+                return null;
+            }
+            return hits.subList(from, Math.min(to, hits.size()));
+        }
+
+        boolean touchesAny(Set<Tag> changed) {
+            return changed.stream().anyMatch(tags::contains);
+        }
+
+        boolean showsAny(Set<String> categoryIds) {
+            // Uncategorized hits carry no category, and immutable sets reject null lookups
+            return tags.stream().anyMatch(tag -> tag.categoryId() != null && categoryIds.contains(tag.categoryId()));
+        }
+
+        private int indexOf(String id) {
+            for (int i = 0; i < hits.size(); i++) {
+                if (hits.get(i).item().id().equals(id)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -1,29 +1,58 @@
 package com.loiane.ecommerce.product.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.config.SingleFlight;
 import com.loiane.ecommerce.product.entity.Category;
 import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
 import com.loiane.ecommerce.product.exception.CategoryNotFoundException;
 import com.loiane.ecommerce.product.exception.DuplicateSlugException;
 import com.loiane.ecommerce.product.exception.IllegalOperationException;
 import com.loiane.ecommerce.product.repository.CategoryRepository;
 import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.service.NotFoundCache.Kind;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Transactional(readOnly = true)
 public class CategoryService {
 
+    private static final String TREE_KEY = "tree";
+
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final NotFoundCache notFoundCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache<Object, Object> treeCache;
+    private final SingleFlight<String, Category> slugLoads = new SingleFlight<>();
+    private final SingleFlight<String, List<Category>> treeLoads = new SingleFlight<>();
+    // Bumped by every tree invalidation, so a load can tell whether one ran while it read
+    private final AtomicLong treeInvalidations = new AtomicLong();
 
-    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository) {
+    public CategoryService(CategoryRepository categoryRepository, ProductRepository productRepository,
+                           NotFoundCache notFoundCache, CacheManager cacheManager,
+                           ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
         this.productRepository = productRepository;
+        this.notFoundCache = notFoundCache;
+        this.treeCache = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheNames.CATEGORY_TREE)))
+                .getNativeCache();
+        this.eventPublisher = eventPublisher;
     }
 
     // CREATE OPERATIONS
@@ -39,6 +68,7 @@ public class CategoryService {
             Category parent = categoryRepository.findById(category.getParent().getId())
                     .orElseThrow(() -> new CategoryNotFoundException("Parent category not found"));
             category.setLevel(parent.getLevel() + 1);
+            categoryRepository.adjustChildCount(parent.getId(), 1);
         } else {
             category.setLevel(0);
         }
@@ -48,30 +78,82 @@ public class CategoryService {
         category.setCreatedAt(now);
         category.setUpdatedAt(now);
 
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(saved.getId()));
+        return saved;
     }
 
     // READ OPERATIONS
+    /**
+     * The category page's lookup. Concurrent requests for the same slug share one load, and so the same
+     * detached instance, which they must only read. They wait outside a transaction so that only the load
+     * holds a connection.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Category findBySlug(String slug) {
-        return categoryRepository.findBySlug(slug)
-                .orElseThrow(() -> new CategoryNotFoundException("Category not found with slug: " + slug));
+        return slugLoads.load(slug, () -> notFoundCache.find(Kind.CATEGORY_SLUG, slug,
+                        () -> categoryRepository.findWithParentAndChildrenBySlug(slug))
+                .orElseThrow(() -> new CategoryNotFoundException("Category not found with slug: " + slug)));
     }
 
-    public Category findById(String id) {
-        return categoryRepository.findById(id)
+    public Category findById(UUID id) {
+        return notFoundCache.find(Kind.CATEGORY_ID, id, () -> categoryRepository.findById(id))
                 .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + id));
     }
 
+    /**
+     * Every category with its parent, in tree order (level, then display order), as the category tree is
+     * rendered. Cached until the next category or product write, since the nodes show the product counters;
+     * concurrent misses share one load and wait for it outside a transaction. The instances are shared and
+     * must only be read.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @SuppressWarnings("unchecked")
     public List<Category> getCategoryHierarchy() {
-        // For simplicity, return root categories
-        // In a more complex implementation, you might want to load children recursively
-        return categoryRepository.findRootCategories();
+        List<Category> cached = (List<Category>) treeCache.getIfPresent(TREE_KEY);
+        if (cached != null) {
+            return cached;
+        }
+        return treeLoads.load(TREE_KEY, () -> {
+            List<Category> loaded = (List<Category>) treeCache.getIfPresent(TREE_KEY);
+            if (loaded != null) {
+                return loaded;
+            }
+            long seen = treeInvalidations.get();
+            loaded = List.copyOf(categoryRepository.findAllWithParent());
+            treeCache.put(TREE_KEY, loaded);
+            // The tree may have been read before a write that committed meanwhile
+            if (treeInvalidations.get() != seen) {
+                treeCache.invalidate(TREE_KEY);
+            }
+            return loaded;
+        });
+    }
+
+    // After commit only, so a reload never reads the state from before the write. Product writes move the
+    // counters; the nightly counter repair publishes nothing, and its corrections show once the tree expires
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateTree();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidateTree();
+    }
+
+    private void invalidateTree() {
+        treeInvalidations.incrementAndGet();
+        treeCache.invalidate(TREE_KEY);
     }
 
     // UPDATE OPERATIONS
     @Transactional
-    public Category updateCategory(String id, Category updateData) {
-        Category existingCategory = findById(id);
+    public Category updateCategory(UUID id, Category updateData) {
+        Category existingCategory = categoryRepository.findWithParentAndChildrenById(id)
+                .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + id));
 
         // Validate slug cannot be changed
         if (updateData.getSlug() != null && !updateData.getSlug().equals(existingCategory.getSlug())) {
@@ -90,24 +172,34 @@ public class CategoryService {
         }
 
         existingCategory.setUpdatedAt(OffsetDateTime.now());
+        eventPublisher.publishEvent(new CategoryChangedEvent(id));
         return categoryRepository.save(existingCategory);
     }
 
     // BUSINESS OPERATIONS
     @Transactional
-    public Category moveCategory(String categoryId, String newParentId) {
+    public Category moveCategory(UUID categoryId, UUID newParentId) {
         Category category = findById(categoryId);
         Category newParent = findById(newParentId);
 
+        Category oldParent = category.getParent();
+        if (oldParent == null || !oldParent.getId().equals(newParent.getId())) {
+            if (oldParent != null) {
+                categoryRepository.adjustChildCount(oldParent.getId(), -1);
+            }
+            categoryRepository.adjustChildCount(newParent.getId(), 1);
+        }
+
         category.setParent(newParent);
         category.setLevel(newParent.getLevel() + 1);
         category.setUpdatedAt(OffsetDateTime.now());
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
 
         return categoryRepository.save(category);
     }
 
     @Transactional
-    public Category deactivateCategory(String categoryId) {
+    public Category deactivateCategory(UUID categoryId) {
         Category category = findById(categoryId);
 
         // Check if category has active products
@@ -118,32 +210,102 @@ public class CategoryService {
 
         category.setIsActive(false);
         category.setUpdatedAt(OffsetDateTime.now());
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
         
         return categoryRepository.save(category);
     }
 
+    // Deactivates the category and all of its descendants with one recursive update
+    @Transactional
+    public int deactivateCategorySubtree(UUID categoryId) {
+        requireExisting(categoryId);
+
+        if (categoryRepository.existsActiveProductInSubtree(categoryId)) {
+            throw new IllegalOperationException("Cannot deactivate category subtree with active products");
+        }
+
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryRepository.findSubtreeIds(categoryId)));
+        return categoryRepository.deactivateSubtree(categoryId);
+    }
+
+    // Deletes the category and all of its descendants without hydrating them;
+    // remaining inactive/discontinued products are detached from the deleted categories
+    @Transactional
+    public int deleteCategorySubtree(UUID categoryId) {
+        Category category = findById(categoryId);
+
+        if (categoryRepository.existsActiveProductInSubtree(categoryId)) {
+            throw new IllegalOperationException("Cannot delete category subtree with active products");
+        }
+
+        if (category.getParent() != null) {
+            categoryRepository.adjustChildCount(category.getParent().getId(), -1);
+        }
+        // Collected first: once deleted, the subtree cannot be walked
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryRepository.findSubtreeIds(categoryId)));
+        categoryRepository.detachProductsFromSubtree(categoryId);
+        return categoryRepository.deleteSubtree(categoryId);
+    }
+
+    // Deletes a single leaf category; counters make the checks free of counting scans
+    @Transactional
+    public void deleteCategory(UUID categoryId) {
+        Category category = findById(categoryId);
+
+        if (category.getActiveProductCount() > 0) {
+            throw new IllegalOperationException("Cannot delete category with active products");
+        }
+        if (category.getChildCount() > 0) {
+            throw new IllegalOperationException("Cannot delete category with child categories");
+        }
+
+        if (category.getParent() != null) {
+            categoryRepository.adjustChildCount(category.getParent().getId(), -1);
+        }
+        if (category.getTotalProductCount() > 0) {
+            categoryRepository.detachProductsFromSubtree(categoryId);
+        }
+        categoryRepository.deleteById(categoryId);
+        eventPublisher.publishEvent(new CategoryChangedEvent(categoryId));
+    }
+
     public List<Category> searchCategories(String searchTerm) {
         return categoryRepository.findByNameContainingIgnoreCase(searchTerm);
     }
 
     @Transactional
-    public void reorderCategories(Map<String, Integer> newOrder) {
-        List<Category> categories = categoryRepository.findAllById(newOrder.keySet());
-        
-        OffsetDateTime now = OffsetDateTime.now();
-        for (Category category : categories) {
-            Integer newDisplayOrder = newOrder.get(category.getId());
-            if (newDisplayOrder != null) {
-                category.setDisplayOrder(newDisplayOrder);
-                category.setUpdatedAt(now);
-            }
+    public int reorderCategories(Map<UUID, Integer> newOrder) {
+        if (newOrder.isEmpty()) {
+            return 0;
         }
-        
-        categoryRepository.saveAll(categories);
+
+        UUID[] ids = new UUID[newOrder.size()];
+        Integer[] displayOrders = new Integer[newOrder.size()];
+        int i = 0;
+        for (Map.Entry<UUID, Integer> entry : newOrder.entrySet()) {
+            ids[i] = entry.getKey();
+            displayOrders[i] = entry.getValue();
+            i++;
+        }
+
+        int updated = categoryRepository.updateDisplayOrders(ids, displayOrders);
+        eventPublisher.publishEvent(new CategoryChangedEvent(newOrder.keySet()));
+        return updated;
     }
 
-    public long countActiveProductsInCategory(String categoryId) {
-        Category category = findById(categoryId);
-        return productRepository.countByCategoryAndStatus(category, ProductStatus.ACTIVE);
+    public long countActiveProductsInCategory(UUID categoryId) {
+        return findById(categoryId).getActiveProductCount();
+    }
+
+    // Recomputes all denormalized counters from the source tables
+    @Transactional
+    public int repairCounters() {
+        return categoryRepository.recomputeCounters();
+    }
+
+    private void requireExisting(UUID categoryId) {
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new CategoryNotFoundException("Category not found with id: " + categoryId);
+        }
     }
 }
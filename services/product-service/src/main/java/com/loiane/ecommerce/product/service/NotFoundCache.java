@@ -0,0 +1,76 @@
+package com.loiane.ecommerce.product.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keys recently looked up and not found. Bots and stale links ask for the same missing product ids and
+ * category slugs over and over; remembering the misses for a short while answers them without a query.
+ * <p>
+ * A committed product write forgets the ids it carries, so a created product is found at once, and a
+ * category change forgets every category key, since its event names the id but not the slug. A miss read
+ * while such a write commits is not kept. Writes committed by other instances arrive through the cache
+ * bus; one lost while its listener reconnects goes unseen until the entry expires, which the short TTL bounds.
+ */
+@Component
+public class NotFoundCache {
+
+    public enum Kind {
+        PRODUCT_ID, CATEGORY_ID, CATEGORY_SLUG
+    }
+
+    private final Cache<Object, Object> missing;
+    // Bumped by every invalidation, so a lookup can tell whether one ran while it read
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public NotFoundCache(CacheManager cacheManager) {
+        this.missing = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheNames.NOT_FOUND))).getNativeCache();
+    }
+
+    /**
+     * What {@code lookup} finds, or empty without calling it when the key was found missing recently.
+     */
+    public <T> Optional<T> find(Kind kind, Object key, Supplier<Optional<T>> lookup) {
+        Key cacheKey = new Key(kind, key);
+        if (missing.getIfPresent(cacheKey) != null) {
+            return Optional.empty();
+        }
+        long seen = invalidations.get();
+        Optional<T> found = lookup.get();
+        if (found.isEmpty()) {
+            missing.put(cacheKey, Boolean.TRUE);
+            // The key may have been created between the lookup and the put
+            if (invalidations.get() != seen) {
+                missing.invalidate(cacheKey);
+            }
+        }
+        return found;
+    }
+
+    // After commit only: before it, a lookup would still miss the new rows and record them again
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidations.incrementAndGet();
+        missing.invalidateAll(event.productIds().stream().map(id -> new Key(Kind.PRODUCT_ID, id)).toList());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidations.incrementAndGet();
+        missing.asMap().keySet().removeIf(cached -> cached instanceof Key key && key.kind() != Kind.PRODUCT_ID);
+    }
+
+    private record Key(Kind kind, Object value) {
+    }
+}
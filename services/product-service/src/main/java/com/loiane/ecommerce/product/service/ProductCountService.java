@@ -0,0 +1,85 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.dto.CountStrategy;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+
+/**
+ * Resolves the total behind an offset page according to the requested {@link CountStrategy}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductCountService {
+
+    private static final String ACTIVE_KEY = "active";
+    private static final String AVAILABLE_KEY = "active-available";
+    private static final String PUBLISHED_KEY = "published";
+    private static final String PUBLISHED_AVAILABLE_KEY = "published-available";
+
+    private final ProductRepository productRepository;
+    private final Cache countCache;
+
+    public ProductCountService(ProductRepository productRepository, CacheManager cacheManager) {
+        this.productRepository = productRepository;
+        this.countCache = Objects.requireNonNull(cacheManager.getCache(CacheNames.PRODUCT_COUNTS));
+    }
+
+    /**
+     * Total number of active products, or of those in stock, and with {@code publishedOnly} only those ever
+     * published, the rows of the NEWEST listing. ESTIMATED falls back to EXACT when the database provides no
+     * planner estimate; the returned {@link Total#strategy()} reports what was actually used.
+     */
+    public Total countActiveProducts(CountStrategy strategy, boolean inStockOnly, boolean publishedOnly) {
+        return switch (strategy) {
+            case EXACT -> new Total(exactCount(inStockOnly, publishedOnly), CountStrategy.EXACT);
+            case CACHED -> new Total(countCache.get(cacheKey(inStockOnly, publishedOnly),
+                    () -> exactCount(inStockOnly, publishedOnly)), CountStrategy.CACHED);
+            case ESTIMATED -> {
+                OptionalLong estimate = estimate(inStockOnly, publishedOnly);
+                yield estimate.isPresent()
+                        ? new Total(estimate.getAsLong(), CountStrategy.ESTIMATED)
+                        : new Total(exactCount(inStockOnly, publishedOnly), CountStrategy.EXACT);
+            }
+        };
+    }
+
+    private long exactCount(boolean inStockOnly, boolean publishedOnly) {
+        if (publishedOnly) {
+            return inStockOnly
+                    ? productRepository.countByStatusAndAvailableTrueAndPublishedAtIsNotNull(ProductStatus.ACTIVE)
+                    : productRepository.countByStatusAndPublishedAtIsNotNull(ProductStatus.ACTIVE);
+        }
+        return inStockOnly
+                ? productRepository.countByStatusAndAvailableTrue(ProductStatus.ACTIVE)
+                : productRepository.countByStatus(ProductStatus.ACTIVE);
+    }
+
+    private OptionalLong estimate(boolean inStockOnly, boolean publishedOnly) {
+        if (publishedOnly) {
+            return inStockOnly
+                    ? productRepository.estimatePublishedAvailableActiveProducts()
+                    : productRepository.estimatePublishedActiveProducts();
+        }
+        return inStockOnly
+                ? productRepository.estimateAvailableActiveProducts()
+                : productRepository.estimateActiveProducts();
+    }
+
+    private static String cacheKey(boolean inStockOnly, boolean publishedOnly) {
+        if (publishedOnly) {
+            return inStockOnly ? PUBLISHED_AVAILABLE_KEY : PUBLISHED_KEY;
+        }
+        return inStockOnly ? AVAILABLE_KEY : ACTIVE_KEY;
+    }
+
+    public record Total(long value, CountStrategy strategy) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.dto.product.ProductFacets;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.event.ProductPricesChangedEvent;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Facet counts for search and listing pages, cached per normalized query and in-stock filter. Product and
+ * category writes evict the cache; the TTL bounds what a missed notification can leave behind.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductFacetService {
+
+    private final ProductRepository productRepository;
+    private final Cache facetCache;
+    private final List<BigDecimal> priceBands;
+    private final int categoryLimit;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductFacetService(ProductRepository productRepository, CacheManager cacheManager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${product.facets.price-bands:25,50,100,250,500}") List<BigDecimal> priceBands,
+                               @Value("${product.facets.category-limit:20}") int categoryLimit) {
+        if (priceBands.isEmpty() || !priceBands.stream().sorted().toList().equals(priceBands)) {
+            throw new IllegalArgumentException("product.facets.price-bands must be ascending: " + priceBands);
+        }
+        this.productRepository = productRepository;
+        this.facetCache = Objects.requireNonNull(cacheManager.getCache(CacheNames.PRODUCT_FACETS));
+        this.priceBands = List.copyOf(priceBands);
+        this.categoryLimit = categoryLimit;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Facets of every active product matching {@code query}, or of all active products when it is {@code null},
+     * and with {@code inStockOnly} only of those in stock, so that they describe the page they are shown with.
+     * Concurrent misses of one entry wait in the cache for a single load; only that load takes a transaction,
+     * so the waiting requests hold no connection.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProductFacets findActiveProductFacets(String query, SearchMode mode, boolean inStockOnly) {
+        // Case and spacing do not change what either search mode matches, so those variants share an entry
+        Key key = query == null ? new Key(null, null, inStockOnly)
+                : new Key(query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT), mode, inStockOnly);
+        return facetCache.get(key, () -> load(key));
+    }
+
+    // Which cached queries a written product matches is unknown without running them, and any match moves
+    // some count, so every entry goes. After commit only, so a reload never reads the state from before the write
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onProductChanged(ProductChangedEvent event) {
+        facetCache.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onPricesChanged(ProductPricesChangedEvent event) {
+        facetCache.clear();
+    }
+
+    // The category facet shows category names, and removing categories moves their products' counts
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        facetCache.clear();
+    }
+
+    private ProductFacets load(Key key) {
+        ProductFacets facets = readOnlyTransaction.execute(_ -> productRepository.findActiveProductFacets(
+                key.query(), key.mode(), key.inStockOnly(), priceBands));
+        // Most categories have a handful of matches; only the largest are worth showing
+        if (facets.categories().size() <= categoryLimit) {
+            return facets;
+        }
+        return new ProductFacets(List.copyOf(facets.categories().subList(0, categoryLimit)),
+                facets.statuses(), facets.availability(), facets.priceBands());
+    }
+
+    private record Key(String query, SearchMode mode, boolean inStockOnly) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.loiane.ecommerce.product.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.config.SingleFlight;
+import com.loiane.ecommerce.product.dto.CursorPage;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent.Placement;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductFilter;
+import com.loiane.ecommerce.product.repository.ProductSort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The first pages of the keyset product listings: the whole catalog ({@code /scroll}) and the category pages,
+ * which are {@code /filter} requests narrowing the active products by category and stock alone. Concurrent
+ * misses of one page (an expired entry, a flush, a cold instance) share one query, which alone takes a
+ * transaction, so the requests waiting for it hold no connection. Later pages and any other filter are read
+ * from the database.
+ * <p>
+ * A committed product write evicts the catalog pages, the pages of the categories the product sat in before
+ * and after it, and the subtree pages above those; a category change evicts every page, since items show
+ * their category. A page read while such a write commits is not kept. Writes committed by other instances
+ * arrive through the cache bus.
+ */
+@Component
+public class ProductListingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductListingCache.class);
+
+    private final CategoryRepository categoryRepository;
+    private final Cache<Object, Object> pages;
+    private final TransactionTemplate readOnlyTransaction;
+    private final SingleFlight<Key, CursorPage<ProductListItem>> loads = new SingleFlight<>();
+    // Bumped by every invalidation, so a load can tell whether one ran while it read
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ProductListingCache(CategoryRepository categoryRepository, CacheManager cacheManager,
+                               PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.pages = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheNames.PRODUCT_LISTINGS)))
+                .getNativeCache();
+        // A fresh transaction: after commit, the listeners still see the writing one, which is over
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Whether the first pages of {@code filter} are cached: those of active products narrowed by category
+     * and stock alone. Price ranges and text make too many distinct pages to be worth keeping.
+     */
+    public boolean covers(ProductFilter filter) {
+        return filter.status() == ProductStatus.ACTIVE && filter.minPrice() == null && filter.maxPrice() == null
+                && filter.text() == null;
+    }
+
+    /**
+     * The first page of the listing {@code filter} describes, which must be {@linkplain #covers covered},
+     * loaded by {@code loader} in a read-only transaction when it is not cached.
+     */
+    @SuppressWarnings("unchecked")
+    public CursorPage<ProductListItem> firstPage(ProductFilter filter, ProductSort sort, int pageSize,
+                                                 Supplier<CursorPage<ProductListItem>> loader) {
+        UUID categoryId = filter.categoryId();
+        Key key = new Key(categoryId, categoryId != null && filter.includeDescendants(), filter.inStockOnly(),
+                sort, pageSize);
+        CursorPage<ProductListItem> cached = (CursorPage<ProductListItem>) pages.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        return loads.load(key, () -> {
+            CursorPage<ProductListItem> loaded = (CursorPage<ProductListItem>) pages.getIfPresent(key);
+            if (loaded != null) {
+                return loaded;
+            }
+            long seen = invalidations.get();
+            loaded = readOnlyTransaction.execute(_ -> loader.get());
+            pages.put(key, loaded);
+            // The page may have been read before a write that committed meanwhile
+            if (invalidations.get() != seen) {
+                pages.invalidate(key);
+            }
+            return loaded;
+        });
+    }
+
+    // After commit only, so a reload never reads the state from before the write
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.placements().isEmpty()) {
+            invalidate(_ -> true);
+            return;
+        }
+        Set<UUID> changed = event.placements().stream()
+                .map(Placement::categoryId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        Set<UUID> subtrees;
+        try {
+            // Resolved only while subtree pages are cached, so that most writes cost no query
+            subtrees = changed.isEmpty() || !cachesSubtreePages() ? Set.of() : new HashSet<>(readOnlyTransaction.execute(
+                    _ -> categoryRepository.findSelfAndAncestorIds(changed.toArray(UUID[]::new))));
+        } catch (RuntimeException e) {
+            log.warn("Could not resolve the categories above {}, evicting every listing page: {}", changed, e.getMessage());
+            invalidate(_ -> true);
+            return;
+        }
+        invalidate(key -> key.categoryId() == null
+                || changed.contains(key.categoryId())
+                || key.includeDescendants() && subtrees.contains(key.categoryId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        invalidate(_ -> true);
+    }
+
+    private boolean cachesSubtreePages() {
+        return pages.asMap().keySet().stream().anyMatch(cached -> cached instanceof Key key && key.includeDescendants());
+    }
+
+    private void invalidate(Predicate<Key> stale) {
+        invalidations.incrementAndGet();
+        pages.asMap().keySet().removeIf(cached -> cached instanceof Key key && stale.test(key));
+    }
+
+    private record Key(UUID categoryId, boolean includeDescendants, boolean inStockOnly, ProductSort sort,
+                       int pageSize) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.dto.product.PriceHistogram;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductPricesChangedEvent;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Price histograms for range sliders, cached per category. A price change evicts the histograms of the
+ * categories it touched, of the subtrees containing them and of the whole catalog; the others stay cached.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductPriceHistogramService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductPriceHistogramService.class);
+
+    public static final int MAX_BUCKETS = 100;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final CaffeineCache histogramCache;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProductPriceHistogramService(ProductRepository productRepository, CategoryRepository categoryRepository,
+                                        CacheManager cacheManager, PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.histogramCache = (CaffeineCache) Objects.requireNonNull(cacheManager.getCache(CacheNames.PRICE_HISTOGRAMS));
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Histogram of the active products in {@code categoryId} (and its descendants, if asked), or of the whole
+     * catalog when it is {@code null}. The bucket count is clamped to 1..{@value #MAX_BUCKETS}. Like the facets,
+     * concurrent misses wait in the cache, without a connection, for the one load that takes a transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PriceHistogram findActivePriceHistogram(UUID categoryId, boolean includeDescendants, int buckets) {
+        Key key = new Key(categoryId, categoryId != null && includeDescendants, Math.clamp(buckets, 1, MAX_BUCKETS));
+        return histogramCache.get(key, () -> readOnlyTransaction.execute(_ -> productRepository.findActivePriceHistogram(
+                key.categoryId(), key.includeDescendants(), key.buckets())));
+    }
+
+    // A fresh transaction: the one that published the event has already committed
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onPricesChanged(ProductPricesChangedEvent event) {
+        Set<UUID> changed = event.categoryIds();
+        Set<UUID> subtrees;
+        try {
+            subtrees = changed.isEmpty() ? Set.of()
+                    : new HashSet<>(categoryRepository.findSelfAndAncestorIds(changed.toArray(UUID[]::new)));
+        } catch (RuntimeException e) {
+            log.warn("Could not resolve the categories above {}, evicting every price histogram: {}", changed, e.getMessage());
+            histogramCache.clear();
+            return;
+        }
+        histogramCache.getNativeCache().asMap().keySet().removeIf(cached -> cached instanceof Key key
+                && (key.categoryId() == null
+                    || changed.contains(key.categoryId())
+                    || key.includeDescendants() && subtrees.contains(key.categoryId())));
+    }
+
+    // Moving or removing categories reshapes subtrees; rare enough to start over
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        histogramCache.clear();
+    }
+
+    private record Key(UUID categoryId, boolean includeDescendants, int buckets) {
+    }
+}
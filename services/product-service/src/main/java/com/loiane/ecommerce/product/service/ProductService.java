@@ -1,33 +1,86 @@
 package com.loiane.ecommerce.product.service;
 
+import com.loiane.ecommerce.product.config.SingleFlight;
+import com.loiane.ecommerce.product.dto.CountStrategy;
+import com.loiane.ecommerce.product.dto.CursorPage;
+import com.loiane.ecommerce.product.dto.PagedResponse;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
 import com.loiane.ecommerce.product.entity.Category;
 import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.entity.ProductDescription;
 import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent.Placement;
+import com.loiane.ecommerce.product.event.ProductPricesChangedEvent;
 import com.loiane.ecommerce.product.exception.DuplicateSkuException;
 import com.loiane.ecommerce.product.exception.IllegalOperationException;
 import com.loiane.ecommerce.product.exception.InactiveCategoryException;
 import com.loiane.ecommerce.product.exception.InsufficientStockException;
 import com.loiane.ecommerce.product.exception.ProductNotFoundException;
+import com.loiane.ecommerce.product.exception.UnknownCategoryException;
 import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductCursor;
+import com.loiane.ecommerce.product.repository.ProductDescriptionRepository;
+import com.loiane.ecommerce.product.repository.ProductFilter;
 import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.repository.ProductSearchHit;
+import com.loiane.ecommerce.product.repository.ProductSort;
+import com.loiane.ecommerce.product.repository.SearchCursor;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import com.loiane.ecommerce.product.search.SearchResultCache;
+import com.loiane.ecommerce.product.service.NotFoundCache.Kind;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiFunction;
 
 @Service
 @Transactional(readOnly = true)
 public class ProductService {
 
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    // What /scroll lists: every active product
+    private static final ProductFilter ALL_ACTIVE = new ProductFilter(null, false, null, null, null, false, null);
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductCountService productCountService;
+    private final ProductDescriptionRepository productDescriptionRepository;
+    private final SearchResultCache searchResultCache;
+    private final NotFoundCache notFoundCache;
+    private final ProductListingCache productListingCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<DetailKey, Product> detailLoads = new SingleFlight<>();
 
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository) {
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository,
+                          ProductCountService productCountService,
+                          ProductDescriptionRepository productDescriptionRepository,
+                          SearchResultCache searchResultCache,
+                          NotFoundCache notFoundCache,
+                          ProductListingCache productListingCache,
+                          ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.productCountService = productCountService;
+        this.productDescriptionRepository = productDescriptionRepository;
+        this.searchResultCache = searchResultCache;
+        this.notFoundCache = notFoundCache;
+        this.productListingCache = productListingCache;
+        this.eventPublisher = eventPublisher;
     }
 
     // CREATE OPERATIONS
@@ -41,7 +94,7 @@ public class ProductService {
         // Validate category is active
         if (product.getCategory() != null) {
             Category category = categoryRepository.findById(product.getCategory().getId())
-                    .orElseThrow(() -> new IllegalArgumentException("Category not found"));
+                    .orElseThrow(() -> new UnknownCategoryException("Category not found"));
             
             if (Boolean.FALSE.equals(category.getIsActive())) {
                 throw new InactiveCategoryException("Cannot add product to inactive category");
@@ -52,35 +105,160 @@ public class ProductService {
         OffsetDateTime now = OffsetDateTime.now();
         product.setCreatedAt(now);
         product.setUpdatedAt(now);
+        product.refreshAvailability();
 
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        if (product.getDescription() != null) {
+            productDescriptionRepository.save(new ProductDescription(saved, product.getDescription()));
+            saved.setDescription(product.getDescription());
+        }
+        adjustCategoryCounts(saved.getCategory(), activeFlag(saved.getStatus()), 1);
+        eventPublisher.publishEvent(ProductChangedEvent.of(saved.getId(), placementOf(saved)));
+        if (activeFlag(saved.getStatus()) == 1) {
+            publishPricesChanged(List.of(placementOf(saved)));
+        }
+        return saved;
     }
 
     // READ OPERATIONS
-    public Product findById(String id) {
-        return productRepository.findById(id)
+    public Product findById(UUID id) {
+        return notFoundCache.find(Kind.PRODUCT_ID, id, () -> productRepository.findWithCategoryById(id))
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
     }
 
+    /**
+     * The product detail view; the description lives in a side table and is only read when asked for.
+     * Concurrent requests for the same product share one load, and so the same detached instance, which
+     * they must only read. They wait outside a transaction so that only the load holds a connection.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Product findById(UUID id, boolean includeDescription) {
+        return detailLoads.load(new DetailKey(id, includeDescription), () -> {
+            Product product = findById(id);
+            if (includeDescription) {
+                productDescriptionRepository.findContentByProductId(id).ifPresent(product::setDescription);
+            }
+            return product;
+        });
+    }
+
     public Page<Product> findActiveProducts(Pageable pageable) {
         return productRepository.findByStatus(ProductStatus.ACTIVE, pageable);
     }
 
+    // Listing reads go through projections; the read-only transaction skips flushes and dirty checks.
+    // Only the ProductSort orders are accepted: each walks its index, where any other order would sort
+    // every active product to return one page. inStockOnly hides sold-out products through the available flag.
+    // NEWEST lists only published products, like the keyset scroll, and counts them alone.
+    public PagedResponse<ProductListItem> findActiveProducts(Pageable pageable, CountStrategy countStrategy,
+                                                             boolean inStockOnly) {
+        ProductSort sort = ProductSort.from(pageable.getSort());
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort.toSort());
+        boolean publishedOnly = sort == ProductSort.NEWEST;
+        if (countStrategy == CountStrategy.EXACT) {
+            return PagedResponse.of(findListItems(sorted, inStockOnly, publishedOnly));
+        }
+        Slice<ProductListItem> slice = findListItemsAsSlice(sorted, inStockOnly, publishedOnly);
+        ProductCountService.Total total = productCountService.countActiveProducts(countStrategy, inStockOnly, publishedOnly);
+        return PagedResponse.of(slice, total.value(), total.strategy());
+    }
+
+    private Page<ProductListItem> findListItems(Pageable sorted, boolean inStockOnly, boolean publishedOnly) {
+        if (publishedOnly) {
+            return inStockOnly
+                    ? productRepository.findPublishedAvailableActiveListItems(sorted)
+                    : productRepository.findPublishedActiveListItems(sorted);
+        }
+        return inStockOnly
+                ? productRepository.findAvailableActiveListItems(sorted)
+                : productRepository.findActiveListItems(sorted);
+    }
+
+    private Slice<ProductListItem> findListItemsAsSlice(Pageable sorted, boolean inStockOnly, boolean publishedOnly) {
+        if (publishedOnly) {
+            return inStockOnly
+                    ? productRepository.findPublishedAvailableActiveListItemsAsSlice(sorted)
+                    : productRepository.findPublishedActiveListItemsAsSlice(sorted);
+        }
+        return inStockOnly
+                ? productRepository.findAvailableActiveListItemsAsSlice(sorted)
+                : productRepository.findActiveListItemsAsSlice(sorted);
+    }
+
+    // The first pages of the catalog and of the category listings come from the listing cache. Not transactional,
+    // like search: concurrent misses of a first page wait there for one query, which runs its own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPage<ProductListItem> scrollActiveProducts(ProductSort sort, String cursor, int size) {
+        return cachedScroll(ALL_ACTIVE, sort, cursor, size,
+                (after, limit) -> productRepository.findActiveProductsAfter(sort, after, limit));
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPage<ProductListItem> filterProducts(ProductFilter filter, ProductSort sort, String cursor, int size) {
+        return cachedScroll(filter, sort, cursor, size,
+                (after, limit) -> productRepository.findProductsAfter(filter, sort, after, limit));
+    }
+
+    private CursorPage<ProductListItem> cachedScroll(ProductFilter filter, ProductSort sort, String cursor, int size,
+                                                     BiFunction<ProductCursor, Integer, List<ProductListItem>> fetch) {
+        if ((cursor == null || cursor.isBlank()) && productListingCache.covers(filter)) {
+            int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+            return productListingCache.firstPage(filter, sort, pageSize, () -> scroll(sort, null, pageSize, fetch));
+        }
+        return scroll(sort, cursor, size, fetch);
+    }
+
+    // Fetches one extra row to learn whether a next page exists, without a COUNT(*)
+    private static CursorPage<ProductListItem> scroll(ProductSort sort, String cursor, int size,
+                                                      BiFunction<ProductCursor, Integer, List<ProductListItem>> fetch) {
+        int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        ProductCursor after = cursor != null && !cursor.isBlank() ? ProductCursor.decode(cursor, sort) : null;
+
+        List<ProductListItem> rows = fetch.apply(after, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<ProductListItem> items = rows.subList(0, pageSize);
+        ProductListItem last = items.get(pageSize - 1);
+        String nextCursor = new ProductCursor(sort, sort.sortKeyOf(last), UUID.fromString(last.id())).encode();
+        return new CursorPage<>(items, nextCursor);
+    }
+
     // UPDATE OPERATIONS
     @Transactional
-    public Product updateProduct(String id, Product updatedData) {
+    public Product updateProduct(UUID id, Product updatedData) {
         Product existingProduct = findById(id);
+        Placement before = placementOf(existingProduct);
 
         // Validate SKU cannot be changed
         if (updatedData.getSku() != null && !updatedData.getSku().equals(existingProduct.getSku())) {
             throw new IllegalOperationException("SKU cannot be changed");
         }
 
+        // Move to another category, keeping both categories' counters in step
+        if (updatedData.getCategory() != null && !sameCategory(existingProduct.getCategory(), updatedData.getCategory())) {
+            Category newCategory = categoryRepository.findById(updatedData.getCategory().getId())
+                    .orElseThrow(() -> new UnknownCategoryException("Category not found"));
+            if (Boolean.FALSE.equals(newCategory.getIsActive())) {
+                throw new InactiveCategoryException("Cannot move product to inactive category");
+            }
+
+            int active = activeFlag(existingProduct.getStatus());
+            adjustCategoryCounts(existingProduct.getCategory(), -active, -1);
+            adjustCategoryCounts(newCategory, active, 1);
+            existingProduct.setCategory(newCategory);
+        }
+
         // Update allowed fields
         if (updatedData.getName() != null) {
             existingProduct.setName(updatedData.getName());
         }
         if (updatedData.getDescription() != null) {
+            ProductDescription description = productDescriptionRepository.findById(id)
+                    .orElseGet(() -> new ProductDescription(existingProduct, null));
+            description.setContent(updatedData.getDescription());
+            productDescriptionRepository.save(description);
             existingProduct.setDescription(updatedData.getDescription());
         }
         if (updatedData.getShortDescription() != null) {
@@ -98,14 +276,20 @@ public class ProductService {
         if (updatedData.getTrackInventory() != null) {
             existingProduct.setTrackInventory(updatedData.getTrackInventory());
         }
+        existingProduct.refreshAvailability();
 
         existingProduct.setUpdatedAt(OffsetDateTime.now());
+        Placement after = placementOf(existingProduct);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id, before, after));
+        if (activeFlag(existingProduct.getStatus()) == 1 && !samePricing(before, after)) {
+            publishPricesChanged(List.of(before, after));
+        }
         return productRepository.save(existingProduct);
     }
 
     // INVENTORY OPERATIONS
     @Transactional
-    public void reserveStock(String productId, int quantity) {
+    public void reserveStock(UUID productId, int quantity) {
         Product product = findById(productId);
         
         int availableQuantity = product.getAvailableQuantity();
@@ -116,12 +300,14 @@ public class ProductService {
         }
 
         product.setReservedQuantity(product.getReservedQuantity() + quantity);
+        product.refreshAvailability();
         product.setUpdatedAt(OffsetDateTime.now());
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId, placementOf(product)));
     }
 
     @Transactional
-    public void releaseStock(String productId, int quantity) {
+    public void releaseStock(UUID productId, int quantity) {
         Product product = findById(productId);
         
         if (product.getReservedQuantity() < quantity) {
@@ -132,12 +318,14 @@ public class ProductService {
         }
 
         product.setReservedQuantity(product.getReservedQuantity() - quantity);
+        product.refreshAvailability();
         product.setUpdatedAt(OffsetDateTime.now());
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId, placementOf(product)));
     }
 
     @Transactional
-    public void confirmStock(String productId, int quantity) {
+    public void confirmStock(UUID productId, int quantity) {
         Product product = findById(productId);
         
         if (product.getReservedQuantity() < quantity) {
@@ -150,28 +338,42 @@ public class ProductService {
         // Reduce both stock quantity and reserved quantity
         product.setStockQuantity(product.getStockQuantity() - quantity);
         product.setReservedQuantity(product.getReservedQuantity() - quantity);
+        product.refreshAvailability();
         product.setUpdatedAt(OffsetDateTime.now());
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId, placementOf(product)));
     }
 
     // BUSINESS OPERATIONS
     @Transactional
-    public Product publishProduct(String productId) {
+    public Product publishProduct(UUID productId) {
         Product product = findById(productId);
         
+        int activeDelta = 1 - activeFlag(product.getStatus());
+        adjustCategoryCounts(product.getCategory(), activeDelta, 0);
         product.setStatus(ProductStatus.ACTIVE);
         product.setPublishedAt(OffsetDateTime.now());
         product.setUpdatedAt(OffsetDateTime.now());
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId, placementOf(product)));
+        if (activeDelta != 0) {
+            publishPricesChanged(List.of(placementOf(product)));
+        }
         
         return productRepository.save(product);
     }
 
     @Transactional
-    public Product discontinueProduct(String productId) {
+    public Product discontinueProduct(UUID productId) {
         Product product = findById(productId);
         
+        int activeDelta = -activeFlag(product.getStatus());
+        adjustCategoryCounts(product.getCategory(), activeDelta, 0);
         product.setStatus(ProductStatus.DISCONTINUED);
         product.setUpdatedAt(OffsetDateTime.now());
+        eventPublisher.publishEvent(ProductChangedEvent.of(productId, placementOf(product)));
+        if (activeDelta != 0) {
+            publishPricesChanged(List.of(placementOf(product)));
+        }
         
         return productRepository.save(product);
     }
@@ -180,16 +382,39 @@ public class ProductService {
         return productRepository.findProductsWithLowStock();
     }
 
-    public Page<Product> searchActiveProducts(String searchTerm, Pageable pageable) {
-        return productRepository.findActiveProductsByNameContainingWithPagination(searchTerm, pageable);
+    // Ranked search; like scrollActive, one extra hit tells whether a next page exists. Not transactional:
+    // concurrent misses of a first page wait in the result cache for one engine read, which runs its own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPage<ProductListItem> searchActiveProducts(String query, SearchMode mode, boolean inStockOnly,
+                                                            String cursor, int size) {
+        int pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        SearchCursor after = cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor, mode) : null;
+
+        List<ProductSearchHit> hits = searchResultCache.search(query, mode, inStockOnly, after, pageSize + 1);
+        if (hits.size() <= pageSize) {
+            return new CursorPage<>(hits.stream().map(ProductSearchHit::item).toList(), null);
+        }
+        List<ProductSearchHit> page = hits.subList(0, pageSize);
+        return new CursorPage<>(page.stream().map(ProductSearchHit::item).toList(),
+                page.getLast().cursor(mode).encode());
     }
 
     @Transactional
-    public int bulkUpdateStatus(List<String> productIds, ProductStatus newStatus) {
+    public int bulkUpdateStatus(List<UUID> productIds, ProductStatus newStatus) {
         List<Product> products = productRepository.findAllById(productIds);
         
         OffsetDateTime now = OffsetDateTime.now();
+        Map<UUID, Integer> activeDeltas = new HashMap<>();
+        List<Placement> activeChanges = new ArrayList<>();
         for (Product product : products) {
+            int activeDelta = activeFlag(newStatus) - activeFlag(product.getStatus());
+            if (activeDelta != 0) {
+                activeChanges.add(placementOf(product));
+            }
+            if (activeDelta != 0 && product.getCategory() != null) {
+                activeDeltas.merge(product.getCategory().getId(), activeDelta, Integer::sum);
+            }
+
             product.setStatus(newStatus);
             product.setUpdatedAt(now);
             
@@ -200,6 +425,49 @@ public class ProductService {
         }
         
         productRepository.saveAll(products);
+        eventPublisher.publishEvent(new ProductChangedEvent(products.stream().map(Product::getId).toList(),
+                products.stream().map(ProductService::placementOf).toList()));
+        if (!activeChanges.isEmpty()) {
+            publishPricesChanged(activeChanges);
+        }
+        activeDeltas.forEach((categoryId, delta) -> {
+            if (delta != 0) {
+                categoryRepository.adjustProductCounts(categoryId, delta, 0);
+            }
+        });
         return products.size();
     }
+
+    // CATEGORY COUNTER MAINTENANCE
+    private void adjustCategoryCounts(Category category, int activeDelta, int totalDelta) {
+        if (category != null && (activeDelta != 0 || totalDelta != 0)) {
+            categoryRepository.adjustProductCounts(category.getId(), activeDelta, totalDelta);
+        }
+    }
+
+    private static Placement placementOf(Product product) {
+        return new Placement(product.getCategory() != null ? product.getCategory().getId() : null, product.getBasePrice());
+    }
+
+    // Only writes that change what active products cost, or where, publish this; inventory writes do not
+    private void publishPricesChanged(List<Placement> placements) {
+        eventPublisher.publishEvent(new ProductPricesChangedEvent(
+                placements.stream().map(Placement::categoryId).filter(Objects::nonNull).toList()));
+    }
+
+    private static boolean samePricing(Placement before, Placement after) {
+        return Objects.equals(before.categoryId(), after.categoryId())
+                && before.basePrice().compareTo(after.basePrice()) == 0;
+    }
+
+    private static int activeFlag(ProductStatus status) {
+        return status == ProductStatus.ACTIVE ? 1 : 0;
+    }
+
+    private static boolean sameCategory(Category current, Category candidate) {
+        return current != null && current.getId() != null && current.getId().equals(candidate.getId());
+    }
+
+    private record DetailKey(UUID id, boolean includeDescription) {
+    }
 }
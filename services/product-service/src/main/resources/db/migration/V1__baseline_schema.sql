@@ -0,0 +1,58 @@
+-- Baseline: the schema Hibernate generated from the entity mappings before Flyway took over.
+-- Hibernate now only validates it (spring.jpa.hibernate.ddl-auto=validate).
+
+CREATE TABLE categories (
+    id                   uuid                        NOT NULL,
+    name                 varchar(100)                NOT NULL,
+    slug                 varchar(150)                NOT NULL,
+    description          varchar(500),
+    parent_id            uuid,
+    level                integer                     NOT NULL,
+    display_order        integer                     NOT NULL,
+    is_active            boolean                     NOT NULL,
+    active_product_count integer                     NOT NULL DEFAULT 0,
+    total_product_count  integer                     NOT NULL DEFAULT 0,
+    child_count          integer                     NOT NULL DEFAULT 0,
+    created_at           timestamp(6) with time zone NOT NULL,
+    updated_at           timestamp(6) with time zone NOT NULL,
+    CONSTRAINT pk_categories PRIMARY KEY (id),
+    CONSTRAINT uk_categories_slug UNIQUE (slug),
+    CONSTRAINT fk_categories_parent FOREIGN KEY (parent_id) REFERENCES categories (id)
+);
+
+CREATE TABLE products (
+    id                  uuid                        NOT NULL,
+    name                varchar(255)                NOT NULL,
+    short_description   varchar(500),
+    sku                 varchar(100)                NOT NULL,
+    base_price          numeric(12, 2)              NOT NULL,
+    status              varchar(20)                 NOT NULL,
+    category_id         uuid,
+    stock_quantity      integer                     NOT NULL,
+    reserved_quantity   integer                     NOT NULL,
+    low_stock_threshold integer                     NOT NULL,
+    track_inventory     boolean                     NOT NULL,
+    created_at          timestamp(6) with time zone NOT NULL,
+    updated_at          timestamp(6) with time zone NOT NULL,
+    published_at        timestamp(6) with time zone,
+    CONSTRAINT pk_products PRIMARY KEY (id),
+    CONSTRAINT uk_products_sku UNIQUE (sku),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES categories (id),
+    CONSTRAINT ck_products_status CHECK (status IN ('ACTIVE', 'INACTIVE', 'DISCONTINUED')),
+    CONSTRAINT ck_products_stock_quantity CHECK (stock_quantity >= 0),
+    CONSTRAINT ck_products_reserved_quantity CHECK (reserved_quantity >= 0),
+    CONSTRAINT ck_products_low_stock_threshold CHECK (low_stock_threshold >= 0)
+);
+
+CREATE TABLE product_descriptions (
+    product_id uuid                        NOT NULL,
+    content    text                        NOT NULL,
+    updated_at timestamp(6) with time zone,
+    CONSTRAINT pk_product_descriptions PRIMARY KEY (product_id),
+    CONSTRAINT fk_product_descriptions_product FOREIGN KEY (product_id) REFERENCES products (id)
+);
+
+-- Keyset pagination indexes declared on Product (one per ProductSort)
+CREATE INDEX idx_products_status_published_at_id ON products (status, published_at, id);
+CREATE INDEX idx_products_status_base_price_id ON products (status, base_price, id);
+CREATE INDEX idx_products_status_name_id ON products (status, name, id);
@@ -0,0 +1,43 @@
+-- Indexes for the ProductRepository / CategoryRepository queries that the baseline left on
+-- sequential scans. Each index lists the repository methods it serves.
+--
+-- Already covered, so not duplicated here:
+--   * findBySku / existsBySku                 -> uk_products_sku
+--   * findBySlug / existsBySlug / ...BySlug   -> uk_categories_slug
+--   * findByStatus, keyset scrolls and (status, published_at) lookups
+--                                             -> idx_products_status_{published_at,base_price,name}_id (V1);
+--                                                (status, published_at) is the prefix of the first one
+--   * findContentByProductId                  -> pk_product_descriptions
+--
+-- Deliberately not indexed:
+--   * UPPER(name) LIKE '%term%' searches: a leading wildcard cannot use a btree
+--   * categories.level / is_active: the category table is small and these filters are not selective
+--   * findProductsInStock (available > 0): matches most of the catalogue, a scan is cheaper
+
+-- Active-only partial index. Inactive and discontinued rows are never listed, so they are left out.
+-- Serves: countByStatus(ACTIVE), the count queries of findActiveListItems / searchActiveListItems,
+--         findActiveProducts, findActiveListItems(AsSlice) without a sort,
+--         and the planner row estimate used by count=ESTIMATED (estimateActiveProducts).
+-- COUNT(*) over it is an index-only scan on a fraction of the table.
+CREATE INDEX idx_products_active_id ON products (id) WHERE status = 'ACTIVE';
+
+-- Products of one category, optionally narrowed by status. Also the index behind the
+-- products.category_id foreign key, so deleting or re-parenting a category no longer scans products.
+-- Serves: findByCategory, countByCategory, findActiveProductsByCategory,
+--         findByCategoryAndStatus, existsByCategoryAndStatus, countByCategoryAndStatus,
+--         CategoryRepository.existsActiveProductInSubtree, detachProductsFromSubtree,
+--         and the per-category subqueries of recomputeCounters.
+CREATE INDEX idx_products_category_id_status ON products (category_id, status);
+
+-- Children of a category in display order. Also the index behind the categories.parent_id foreign key.
+-- Serves: findByParent, findByParentOrderByDisplayOrderAsc,
+--         findByParentAndIsActiveTrueOrderByDisplayOrder, countByParent,
+--         findByParentIsNull / findRootCategories (btree indexes keep NULL parent ids),
+--         the recursive step (c.parent_id = s.id) of every subtree CTE,
+--         and the child_count subquery of recomputeCounters.
+CREATE INDEX idx_categories_parent_id_display_order ON categories (parent_id, display_order);
+
+-- Low-stock predicate. The expression must match the query text exactly for the planner to use it,
+-- so findProductsWithLowStock is written as "stock - reserved - threshold <= 0".
+-- Serves: findProductsWithLowStock.
+CREATE INDEX idx_products_low_stock ON products ((stock_quantity - reserved_quantity - low_stock_threshold));
@@ -0,0 +1,18 @@
+-- Full-text search over products, replacing the UPPER(name) LIKE '%term%' search that could only
+-- scan the table and only looked at the name.
+--
+-- search_vector is a stored generated column, so PostgreSQL keeps it in step with every insert and
+-- update; the entity does not map it and Hibernate never writes it.
+-- Weights rank a hit in the name above one in the SKU, and both above one in the short description:
+--   A = name              (english: stemmed, stop words removed)
+--   B = sku               (simple: SKUs are codes, not words, so they are neither stemmed nor dropped)
+--   C = short_description (english)
+ALTER TABLE products ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(sku, '')), 'B') ||
+    setweight(to_tsvector('english', coalesce(short_description, '')), 'C')
+) STORED;
+
+-- Only active products are searchable, so the others are left out of the index.
+-- Serves: ProductRepositoryCustom.searchActiveProducts (search_vector @@ query AND status = 'ACTIVE').
+CREATE INDEX idx_products_search_vector ON products USING gin (search_vector) WHERE status = 'ACTIVE';
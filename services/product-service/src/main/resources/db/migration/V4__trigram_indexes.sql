@@ -0,0 +1,19 @@
+-- Trigram indexes for substring and typo-tolerant lookups.
+--
+-- A trigram GIN index answers LIKE '%fragment%' (any fragment of three or more characters) and the
+-- pg_trgm similarity operators, neither of which a btree can serve. The indexes are built on upper(...)
+-- because that is the expression the case-insensitive queries compare: Spring Data renders
+-- ...ContainingIgnoreCase as "upper(x) like upper(?)", and the hand-written queries follow suit.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Serves: findByNameContainingIgnoreCase, findActiveProductsByNameContaining,
+--         findActiveProductsAfter with a name term (/search/scroll),
+--         and the name half of searchActiveProducts(FUZZY).
+-- Not partial: findByNameContainingIgnoreCase looks at every status.
+CREATE INDEX idx_products_name_trgm ON products USING gin (upper(name) gin_trgm_ops);
+
+-- Serves: the SKU fragment half of searchActiveProducts(FUZZY), e.g. "4242" finding "SKU-0004242".
+CREATE INDEX idx_products_sku_trgm ON products USING gin (upper(sku) gin_trgm_ops);
+
+-- Serves: CategoryRepository.findByNameContainingIgnoreCase.
+CREATE INDEX idx_categories_name_trgm ON categories USING gin (upper(name) gin_trgm_ops);
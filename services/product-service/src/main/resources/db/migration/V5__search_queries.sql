@@ -0,0 +1,12 @@
+-- How often each normalized /search query was asked, so the search result cache can warm the head
+-- queries on startup. Counts are flushed from memory in batches and halved nightly, so the ranking
+-- follows recent traffic and queries nobody asks any more drop out.
+CREATE TABLE search_queries (
+    search_mode  VARCHAR(20)  NOT NULL,
+    query        VARCHAR(255) NOT NULL,
+    search_count BIGINT       NOT NULL,
+    CONSTRAINT pk_search_queries PRIMARY KEY (search_mode, query)
+);
+
+-- Serves: SearchQueryRepository.findByOrderBySearchCountDesc (the warm-up reads the top few rows).
+CREATE INDEX idx_search_queries_search_count ON search_queries (search_count DESC);
@@ -0,0 +1,20 @@
+-- "Hide out of stock" listings and searches. Comparing stock_quantity with reserved_quantity matches
+-- no index, so an in-stock page had to test the stock of every row its sort index walked past.
+--
+-- available holds Product.isInStock(): stock left to reserve, or inventory not tracked at all. It is
+-- written by ProductService on every path that changes the stock columns or track_inventory
+-- (Product.refreshAvailability), so it only changes when a product sells out or is restocked.
+ALTER TABLE products ADD COLUMN available boolean NOT NULL DEFAULT false;
+
+UPDATE products SET available = NOT track_inventory OR stock_quantity > reserved_quantity;
+
+-- Active, in-stock products in the default "newest" order, which most shoppers browse with "hide out of
+-- stock" on. The index holds exactly the rows those pages list, so they are read in order without skipping
+-- sold-out products.
+-- Serves: findAvailableActiveListItems(AsSlice) sorted by NEWEST,
+--         findProductsAfter with inStockOnly and sort NEWEST.
+-- The other orders keep walking idx_products_status_{base_price,name}_id: most active products are in stock,
+-- so filtering the few sold-out ones there costs less than maintaining a partial index per order. Exact
+-- in-stock totals count most of the table like the active ones do; count=CACHED or ESTIMATED avoids them.
+CREATE INDEX idx_products_available_published_at_id ON products (published_at, id)
+    WHERE status = 'ACTIVE' AND available;
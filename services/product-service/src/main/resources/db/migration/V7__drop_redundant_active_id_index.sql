@@ -0,0 +1,7 @@
+-- idx_products_active_id (V2) duplicates pk_products. The id batches it was meant for
+-- (findActiveIndexRowsByIdIn, findActiveSuggestRowsByIdIn: id IN (...) AND status = 'ACTIVE') probe the
+-- primary key just as cheaply and filter the status on the few rows fetched. The other queries V2 lists
+-- for it do not use it: exact active totals and findActiveProducts read most of the table and run as
+-- sequential scans, and estimateActiveProducts reads the planner's statistics, not the index (see
+-- QueryPlanRegressionTest). The index only cost writes.
+DROP INDEX IF EXISTS idx_products_active_id;
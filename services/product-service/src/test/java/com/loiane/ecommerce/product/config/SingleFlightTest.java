@@ -0,0 +1,99 @@
+package com.loiane.ecommerce.product.config;
+
+import com.loiane.ecommerce.product.exception.ProductNotFoundException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Test
+    @DisplayName("Should let concurrent callers of one key share a single load")
+    void shouldShareConcurrentLoad() throws Exception {
+        // given
+        List<Thread> callers = new ArrayList<>();
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS, runnable -> {
+            Thread thread = new Thread(runnable);
+            callers.add(thread);
+            return thread;
+        })) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.load("laptop", this::blockingLoad)));
+            }
+
+            // when - every caller is blocked, one in the load and the others waiting for it
+            awaitAllWaiting(callers);
+            release.countDown();
+
+            // then
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+            }
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Should load again once the previous load is over")
+    void shouldNotKeepResults() {
+        // when
+        singleFlight.load("laptop", this::countedLoad);
+        singleFlight.load("laptop", this::countedLoad);
+        singleFlight.load("bag", this::countedLoad);
+
+        // then
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should rethrow what the load threw")
+    void shouldRethrowLoadFailure() {
+        // when/then
+        assertThatThrownBy(() -> singleFlight.load("laptop", () -> {
+            throw new ProductNotFoundException("Product not found");
+        })).isInstanceOf(ProductNotFoundException.class);
+        assertThat(singleFlight.load("laptop", this::countedLoad)).isEqualTo("loaded");
+    }
+
+    private String blockingLoad() {
+        loads.incrementAndGet();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return "loaded";
+    }
+
+    private String countedLoad() {
+        loads.incrementAndGet();
+        return "loaded";
+    }
+
+    private static void awaitAllWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.size() < CALLERS || !threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            assertThat(System.nanoTime()).as("callers blocked in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.loiane.ecommerce.product.dto.category.*;
 import com.loiane.ecommerce.product.entity.Category;
 import com.loiane.ecommerce.product.exception.CategoryNotFoundException;
 import com.loiane.ecommerce.product.exception.DuplicateSlugException;
+import com.loiane.ecommerce.product.exception.IllegalOperationException;
 import com.loiane.ecommerce.product.factory.CategoryDTOTestFactory;
 import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
 import com.loiane.ecommerce.product.repository.CategoryRepository;
@@ -22,11 +23,11 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -54,15 +55,15 @@ class CategoryControllerIntegrationTest {
 
     // Test data
     private Category rootCategoryEntity;
-    private String rootCategoryId;
-    private String nonExistentId;
+    private UUID rootCategoryId;
+    private UUID nonExistentId;
 
     @BeforeEach
     void setUp() {
         reset(categoryRepository, productRepository, categoryService);
         
-        rootCategoryId = UUID.randomUUID().toString();
-        nonExistentId = UUID.randomUUID().toString();
+        rootCategoryId = UUID.randomUUID();
+        nonExistentId = UUID.randomUUID();
         
         rootCategoryEntity = CategoryTestDataFactory.createRoot("Electronics");
         rootCategoryEntity.setId(rootCategoryId);
@@ -74,13 +75,13 @@ class CategoryControllerIntegrationTest {
     void testGetAllCategories() throws Exception {
         // Given
         Category subCategory = CategoryTestDataFactory.createChild("Smartphones", rootCategoryEntity);
-        when(categoryRepository.findAll()).thenReturn(Arrays.asList(rootCategoryEntity, subCategory));
+        when(categoryService.getCategoryHierarchy()).thenReturn(Arrays.asList(rootCategoryEntity, subCategory));
 
         // When & Then
         mockMvc.perform(get("/api/v1/categories"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].id").value(rootCategoryEntity.getId()))
+                .andExpect(jsonPath("$[0].id").value(rootCategoryEntity.getId().toString()))
                 .andExpect(jsonPath("$[0].name").value(rootCategoryEntity.getName()))
                 .andExpect(jsonPath("$[0].slug").value(rootCategoryEntity.getSlug()))
                 .andExpect(jsonPath("$[0].description").value(rootCategoryEntity.getDescription()))
@@ -88,9 +89,12 @@ class CategoryControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].active").value(rootCategoryEntity.getIsActive()))
                 .andExpect(jsonPath("$[1].id").value(subCategory.getId()))
                 .andExpect(jsonPath("$[1].name").value(subCategory.getName()))
-                .andExpect(jsonPath("$[1].slug").value(subCategory.getSlug()));
+                .andExpect(jsonPath("$[1].slug").value(subCategory.getSlug()))
+                .andExpect(jsonPath("$[0].children", hasSize(1)))
+                .andExpect(jsonPath("$[0].children[0].name").value(subCategory.getName()))
+                .andExpect(jsonPath("$[1].parent.id").value(rootCategoryId.toString()));
 
-        verify(categoryRepository).findAll();
+        verify(categoryService).getCategoryHierarchy();
     }
 
     @Test
@@ -102,7 +106,7 @@ class CategoryControllerIntegrationTest {
         // When & Then
         mockMvc.perform(get("/api/v1/categories/electronics"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(rootCategoryEntity.getId()))
+                .andExpect(jsonPath("$.id").value(rootCategoryEntity.getId().toString()))
                 .andExpect(jsonPath("$.name").value(rootCategoryEntity.getName()))
                 .andExpect(jsonPath("$.slug").value(rootCategoryEntity.getSlug()))
                 .andExpect(jsonPath("$.description").value(rootCategoryEntity.getDescription()))
@@ -131,7 +135,7 @@ class CategoryControllerIntegrationTest {
         // Given
         CreateCategoryRequest request = CategoryDTOTestFactory.createValidCreateRequest();
         Category savedCategory = CategoryTestDataFactory.createRoot(request.name());
-        savedCategory.setId(UUID.randomUUID().toString());
+        savedCategory.setId(UUID.randomUUID());
         
         when(categoryService.createCategory(any(Category.class))).thenReturn(savedCategory);
 
@@ -142,7 +146,7 @@ class CategoryControllerIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(requestJson))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.id").value(savedCategory.getId()))
+                .andExpect(jsonPath("$.id").value(savedCategory.getId().toString()))
                 .andExpect(jsonPath("$.name").value(savedCategory.getName()))
                 .andExpect(jsonPath("$.slug").value(savedCategory.getSlug()))
                 .andExpect(jsonPath("$.active").value(savedCategory.getIsActive()));
@@ -204,7 +208,7 @@ class CategoryControllerIntegrationTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(requestJson))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.id").value(updatedCategory.getId()))
+                .andExpect(jsonPath("$.id").value(updatedCategory.getId().toString()))
                 .andExpect(jsonPath("$.name").value(updatedCategory.getName()))
                 .andExpect(jsonPath("$.description").value(updatedCategory.getDescription()))
                 .andExpect(jsonPath("$.displayOrder").value(updatedCategory.getDisplayOrder()));
@@ -229,54 +233,150 @@ class CategoryControllerIntegrationTest {
                 .andExpect(status().isNotFound());
 
         verify(categoryService).findById(nonExistentId);
-        verify(categoryService, never()).updateCategory(anyString(), any(Category.class));
+        verify(categoryService, never()).updateCategory(any(UUID.class), any(Category.class));
     }
 
     @Test
     @DisplayName("DELETE /api/v1/categories/{id} - Should delete category successfully")
     void testDeleteCategorySuccess() throws Exception {
-        // Given
-        when(categoryService.findById(rootCategoryId)).thenReturn(rootCategoryEntity);
-        when(categoryService.countActiveProductsInCategory(rootCategoryId)).thenReturn(0L);
-        doNothing().when(categoryRepository).delete(any(Category.class));
-
         // When & Then
         mockMvc.perform(delete("/api/v1/categories/" + rootCategoryId))
                 .andExpect(status().isNoContent());
 
-        verify(categoryService).findById(rootCategoryId);
-        verify(categoryService).countActiveProductsInCategory(rootCategoryId);
-        verify(categoryRepository).delete(rootCategoryEntity);
+        verify(categoryService).deleteCategory(rootCategoryId);
+        verify(categoryRepository, never()).delete(any(Category.class));
     }
 
     @Test
     @DisplayName("DELETE /api/v1/categories/{id} - Should return 409 when category has active products")
     void testDeleteCategoryHasActiveProducts() throws Exception {
         // Given
-        when(categoryService.findById(rootCategoryId)).thenReturn(rootCategoryEntity);
-        when(categoryService.countActiveProductsInCategory(rootCategoryId)).thenReturn(5L);
+        doThrow(new IllegalOperationException("Cannot delete category with active products"))
+                .when(categoryService).deleteCategory(rootCategoryId);
 
         // When & Then
         mockMvc.perform(delete("/api/v1/categories/" + rootCategoryId))
                 .andExpect(status().isConflict());
 
-        verify(categoryService).findById(rootCategoryId);
-        verify(categoryService).countActiveProductsInCategory(rootCategoryId);
-        verify(categoryRepository, never()).delete(any(Category.class));
+        verify(categoryService).deleteCategory(rootCategoryId);
     }
 
     @Test
     @DisplayName("DELETE /api/v1/categories/{id} - Should return 404 when category not found")
     void testDeleteCategoryNotFound() throws Exception {
         // Given
-        when(categoryService.findById(nonExistentId)).thenThrow(new CategoryNotFoundException("Category not found"));
+        doThrow(new CategoryNotFoundException("Category not found"))
+                .when(categoryService).deleteCategory(nonExistentId);
 
         // When & Then
         mockMvc.perform(delete("/api/v1/categories/" + nonExistentId))
                 .andExpect(status().isNotFound());
 
-        verify(categoryService).findById(nonExistentId);
-        verify(categoryService, never()).countActiveProductsInCategory(anyString());
+        verify(categoryService).deleteCategory(nonExistentId);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/categories/{slug} - Should expose maintained counters")
+    void testGetCategoryBySlugExposesCounters() throws Exception {
+        // Given
+        rootCategoryEntity.setActiveProductCount(4);
+        rootCategoryEntity.setTotalProductCount(6);
+        rootCategoryEntity.setChildCount(2);
+        when(categoryService.findBySlug("electronics")).thenReturn(rootCategoryEntity);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/categories/electronics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.activeProductCount").value(4))
+                .andExpect(jsonPath("$.totalProductCount").value(6))
+                .andExpect(jsonPath("$.childCount").value(2));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/categories/{id}/subtree/deactivate - Should deactivate whole subtree")
+    void testDeactivateCategorySubtreeSuccess() throws Exception {
+        // Given
+        when(categoryService.deactivateCategorySubtree(rootCategoryId)).thenReturn(3);
+
+        // When & Then
+        mockMvc.perform(put("/api/v1/categories/" + rootCategoryId + "/subtree/deactivate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rootCategoryId").value(rootCategoryId.toString()))
+                .andExpect(jsonPath("$.affectedCategories").value(3));
+
+        verify(categoryService).deactivateCategorySubtree(rootCategoryId);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/v1/categories/{id}/subtree - Should delete whole subtree")
+    void testDeleteCategorySubtreeSuccess() throws Exception {
+        // Given
+        when(categoryService.deleteCategorySubtree(rootCategoryId)).thenReturn(3);
+
+        // When & Then
+        mockMvc.perform(delete("/api/v1/categories/" + rootCategoryId + "/subtree"))
+                .andExpect(status().isNoContent());
+
+        verify(categoryService).deleteCategorySubtree(rootCategoryId);
         verify(categoryRepository, never()).delete(any(Category.class));
     }
+
+    @Test
+    @DisplayName("DELETE /api/v1/categories/{id}/subtree - Should return 409 when subtree has active products")
+    void testDeleteCategorySubtreeHasActiveProducts() throws Exception {
+        // Given
+        when(categoryService.deleteCategorySubtree(rootCategoryId))
+                .thenThrow(new IllegalOperationException("Cannot delete category subtree with active products"));
+
+        // When & Then
+        mockMvc.perform(delete("/api/v1/categories/" + rootCategoryId + "/subtree"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("DELETE /api/v1/categories/{id}/subtree - Should return 404 when category not found")
+    void testDeleteCategorySubtreeNotFound() throws Exception {
+        // Given
+        when(categoryService.deleteCategorySubtree(nonExistentId))
+                .thenThrow(new CategoryNotFoundException("Category not found"));
+
+        // When & Then
+        mockMvc.perform(delete("/api/v1/categories/" + nonExistentId + "/subtree"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/categories/reorder - Should return affected count")
+    void testReorderCategoriesSuccess() throws Exception {
+        // Given
+        Map<UUID, Integer> displayOrders = Map.of(rootCategoryId, 2, nonExistentId, 1);
+        when(categoryService.reorderCategories(displayOrders)).thenReturn(1);
+
+        String requestJson = objectMapper.writeValueAsString(new ReorderCategoriesRequest(displayOrders));
+
+        // When & Then
+        mockMvc.perform(put("/api/v1/categories/reorder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestJson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedCount").value(1));
+
+        verify(categoryService).reorderCategories(displayOrders);
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/categories/reorder - Should return 400 for negative display order")
+    void testReorderCategoriesInvalidRequest() throws Exception {
+        // Given
+        String requestJson = objectMapper.writeValueAsString(
+                new ReorderCategoriesRequest(Map.of(rootCategoryId, -1)));
+
+        // When & Then
+        mockMvc.perform(put("/api/v1/categories/reorder")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestJson))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(categoryService);
+    }
 }
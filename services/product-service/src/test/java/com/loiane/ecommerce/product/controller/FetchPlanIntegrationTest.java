@@ -0,0 +1,150 @@
+package com.loiane.ecommerce.product.controller;
+
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs endpoints against real repositories with open-session-in-view disabled and no test transaction,
+ * so any association a response needs but the fetch plan missed surfaces as a LazyInitializationException.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@DisplayName("Fetch Plan Integration Tests")
+class FetchPlanIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category electronics;
+    private Category computers;
+    private Category laptops;
+    private Product laptop;
+
+    @BeforeEach
+    void setUp() {
+        electronics = categoryRepository.save(CategoryTestDataFactory.createRoot("Electronics"));
+        computers = categoryRepository.save(CategoryTestDataFactory.createChild("Computers", electronics));
+        laptops = categoryRepository.save(CategoryTestDataFactory.createChild("Laptops", computers));
+        laptop = productRepository.save(ProductTestDataFactory.aProduct()
+                .withName("Gaming Laptop")
+                .withSku("FETCH-LAPTOP-001")
+                .withCategory(laptops)
+                .withStock(2)
+                .withLowStockThreshold(5)
+                .thatIsActive()
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Endpoints may have bumped versions, so delete by id rather than with the stale instances
+        productRepository.deleteById(laptop.getId());
+        categoryRepository.deleteById(laptops.getId());
+        categoryRepository.deleteById(computers.getId());
+        categoryRepository.deleteById(electronics.getId());
+    }
+
+    @Test
+    @DisplayName("Should run with open-session-in-view disabled")
+    void shouldRunWithOpenSessionInViewDisabled() {
+        assertThat(applicationContext.getBeansOfType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products/{id} - Should render category without lazy loading")
+    void productDetailFetchesCategory() throws Exception {
+        mockMvc.perform(get("/api/v1/products/{id}", laptop.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category.name", is("Laptops")));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/products/{id}/discontinue - Should render updated product without lazy loading")
+    void productWriteFetchesCategory() throws Exception {
+        mockMvc.perform(put("/api/v1/products/{id}/discontinue", laptop.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.category.slug", is(laptops.getSlug())));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products/low-stock - Should render categories without lazy loading")
+    void lowStockListingFetchesCategories() throws Exception {
+        mockMvc.perform(get("/api/v1/products/low-stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].category.name", is("Laptops")));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products - Should render listing projections")
+    void productListingUsesProjections() throws Exception {
+        mockMvc.perform(get("/api/v1/products"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].category.name", is("Laptops")));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/categories/{slug} - Should render parent and children without lazy loading")
+    void categoryDetailFetchesParentAndChildren() throws Exception {
+        mockMvc.perform(get("/api/v1/categories/{slug}", computers.getSlug()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.parent.name", is("Electronics")))
+                .andExpect(jsonPath("$.children", hasSize(1)))
+                .andExpect(jsonPath("$.children[0].name", is("Laptops")));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/categories/{id} - Should render updated category without lazy loading")
+    void categoryUpdateFetchesParentAndChildren() throws Exception {
+        mockMvc.perform(put("/api/v1/categories/{id}", computers.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Computing\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name", is("Computing")))
+                .andExpect(jsonPath("$.parent.slug", is(electronics.getSlug())))
+                .andExpect(jsonPath("$.children", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/categories - Should render the whole tree from one query")
+    void categoryListingBuildsTreeInMemory() throws Exception {
+        mockMvc.perform(get("/api/v1/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].children[0].children[0].name", is("Laptops")))
+                .andExpect(jsonPath("$[2].parent.name", is("Computers")));
+    }
+}
@@ -0,0 +1,119 @@
+package com.loiane.ecommerce.product.controller;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares answering repeated requests for missing products and categories from the database with
+ * answering them from the not-found cache.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "product.cache.not-found.ttl=1m",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@DisplayName("Not Found Lookup Comparison Tests")
+class NotFoundLookupComparisonTest {
+
+    private static final int MISSING_KEYS = 20;
+    private static final int ROUNDS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    // The same few stale ids requested over and over, like a crawler revisiting dead links
+    private final List<String> missingPaths = IntStream.range(0, MISSING_KEYS)
+            .mapToObj(i -> i % 2 == 0 ? "/api/v1/products/" + UUID.randomUUID() : "/api/v1/categories/gone-" + i)
+            .toList();
+    private Cache notFoundCache;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        notFoundCache = cacheManager.getCache(CacheNames.NOT_FOUND);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Should answer repeated 404s without a statement once the misses are cached")
+    void shouldAnswerRepeatedNotFoundsFromCache() throws Exception {
+        // Given - warm up both paths so request mapping and query plan compilation are not measured
+        requestAll(true);
+        requestAll(false);
+
+        // When
+        Measurement uncached = measure(true);
+        notFoundCache.clear();
+        requestAll(false);
+        Measurement cached = measure(false);
+
+        // Then - uncached: one lookup per request; cached: none at all
+        assertThat(uncached.requests()).isEqualTo(MISSING_KEYS * ROUNDS);
+        assertThat(uncached.statements()).isEqualTo(MISSING_KEYS * ROUNDS);
+        assertThat(cached.requests()).isEqualTo(MISSING_KEYS * ROUNDS);
+        assertThat(cached.statements()).isZero();
+        assertThat(cached.allocatedBytes()).isLessThan(uncached.allocatedBytes());
+    }
+
+    private int requestAll(boolean forgetMisses) throws Exception {
+        int requests = 0;
+        for (String path : missingPaths) {
+            if (forgetMisses) {
+                notFoundCache.clear();
+            }
+            mockMvc.perform(get(path)).andExpect(status().isNotFound());
+            requests++;
+        }
+        return requests;
+    }
+
+    private Measurement measure(boolean forgetMisses) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        statistics.clear();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        int requests = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            requests += requestAll(forgetMisses);
+        }
+        long allocatedBytes = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Measurement(requests, statistics.getPrepareStatementCount(), allocatedBytes);
+    }
+
+    private record Measurement(int requests, long statements, long allocatedBytes) {
+    }
+}
@@ -8,7 +8,15 @@ import com.loiane.ecommerce.product.entity.ProductStatus;
 import com.loiane.ecommerce.product.exception.*;
 import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
 import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductDescriptionRepository;
+import com.loiane.ecommerce.product.repository.ProductFilter;
 import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.repository.ProductSearchHit;
+import com.loiane.ecommerce.product.repository.ProductSort;
+import com.loiane.ecommerce.product.repository.SearchCursor;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import com.loiane.ecommerce.product.search.ProductSuggester;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +25,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
@@ -29,11 +39,14 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -49,8 +62,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class ProductControllerIntegrationTest {
 
     // Test data constants
-    private static final String PRODUCT_ID = "product-123";
-    private static final String CATEGORY_ID = "category-456";
+    private static final UUID PRODUCT_ID = UUID.fromString("0190f5d2-7c1e-7a3b-9f10-4c2d8e6b1a01");
+    private static final UUID CATEGORY_ID = UUID.fromString("0190f5d2-7c1e-7a3b-9f10-4c2d8e6b1a02");
     private static final String GAMING_LAPTOP_SKU = "LAPTOP-GAMING-001";
     private static final String GAMING_LAPTOP_NAME = "Gaming Laptop Pro";
 
@@ -66,7 +79,14 @@ class ProductControllerIntegrationTest {
     @MockitoBean
     private CategoryRepository categoryRepository;
 
+    @MockitoBean
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
     private Product testProduct;
+    private ProductListItem testListItem;
     private Category testCategory;
 
     @BeforeEach
@@ -90,36 +110,74 @@ class ProductControllerIntegrationTest {
         testProduct.setId(PRODUCT_ID);
         testProduct.setCreatedAt(OffsetDateTime.now());
         testProduct.setUpdatedAt(OffsetDateTime.now());
+
+        testListItem = new ProductListItem(PRODUCT_ID.toString(), GAMING_LAPTOP_NAME, GAMING_LAPTOP_SKU,
+                new BigDecimal("1299.99"), ProductStatus.ACTIVE,
+                new CategorySummary(CATEGORY_ID.toString(), testCategory.getName(), testCategory.getSlug()),
+                25, 5, null);
     }
 
     @Test
     @DisplayName("Find product by ID - Success")
     void findByIdSuccess() throws Exception {
         // Given
-        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(PRODUCT_ID)).thenReturn(Optional.of(testProduct));
 
         // When & Then
         mockMvc.perform(get("/api/v1/products/{id}", PRODUCT_ID))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.id", is(PRODUCT_ID)))
+                .andExpect(jsonPath("$.id", is(PRODUCT_ID.toString())))
                 .andExpect(jsonPath("$.name", is(GAMING_LAPTOP_NAME)))
                 .andExpect(jsonPath("$.sku", is(GAMING_LAPTOP_SKU)));
 
-        verify(productRepository).findById(PRODUCT_ID);
+        verify(productRepository).findWithCategoryById(PRODUCT_ID);
+        verify(productDescriptionRepository, never()).findContentByProductId(any());
+    }
+
+    @Test
+    @DisplayName("Find product by ID with include=description - Reads description from side table")
+    void findByIdIncludingDescription() throws Exception {
+        // Given
+        Product stored = Product.builder()
+                .name(GAMING_LAPTOP_NAME)
+                .sku(GAMING_LAPTOP_SKU)
+                .basePrice(new BigDecimal("1299.99"))
+                .category(testCategory)
+                .build();
+        stored.setId(PRODUCT_ID);
+        when(productRepository.findWithCategoryById(PRODUCT_ID)).thenReturn(Optional.of(stored));
+        when(productDescriptionRepository.findContentByProductId(PRODUCT_ID))
+                .thenReturn(Optional.of("<p>High-performance gaming laptop</p>"));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/{id}", PRODUCT_ID)
+                        .param("include", "description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description", is("<p>High-performance gaming laptop</p>")));
     }
 
     @Test
     @DisplayName("Find product by ID - Not Found")
     void findByIdNotFound() throws Exception {
         // Given
-        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.empty());
+        when(productRepository.findWithCategoryById(PRODUCT_ID)).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(get("/api/v1/products/{id}", PRODUCT_ID))
                 .andExpect(status().isNotFound());
 
-        verify(productRepository).findById(PRODUCT_ID);
+        verify(productRepository).findWithCategoryById(PRODUCT_ID);
+    }
+
+    @Test
+    @DisplayName("Find product by ID - Malformed id returns 400")
+    void findByIdMalformedId() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/{id}", "product-123"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productRepository);
     }
 
     @Test
@@ -147,7 +205,7 @@ class ProductControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.id", is(PRODUCT_ID)))
+                .andExpect(jsonPath("$.id", is(PRODUCT_ID.toString())))
                 .andExpect(jsonPath("$.name", is(GAMING_LAPTOP_NAME)));
 
         verify(categoryRepository, times(2)).findById(CATEGORY_ID); // Called by both controller and service
@@ -195,7 +253,7 @@ class ProductControllerIntegrationTest {
                 15
         );
 
-        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(PRODUCT_ID)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // When & Then
@@ -204,9 +262,9 @@ class ProductControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.id", is(PRODUCT_ID)));
+                .andExpect(jsonPath("$.id", is(PRODUCT_ID.toString())));
 
-        verify(productRepository, times(2)).findById(PRODUCT_ID); // Called by both controller and service
+        verify(productRepository, times(2)).findWithCategoryById(PRODUCT_ID); // Called by both controller and service
         verify(productRepository).save(any(Product.class));
     }
 
@@ -214,9 +272,8 @@ class ProductControllerIntegrationTest {
     @DisplayName("Find active products with pagination")
     void findActiveProductsWithPagination() throws Exception {
         // Given
-        List<Product> products = Arrays.asList(testProduct);
-        PageImpl<Product> page = new PageImpl<>(products, PageRequest.of(0, 10), 1);
-        when(productRepository.findByStatus(eq(ProductStatus.ACTIVE), any(Pageable.class))).thenReturn(page);
+        PageImpl<ProductListItem> page = new PageImpl<>(List.of(testListItem), PageRequest.of(0, 10), 1);
+        when(productRepository.findPublishedActiveListItems(any(Pageable.class))).thenReturn(page);
 
         // When & Then
         mockMvc.perform(get("/api/v1/products")
@@ -225,9 +282,326 @@ class ProductControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.content", hasSize(1)))
-                .andExpect(jsonPath("$.content[0].id", is(PRODUCT_ID)));
+                .andExpect(jsonPath("$.content[0].id", is(PRODUCT_ID.toString())))
+                .andExpect(jsonPath("$.content[0].category.id", is(CATEGORY_ID.toString())))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.countStrategy", is("EXACT")));
+
+        verify(productRepository).findPublishedActiveListItems(any(Pageable.class));
+        verify(productRepository, never()).findByStatus(any(ProductStatus.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Find active products with cached count skips the page count query")
+    void findActiveProductsWithCachedCount() throws Exception {
+        // Given
+        SliceImpl<ProductListItem> slice = new SliceImpl<>(List.of(testListItem), PageRequest.of(0, 10), false);
+        when(productRepository.findPublishedActiveListItemsAsSlice(any(Pageable.class))).thenReturn(slice);
+        when(productRepository.countByStatusAndPublishedAtIsNotNull(ProductStatus.ACTIVE)).thenReturn(1L);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products")
+                        .param("size", "10")
+                        .param("count", "CACHED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.totalElements", is(1)))
+                .andExpect(jsonPath("$.countStrategy", is("CACHED")));
+
+        verify(productRepository, never()).findPublishedActiveListItems(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Find active products in stock only")
+    void findActiveProductsInStockOnly() throws Exception {
+        // Given
+        PageImpl<ProductListItem> page = new PageImpl<>(List.of(testListItem), PageRequest.of(0, 10), 1);
+        when(productRepository.findPublishedAvailableActiveListItems(any(Pageable.class))).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products")
+                        .param("size", "10")
+                        .param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.totalElements", is(1)));
 
-        verify(productRepository).findByStatus(eq(ProductStatus.ACTIVE), any(Pageable.class));
+        verify(productRepository, never()).findPublishedActiveListItems(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Find active products sorted by price, tie-broken by id")
+    void findActiveProductsSortedByPrice() throws Exception {
+        // Given
+        Pageable byPrice = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "basePrice", "id"));
+        when(productRepository.findActiveListItems(byPrice)).thenReturn(new PageImpl<>(List.of(testListItem), byPrice, 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products")
+                        .param("size", "10")
+                        .param("sort", "basePrice,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Find active products with an unsupported sort - Returns 400")
+    void findActiveProductsWithUnsupportedSort() throws Exception {
+        mockMvc.perform(get("/api/v1/products")
+                        .param("sort", "stockQuantity,desc"))
+                .andExpect(status().isBadRequest());
+
+        verify(productRepository, never()).findActiveListItems(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Find active products sorted by a constant name with its own direction")
+    void findActiveProductsSortedByConstantName() throws Exception {
+        // Given
+        Pageable byPrice = PageRequest.of(0, 10, ProductSort.PRICE_DESC.toSort());
+        when(productRepository.findActiveListItems(byPrice)).thenReturn(new PageImpl<>(List.of(testListItem), byPrice, 1));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products")
+                        .param("size", "10")
+                        .param("sort", "PRICE_DESC,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Find active products sorted by a constant name with the opposite direction - Returns 400")
+    void findActiveProductsSortedByConstantNameWithOppositeDirection() throws Exception {
+        mockMvc.perform(get("/api/v1/products")
+                        .param("sort", "NEWEST,asc"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/products")
+                        .param("sort", "PRICE_ASC,desc"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Find active products with unknown count strategy - Returns 400")
+    void findActiveProductsWithUnknownCountStrategy() throws Exception {
+        mockMvc.perform(get("/api/v1/products")
+                        .param("count", "GUESS"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Scroll active products with keyset cursor")
+    void scrollActiveProductsWithCursor() throws Exception {
+        // Given
+        ProductListItem second = new ProductListItem(UUID.randomUUID().toString(), "Second Laptop", "LAPTOP-002",
+                new BigDecimal("999.99"), ProductStatus.ACTIVE, null, 0, 0, null);
+        when(productRepository.findActiveProductsAfter(eq(ProductSort.PRICE_DESC), isNull(), eq(2)))
+                .thenReturn(Arrays.asList(testListItem, second));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("sort", "PRICE_DESC")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(PRODUCT_ID.toString())))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Scroll active products with malformed cursor - Returns 400")
+    void scrollActiveProductsWithMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/products/scroll")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(productRepository, never()).findActiveProductsAfter(any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Filter products by composed criteria")
+    void filterProducts() throws Exception {
+        // Given
+        UUID categoryId = UUID.randomUUID();
+        var filter = new ProductFilter(categoryId, true, new BigDecimal("100"), new BigDecimal("2000"),
+                null, true, "laptop");
+        when(productRepository.findProductsAfter(filter, ProductSort.PRICE_ASC, null, 21))
+                .thenReturn(List.of(testListItem));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/filter")
+                        .param("categoryId", categoryId.toString())
+                        .param("includeDescendants", "true")
+                        .param("minPrice", "100")
+                        .param("maxPrice", "2000")
+                        .param("inStock", "true")
+                        .param("q", "laptop")
+                        .param("sort", "PRICE_ASC"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(PRODUCT_ID.toString())))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    @DisplayName("Filter products with an empty price range - Returns 400")
+    void filterProductsWithEmptyPriceRange() throws Exception {
+        mockMvc.perform(get("/api/v1/products/filter")
+                        .param("minPrice", "500")
+                        .param("maxPrice", "100"))
+                .andExpect(status().isBadRequest());
+
+        verify(productRepository, never()).findProductsAfter(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Price histogram of a category subtree")
+    void findPriceHistogram() throws Exception {
+        // Given
+        UUID categoryId = UUID.randomUUID();
+        when(productRepository.findActivePriceHistogram(categoryId, true, 2))
+                .thenReturn(new PriceHistogram(new BigDecimal("10.00"), new BigDecimal("30.00"), 3, List.of(
+                        new PriceHistogram.Bucket(new BigDecimal("10.00"), new BigDecimal("20.00"), 1),
+                        new PriceHistogram.Bucket(new BigDecimal("20.00"), new BigDecimal("30.00"), 2))));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/price-histogram")
+                        .param("category", categoryId.toString())
+                        .param("includeDescendants", "true")
+                        .param("buckets", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productCount", is(3)))
+                .andExpect(jsonPath("$.buckets", hasSize(2)))
+                .andExpect(jsonPath("$.buckets[1].count", is(2)));
+    }
+
+    @Test
+    @DisplayName("Search active products ranked by relevance")
+    void searchActiveProductsRankedByRelevance() throws Exception {
+        // Given
+        ProductListItem second = new ProductListItem(UUID.randomUUID().toString(), "Laptop Sleeve", "SLEEVE-001",
+                new BigDecimal("19.99"), ProductStatus.ACTIVE, null, 0, 0, null);
+        when(productRepository.searchActiveProducts("gaming laptop", SearchMode.FULL_TEXT, false, null, 2))
+                .thenReturn(List.of(new ProductSearchHit(testListItem, 0.9f), new ProductSearchHit(second, 0.1f)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", "gaming laptop")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(PRODUCT_ID.toString())))
+                .andExpect(jsonPath("$.nextCursor", is(new SearchCursor(SearchMode.FULL_TEXT, 0.9f, PRODUCT_ID).encode())))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Search active products with malformed cursor - Returns 400")
+    void searchActiveProductsWithMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", "laptop")
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(productRepository, never()).searchActiveProducts(any(), any(), anyBoolean(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Search active products in fuzzy mode")
+    void searchActiveProductsInFuzzyMode() throws Exception {
+        // Given
+        when(productRepository.searchActiveProducts("labtop", SearchMode.FUZZY, false, null, 21))
+                .thenReturn(List.of(new ProductSearchHit(testListItem, 0.4f)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", "labtop")
+                        .param("mode", "FUZZY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    @DisplayName("Search active products with facets, counted over the in-stock matches when those are asked for")
+    void searchActiveProductsWithFacets() throws Exception {
+        // Given
+        when(productRepository.searchActiveProducts("usb hub", SearchMode.FULL_TEXT, true, null, 21))
+                .thenReturn(List.of(new ProductSearchHit(testListItem, 0.4f)));
+        when(productRepository.findActiveProductFacets(eq("usb hub"), eq(SearchMode.FULL_TEXT), eq(true), any()))
+                .thenReturn(new ProductFacets(
+                        List.of(new FacetCount(CATEGORY_ID.toString(), "Electronics", 9)),
+                        List.of(new FacetCount("ACTIVE", null, 9)),
+                        List.of(new FacetCount("IN_STOCK", null, 9)),
+                        List.of(new FacetCount("0-25", null, 4), new FacetCount("25-50", null, 5))));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", "USB  Hub")
+                        .param("inStock", "true")
+                        .param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.facets.categories[0].label", is("Electronics")))
+                .andExpect(jsonPath("$.facets.availability", hasSize(1)))
+                .andExpect(jsonPath("$.facets.priceBands", hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("Search active products leaves facets out unless requested")
+    void searchActiveProductsWithoutFacets() throws Exception {
+        // Given
+        when(productRepository.searchActiveProducts("usb cable", SearchMode.FULL_TEXT, false, null, 21))
+                .thenReturn(List.of(new ProductSearchHit(testListItem, 0.4f)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", "usb cable"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets").doesNotExist());
+
+        verify(productRepository, never()).findActiveProductFacets(any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    @DisplayName("Search active products in stock only")
+    void searchActiveProductsInStockOnly() throws Exception {
+        // Given
+        when(productRepository.searchActiveProducts("usb cable", SearchMode.FULL_TEXT, true, null, 21))
+                .thenReturn(List.of(new ProductSearchHit(testListItem, 0.4f)));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("q", "usb cable")
+                        .param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)));
+
+        verify(productRepository, never()).searchActiveProducts(any(), any(), eq(false), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Suggest completions from memory")
+    void suggestCompletions() throws Exception {
+        // Given
+        when(productRepository.findActiveSuggestRows()).thenReturn(List.of(
+                new ProductSuggestRow(PRODUCT_ID, GAMING_LAPTOP_NAME, GAMING_LAPTOP_SKU, 3)));
+        productSuggester.reload();
+        clearInvocations(productRepository, categoryRepository);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/products/suggest")
+                        .param("q", "gam"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].text", is(GAMING_LAPTOP_NAME)))
+                .andExpect(jsonPath("$[0].type", is("PRODUCT")))
+                .andExpect(jsonPath("$[0].id", is(PRODUCT_ID.toString())));
+
+        verifyNoInteractions(productRepository, categoryRepository);
     }
 
     @Test
@@ -243,7 +617,8 @@ class ProductControllerIntegrationTest {
                 .lowStockThreshold(10)
                 .trackInventory(true)
                 .build();
-        lowStockProduct.setId("low-stock-id");
+        UUID lowStockId = UUID.randomUUID();
+        lowStockProduct.setId(lowStockId);
 
         when(productRepository.findProductsWithLowStock()).thenReturn(Arrays.asList(lowStockProduct));
 
@@ -252,7 +627,7 @@ class ProductControllerIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].id", is("low-stock-id")));
+                .andExpect(jsonPath("$[0].id", is(lowStockId.toString())));
 
         verify(productRepository).findProductsWithLowStock();
     }
@@ -261,7 +636,7 @@ class ProductControllerIntegrationTest {
     @DisplayName("Reserve stock - Success")
     void reserveStockSuccess() throws Exception {
         // Given
-        String productId = "product-123";
+        UUID productId = UUID.randomUUID();
         Product existingProduct = Product.builder()
                 .name("Gaming Laptop Pro")
                 .sku("LAPTOP-GAMING-001")
@@ -273,7 +648,7 @@ class ProductControllerIntegrationTest {
                 .build();
         existingProduct.setId(productId);
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(existingProduct));
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When & Then
@@ -281,7 +656,7 @@ class ProductControllerIntegrationTest {
                         .param("quantity", "5"))
                 .andExpect(status().isOk());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
         verify(productRepository).save(existingProduct);
     }
 
@@ -289,7 +664,7 @@ class ProductControllerIntegrationTest {
     @DisplayName("Release stock - Success")
     void releaseStockSuccess() throws Exception {
         // Given
-        String productId = "product-123";
+        UUID productId = UUID.randomUUID();
         Product existingProduct = Product.builder()
                 .name("Gaming Laptop Pro")
                 .sku("LAPTOP-GAMING-001")
@@ -302,7 +677,7 @@ class ProductControllerIntegrationTest {
                 .build();
         existingProduct.setId(productId);
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(existingProduct));
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When & Then
@@ -310,7 +685,7 @@ class ProductControllerIntegrationTest {
                         .param("quantity", "3"))
                 .andExpect(status().isOk());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
         verify(productRepository).save(existingProduct);
     }
 
@@ -318,7 +693,7 @@ class ProductControllerIntegrationTest {
     @DisplayName("Confirm stock - Success")
     void confirmStockSuccess() throws Exception {
         // Given
-        String productId = "product-123";
+        UUID productId = UUID.randomUUID();
         Product existingProduct = Product.builder()
                 .name("Gaming Laptop Pro")
                 .sku("LAPTOP-GAMING-001")
@@ -331,7 +706,7 @@ class ProductControllerIntegrationTest {
                 .build();
         existingProduct.setId(productId);
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(existingProduct));
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When & Then
@@ -339,7 +714,7 @@ class ProductControllerIntegrationTest {
                         .param("quantity", "2"))
                 .andExpect(status().isOk());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
         verify(productRepository).save(existingProduct);
     }
 
@@ -347,7 +722,7 @@ class ProductControllerIntegrationTest {
     @DisplayName("Publish product - Success")
     void publishProductSuccess() throws Exception {
         // Given
-        String productId = "product-123";
+        UUID productId = UUID.randomUUID();
         Product existingProduct = Product.builder()
                 .name("Gaming Laptop Pro")
                 .sku("LAPTOP-GAMING-001")
@@ -360,17 +735,17 @@ class ProductControllerIntegrationTest {
                 .build();
         existingProduct.setId(productId);
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(existingProduct));
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/{id}/publish", productId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.id", is(productId)))
+                .andExpect(jsonPath("$.id", is(productId.toString())))
                 .andExpect(jsonPath("$.name", is("Gaming Laptop Pro")));
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
         verify(productRepository).save(existingProduct);
     }
 
@@ -378,7 +753,7 @@ class ProductControllerIntegrationTest {
     @DisplayName("Discontinue product - Success")
     void discontinueProductSuccess() throws Exception {
         // Given
-        String productId = "product-123";
+        UUID productId = UUID.randomUUID();
         Product existingProduct = Product.builder()
                 .name("Gaming Laptop Pro")
                 .sku("LAPTOP-GAMING-001")
@@ -391,17 +766,17 @@ class ProductControllerIntegrationTest {
                 .build();
         existingProduct.setId(productId);
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(existingProduct));
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/{id}/discontinue", productId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.id", is(productId)))
+                .andExpect(jsonPath("$.id", is(productId.toString())))
                 .andExpect(jsonPath("$.name", is("Gaming Laptop Pro")));
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
         verify(productRepository).save(existingProduct);
     }
 
@@ -411,18 +786,19 @@ class ProductControllerIntegrationTest {
     @DisplayName("Create product with invalid category - Returns 400")
     void createProductWithInvalidCategory() throws Exception {
         // Given
+        var unknownCategoryId = UUID.randomUUID();
         var request = new CreateProductRequest(
                 "Test Product",
                 "test-sku-123",
                 "Test description",
                 BigDecimal.valueOf(99.99),
-                "invalid-category-id",
+                unknownCategoryId,
                 10,
                 5,
                 true
         );
 
-        when(categoryRepository.findById("invalid-category-id")).thenReturn(Optional.empty());
+        when(categoryRepository.findById(unknownCategoryId)).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(post("/api/v1/products")
@@ -430,7 +806,7 @@ class ProductControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
 
-        verify(categoryRepository).findById("invalid-category-id");
+        verify(categoryRepository).findById(unknownCategoryId);
         verifyNoInteractions(productRepository);
     }
 
@@ -446,20 +822,21 @@ class ProductControllerIntegrationTest {
                 .displayOrder(1)
                 .level(0)
                 .build();
-        inactiveCategory.setId("cat-1");
+        var inactiveCategoryId = UUID.randomUUID();
+        inactiveCategory.setId(inactiveCategoryId);
 
         var request = new CreateProductRequest(
                 "Test Product",
                 "test-sku-123",
                 "Test description",
                 BigDecimal.valueOf(99.99),
-                "cat-1",
+                inactiveCategoryId,
                 10,
                 5,
                 true
         );
 
-        when(categoryRepository.findById("cat-1")).thenReturn(Optional.of(inactiveCategory));
+        when(categoryRepository.findById(inactiveCategoryId)).thenReturn(Optional.of(inactiveCategory));
 
         // When & Then
         mockMvc.perform(post("/api/v1/products")
@@ -467,14 +844,14 @@ class ProductControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
 
-        verify(categoryRepository, atLeast(1)).findById("cat-1");
+        verify(categoryRepository, atLeast(1)).findById(inactiveCategoryId);
     }
 
     @Test
     @DisplayName("Update product not found - Returns 404")
     void updateProductNotFound() throws Exception {
         // Given
-        var productId = "non-existent-id";
+        var productId = UUID.randomUUID();
         var request = new UpdateProductRequest(
                 "Updated Product",
                 "Updated description",
@@ -482,7 +859,7 @@ class ProductControllerIntegrationTest {
                 8
         );
 
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/{id}", productId)
@@ -490,7 +867,7 @@ class ProductControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isNotFound());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
         verify(productRepository, never()).save(any(Product.class));
     }
 
@@ -498,7 +875,7 @@ class ProductControllerIntegrationTest {
     @DisplayName("Update product duplicate SKU - Returns 409")
     void updateProductDuplicateSku() throws Exception {
         // Given
-        var productId = "prod-1";
+        var productId = UUID.randomUUID();
         var existingProduct = buildSampleProduct(productId);
         var request = new UpdateProductRequest(
                 "Updated Product",
@@ -507,7 +884,7 @@ class ProductControllerIntegrationTest {
                 8
         );
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(existingProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(existingProduct));
         when(productRepository.save(any(Product.class))).thenThrow(new DuplicateSkuException("SKU already exists"));
 
         // When & Then
@@ -516,54 +893,54 @@ class ProductControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isConflict());
 
-        verify(productRepository, atLeast(1)).findById(productId);
+        verify(productRepository, atLeast(1)).findWithCategoryById(productId);
     }
 
     @Test
     @DisplayName("Publish product not found - Returns 404")
     void publishProductNotFound() throws Exception {
         // Given
-        var productId = "non-existent-id";
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        var productId = UUID.randomUUID();
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/{id}/publish", productId))
                 .andExpect(status().isNotFound());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
         verify(productRepository, never()).save(any(Product.class));
     }
 
     @Test
-    @DisplayName("Publish product illegal operation - Returns 400")
+    @DisplayName("Publish product illegal operation - Returns 409")
     void publishProductIllegalOperation() throws Exception {
         // Given
-        var productId = "prod-1";
+        var productId = UUID.randomUUID();
         var product = buildSampleProduct(productId);
         product.setStatus(ProductStatus.DISCONTINUED);
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(product));
         when(productRepository.save(any(Product.class))).thenThrow(new IllegalOperationException("Cannot publish discontinued product"));
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/{id}/publish", productId))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isConflict());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
     }
 
     @Test
     @DisplayName("Discontinue product not found - Returns 404")
     void discontinueProductNotFound() throws Exception {
         // Given
-        var productId = "non-existent-id";
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        var productId = UUID.randomUUID();
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/{id}/discontinue", productId))
                 .andExpect(status().isNotFound());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
         verify(productRepository, never()).save(any(Product.class));
     }
 
@@ -571,39 +948,38 @@ class ProductControllerIntegrationTest {
     @DisplayName("Reserve stock insufficient stock - Returns 409")
     void reserveStockInsufficientStock() throws Exception {
         // Given
-        var productId = "prod-1";
+        var productId = UUID.randomUUID();
         var product = buildSampleProduct(productId);
         product.setStockQuantity(5);
         int requestedQuantity = 10; // More than available
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(product));
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/{id}/stock/reserve", productId)
                         .param("quantity", String.valueOf(requestedQuantity)))
                 .andExpect(status().isConflict());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
     }
 
     @Test
-    @DisplayName("Release stock invalid argument - Exception handling")
-    void releaseStockInvalidArgument() {
+    @DisplayName("Release stock beyond reserved - Returns 409")
+    void releaseStockBeyondReserved() throws Exception {
         // Given
-        var productId = "prod-1";
+        var productId = UUID.randomUUID();
         var product = buildSampleProduct(productId);
         product.setReservedQuantity(5);
         int requestedQuantity = 10; // More than reserved
 
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(product));
 
-        // When & Then - The IllegalOperationException causes a 500 since controller doesn't handle it
-        assertThrows(Exception.class, () -> {
-            mockMvc.perform(put("/api/v1/products/{id}/stock/release", productId)
-                            .param("quantity", String.valueOf(requestedQuantity)));
-        });
+        // When & Then
+        mockMvc.perform(put("/api/v1/products/{id}/stock/release", productId)
+                        .param("quantity", String.valueOf(requestedQuantity)))
+                .andExpect(status().isConflict());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
     }
 
     @Test
@@ -611,7 +987,7 @@ class ProductControllerIntegrationTest {
     void bulkUpdateStatusNoProductsFound() throws Exception {
         // Given
         var request = new BulkUpdateStatusRequest(
-                List.of("non-existent-1", "non-existent-2"),
+                List.of(UUID.randomUUID(), UUID.randomUUID()),
                 ProductStatus.ACTIVE
         );
 
@@ -628,80 +1004,92 @@ class ProductControllerIntegrationTest {
     }
 
     @Test
-    @DisplayName("Bulk update status repository exception - Returns 400")
+    @DisplayName("Bulk update status repository exception - Not reported as a client error")
     void bulkUpdateStatusException() throws Exception {
         // Given
         var request = new BulkUpdateStatusRequest(
-                List.of("prod-1", "prod-2"),
+                List.of(UUID.randomUUID(), UUID.randomUUID()),
                 ProductStatus.ACTIVE
         );
 
         when(productRepository.findAllById(request.productIds())).thenThrow(new RuntimeException("Database error"));
 
-        // When & Then - Repository exception during findAllById results in 400
-        mockMvc.perform(put("/api/v1/products/bulk/status")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isBadRequest());
+        // When & Then - A failing database is a server error, left to the container like on every other endpoint
+        assertThrows(ServletException.class, () -> mockMvc.perform(put("/api/v1/products/bulk/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request))));
 
         verify(productRepository).findAllById(request.productIds());
     }
 
+    @Test
+    @DisplayName("Unexpected IllegalArgumentException - Not reported as a client error")
+    void unexpectedIllegalArgumentException() {
+        // Given
+        var productId = UUID.randomUUID();
+
+        when(productRepository.findWithCategoryById(productId)).thenThrow(new IllegalArgumentException("bug"));
+
+        // When & Then - Only the exceptions thrown on purpose for bad input are answered with 400
+        assertThrows(ServletException.class, () -> mockMvc.perform(put("/api/v1/products/{id}/stock/reserve", productId)
+                .param("quantity", "5")));
+    }
+
     @Test
     @DisplayName("Reserve stock product not found - Returns 404")
     void reserveStockProductNotFound() throws Exception {
         // Given
-        var productId = "non-existent-id";
+        var productId = UUID.randomUUID();
         int quantity = 5;
 
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/{id}/stock/reserve", productId)
                         .param("quantity", String.valueOf(quantity)))
                 .andExpect(status().isNotFound());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
     }
 
     @Test
     @DisplayName("Release stock product not found - Returns 404")
     void releaseStockProductNotFound() throws Exception {
         // Given
-        var productId = "non-existent-id";
+        var productId = UUID.randomUUID();
         int quantity = 5;
 
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/{id}/stock/release", productId)
                         .param("quantity", String.valueOf(quantity)))
                 .andExpect(status().isNotFound());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
     }
 
     @Test
     @DisplayName("Confirm stock product not found - Returns 404")
     void confirmStockProductNotFound() throws Exception {
         // Given
-        var productId = "non-existent-id";
+        var productId = UUID.randomUUID();
         int quantity = 5;
 
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.empty());
 
         // When & Then
         mockMvc.perform(put("/api/v1/products/{id}/stock/confirm", productId)
                         .param("quantity", String.valueOf(quantity)))
                 .andExpect(status().isNotFound());
 
-        verify(productRepository).findById(productId);
+        verify(productRepository).findWithCategoryById(productId);
     }
 
     /**
      * Helper method to build a sample product for testing
      */
-    private Product buildSampleProduct(String productId) {
+    private Product buildSampleProduct(UUID productId) {
         var product = Product.builder()
                 .name("Sample Product")
                 .sku("SAMPLE-SKU-001")
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -14,7 +15,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 class CategoryTest {
 
     // Test data constants
-    private static final String TEST_ID = "test-id";
+    private static final UUID TEST_ID = UUID.fromString("0190f5d2-7c1e-7a3b-9f10-4c2d8e6b1a01");
+    private static final UUID OTHER_ID = UUID.fromString("0190f5d2-7c1e-7a3b-9f10-4c2d8e6b1a02");
     private static final String TEST_CATEGORY_NAME = "Test Category";
     private static final String TEST_CATEGORY_SLUG = "test-category";
 
@@ -30,7 +32,7 @@ class CategoryTest {
                 .displayOrder(1)
                 .active(true)
                 .build();
-        parentCategory.setId("parent-id");
+        parentCategory.setId(OTHER_ID);
 
         category = Category.builder()
                 .name("Laptops")
@@ -40,7 +42,7 @@ class CategoryTest {
                 .displayOrder(1)
                 .active(true)
                 .build();
-        category.setId("category-id");
+        category.setId(TEST_ID);
     }
 
     @Nested
@@ -251,11 +253,11 @@ class CategoryTest {
         void shouldBeEqualWhenSameId() {
             // Given
             Category category1 = new Category();
-            category1.setId("123");
+            category1.setId(TEST_ID);
             category1.setName("Category 1");
 
             Category category2 = new Category();
-            category2.setId("123");
+            category2.setId(TEST_ID);
             category2.setName("Category 2");
 
             // When & Then
@@ -269,10 +271,10 @@ class CategoryTest {
         void shouldNotBeEqualWhenDifferentIds() {
             // Given
             Category category1 = new Category();
-            category1.setId("123");
+            category1.setId(TEST_ID);
 
             Category category2 = new Category();
-            category2.setId("456");
+            category2.setId(OTHER_ID);
 
             // When & Then
             assertThat(category1).isNotEqualTo(category2);
@@ -304,7 +306,7 @@ class CategoryTest {
             // Then
             assertThat(toString)
                     .contains("Category")
-                    .contains(TEST_ID)
+                    .contains(TEST_ID.toString())
                     .contains(TEST_CATEGORY_NAME);
         }
     }
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -14,7 +15,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 class ProductTest {
 
     // Test data constants
-    private static final String TEST_ID = "test-id";
+    private static final UUID TEST_ID = UUID.fromString("0190f5d2-7c1e-7a3b-9f10-4c2d8e6b1a01");
+    private static final UUID OTHER_ID = UUID.fromString("0190f5d2-7c1e-7a3b-9f10-4c2d8e6b1a02");
     private static final String TEST_PRODUCT_NAME = "Test Product";
     private static final String TEST_SKU = "TEST-001";
 
@@ -262,11 +264,11 @@ class ProductTest {
         void shouldBeEqualWhenSameId() {
             // Given
             Product product1 = new Product();
-            product1.setId("123");
+            product1.setId(TEST_ID);
             product1.setName("Product 1");
 
             Product product2 = new Product();
-            product2.setId("123");
+            product2.setId(TEST_ID);
             product2.setName("Product 2");
 
             // When & Then
@@ -280,10 +282,10 @@ class ProductTest {
         void shouldNotBeEqualWhenDifferentIds() {
             // Given
             Product product1 = new Product();
-            product1.setId("123");
+            product1.setId(TEST_ID);
 
             Product product2 = new Product();
-            product2.setId("456");
+            product2.setId(OTHER_ID);
 
             // When & Then
             assertThat(product1).isNotEqualTo(product2);
@@ -294,7 +296,7 @@ class ProductTest {
         void shouldNotBeEqualWhenComparingWithNull() {
             // Given
             Product testProduct = new Product();
-            testProduct.setId("123");
+            testProduct.setId(TEST_ID);
 
             // When & Then
             assertThat(testProduct).isNotEqualTo(null);
@@ -305,7 +307,7 @@ class ProductTest {
         void shouldNotBeEqualWhenComparingWithDifferentClass() {
             // Given
             Product testProduct = new Product();
-            testProduct.setId("123");
+            testProduct.setId(TEST_ID);
 
             // When & Then
             assertThat(testProduct).isNotEqualTo("not a product");
@@ -337,7 +339,7 @@ class ProductTest {
             // Then
             assertThat(toString)
                     .contains("Product")
-                    .contains(TEST_ID)
+                    .contains(TEST_ID.toString())
                     .contains(TEST_PRODUCT_NAME);
         }
     }
@@ -0,0 +1,57 @@
+package com.loiane.ecommerce.product.entity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("UUIDv7 Generator Tests")
+class UuidV7GeneratorTest {
+
+    @Test
+    @DisplayName("Should generate RFC 9562 version 7 ids")
+    void shouldGenerateVersion7Ids() {
+        // when
+        UUID id = UuidV7Generator.next();
+
+        // then
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should embed the current Unix millisecond timestamp")
+    void shouldEmbedCurrentTimestamp() {
+        // given
+        long before = System.currentTimeMillis();
+
+        // when
+        UUID id = UuidV7Generator.next();
+
+        // then
+        long timestamp = id.getMostSignificantBits() >>> 16;
+        assertThat(timestamp).isBetween(before, System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing ids within a burst")
+    void shouldGenerateStrictlyIncreasingIds() {
+        // given
+        List<UUID> ids = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7Generator.next());
+        }
+
+        // then
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+        }
+        assertThat(ids).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,190 @@
+package com.loiane.ecommerce.product.event;
+
+import com.loiane.ecommerce.product.ProductServiceApplication;
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.exception.CategoryNotFoundException;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.service.CategoryService;
+import com.loiane.ecommerce.product.service.ProductPriceHistogramService;
+import com.loiane.ecommerce.product.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs two instances against one PostgreSQL and checks that a write on one reaches the local caches of
+ * the other once it commits, and never when it rolls back. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Cache Invalidation Bus Tests")
+class CacheInvalidationBusTest {
+
+    private static final Duration PROPAGATION = Duration.ofSeconds(10);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static ConfigurableApplicationContext writer;
+    private static ConfigurableApplicationContext reader;
+
+    @BeforeAll
+    static void startInstances() {
+        writer = startInstance();
+        reader = startInstance();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        reader.close();
+        writer.close();
+    }
+
+    @Test
+    @DisplayName("Should find a category on one instance right after another created it")
+    void shouldForgetMissingCategoryCreatedElsewhere() {
+        // given - the reader remembers the slug as missing for minutes
+        CategoryService readerCategories = reader.getBean(CategoryService.class);
+        assertThatThrownBy(() -> readerCategories.findBySlug("bus-laptops")).isInstanceOf(CategoryNotFoundException.class);
+
+        // when
+        writer.getBean(CategoryService.class).createCategory(CategoryTestDataFactory.createWithSlug("bus-laptops"));
+
+        // then
+        await().atMost(PROPAGATION).ignoreException(CategoryNotFoundException.class)
+                .until(() -> readerCategories.findBySlug("bus-laptops") != null);
+    }
+
+    @Test
+    @DisplayName("Should evict a price histogram on one instance when another adds a product to its category")
+    void shouldEvictHistogramChangedElsewhere() {
+        // given
+        Category category = writer.getBean(CategoryService.class)
+                .createCategory(CategoryTestDataFactory.createWithSlug("bus-bags"));
+        ProductPriceHistogramService readerHistograms = reader.getBean(ProductPriceHistogramService.class);
+        assertThat(readerHistograms.findActivePriceHistogram(category.getId(), false, 10).productCount()).isZero();
+
+        // when
+        Product product = ProductTestDataFactory.createActive();
+        product.setCategory(category);
+        product.setBasePrice(new BigDecimal("49.90"));
+        writer.getBean(ProductService.class).createProduct(product);
+
+        // then
+        await().atMost(PROPAGATION)
+                .until(() -> readerHistograms.findActivePriceHistogram(category.getId(), false, 10).productCount() == 1);
+    }
+
+    @Test
+    @DisplayName("Should evict on another instance only once the write commits")
+    void shouldEvictElsewhereOnCommit() {
+        // given
+        Category category = writer.getBean(CategoryService.class)
+                .createCategory(CategoryTestDataFactory.createWithSlug("bus-desks"));
+        ProductPriceHistogramService readerHistograms = reader.getBean(ProductPriceHistogramService.class);
+        assertThat(readerHistograms.findActivePriceHistogram(category.getId(), false, 10).productCount()).isZero();
+
+        // when
+        writer.getBean(TransactionTemplate.class).executeWithoutResult(_ -> {
+            writer.getBean(ProductService.class).createProduct(activeProduct("BUS-DESK-001", category));
+
+            // then - evicted now, the reader would reload the count the open transaction hides and keep it
+            await().during(Duration.ofSeconds(1)).atMost(PROPAGATION)
+                    .until(() -> readerHistograms.findActivePriceHistogram(category.getId(), false, 10).productCount() == 0);
+        });
+
+        // then
+        await().atMost(PROPAGATION)
+                .until(() -> readerHistograms.findActivePriceHistogram(category.getId(), false, 10).productCount() == 1);
+    }
+
+    @Test
+    @DisplayName("Should leave the caches of another instance alone when the write rolls back")
+    void shouldNotEvictElsewhereOnRollback() {
+        // given - a histogram gone stale behind a write that published nothing, so that any eviction shows
+        CategoryService writerCategories = writer.getBean(CategoryService.class);
+        Category stale = writerCategories.createCategory(CategoryTestDataFactory.createWithSlug("bus-lamps"));
+        Category marker = writerCategories.createCategory(CategoryTestDataFactory.createWithSlug("bus-rugs"));
+        ProductPriceHistogramService readerHistograms = reader.getBean(ProductPriceHistogramService.class);
+        assertThat(readerHistograms.findActivePriceHistogram(stale.getId(), false, 10).productCount()).isZero();
+        assertThat(readerHistograms.findActivePriceHistogram(marker.getId(), false, 10).productCount()).isZero();
+        writer.getBean(ProductRepository.class).save(activeProduct("BUS-LAMP-001", stale));
+
+        // when - a rolled back create in the stale category, and one that clears every histogram
+        writer.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            writer.getBean(ProductService.class).createProduct(activeProduct("BUS-LAMP-002", stale));
+            writerCategories.createCategory(CategoryTestDataFactory.createWithSlug("bus-rolled-back"));
+            status.setRollbackOnly();
+        });
+        // then a committed one, delivered after anything the rolled back transaction could have sent
+        writer.getBean(ProductService.class).createProduct(activeProduct("BUS-RUG-001", marker));
+        await().atMost(PROPAGATION)
+                .until(() -> readerHistograms.findActivePriceHistogram(marker.getId(), false, 10).productCount() == 1);
+
+        // then
+        assertThat(readerHistograms.findActivePriceHistogram(stale.getId(), false, 10).productCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should clear the local caches after the listener reconnects")
+    void shouldClearCachesAfterReconnecting() {
+        // given - an entry no notification would ever evict
+        Cache readerCounts = reader.getBean(CacheManager.class).getCache(CacheNames.PRODUCT_COUNTS);
+        readerCounts.put("sentinel", 42L);
+
+        // when - every listener connection is dropped, losing whatever is notified meanwhile
+        writer.getBean(JdbcTemplate.class).queryForList(
+                "SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = 'product-service-cache-bus'");
+
+        // then
+        await().atMost(PROPAGATION).until(() -> readerCounts.get("sentinel") == null);
+    }
+
+    private static Product activeProduct(String sku, Category category) {
+        return ProductTestDataFactory.aProduct()
+                .withSku(sku)
+                .withCategory(category)
+                .withPrice("49.90")
+                .thatIsActive()
+                .build();
+    }
+
+    // Arguments rather than default properties, which the test profile's H2 settings would override
+    private static ConfigurableApplicationContext startInstance() {
+        return new SpringApplicationBuilder(ProductServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.flyway.enabled=true",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                        "--product.cache.not-found.ttl=10m",
+                        "--product.cache-bus.enabled=true",
+                        "--product.cache-bus.reconnect-delay=100ms");
+    }
+}
@@ -203,4 +203,20 @@ class ExceptionTests {
         assertThat(exception.getMessage()).isEqualTo(message);
         assertThat(exception.getCause()).isEqualTo(cause);
     }
+
+    @Test
+    @DisplayName("Should create domain exceptions without a stack trace")
+    void shouldCreateDomainExceptionsWithoutStackTrace() {
+        // Given
+        Throwable cause = new RuntimeException("Database error");
+
+        // When
+        DomainException notFound = new ProductNotFoundException("Product not found");
+        DomainException conflict = new InsufficientStockException("Insufficient stock", cause);
+
+        // Then
+        assertThat(notFound.getStackTrace()).isEmpty();
+        assertThat(conflict.getStackTrace()).isEmpty();
+        assertThat(conflict.getCause()).isEqualTo(cause);
+    }
 }
@@ -23,6 +23,9 @@ public class CategoryDTOTestFactory {
                 0,
                 counter,
                 true,
+                0,
+                0,
+                0,
                 null,
                 new ArrayList<>(),
                 OffsetDateTime.now(),
@@ -39,6 +42,9 @@ public class CategoryDTOTestFactory {
                 0,
                 1,
                 true,
+                0,
+                0,
+                0,
                 null,
                 new ArrayList<>(),
                 OffsetDateTime.now(),
@@ -55,6 +61,9 @@ public class CategoryDTOTestFactory {
                 1,
                 1,
                 true,
+                0,
+                0,
+                0,
                 parent,
                 new ArrayList<>(),
                 OffsetDateTime.now(),
@@ -81,7 +90,7 @@ public class CategoryDTOTestFactory {
         );
     }
     
-    public static CreateCategoryRequest createChildCreateRequest(String parentId) {
+    public static CreateCategoryRequest createChildCreateRequest(UUID parentId) {
         counter++;
         return new CreateCategoryRequest(
                 "Child Category " + counter,
@@ -5,6 +5,7 @@ import com.loiane.ecommerce.product.entity.Category;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Factory for creating Category test data with support for hierarchies.
@@ -198,7 +199,7 @@ public class CategoryTestDataFactory extends TestDataFactory {
             this.category = createDefault();
         }
         
-        public CategoryBuilder withId(String id) {
+        public CategoryBuilder withId(UUID id) {
             category.setId(id);
             return this;
         }
@@ -18,7 +18,7 @@ public class ProductDTOTestFactory {
     
     public static ProductResponse createProductResponse(Product product) {
         return new ProductResponse(
-                product.getId(),
+                product.getId() != null ? product.getId().toString() : null,
                 product.getName(),
                 product.getSku(),
                 product.getDescription(),
@@ -26,7 +26,7 @@ public class ProductDTOTestFactory {
                 product.getStatus(),
                 product.getCategory() != null ? 
                     new CategorySummary(
-                        product.getCategory().getId(),
+                        product.getCategory().getId() != null ? product.getCategory().getId().toString() : null,
                         product.getCategory().getName(),
                         product.getCategory().getSlug()
                     ) : null,
@@ -64,7 +64,7 @@ public class ProductDTOTestFactory {
         );
     }
     
-    public static CreateProductRequest createValidCreateRequest(String categoryId) {
+    public static CreateProductRequest createValidCreateRequest(UUID categoryId) {
         counter++;
         return new CreateProductRequest(
                 "New Product " + counter,
@@ -8,6 +8,7 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Factory for creating Product test data using fluent builder pattern.
@@ -80,6 +81,7 @@ public class ProductTestDataFactory extends TestDataFactory {
         Product product = createDefault();
         product.setStockQuantity(stockQuantity);
         product.setReservedQuantity(reservedQuantity);
+        product.refreshAvailability();
         return product;
     }
     
@@ -90,6 +92,7 @@ public class ProductTestDataFactory extends TestDataFactory {
         Product product = createDefault();
         product.setStockQuantity(5);
         product.setLowStockThreshold(10);
+        product.refreshAvailability();
         return product;
     }
     
@@ -198,7 +201,7 @@ public class ProductTestDataFactory extends TestDataFactory {
             this.product = createDefault();
         }
         
-        public ProductBuilder withId(String id) {
+        public ProductBuilder withId(UUID id) {
             product.setId(id);
             return this;
         }
@@ -286,6 +289,8 @@ public class ProductTestDataFactory extends TestDataFactory {
         }
         
         public Product build() {
+            // As ProductService does before saving, so the stored flag matches the stock set above
+            product.refreshAvailability();
             return product;
         }
     }
@@ -0,0 +1,137 @@
+package com.loiane.ecommerce.product.job;
+
+import com.loiane.ecommerce.product.dto.CountStrategy;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductFilter;
+import com.loiane.ecommerce.product.repository.ProductSort;
+import com.loiane.ecommerce.product.search.SearchResultCache;
+import com.loiane.ecommerce.product.service.CategoryService;
+import com.loiane.ecommerce.product.service.ProductCountService;
+import com.loiane.ecommerce.product.service.ProductFacetService;
+import com.loiane.ecommerce.product.service.ProductPriceHistogramService;
+import com.loiane.ecommerce.product.service.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmUpJobTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductCountService productCountService;
+
+    @Mock
+    private ProductFacetService productFacetService;
+
+    @Mock
+    private ProductPriceHistogramService productPriceHistogramService;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Test
+    @DisplayName("Should fill the category tree, listing pages and totals, facets, price histograms and hot searches")
+    void shouldWarmEverything() {
+        // given
+        Category laptops = CategoryTestDataFactory.createWithSlug("laptops");
+        laptops.setId(UUID.randomUUID());
+        when(categoryRepository.findByIsActiveTrueOrderByActiveProductCountDesc(Limit.of(1))).thenReturn(List.of(laptops));
+        Runnable hotQuery = mock(Runnable.class);
+        when(searchResultCache.warmUpLoads()).thenReturn(List.of(hotQuery));
+
+        // when
+        job(true, Duration.ofSeconds(10)).warmUp();
+
+        // then
+        verify(categoryService).getCategoryHierarchy();
+        verify(productService).scrollActiveProducts(ProductSort.NEWEST, null, 20);
+        for (boolean inStockOnly : new boolean[]{true, false}) {
+            verify(productCountService).countActiveProducts(CountStrategy.CACHED, inStockOnly, true);
+            verify(productCountService).countActiveProducts(CountStrategy.CACHED, inStockOnly, false);
+        }
+        verify(productFacetService).findActiveProductFacets(null, null, false);
+        verify(productPriceHistogramService).findActivePriceHistogram(null, false, 20);
+        for (boolean includeDescendants : new boolean[]{false, true}) {
+            verify(productService).filterProducts(
+                    new ProductFilter(laptops.getId(), includeDescendants, null, null, null, false, null),
+                    ProductSort.NEWEST, null, 20);
+            verify(productPriceHistogramService).findActivePriceHistogram(laptops.getId(), includeDescendants, 20);
+        }
+        verify(hotQuery).run();
+    }
+
+    @Test
+    @DisplayName("Should go on past loads that fail")
+    void shouldSkipFailingLoads() {
+        // given
+        when(categoryRepository.findByIsActiveTrueOrderByActiveProductCountDesc(Limit.of(1)))
+                .thenThrow(new IllegalStateException("database unavailable"));
+        when(productFacetService.findActiveProductFacets(null, null, false))
+                .thenThrow(new IllegalStateException("database unavailable"));
+
+        // when
+        job(true, Duration.ofSeconds(10)).warmUp();
+
+        // then
+        verify(productCountService).countActiveProducts(CountStrategy.CACHED, false, false);
+        verify(productPriceHistogramService).findActivePriceHistogram(null, false, 20);
+        verify(productPriceHistogramService, never()).findActivePriceHistogram(notNull(), anyBoolean(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should stop waiting for the loads once the budget runs out")
+    void shouldReturnWhenBudgetRunsOut() {
+        // given
+        CountDownLatch never = new CountDownLatch(1);
+        when(productFacetService.findActiveProductFacets(null, null, false)).thenAnswer(_ -> {
+            never.await();
+            return null;
+        });
+
+        // when
+        long started = System.nanoTime();
+        job(true, Duration.ofMillis(200)).warmUp();
+
+        // then
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should load nothing when disabled")
+    void shouldDoNothingWhenDisabled() {
+        // when
+        job(false, Duration.ofSeconds(10)).warmUp();
+
+        // then
+        verifyNoInteractions(categoryRepository, categoryService, productService, productCountService, productFacetService, productPriceHistogramService,
+                searchResultCache);
+    }
+
+    private CacheWarmUpJob job(boolean enabled, Duration budget) {
+        return new CacheWarmUpJob(categoryRepository, categoryService, productService, productCountService, productFacetService,
+                productPriceHistogramService, searchResultCache, enabled, 2, budget, 1);
+    }
+}
@@ -0,0 +1,150 @@
+package com.loiane.ecommerce.product.job;
+
+import com.loiane.ecommerce.product.ProductServiceApplication;
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import com.loiane.ecommerce.product.service.CategoryService;
+import com.loiane.ecommerce.product.service.ProductPriceHistogramService;
+import com.loiane.ecommerce.product.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Starts an instance with the startup warm-up on against a PostgreSQL another instance has seeded, and
+ * checks that it reports ready only with its caches filled, that the cache bus subscribing at startup does
+ * not empty them afterwards, and that a write committed elsewhere still evicts what was warmed. Skipped when
+ * Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Cache Warm-Up Readiness Tests")
+class CacheWarmUpReadinessTest {
+
+    private static final Duration PROPAGATION = Duration.ofSeconds(10);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    // The tree, the four totals, the facets, the newest products and the one category's two listing pages,
+    // and the catalog's and that category's two histograms
+    private static final Map<String, Long> WARMED = Map.of(
+            CacheNames.CATEGORY_TREE, 1L,
+            CacheNames.PRODUCT_LISTINGS, 3L,
+            CacheNames.PRODUCT_COUNTS, 4L,
+            CacheNames.PRODUCT_FACETS, 1L,
+            CacheNames.PRICE_HISTOGRAMS, 3L);
+
+    private static final AtomicReference<Map<String, Long>> cachedWhenReady = new AtomicReference<>();
+
+    private static ConfigurableApplicationContext seeder;
+    private static ConfigurableApplicationContext warmed;
+    private static Category category;
+
+    @BeforeAll
+    static void startInstances() {
+        seeder = startInstance(false);
+        category = seeder.getBean(CategoryService.class).createCategory(CategoryTestDataFactory.createWithSlug("ready-desks"));
+        seeder.getBean(ProductService.class).createProduct(activeProduct("READY-DESK-001"));
+
+        warmed = startInstance(true, (ApplicationListener<AvailabilityChangeEvent<?>>) event -> {
+            if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC) {
+                cachedWhenReady.set(cachedEntries((ApplicationContext) event.getSource()));
+            }
+        });
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        warmed.close();
+        seeder.close();
+    }
+
+    @Test
+    @DisplayName("Should accept traffic only with the caches filled")
+    void shouldFillCachesBeforeReady() {
+        // then
+        assertThat(cachedWhenReady.get()).isEqualTo(WARMED);
+    }
+
+    @Test
+    @DisplayName("Should keep the warmed entries once listening, until another instance's write evicts them")
+    void shouldKeepWarmedEntriesUntilWriteElsewhere() {
+        // given
+        await().during(Duration.ofSeconds(1)).atMost(PROPAGATION).until(() -> cachedEntries(warmed).equals(WARMED));
+        ProductPriceHistogramService histograms = warmed.getBean(ProductPriceHistogramService.class);
+        assertThat(histograms.findActivePriceHistogram(category.getId(), false, 20).productCount()).isEqualTo(1);
+
+        // when
+        seeder.getBean(ProductService.class).createProduct(activeProduct("READY-DESK-002"));
+
+        // then
+        await().atMost(PROPAGATION)
+                .until(() -> histograms.findActivePriceHistogram(category.getId(), false, 20).productCount() == 2);
+    }
+
+    private static Map<String, Long> cachedEntries(ApplicationContext context) {
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        return Map.of(
+                CacheNames.CATEGORY_TREE, size(cacheManager, CacheNames.CATEGORY_TREE),
+                CacheNames.PRODUCT_LISTINGS, size(cacheManager, CacheNames.PRODUCT_LISTINGS),
+                CacheNames.PRODUCT_COUNTS, size(cacheManager, CacheNames.PRODUCT_COUNTS),
+                CacheNames.PRODUCT_FACETS, size(cacheManager, CacheNames.PRODUCT_FACETS),
+                CacheNames.PRICE_HISTOGRAMS, size(cacheManager, CacheNames.PRICE_HISTOGRAMS));
+    }
+
+    private static long size(CacheManager cacheManager, String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache().asMap().size();
+    }
+
+    private static Product activeProduct(String sku) {
+        return ProductTestDataFactory.aProduct()
+                .withSku(sku)
+                .withCategory(category)
+                .withPrice("249.00")
+                .thatIsActive()
+                .build();
+    }
+
+    // Arguments rather than default properties, which the test profile's H2 settings would override
+    private static ConfigurableApplicationContext startInstance(boolean warmUp, ApplicationListener<?>... listeners) {
+        return new SpringApplicationBuilder(ProductServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .listeners(listeners)
+                .run(
+                        "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgres.getUsername(),
+                        "--spring.datasource.password=" + postgres.getPassword(),
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.flyway.enabled=true",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+                        "--product.cache.listings.ttl=5m",
+                        "--product.cache.category-tree.ttl=10m",
+                        "--product.cache-bus.enabled=true",
+                        "--product.warm-up.enabled=" + warmUp);
+    }
+}
@@ -1,7 +1,9 @@
 package com.loiane.ecommerce.product.repository;
 
 import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.Product;
 import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
 import com.loiane.ecommerce.product.factory.TestDataFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -84,6 +86,7 @@ class CategoryRepositoryTest {
                 .build();
         entityManager.persistAndFlush(menClothingCategory);
 
+        categoryRepository.recomputeCounters();
         entityManager.clear();
     }
 
@@ -275,4 +278,70 @@ class CategoryRepositoryTest {
         assertThat(leafCategories).extracting(Category::getName)
                 .containsExactlyInAnyOrder(LAPTOPS_CATEGORY_NAME, MENS_CLOTHING_CATEGORY_NAME);
     }
+
+    @Test
+    @DisplayName("Should detect active products anywhere in a category subtree")
+    void shouldDetectActiveProductsInSubtree() {
+        // Given
+        Product laptop = ProductTestDataFactory.aProduct()
+                .withCategory(entityManager.find(Category.class, laptopsCategory.getId()))
+                .thatIsActive()
+                .build();
+        entityManager.persistAndFlush(laptop);
+
+        // When & Then
+        assertThat(categoryRepository.existsActiveProductInSubtree(rootCategory.getId())).isTrue();
+        assertThat(categoryRepository.existsActiveProductInSubtree(electronicsCategory.getId())).isTrue();
+        assertThat(categoryRepository.existsActiveProductInSubtree(clothingCategory.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should deactivate a whole category subtree in one statement")
+    void shouldDeactivateSubtree() {
+        // When
+        int deactivated = categoryRepository.deactivateSubtree(electronicsCategory.getId());
+
+        // Then
+        assertThat(deactivated).isEqualTo(3);
+        assertThat(categoryRepository.findByIsActiveFalse()).extracting(Category::getName)
+                .containsExactlyInAnyOrder(ELECTRONICS_CATEGORY_NAME, COMPUTERS_CATEGORY_NAME,
+                        LAPTOPS_CATEGORY_NAME, MENS_CLOTHING_CATEGORY_NAME);
+    }
+
+    @Test
+    @DisplayName("Should recompute child and product counters in bulk")
+    void shouldRecomputeCounters() {
+        // Given
+        Category laptops = entityManager.find(Category.class, laptopsCategory.getId());
+        entityManager.persist(ProductTestDataFactory.aProduct().withCategory(laptops).thatIsActive().build());
+        entityManager.persist(ProductTestDataFactory.aProduct().withCategory(laptops).thatIsInactive().build());
+        entityManager.flush();
+
+        // When
+        int updated = categoryRepository.recomputeCounters();
+
+        // Then
+        assertThat(updated).isEqualTo(6);
+        Category root = categoryRepository.findById(rootCategory.getId()).orElseThrow();
+        assertThat(root.getChildCount()).isEqualTo(2);
+        Category reloadedLaptops = categoryRepository.findById(laptopsCategory.getId()).orElseThrow();
+        assertThat(reloadedLaptops.getActiveProductCount()).isEqualTo(1);
+        assertThat(reloadedLaptops.getTotalProductCount()).isEqualTo(2);
+        assertThat(reloadedLaptops.getChildCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should adjust counters atomically")
+    void shouldAdjustCountersAtomically() {
+        // When
+        categoryRepository.adjustProductCounts(laptopsCategory.getId(), 1, 2);
+        categoryRepository.adjustChildCount(laptopsCategory.getId(), 1);
+        entityManager.clear();
+
+        // Then
+        Category reloaded = categoryRepository.findById(laptopsCategory.getId()).orElseThrow();
+        assertThat(reloaded.getActiveProductCount()).isEqualTo(1);
+        assertThat(reloaded.getTotalProductCount()).isEqualTo(2);
+        assertThat(reloaded.getChildCount()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,128 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.dto.product.FacetCount;
+import com.loiane.ecommerce.product.dto.product.ProductFacets;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the GROUPING SETS facet query against a real PostgreSQL. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+@DisplayName("Product Facet Query Tests")
+class ProductFacetQueryTest {
+
+    private static final List<BigDecimal> PRICE_BANDS = List.of(new BigDecimal("50"), new BigDecimal("100"));
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category computers;
+    private Category bags;
+
+    @BeforeEach
+    void setUp() {
+        computers = categoryRepository.saveAndFlush(CategoryTestDataFactory.createRoot("Computers"));
+        bags = categoryRepository.saveAndFlush(CategoryTestDataFactory.createRoot("Bags"));
+        save("Gaming Laptop", "1499.00", 5, 0, computers);
+        save("Budget Laptop", "89.90", 2, 2, computers);
+        save("Laptop Sleeve", "24.90", 10, 1, bags);
+        save("Laptop Backpack", "50.00", 0, 0, bags);
+        save("Desk Lamp", "35.00", 3, 0, null);
+        productRepository.saveAndFlush(ProductTestDataFactory.aProduct().withName("Vintage Laptop").thatIsInactive().build());
+    }
+
+    @Test
+    @DisplayName("Should count the matches of a search by every facet in one query")
+    void shouldCountSearchMatchesByFacet() {
+        // when
+        ProductFacets facets = productRepository.findActiveProductFacets("laptop", SearchMode.FULL_TEXT, false, PRICE_BANDS);
+
+        // then
+        assertThat(facets.categories()).extracting(FacetCount::value, FacetCount::label, FacetCount::count)
+                .containsExactly(tuple(bags.getId().toString(), "Bags", 2L), tuple(computers.getId().toString(), "Computers", 2L));
+        assertThat(facets.statuses()).containsExactly(new FacetCount("ACTIVE", null, 4));
+        assertThat(facets.availability()).containsExactly(
+                new FacetCount("IN_STOCK", null, 2), new FacetCount("OUT_OF_STOCK", null, 2));
+        assertThat(facets.priceBands()).containsExactly(
+                new FacetCount("0-50", null, 1), new FacetCount("50-100", null, 2), new FacetCount("100+", null, 1));
+    }
+
+    @Test
+    @DisplayName("Should count only the matches in stock when the page hides out of stock products")
+    void shouldCountInStockMatches() {
+        // when
+        ProductFacets facets = productRepository.findActiveProductFacets("laptop", SearchMode.FULL_TEXT, true, PRICE_BANDS);
+
+        // then
+        assertThat(facets.categories()).extracting(FacetCount::label, FacetCount::count)
+                .containsExactly(tuple("Bags", 1L), tuple("Computers", 1L));
+        assertThat(facets.availability()).containsExactly(new FacetCount("IN_STOCK", null, 2));
+        assertThat(facets.priceBands()).containsExactly(new FacetCount("0-50", null, 1), new FacetCount("100+", null, 1));
+    }
+
+    @Test
+    @DisplayName("Should count every active product without a query, leaving uncategorized ones out of the category facet")
+    void shouldCountAllActiveProducts() {
+        // when
+        ProductFacets facets = productRepository.findActiveProductFacets(null, null, false, PRICE_BANDS);
+
+        // then
+        assertThat(facets.categories()).extracting(FacetCount::count).containsExactly(2L, 2L);
+        assertThat(facets.statuses()).containsExactly(new FacetCount("ACTIVE", null, 5));
+        assertThat(facets.priceBands()).extracting(FacetCount::value).containsExactly("0-50", "50-100", "100+");
+    }
+
+    @Test
+    @DisplayName("Should count the matches of a fuzzy search")
+    void shouldCountFuzzyMatches() {
+        // when
+        ProductFacets facets = productRepository.findActiveProductFacets("labtop", SearchMode.FUZZY, false, PRICE_BANDS);
+
+        // then
+        assertThat(facets.statuses()).containsExactly(new FacetCount("ACTIVE", null, 4));
+    }
+
+    private void save(String name, String price, int stock, int reserved, Category category) {
+        productRepository.saveAndFlush(ProductTestDataFactory.aProduct()
+                .withName(name)
+                .withPrice(price)
+                .withStock(stock)
+                .withReservedStock(reserved)
+                .withCategory(category)
+                .thatIsActive()
+                .build());
+    }
+}
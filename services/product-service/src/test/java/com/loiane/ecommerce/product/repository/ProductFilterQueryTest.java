@@ -0,0 +1,132 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the composable filter query against a real PostgreSQL. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+@DisplayName("Product Filter Query Tests")
+class ProductFilterQueryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category computers;
+
+    @BeforeEach
+    void setUp() {
+        computers = categoryRepository.saveAndFlush(CategoryTestDataFactory.createRoot("Computers"));
+        Category laptops = categoryRepository.saveAndFlush(CategoryTestDataFactory.createChild("Laptops", computers));
+        Category bags = categoryRepository.saveAndFlush(CategoryTestDataFactory.createRoot("Bags"));
+        save("Desktop Tower", "899.00", 4, 0, computers);
+        save("Gaming Laptop", "1499.00", 5, 0, laptops);
+        save("Budget Laptop", "349.00", 2, 2, laptops);
+        save("Laptop Sleeve", "24.90", 10, 1, bags);
+        productRepository.saveAndFlush(ProductTestDataFactory.aProduct()
+                .withName("Vintage Laptop").withPrice("199.00").withCategory(laptops).thatIsDiscontinued().build());
+    }
+
+    @Test
+    @DisplayName("Should combine a category subtree, a price range and in-stock only")
+    void shouldCombineFilters() {
+        // given
+        var filter = new ProductFilter(computers.getId(), true, new BigDecimal("300"), new BigDecimal("1500"),
+                null, true, null);
+
+        // when
+        List<ProductListItem> items = productRepository.findProductsAfter(filter, ProductSort.PRICE_ASC, null, 10);
+
+        // then
+        assertThat(items).extracting(ProductListItem::name).containsExactly("Desktop Tower", "Gaming Laptop");
+    }
+
+    @Test
+    @DisplayName("Should match text within one category only, without its descendants")
+    void shouldMatchTextInOneCategory() {
+        // given
+        var subtree = new ProductFilter(computers.getId(), true, null, null, null, false, "laptops");
+        var oneCategory = new ProductFilter(computers.getId(), false, null, null, null, false, "laptops");
+
+        // when/then
+        assertThat(productRepository.findProductsAfter(subtree, ProductSort.NAME, null, 10))
+                .extracting(ProductListItem::name).containsExactly("Budget Laptop", "Gaming Laptop");
+        assertThat(productRepository.findProductsAfter(oneCategory, ProductSort.NAME, null, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor row")
+    void shouldPageWithCursor() {
+        // given
+        var filter = new ProductFilter(null, false, null, null, null, false, null);
+        List<ProductListItem> firstPage = productRepository.findProductsAfter(filter, ProductSort.PRICE_DESC, null, 2);
+        ProductListItem last = firstPage.get(1);
+        var cursor = new ProductCursor(ProductSort.PRICE_DESC, last.basePrice(), UUID.fromString(last.id()));
+
+        // when
+        List<ProductListItem> secondPage = productRepository.findProductsAfter(filter, ProductSort.PRICE_DESC, cursor, 2);
+
+        // then
+        assertThat(firstPage).extracting(ProductListItem::name).containsExactly("Gaming Laptop", "Desktop Tower");
+        assertThat(secondPage).extracting(ProductListItem::name).containsExactly("Budget Laptop", "Laptop Sleeve");
+    }
+
+    @Test
+    @DisplayName("Should filter by a status other than active")
+    void shouldFilterByStatus() {
+        // given
+        var filter = new ProductFilter(null, false, null, null, ProductStatus.DISCONTINUED, false, null);
+
+        // when
+        List<ProductListItem> items = productRepository.findProductsAfter(filter, ProductSort.NAME, null, 10);
+
+        // then
+        assertThat(items).extracting(ProductListItem::name).containsExactly("Vintage Laptop");
+    }
+
+    private void save(String name, String price, int stock, int reserved, Category category) {
+        productRepository.saveAndFlush(ProductTestDataFactory.aProduct()
+                .withName(name)
+                .withPrice(price)
+                .withStock(stock)
+                .withReservedStock(reserved)
+                .withCategory(category)
+                .thatIsActive()
+                .build());
+    }
+}
@@ -0,0 +1,144 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the full-text search against the generated search_vector column of a real PostgreSQL.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+@DisplayName("Product Full-Text Search Tests")
+class ProductFullTextSearchTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        save("Gaming Laptop", "ZX81-KB", "Fast and quiet");
+        save("Laptop Sleeve", "SLEEVE-001", "Padded neoprene");
+        save("Docking Station", "DOCK-001", "Connects a laptop to two monitors");
+        Product inactive = ProductTestDataFactory.aProduct().withName("Vintage Laptop").thatIsInactive().build();
+        productRepository.saveAndFlush(inactive);
+    }
+
+    @Test
+    @DisplayName("Should match stemmed words and rank name hits above description hits")
+    void shouldRankNameHitsAboveDescriptionHits() {
+        // when
+        List<ProductSearchHit> hits = productRepository.searchActiveProducts("laptops", SearchMode.FULL_TEXT, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().name())
+                .containsExactlyInAnyOrder("Gaming Laptop", "Laptop Sleeve", "Docking Station");
+        assertThat(hits.getLast().item().name()).isEqualTo("Docking Station");
+        assertThat(hits.getFirst().rank()).isGreaterThan(hits.getLast().rank());
+    }
+
+    @Test
+    @DisplayName("Should find a product by its SKU")
+    void shouldFindProductBySku() {
+        // when
+        List<ProductSearchHit> hits = productRepository.searchActiveProducts("zx81-kb", SearchMode.FULL_TEXT, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().name()).containsExactly("Gaming Laptop");
+    }
+
+    @Test
+    @DisplayName("Should honour web search syntax")
+    void shouldHonourWebSearchSyntax() {
+        // when
+        List<ProductSearchHit> hits = productRepository.searchActiveProducts("laptop -sleeve -station", SearchMode.FULL_TEXT, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().name()).containsExactly("Gaming Laptop");
+    }
+
+    @Test
+    @DisplayName("Should page through equally ranked hits without gaps or repeats")
+    void shouldPageThroughEquallyRankedHits() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            save("Monitor Arm " + i, "ARM-00" + i, null);
+        }
+        List<String> expected = productRepository.searchActiveProducts("monitor arm", SearchMode.FULL_TEXT, false, null, 10).stream()
+                .map(hit -> hit.item().id())
+                .toList();
+
+        // when
+        List<String> paged = new ArrayList<>();
+        SearchCursor after = null;
+        List<ProductSearchHit> page;
+        do {
+            page = productRepository.searchActiveProducts("monitor arm", SearchMode.FULL_TEXT, false, after, 2);
+            page.forEach(hit -> paged.add(hit.item().id()));
+            after = page.isEmpty() ? null : page.getLast().cursor(SearchMode.FULL_TEXT);
+        } while (page.size() == 2);
+
+        // then
+        assertThat(expected).hasSize(5);
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Should return only active products")
+    void shouldReturnOnlyActiveProducts() {
+        // when
+        List<ProductSearchHit> hits = productRepository.searchActiveProducts("vintage", SearchMode.FULL_TEXT, false, null, 10);
+
+        // then
+        assertThat(hits).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should leave sold-out products out of in-stock searches")
+    void shouldLeaveSoldOutProductsOutOfInStockSearches() {
+        // given
+        Product soldOut = ProductTestDataFactory.aProduct().withName("Laptop Stand").withStock(2).withReservedStock(2)
+                .thatIsActive().build();
+        productRepository.saveAndFlush(soldOut);
+
+        // when
+        List<ProductSearchHit> all = productRepository.searchActiveProducts("laptop", SearchMode.FULL_TEXT, false, null, 10);
+        List<ProductSearchHit> inStock = productRepository.searchActiveProducts("laptop", SearchMode.FULL_TEXT, true, null, 10);
+
+        // then
+        assertThat(all).extracting(hit -> hit.item().name()).contains("Laptop Stand");
+        assertThat(inStock).extracting(hit -> hit.item().name()).doesNotContain("Laptop Stand").hasSize(all.size() - 1);
+    }
+
+    private void save(String name, String sku, String shortDescription) {
+        Product product = ProductTestDataFactory.aProduct().withName(name).withSku(sku).thatIsActive().build();
+        product.setShortDescription(shortDescription);
+        productRepository.saveAndFlush(product);
+    }
+}
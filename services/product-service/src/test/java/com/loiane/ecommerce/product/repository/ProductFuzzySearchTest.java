@@ -0,0 +1,105 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the trigram (FUZZY) search and the trigram-indexed substring lookups against a real PostgreSQL.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+@DisplayName("Product Fuzzy Search Tests")
+class ProductFuzzySearchTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        save("Gaming Laptop", "WH-0004242");
+        save("Laptop Sleeve", "WH-0004243");
+        save("Mechanical Keyboard", "KB_100");
+        save("Mechanical Keyboard Mini", "KB-1000");
+    }
+
+    @Test
+    @DisplayName("Should find names despite a typo")
+    void shouldTolerateTypos() {
+        // when
+        List<ProductSearchHit> hits = productRepository.searchActiveProducts("mechanicl keybaord", SearchMode.FUZZY, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().name())
+                .containsExactlyInAnyOrder("Mechanical Keyboard", "Mechanical Keyboard Mini");
+    }
+
+    @Test
+    @DisplayName("Should rank the closest name first")
+    void shouldRankClosestNameFirst() {
+        // when
+        List<ProductSearchHit> hits = productRepository.searchActiveProducts("labtop sleve", SearchMode.FUZZY, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().name()).first().isEqualTo("Laptop Sleeve");
+    }
+
+    @Test
+    @DisplayName("Should find products by a SKU fragment")
+    void shouldFindProductsBySkuFragment() {
+        // when
+        List<ProductSearchHit> hits = productRepository.searchActiveProducts("424", SearchMode.FUZZY, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().sku()).containsExactlyInAnyOrder("WH-0004242", "WH-0004243");
+    }
+
+    @Test
+    @DisplayName("Should match LIKE wildcards in a SKU fragment literally")
+    void shouldMatchLikeWildcardsLiterally() {
+        // when
+        List<ProductSearchHit> hits = productRepository.searchActiveProducts("kb_1", SearchMode.FUZZY, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().sku()).containsExactly("KB_100");
+    }
+
+    @Test
+    @DisplayName("Should find any product whose name contains a fragment, ignoring case")
+    void shouldFindByNameFragmentIgnoringCase() {
+        // when
+        List<Product> products = productRepository.findByNameContainingIgnoreCase("LAPTOP");
+
+        // then
+        assertThat(products).extracting(Product::getName).containsExactlyInAnyOrder("Gaming Laptop", "Laptop Sleeve");
+    }
+
+    private void save(String name, String sku) {
+        productRepository.saveAndFlush(ProductTestDataFactory.aProduct().withName(name).withSku(sku).thatIsActive().build());
+    }
+}
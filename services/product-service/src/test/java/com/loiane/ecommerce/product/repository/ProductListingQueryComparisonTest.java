@@ -0,0 +1,131 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import com.loiane.ecommerce.product.mapper.ProductMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the entity-based listing path with the projection-based one for a 100-item page.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DisplayName("Product Listing Query Comparison Tests")
+class ProductListingQueryComparisonTest {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int CATEGORY_COUNT = 20;
+    private static final int WARM_UP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int ALLOCATION_MARGIN = 2;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private final Pageable firstPage = PageRequest.of(0, PAGE_SIZE);
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int c = 0; c < CATEGORY_COUNT; c++) {
+            Category category = entityManager.persist(CategoryTestDataFactory.createRoot("Category " + c));
+            for (int p = 0; p < PAGE_SIZE / CATEGORY_COUNT; p++) {
+                entityManager.persist(ProductTestDataFactory.aProduct()
+                        .withName("Product " + c + "-" + p)
+                        .withSku("SKU-" + c + "-" + p)
+                        .withCategory(category)
+                        .thatIsActive()
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    @DisplayName("Should serve a 100-item page in two statements without hydrating entities")
+    void shouldServePageWithoutHydratingEntities() {
+        // Given - warm up both paths so that query compilation, class loading and the JIT stay out of the measure
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            loadEntityPage();
+            loadProjectionPage();
+        }
+
+        // When
+        Measurement entityPath = measure(this::loadEntityPage);
+        Measurement projectionPath = measure(this::loadProjectionPage);
+
+        // Then - entities: page + count + one lazy category select per distinct category
+        assertThat(entityPath.rows()).isEqualTo(PAGE_SIZE);
+        assertThat(entityPath.statements()).isEqualTo(2 + CATEGORY_COUNT);
+        assertThat(entityPath.entityLoads()).isEqualTo(PAGE_SIZE + CATEGORY_COUNT);
+
+        // Then - projections: page + count, nothing enters the persistence context
+        assertThat(projectionPath.rows()).isEqualTo(PAGE_SIZE);
+        assertThat(projectionPath.statements()).isEqualTo(2);
+        assertThat(projectionPath.entityLoads()).isZero();
+        // Half, where about a seventh was measured: only losing the gap, not noise, should fail the build
+        assertThat(projectionPath.allocatedBytes() * ALLOCATION_MARGIN).isLessThan(entityPath.allocatedBytes());
+    }
+
+    private int loadEntityPage() {
+        entityManager.clear();
+        return productRepository.findByStatus(ProductStatus.ACTIVE, firstPage)
+                .map(productMapper::toResponse)
+                .getNumberOfElements();
+    }
+
+    private int loadProjectionPage() {
+        entityManager.clear();
+        List<ProductListItem> items = productRepository.findActiveListItems(firstPage).getContent();
+        return items.size();
+    }
+
+    // Statement and entity counts of one run, and the fewest bytes any of a few runs allocated
+    private Measurement measure(Supplier<Integer> listing) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBytes = Long.MAX_VALUE;
+        int rows = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            statistics.clear();
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            rows = listing.get();
+            allocatedBytes = Math.min(allocatedBytes, threads.getThreadAllocatedBytes(threadId) - allocatedBefore);
+        }
+        return new Measurement(rows, statistics.getPrepareStatementCount(), statistics.getEntityLoadCount(), allocatedBytes);
+    }
+
+    private record Measurement(int rows, long statements, long entityLoads, long allocatedBytes) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.dto.product.PriceHistogram;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the width_bucket price histogram against a real PostgreSQL. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+@DisplayName("Product Price Histogram Query Tests")
+class ProductPriceHistogramQueryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private Category computers;
+    private Category laptops;
+    private Category bags;
+
+    @BeforeEach
+    void setUp() {
+        computers = categoryRepository.saveAndFlush(CategoryTestDataFactory.createRoot("Computers"));
+        laptops = categoryRepository.saveAndFlush(CategoryTestDataFactory.createChild("Laptops", computers));
+        bags = categoryRepository.saveAndFlush(CategoryTestDataFactory.createRoot("Bags"));
+        save("Desktop Tower", "900.00", computers);
+        save("Gaming Laptop", "1500.00", laptops);
+        save("Budget Laptop", "300.00", laptops);
+        save("Office Laptop", "450.00", laptops);
+        save("Laptop Sleeve", "25.00", bags);
+        productRepository.saveAndFlush(ProductTestDataFactory.aProduct()
+                .withName("Vintage Laptop").withPrice("9999.00").withCategory(laptops).thatIsDiscontinued().build());
+    }
+
+    @Test
+    @DisplayName("Should bucket the active prices of one category, keeping empty buckets and the highest price")
+    void shouldBucketOneCategory() {
+        // when
+        PriceHistogram histogram = productRepository.findActivePriceHistogram(laptops.getId(), false, 4);
+
+        // then
+        assertThat(histogram.minPrice()).isEqualByComparingTo("300.00");
+        assertThat(histogram.maxPrice()).isEqualByComparingTo("1500.00");
+        assertThat(histogram.productCount()).isEqualTo(3);
+        assertThat(histogram.buckets()).extracting(b -> b.from().toPlainString(), b -> b.to().toPlainString(),
+                PriceHistogram.Bucket::count).containsExactly(
+                tuple("300.00", "600.00", 2L),
+                tuple("600.00", "900.00", 0L),
+                tuple("900.00", "1200.00", 0L),
+                tuple("1200.00", "1500.00", 1L));
+    }
+
+    @Test
+    @DisplayName("Should cover a category subtree, or the whole catalog without a category")
+    void shouldCoverSubtreeAndCatalog() {
+        // when
+        PriceHistogram subtree = productRepository.findActivePriceHistogram(computers.getId(), true, 2);
+        PriceHistogram catalog = productRepository.findActivePriceHistogram(null, false, 2);
+
+        // then
+        assertThat(subtree.productCount()).isEqualTo(4);
+        assertThat(subtree.buckets()).extracting(PriceHistogram.Bucket::count).containsExactly(2L, 2L);
+        assertThat(catalog.productCount()).isEqualTo(5);
+        assertThat(catalog.minPrice()).isEqualByComparingTo("25.00");
+    }
+
+    @Test
+    @DisplayName("Should return one bucket for a single price and none for an empty category")
+    void shouldHandleDegenerateRanges() {
+        // given
+        Category empty = categoryRepository.saveAndFlush(CategoryTestDataFactory.createRoot("Empty"));
+
+        // when
+        PriceHistogram single = productRepository.findActivePriceHistogram(bags.getId(), false, 10);
+        PriceHistogram none = productRepository.findActivePriceHistogram(empty.getId(), false, 10);
+
+        // then
+        assertThat(single.buckets()).extracting(PriceHistogram.Bucket::count).containsExactly(1L);
+        assertThat(none.productCount()).isZero();
+        assertThat(none.buckets()).isEmpty();
+        assertThat(none.minPrice()).isNull();
+    }
+
+    private void save(String name, String price, Category category) {
+        productRepository.saveAndFlush(ProductTestDataFactory.aProduct()
+                .withName(name)
+                .withPrice(price)
+                .withCategory(category)
+                .thatIsActive()
+                .build());
+    }
+}
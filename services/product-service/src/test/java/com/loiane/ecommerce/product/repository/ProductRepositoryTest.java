@@ -1,7 +1,9 @@
 package com.loiane.ecommerce.product.repository;
 
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
 import com.loiane.ecommerce.product.entity.Category;
 import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.entity.ProductDescription;
 import com.loiane.ecommerce.product.entity.ProductStatus;
 import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
 import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
@@ -21,6 +23,7 @@ import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -40,6 +43,9 @@ class ProductRepositoryTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductDescriptionRepository productDescriptionRepository;
+
     private Category electronicsCategory;
     private Category clothingCategory;
     private Product laptop;
@@ -331,4 +337,73 @@ class ProductRepositoryTest {
         assertThat(expensiveProducts)
                 .allMatch(product -> product.getStatus() == ProductStatus.ACTIVE);
     }
+
+    @Test
+    @DisplayName("Should page active products by keyset without gaps or duplicates")
+    void shouldPageActiveProductsByKeyset() {
+        // When
+        List<ProductListItem> firstPage = productRepository.findActiveProductsAfter(ProductSort.PRICE_DESC, null, 1);
+        ProductListItem last = firstPage.get(0);
+        ProductCursor cursor = new ProductCursor(ProductSort.PRICE_DESC, ProductSort.PRICE_DESC.sortKeyOf(last), UUID.fromString(last.id()));
+        List<ProductListItem> secondPage = productRepository.findActiveProductsAfter(ProductSort.PRICE_DESC, cursor, 1);
+        ProductCursor end = new ProductCursor(ProductSort.PRICE_DESC, secondPage.get(0).basePrice(), UUID.fromString(secondPage.get(0).id()));
+        List<ProductListItem> thirdPage = productRepository.findActiveProductsAfter(ProductSort.PRICE_DESC, end, 1);
+
+        // Then
+        assertThat(firstPage).extracting(ProductListItem::name).containsExactly(GAMING_LAPTOP_NAME);
+        assertThat(secondPage).extracting(ProductListItem::name).containsExactly(SMARTPHONE_PRO_NAME);
+        assertThat(thirdPage).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should slice active products and count them without a page count")
+    void shouldSliceAndCountActiveProducts() {
+        // When
+        var slice = productRepository.findActiveListItemsAsSlice(PageRequest.of(0, 1));
+        long activeCount = productRepository.countByStatus(ProductStatus.ACTIVE);
+
+        // Then
+        assertThat(slice.getContent()).hasSize(1);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(activeCount).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should report no planner estimate on databases without EXPLAIN (FORMAT JSON)")
+    void shouldReportNoPlannerEstimateOnH2() {
+        // When & Then
+        assertThat(productRepository.estimateActiveProducts()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should project listing rows with their category in a single query")
+    void shouldProjectListingRowsWithCategory() {
+        // When
+        List<ProductListItem> items = productRepository.findActiveProductsAfter(ProductSort.NAME, null, 10);
+
+        // Then
+        assertThat(items).hasSize(2);
+        ProductListItem item = items.get(0);
+        assertThat(item.name()).isEqualTo(GAMING_LAPTOP_NAME);
+        assertThat(item.category()).isNotNull();
+        assertThat(item.category().id()).isEqualTo(electronicsCategory.getId().toString());
+    }
+
+    @Test
+    @DisplayName("Should store the description in the side table keyed by product id")
+    void shouldStoreDescriptionInSideTable() {
+        // Given
+        String html = "<p>" + "Rich description ".repeat(1_000) + "</p>";
+        productDescriptionRepository.saveAndFlush(new ProductDescription(productRepository.getReferenceById(laptop.getId()), html));
+        entityManager.clear();
+
+        // When
+        Optional<String> content = productDescriptionRepository.findContentByProductId(laptop.getId());
+        Product reloaded = productRepository.findById(laptop.getId()).orElseThrow();
+
+        // Then
+        assertThat(content).contains(html);
+        assertThat(reloaded.getDescription()).isNull();
+        assertThat(productDescriptionRepository.findContentByProductId(smartphone.getId())).isEmpty();
+    }
 }
@@ -0,0 +1,126 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL (with bound parameters) that a block of repository code sends to the database and
+ * replays each statement under {@code EXPLAIN (FORMAT JSON)} on the same connection.
+ * <p>
+ * Replaying the real statement, instead of a hand-written copy of it, is what lets the plan suite catch a
+ * derived query whose generated SQL differs from what its author expected.
+ */
+class QueryPlanInspector implements QueryExecutionListener {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final List<QueryInfo> recorded = new CopyOnWriteArrayList<>();
+    private volatile boolean recording;
+
+    DataSource wrap(DataSource dataSource) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name("query-plan-inspector")
+                .listener(this)
+                .build();
+    }
+
+    /**
+     * Runs {@code call}, then explains every statement it issued. Must run inside the caller's transaction
+     * so that statements see the same data the call did.
+     */
+    List<QueryPlan> explain(Runnable call, JdbcTemplate jdbcTemplate) {
+        recorded.clear();
+        recording = true;
+        try {
+            call.run();
+        } finally {
+            recording = false;
+        }
+
+        List<QueryPlan> plans = new ArrayList<>();
+        for (QueryInfo query : recorded) {
+            String planJson = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+                try (PreparedStatement statement = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + query.getQuery())) {
+                    if (!query.getParametersList().isEmpty()) {
+                        bind(statement, query.getParametersList().get(0));
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        resultSet.next();
+                        return resultSet.getString(1);
+                    }
+                }
+            });
+            plans.add(QueryPlan.parse(query.getQuery(), planJson));
+        }
+        return plans;
+    }
+
+    // Replays the recorded setXxx(index, value) calls on the EXPLAIN statement
+    private static void bind(PreparedStatement statement, List<ParameterSetOperation> operations) throws SQLException {
+        for (ParameterSetOperation operation : operations) {
+            try {
+                operation.getMethod().invoke(statement, operation.getArgs());
+            } catch (ReflectiveOperationException e) {
+                throw new SQLException("Could not replay " + operation.getMethod().getName(), e);
+            }
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Plans are taken after the call returns, so nothing to do before execution
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (recording) {
+            recorded.addAll(queryInfoList);
+        }
+    }
+
+    /** The parts of a plan the suite asserts on: which tables were scanned sequentially and which indexes were used. */
+    record QueryPlan(String sql, Set<String> sequentialScans, Set<String> indexes, String json) {
+
+        static QueryPlan parse(String sql, String json) {
+            Set<String> sequentialScans = new TreeSet<>();
+            Set<String> indexes = new TreeSet<>();
+            try {
+                collect(JSON.readTree(json).path(0).path("Plan"), sequentialScans, indexes);
+            } catch (Exception e) {
+                throw new IllegalStateException("Unreadable plan for: " + sql, e);
+            }
+            return new QueryPlan(sql, sequentialScans, indexes, json);
+        }
+
+        private static void collect(JsonNode node, Set<String> sequentialScans, Set<String> indexes) {
+            if ("Seq Scan".equals(node.path("Node Type").asText())) {
+                sequentialScans.add(node.path("Relation Name").asText());
+            }
+            if (node.has("Index Name")) {
+                indexes.add(node.path("Index Name").asText());
+            }
+            // INSERT ... ON CONFLICT finds the conflicting row through its arbiter index
+            node.path("Conflict Arbiter Indexes").forEach(index -> indexes.add(index.asText()));
+            for (JsonNode child : node.path("Plans")) {
+                collect(child, sequentialScans, indexes);
+            }
+        }
+    }
+}
@@ -0,0 +1,632 @@
+package com.loiane.ecommerce.product.repository;
+
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.repository.QueryPlanInspector.QueryPlan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plan regression suite: runs every declared repository query against a seeded PostgreSQL and checks
+ * the plan of each statement it issues.
+ * <p>
+ * A case names the indexes its statements must use and, unless it states why a full scan is the intended
+ * plan, none of its statements may scan a large table sequentially. Small tables such as categories may still be
+ * hash-joined from a sequential scan when the planner finds that cheaper. Adding a repository method without a case
+ * fails {@link #shouldHaveAPlanCaseForEveryRepositoryQuery()}. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Query Plan Regression Tests")
+class QueryPlanRegressionTest {
+
+    // Large enough that the planner prefers indexes wherever one applies
+    private static final int CATEGORY_COUNT = 5_000;
+    private static final int PRODUCT_COUNT = 200_000;
+    private static final int SEARCH_QUERY_COUNT = 100_000;
+    private static final Set<String> LARGE_TABLES = Set.of("products", "product_descriptions", "search_queries");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static boolean seeded;
+
+    @Autowired
+    private QueryPlanInspector inspector;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @Autowired
+    private SearchQueryRepository searchQueryRepository;
+
+    private UUID productId;
+    private UUID rootCategoryId;
+    private UUID branchCategoryId;
+    private UUID leafCategoryId;
+
+    @TestConfiguration
+    static class InspectorConfig {
+
+        @Bean
+        QueryPlanInspector queryPlanInspector() {
+            return new QueryPlanInspector();
+        }
+
+        @Bean
+        static BeanPostProcessor inspectingDataSource(ObjectProvider<QueryPlanInspector> inspector) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? inspector.getObject().wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        if (!seeded) {
+            seed();
+            seeded = true;
+        }
+        productId = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'SKU-0004242'", UUID.class);
+        rootCategoryId = categoryIdBySlug("category-1");
+        branchCategoryId = categoryIdBySlug("category-51");
+        leafCategoryId = categoryIdBySlug("category-1001");
+    }
+
+    @TestFactory
+    @DisplayName("ProductRepository queries")
+    Stream<DynamicTest> productRepositoryPlans() {
+        return productCases().stream().map(this::toDynamicTest);
+    }
+
+    @TestFactory
+    @DisplayName("ProductRepositoryCustom.findProductsAfter filter combinations")
+    Stream<DynamicTest> productFilterPlans() {
+        return filterCases().stream().map(this::toDynamicTest);
+    }
+
+    @TestFactory
+    @DisplayName("CategoryRepository queries")
+    Stream<DynamicTest> categoryRepositoryPlans() {
+        return categoryCases().stream().map(this::toDynamicTest);
+    }
+
+    @TestFactory
+    @DisplayName("SearchQueryRepository queries")
+    Stream<DynamicTest> searchQueryRepositoryPlans() {
+        return searchQueryCases().stream().map(this::toDynamicTest);
+    }
+
+    @Test
+    @DisplayName("Should have a plan case for every repository query")
+    void shouldHaveAPlanCaseForEveryRepositoryQuery() {
+        // given
+        Set<String> declared = Stream.of(ProductRepository.class, ProductRepositoryCustom.class,
+                        CategoryRepository.class, ProductDescriptionRepository.class, SearchQueryRepository.class)
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods())
+                        .filter(method -> !method.isDefault() && !method.isSynthetic())
+                        .map(method -> signature(type, method)))
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        // when
+        Set<String> covered = Stream.of(productCases(), filterCases(), categoryCases(), searchQueryCases())
+                .flatMap(List::stream)
+                .map(PlanCase::method)
+                .collect(Collectors.toCollection(TreeSet::new));
+        covered.addAll(NOT_PLANNED);
+
+        // then
+        assertThat(covered).containsAll(declared);
+    }
+
+    // Methods that never read table rows, so there is no plan to check
+    private static final Set<String> NOT_PLANNED = Set.of(
+            // Issues EXPLAIN itself to read the planner's row estimate
+            "ProductRepositoryCustom.estimateActiveProducts()",
+            "ProductRepositoryCustom.estimateAvailableActiveProducts()",
+            "ProductRepositoryCustom.estimatePublishedActiveProducts()",
+            "ProductRepositoryCustom.estimatePublishedAvailableActiveProducts()"
+    );
+
+    private static final List<BigDecimal> PRICE_BANDS = List.of(new BigDecimal("25"), new BigDecimal("100"));
+
+    // Counting ~90% of the rows is cheaper as a parallel sequential scan than through any index;
+    // the listing endpoints avoid this count with count=CACHED or count=ESTIMATED
+    private static final String ACTIVE_COUNT_SCAN = "the exact page total counts most of the table";
+
+    private List<PlanCase> productCases() {
+        PageRequest byName = PageRequest.of(2, 20, Sort.by("name"));
+        BigDecimal low = new BigDecimal("10.00");
+        BigDecimal high = new BigDecimal("10.50");
+        return List.of(
+                uses("ProductRepository.findBySku(String)",
+                        () -> productRepository.findBySku("SKU-0004242"), "uk_products_sku"),
+                uses("ProductRepository.findWithCategoryById(UUID)",
+                        () -> productRepository.findWithCategoryById(productId), "pk_products", "pk_categories"),
+                uses("ProductRepository.findByStatus(ProductStatus)",
+                        () -> productRepository.findByStatus(ProductStatus.DISCONTINUED), "idx_products_status_base_price_id"),
+                uses("ProductRepository.findByCategory(Category)",
+                        () -> productRepository.findByCategory(leafCategory()), "idx_products_category_id_status"),
+                uses("ProductRepository.findByNameContainingIgnoreCase(String)",
+                        () -> productRepository.findByNameContainingIgnoreCase("4242"), "idx_products_name_trgm"),
+                fullScan("ProductRepository.findByBasePriceBetween(BigDecimal, BigDecimal)",
+                        () -> productRepository.findByBasePriceBetween(low, high),
+                        "no status predicate, so the (status, base_price, id) index cannot seek; not used by the service"),
+                uses("ProductRepository.existsBySku(String)",
+                        () -> productRepository.existsBySku("SKU-0004242"), "uk_products_sku"),
+                uses("ProductRepository.countByCategory(Category)",
+                        () -> productRepository.countByCategory(leafCategory()), "idx_products_category_id_status"),
+                fullScan("ProductRepository.findActiveProducts()",
+                        productRepository::findActiveProducts,
+                        "returns every active product, most of the table"),
+                uses("ProductRepository.findActiveProductsByCategory(Category)",
+                        () -> productRepository.findActiveProductsByCategory(leafCategory()), "idx_products_category_id_status"),
+                uses("ProductRepository.findActiveProductsByNameContaining(String)",
+                        () -> productRepository.findActiveProductsByNameContaining("4242"), "idx_products_name_trgm"),
+                uses("ProductRepository.findActiveProductsByPriceRange(BigDecimal, BigDecimal)",
+                        () -> productRepository.findActiveProductsByPriceRange(low, high), "idx_products_status_base_price_id"),
+                uses("ProductRepository.findByCategoryAndStatus(Category, ProductStatus, Pageable)",
+                        () -> productRepository.findByCategoryAndStatus(leafCategory(), ProductStatus.ACTIVE, PageRequest.of(0, 20)),
+                        "idx_products_category_id_status"),
+                fullScan("ProductRepository.findByStatus(ProductStatus, Pageable)",
+                        () -> productRepository.findByStatus(ProductStatus.ACTIVE, byName),
+                        ACTIVE_COUNT_SCAN, "idx_products_status_name_id"),
+                fullScan("ProductRepository.findActiveListItems(Pageable)",
+                        () -> productRepository.findActiveListItems(byName),
+                        ACTIVE_COUNT_SCAN, "idx_products_status_name_id", "pk_categories"),
+                uses("ProductRepository.findActiveListItemsAsSlice(Pageable)",
+                        () -> productRepository.findActiveListItemsAsSlice(byName), "idx_products_status_name_id"),
+                // Every order the listing accepts (ProductSort.toSort) is read through its (status, key, id) index
+                uses("ProductRepository.findActiveListItemsAsSlice(Pageable)",
+                        () -> productRepository.findActiveListItemsAsSlice(PageRequest.of(50, 20, ProductSort.NEWEST.toSort())),
+                        "idx_products_status_published_at_id"),
+                uses("ProductRepository.findActiveListItemsAsSlice(Pageable)",
+                        () -> productRepository.findActiveListItemsAsSlice(PageRequest.of(50, 20, ProductSort.PRICE_ASC.toSort())),
+                        "idx_products_status_base_price_id"),
+                uses("ProductRepository.findActiveListItemsAsSlice(Pageable)",
+                        () -> productRepository.findActiveListItemsAsSlice(PageRequest.of(50, 20, ProductSort.PRICE_DESC.toSort())),
+                        "idx_products_status_base_price_id"),
+                uses("ProductRepository.findActiveListItemsAsSlice(Pageable)",
+                        () -> productRepository.findActiveListItemsAsSlice(PageRequest.of(50, 20, ProductSort.NAME.toSort())),
+                        "idx_products_status_name_id"),
+                fullScan("ProductRepository.findAvailableActiveListItems(Pageable)",
+                        () -> productRepository.findAvailableActiveListItems(PageRequest.of(50, 20, ProductSort.NEWEST.toSort())),
+                        ACTIVE_COUNT_SCAN, "idx_products_available_published_at_id"),
+                uses("ProductRepository.findAvailableActiveListItemsAsSlice(Pageable)",
+                        () -> productRepository.findAvailableActiveListItemsAsSlice(PageRequest.of(50, 20, ProductSort.NEWEST.toSort())),
+                        "idx_products_available_published_at_id"),
+                uses("ProductRepository.findAvailableActiveListItemsAsSlice(Pageable)",
+                        () -> productRepository.findAvailableActiveListItemsAsSlice(PageRequest.of(50, 20, ProductSort.PRICE_ASC.toSort())),
+                        "idx_products_status_base_price_id"),
+                uses("ProductRepository.findAvailableActiveListItemsAsSlice(Pageable)",
+                        () -> productRepository.findAvailableActiveListItemsAsSlice(PageRequest.of(50, 20, ProductSort.NAME.toSort())),
+                        "idx_products_status_name_id"),
+                // The NEWEST listing: the same indexes, skipping the never-published rows
+                fullScan("ProductRepository.findPublishedActiveListItems(Pageable)",
+                        () -> productRepository.findPublishedActiveListItems(PageRequest.of(50, 20, ProductSort.NEWEST.toSort())),
+                        ACTIVE_COUNT_SCAN, "idx_products_status_published_at_id"),
+                uses("ProductRepository.findPublishedActiveListItemsAsSlice(Pageable)",
+                        () -> productRepository.findPublishedActiveListItemsAsSlice(PageRequest.of(50, 20, ProductSort.NEWEST.toSort())),
+                        "idx_products_status_published_at_id"),
+                fullScan("ProductRepository.findPublishedAvailableActiveListItems(Pageable)",
+                        () -> productRepository.findPublishedAvailableActiveListItems(PageRequest.of(50, 20, ProductSort.NEWEST.toSort())),
+                        ACTIVE_COUNT_SCAN, "idx_products_available_published_at_id"),
+                uses("ProductRepository.findPublishedAvailableActiveListItemsAsSlice(Pageable)",
+                        () -> productRepository.findPublishedAvailableActiveListItemsAsSlice(PageRequest.of(50, 20, ProductSort.NEWEST.toSort())),
+                        "idx_products_available_published_at_id"),
+                uses("ProductRepository.existsByCategoryAndStatus(Category, ProductStatus)",
+                        () -> productRepository.existsByCategoryAndStatus(leafCategory(), ProductStatus.ACTIVE),
+                        "idx_products_category_id_status"),
+                uses("ProductRepository.countByCategoryAndStatus(Category, ProductStatus)",
+                        () -> productRepository.countByCategoryAndStatus(leafCategory(), ProductStatus.ACTIVE),
+                        "idx_products_category_id_status"),
+                fullScan("ProductRepository.countByStatus(ProductStatus)",
+                        () -> productRepository.countByStatus(ProductStatus.ACTIVE), ACTIVE_COUNT_SCAN),
+                uses("ProductRepository.countByStatus(ProductStatus)",
+                        () -> productRepository.countByStatus(ProductStatus.DISCONTINUED), "idx_products_status_base_price_id"),
+                fullScan("ProductRepository.countByStatusAndAvailableTrue(ProductStatus)",
+                        () -> productRepository.countByStatusAndAvailableTrue(ProductStatus.ACTIVE), ACTIVE_COUNT_SCAN),
+                fullScan("ProductRepository.countByStatusAndPublishedAtIsNotNull(ProductStatus)",
+                        () -> productRepository.countByStatusAndPublishedAtIsNotNull(ProductStatus.ACTIVE), ACTIVE_COUNT_SCAN),
+                fullScan("ProductRepository.countByStatusAndAvailableTrueAndPublishedAtIsNotNull(ProductStatus)",
+                        () -> productRepository.countByStatusAndAvailableTrueAndPublishedAtIsNotNull(ProductStatus.ACTIVE),
+                        ACTIVE_COUNT_SCAN),
+                fullScan("ProductRepository.streamActiveIndexRows()",
+                        () -> {
+                            try (var rows = productRepository.streamActiveIndexRows()) {
+                                rows.findFirst();
+                            }
+                        },
+                        "the search index rebuild reads every active product"),
+                uses("ProductRepository.findActiveIndexRowsByIdIn(Collection)",
+                        () -> productRepository.findActiveIndexRowsByIdIn(List.of(productId)),
+                        "pk_products", "pk_product_descriptions"),
+                uses("ProductRepository.findActiveIdsByCategoryIdIn(Collection)",
+                        () -> productRepository.findActiveIdsByCategoryIdIn(List.of(leafCategoryId)),
+                        "idx_products_category_id_status"),
+                uses("ProductRepository.findProductsWithLowStock()",
+                        productRepository::findProductsWithLowStock, "idx_products_low_stock"),
+                fullScan("ProductRepository.findActiveSuggestRows()",
+                        productRepository::findActiveSuggestRows,
+                        "the suggester loads every active product, at startup and nightly"),
+                uses("ProductRepository.findActiveSuggestRowsByIdIn(Collection)",
+                        () -> productRepository.findActiveSuggestRowsByIdIn(List.of(productId)),
+                        "pk_products"),
+                fullScan("ProductRepository.findProductsInStock()",
+                        productRepository::findProductsInStock,
+                        "matches most of the catalogue; not used by the service"),
+                uses("ProductRepositoryCustom.findActiveProductsAfter(ProductSort, ProductCursor, int)",
+                        () -> productRepository.findActiveProductsAfter(ProductSort.NEWEST, null, 21),
+                        "idx_products_status_published_at_id"),
+                uses("ProductRepositoryCustom.findActiveProductsAfter(ProductSort, ProductCursor, int)",
+                        () -> productRepository.findActiveProductsAfter(ProductSort.PRICE_ASC,
+                                new ProductCursor(ProductSort.PRICE_ASC, new BigDecimal("500.00"), productId), 21),
+                        "idx_products_status_base_price_id"),
+                uses("ProductRepositoryCustom.searchActiveProducts(String, SearchMode, boolean, SearchCursor, int)",
+                        () -> productRepository.searchActiveProducts("4242", SearchMode.FULL_TEXT, false, null, 21),
+                        "idx_products_search_vector"),
+                uses("ProductRepositoryCustom.searchActiveProducts(String, SearchMode, boolean, SearchCursor, int)",
+                        () -> productRepository.searchActiveProducts("sku-0004242", SearchMode.FULL_TEXT, false,
+                                new SearchCursor(SearchMode.FULL_TEXT, 0.5f, productId), 21),
+                        "idx_products_search_vector"),
+                uses("ProductRepositoryCustom.searchActiveProducts(String, SearchMode, boolean, SearchCursor, int)",
+                        () -> productRepository.searchActiveProducts("prodcut 4242", SearchMode.FUZZY, false, null, 21),
+                        "idx_products_name_trgm", "idx_products_sku_trgm"),
+                uses("ProductRepositoryCustom.searchActiveProducts(String, SearchMode, boolean, SearchCursor, int)",
+                        () -> productRepository.searchActiveProducts("0004242", SearchMode.FUZZY, false,
+                                new SearchCursor(SearchMode.FUZZY, 0.5f, productId), 21),
+                        "idx_products_name_trgm", "idx_products_sku_trgm"),
+                uses("ProductRepositoryCustom.searchActiveProducts(String, SearchMode, boolean, SearchCursor, int)",
+                        () -> productRepository.searchActiveProducts("4242", SearchMode.FULL_TEXT, true, null, 21),
+                        "idx_products_search_vector"),
+                uses("ProductRepositoryCustom.searchActiveProducts(String, SearchMode, boolean, SearchCursor, int)",
+                        () -> productRepository.searchActiveProducts("prodcut 4242", SearchMode.FUZZY, true, null, 21),
+                        "idx_products_name_trgm", "idx_products_sku_trgm"),
+                uses("ProductRepositoryCustom.findActiveProductFacets(String, SearchMode, boolean, List)",
+                        () -> productRepository.findActiveProductFacets("4242", SearchMode.FULL_TEXT, false, PRICE_BANDS),
+                        "idx_products_search_vector"),
+                uses("ProductRepositoryCustom.findActiveProductFacets(String, SearchMode, boolean, List)",
+                        () -> productRepository.findActiveProductFacets("4242", SearchMode.FULL_TEXT, true, PRICE_BANDS),
+                        "idx_products_search_vector"),
+                uses("ProductRepositoryCustom.findActiveProductFacets(String, SearchMode, boolean, List)",
+                        () -> productRepository.findActiveProductFacets("prodcut 4242", SearchMode.FUZZY, false, PRICE_BANDS),
+                        "idx_products_name_trgm", "idx_products_sku_trgm"),
+                fullScan("ProductRepositoryCustom.findActiveProductFacets(String, SearchMode, boolean, List)",
+                        () -> productRepository.findActiveProductFacets(null, null, false, PRICE_BANDS),
+                        "facets of the whole catalogue count every active product; cached per query by ProductFacetService"),
+                uses("ProductRepositoryCustom.findActivePriceHistogram(UUID, boolean, int)",
+                        () -> productRepository.findActivePriceHistogram(leafCategoryId, false, 20),
+                        "idx_products_category_id_status"),
+                uses("ProductRepositoryCustom.findActivePriceHistogram(UUID, boolean, int)",
+                        () -> productRepository.findActivePriceHistogram(branchCategoryId, true, 20),
+                        "idx_categories_parent_id_display_order", "idx_products_category_id_status"),
+                fullScan("ProductRepositoryCustom.findActivePriceHistogram(UUID, boolean, int)",
+                        () -> productRepository.findActivePriceHistogram(null, false, 20),
+                        "the catalogue histogram buckets every active product; cached by ProductPriceHistogramService"),
+                uses("ProductDescriptionRepository.findContentByProductId(UUID)",
+                        () -> productDescriptionRepository.findContentByProductId(productId), "pk_product_descriptions")
+        );
+    }
+
+    /**
+     * Every combination of the composable filters (no category, one category or a subtree; price range;
+     * in stock; text), in every sort, for the first and a later page. Without a category filter, a text
+     * filter may be answered either from the GIN index or by walking the sort index, depending on how
+     * many matches the planner expects, so only the sequential scan rule applies to those.
+     */
+    private List<PlanCase> filterCases() {
+        String method = "ProductRepositoryCustom.findProductsAfter(ProductFilter, ProductSort, ProductCursor, int)";
+        List<UUID> categories = Arrays.asList(null, leafCategoryId, branchCategoryId);
+        List<PlanCase> cases = new ArrayList<>();
+        for (UUID categoryId : categories) {
+            for (int flags = 0; flags < 8; flags++) {
+                boolean priced = (flags & 1) != 0;
+                boolean inStock = (flags & 2) != 0;
+                String text = (flags & 4) != 0 ? "4242" : null;
+                var filter = new ProductFilter(categoryId, branchCategoryId.equals(categoryId),
+                        priced ? new BigDecimal("100.00") : null, priced ? new BigDecimal("200.00") : null,
+                        null, inStock, text);
+                for (ProductSort sort : ProductSort.values()) {
+                    for (ProductCursor after : Arrays.asList(null, cursorFor(sort))) {
+                        String variant = "%s category=%s price=%s inStock=%s text=%s after=%s".formatted(sort,
+                                categoryId == null ? "-" : filter.includeDescendants() ? "subtree" : "one",
+                                priced, inStock, text != null, after != null);
+                        cases.add(new PlanCase(method, variant,
+                                () -> productRepository.findProductsAfter(filter, sort, after, 21),
+                                expectedFilterIndexes(filter, sort), null));
+                    }
+                }
+            }
+        }
+        return cases;
+    }
+
+    private static Set<String> expectedFilterIndexes(ProductFilter filter, ProductSort sort) {
+        if (filter.categoryId() != null) {
+            // The subtree is walked through the recursive step's index
+            return Set.of(filter.includeDescendants() ? "idx_categories_parent_id_display_order" : "idx_products_category_id_status");
+        }
+        if (filter.text() != null) {
+            return Set.of();
+        }
+        return Set.of(switch (sort) {
+            case NEWEST -> filter.inStockOnly() ? "idx_products_available_published_at_id" : "idx_products_status_published_at_id";
+            case PRICE_ASC, PRICE_DESC -> "idx_products_status_base_price_id";
+            case NAME -> "idx_products_status_name_id";
+        });
+    }
+
+    private ProductCursor cursorFor(ProductSort sort) {
+        Object key = switch (sort) {
+            case NEWEST -> OffsetDateTime.now().minusDays(30);
+            case PRICE_ASC, PRICE_DESC -> new BigDecimal("150.00");
+            case NAME -> "Product 5";
+        };
+        return new ProductCursor(sort, key, productId);
+    }
+
+    private List<PlanCase> categoryCases() {
+        return List.of(
+                uses("CategoryRepository.findBySlug(String)",
+                        () -> categoryRepository.findBySlug("category-42"), "uk_categories_slug"),
+                uses("CategoryRepository.findByParentIsNull()",
+                        categoryRepository::findByParentIsNull, "idx_categories_parent_id_display_order"),
+                uses("CategoryRepository.findByParent(Category)",
+                        () -> categoryRepository.findByParent(branchCategory()), "idx_categories_parent_id_display_order"),
+                fullScan("CategoryRepository.findByLevel(int)",
+                        () -> categoryRepository.findByLevel(0),
+                        "level is left unindexed on the small categories table; not used by the service"),
+                fullScan("CategoryRepository.findByIsActiveTrue()",
+                        categoryRepository::findByIsActiveTrue,
+                        "returns most categories"),
+                fullScan("CategoryRepository.findByIsActiveFalse()",
+                        categoryRepository::findByIsActiveFalse,
+                        "is_active is left unindexed on the small categories table; not used by the service"),
+                uses("CategoryRepository.findByNameContainingIgnoreCase(String)",
+                        () -> categoryRepository.findByNameContainingIgnoreCase("4242"), "idx_categories_name_trgm"),
+                uses("CategoryRepository.findWithParentAndChildrenBySlug(String)",
+                        () -> categoryRepository.findWithParentAndChildrenBySlug("category-51"),
+                        "uk_categories_slug", "idx_categories_parent_id_display_order"),
+                uses("CategoryRepository.findWithParentAndChildrenById(UUID)",
+                        () -> categoryRepository.findWithParentAndChildrenById(branchCategoryId),
+                        "pk_categories", "idx_categories_parent_id_display_order"),
+                fullScan("CategoryRepository.findByIsActiveTrueOrderByActiveProductCountDesc(Limit)",
+                        () -> categoryRepository.findByIsActiveTrueOrderByActiveProductCountDesc(Limit.of(20)),
+                        "ranks every category by its counter, once per startup warm-up"),
+                fullScan("CategoryRepository.findAllWithParent()",
+                        categoryRepository::findAllWithParent,
+                        "loads the whole category tree by design"),
+                uses("CategoryRepository.findByParentAndIsActiveTrueOrderByDisplayOrder(Category)",
+                        () -> categoryRepository.findByParentAndIsActiveTrueOrderByDisplayOrder(branchCategory()),
+                        "idx_categories_parent_id_display_order"),
+                uses("CategoryRepository.findRootCategories()",
+                        categoryRepository::findRootCategories, "idx_categories_parent_id_display_order"),
+                uses("CategoryRepository.findByParentOrderByDisplayOrderAsc(Category)",
+                        () -> categoryRepository.findByParentOrderByDisplayOrderAsc(branchCategory()),
+                        "idx_categories_parent_id_display_order"),
+                uses("CategoryRepository.existsBySlug(String)",
+                        () -> categoryRepository.existsBySlug("category-42"), "uk_categories_slug"),
+                uses("CategoryRepository.countByParent(Category)",
+                        () -> categoryRepository.countByParent(branchCategory()), "idx_categories_parent_id_display_order"),
+                fullScan("CategoryRepository.findCategoriesWithChildren()",
+                        categoryRepository::findCategoriesWithChildren,
+                        "child_count is left unindexed on the small categories table; not used by the service"),
+                fullScan("CategoryRepository.findLeafCategories()",
+                        categoryRepository::findLeafCategories,
+                        "returns most categories"),
+                uses("CategoryRepository.existsActiveProductInSubtree(UUID)",
+                        () -> categoryRepository.existsActiveProductInSubtree(branchCategoryId),
+                        "pk_categories", "idx_categories_parent_id_display_order", "idx_products_category_id_status"),
+                uses("CategoryRepository.findSubtreeIds(UUID)",
+                        () -> categoryRepository.findSubtreeIds(branchCategoryId),
+                        "pk_categories", "idx_categories_parent_id_display_order"),
+                uses("CategoryRepository.deactivateSubtree(UUID)",
+                        () -> categoryRepository.deactivateSubtree(branchCategoryId),
+                        "pk_categories", "idx_categories_parent_id_display_order"),
+                uses("CategoryRepository.detachProductsFromSubtree(UUID)",
+                        () -> categoryRepository.detachProductsFromSubtree(branchCategoryId),
+                        "idx_categories_parent_id_display_order", "idx_products_category_id_status"),
+                uses("CategoryRepository.deleteSubtree(UUID)",
+                        () -> {
+                            // Products would otherwise block the delete through their foreign key
+                            categoryRepository.detachProductsFromSubtree(branchCategoryId);
+                            categoryRepository.deleteSubtree(branchCategoryId);
+                        },
+                        "pk_categories", "idx_categories_parent_id_display_order"),
+                uses("CategoryRepository.findSelfAndAncestorIds(UUID[])",
+                        () -> categoryRepository.findSelfAndAncestorIds(new UUID[]{leafCategoryId, branchCategoryId}),
+                        "pk_categories"),
+                uses("CategoryRepository.updateDisplayOrders(UUID[], Integer[])",
+                        () -> categoryRepository.updateDisplayOrders(
+                                new UUID[]{rootCategoryId, branchCategoryId}, new Integer[]{2, 1}),
+                        "pk_categories"),
+                uses("CategoryRepository.adjustProductCounts(UUID, int, int)",
+                        () -> categoryRepository.adjustProductCounts(leafCategoryId, 1, 1), "pk_categories"),
+                uses("CategoryRepository.adjustChildCount(UUID, int)",
+                        () -> categoryRepository.adjustChildCount(rootCategoryId, 1), "pk_categories"),
+                fullScan("CategoryRepository.recomputeCounters()",
+                        categoryRepository::recomputeCounters,
+                        "rewrites every category by design; its per-row subqueries must still use indexes",
+                        "idx_categories_parent_id_display_order", "idx_products_category_id_status")
+        );
+    }
+
+    private List<PlanCase> searchQueryCases() {
+        return List.of(
+                uses("SearchQueryRepository.findByOrderBySearchCountDesc(Limit)",
+                        () -> searchQueryRepository.findByOrderBySearchCountDesc(Limit.of(50)),
+                        "idx_search_queries_search_count"),
+                uses("SearchQueryRepository.addSearchCounts(String[], String[], Long[])",
+                        () -> searchQueryRepository.addSearchCounts(new String[]{"FULL_TEXT", "FUZZY"},
+                                new String[]{"query 42", "a new query"}, new Long[]{3L, 1L}),
+                        "pk_search_queries"),
+                fullScan("SearchQueryRepository.halveSearchCounts()",
+                        searchQueryRepository::halveSearchCounts,
+                        "decays every count by design; runs nightly"),
+                uses("SearchQueryRepository.deleteForgottenQueries()",
+                        searchQueryRepository::deleteForgottenQueries, "idx_search_queries_search_count")
+        );
+    }
+
+    private DynamicTest toDynamicTest(PlanCase planCase) {
+        return DynamicTest.dynamicTest(planCase.name(), () -> transactionTemplate.executeWithoutResult(status -> {
+            // given - every case runs in its own transaction, rolled back so modifying queries leave the seed intact
+            status.setRollbackOnly();
+
+            // when
+            List<QueryPlan> plans = inspector.explain(planCase.call(), jdbcTemplate);
+
+            // then
+            assertThat(plans).as("statements issued by %s", planCase.method()).isNotEmpty();
+            Set<String> indexes = plans.stream()
+                    .flatMap(plan -> plan.indexes().stream())
+                    .collect(Collectors.toSet());
+            assertThat(indexes).as(describe(planCase, plans)).containsAll(planCase.expectedIndexes());
+            if (planCase.fullScanReason() == null) {
+                plans.forEach(plan -> assertThat(plan.sequentialScans())
+                        .as(describe(planCase, plans))
+                        .doesNotContainAnyElementsOf(LARGE_TABLES));
+            }
+        }));
+    }
+
+    private static String describe(PlanCase planCase, List<QueryPlan> plans) {
+        return planCase.name() + " plans:\n" + plans.stream()
+                .map(plan -> plan.sql() + "\n" + plan.json())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private Category leafCategory() {
+        return categoryRepository.getReferenceById(leafCategoryId);
+    }
+
+    private Category branchCategory() {
+        return categoryRepository.getReferenceById(branchCategoryId);
+    }
+
+    private UUID categoryIdBySlug(String slug) {
+        return jdbcTemplate.queryForObject("SELECT id FROM categories WHERE slug = ?", UUID.class, slug);
+    }
+
+    private static String signature(Class<?> type, Method method) {
+        return type.getSimpleName() + "." + method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(", ", "(", ")"));
+    }
+
+    private static PlanCase uses(String method, Runnable call, String... indexes) {
+        return new PlanCase(method, null, call, Set.of(indexes), null);
+    }
+
+    private static PlanCase fullScan(String method, Runnable call, String reason, String... indexes) {
+        return new PlanCase(method, null, call, Set.of(indexes), reason);
+    }
+
+    /**
+     * One repository call and what its plans must show.
+     *
+     * @param variant        which arguments this case calls {@code method} with, when it has several cases
+     * @param fullScanReason why sequential scans are the intended plan, or {@code null} if none are allowed
+     */
+    private record PlanCase(String method, String variant, Runnable call, Set<String> expectedIndexes, String fullScanReason) {
+
+        String name() {
+            return variant == null ? method : method + " " + variant;
+        }
+    }
+
+    /**
+     * Three-level category tree (50 roots, 950 branches, 4000 leaves) and products spread over the leaves:
+     * about 90% active, 8% inactive and 2% discontinued, with roughly 2% of them low on stock.
+     * The search query log holds a long tail of rarely asked queries behind a few hot ones.
+     */
+    private void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO categories (id, name, slug, parent_id, level, display_order, is_active, created_at, updated_at)
+                SELECT md5('category-' || g)::uuid, 'Category ' || g, 'category-' || g,
+                       CASE WHEN g <= 50 THEN NULL
+                            WHEN g <= 1000 THEN md5('category-' || (1 + g % 50))::uuid
+                            ELSE md5('category-' || (51 + g % 950))::uuid END,
+                       CASE WHEN g <= 50 THEN 0 WHEN g <= 1000 THEN 1 ELSE 2 END,
+                       g % 20, g % 25 <> 0, now(), now()
+                FROM generate_series(1, ?) g
+                """, CATEGORY_COUNT);
+        jdbcTemplate.update("""
+                INSERT INTO products (id, name, sku, base_price, status, category_id, stock_quantity, reserved_quantity,
+                                      low_stock_threshold, track_inventory, available, created_at, updated_at, published_at)
+                SELECT md5('product-' || g)::uuid, 'Product ' || g, 'SKU-' || lpad(g::text, 7, '0'),
+                       1 + (g % 100000) / 100.0,
+                       CASE WHEN g % 50 = 0 THEN 'DISCONTINUED' WHEN g % 12 = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END,
+                       md5('category-' || (1001 + g % 4000))::uuid,
+                       g % 500, g % 5, 10, true, g % 500 > g % 5, now(), now(), now() - g * interval '1 minute'
+                FROM generate_series(1, ?) g
+                """, PRODUCT_COUNT);
+        jdbcTemplate.update("""
+                INSERT INTO product_descriptions (product_id, content, updated_at)
+                SELECT id, repeat('Lorem ipsum dolor sit amet. ', 20), now() FROM products WHERE sku LIKE '%0'
+                """);
+        jdbcTemplate.update("""
+                INSERT INTO search_queries (search_mode, query, search_count)
+                SELECT CASE WHEN g % 4 = 0 THEN 'FUZZY' ELSE 'FULL_TEXT' END, 'query ' || g, 1 + 100000 / g
+                FROM generate_series(1, ?) g
+                """, SEARCH_QUERY_COUNT);
+        transactionTemplate.executeWithoutResult(_ -> categoryRepository.recomputeCounters());
+        jdbcTemplate.execute("VACUUM ANALYZE");
+    }
+}
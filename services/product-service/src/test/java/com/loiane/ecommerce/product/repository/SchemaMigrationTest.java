@@ -0,0 +1,60 @@
+package com.loiane.ecommerce.product.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against a real PostgreSQL and lets Hibernate validate the entity mappings
+ * against the result. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Schema Migration Tests")
+class SchemaMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should create every query index from the migrations")
+    void shouldCreateQueryIndexes() {
+        // when
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = 'public'", String.class);
+
+        // then
+        assertThat(indexes).contains(
+                "idx_products_status_published_at_id",
+                "idx_products_status_base_price_id",
+                "idx_products_status_name_id",
+                "idx_products_category_id_status",
+                "idx_categories_parent_id_display_order",
+                "idx_products_low_stock",
+                "idx_products_search_vector",
+                "idx_products_name_trgm",
+                "idx_products_sku_trgm",
+                "idx_categories_name_trgm");
+        assertThat(indexes).doesNotContain("idx_products_active_id");
+    }
+}
@@ -0,0 +1,199 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.dto.product.ProductIndexRow;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.repository.ProductSearchHit;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Lucene Product Search Index Tests")
+class LuceneProductSearchIndexTest {
+
+    private LuceneProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new LuceneProductSearchIndex("");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    @DisplayName("Should match stemmed words and rank name matches above description matches")
+    void shouldRankNameMatchesFirst() {
+        // given
+        index.index(row("Leather Laptop Bag", "BAG-001", "Padded and water resistant"), "Accessories > Bags");
+        index.index(row("Travel Backpack", "BAG-002", "Fits most laptops up to 15 inches"), "Accessories > Bags");
+        index.refresh();
+
+        // when
+        List<ProductSearchHit> hits = index.search("laptops", SearchMode.FULL_TEXT, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().name()).containsExactly("Leather Laptop Bag", "Travel Backpack");
+    }
+
+    @Test
+    @DisplayName("Should match the category path")
+    void shouldMatchCategoryPath() {
+        // given
+        index.index(row("Leather Laptop Bag", "BAG-001", null), "Accessories > Bags");
+        index.index(row("Mechanical Keyboard", "KB-001", null), "Computers > Peripherals");
+        index.refresh();
+
+        // when
+        List<ProductSearchHit> hits = index.search("peripherals", SearchMode.FULL_TEXT, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().name()).containsExactly("Mechanical Keyboard");
+    }
+
+    @Test
+    @DisplayName("Should find names despite a typo in fuzzy mode")
+    void shouldTolerateTypos() {
+        // given
+        index.index(row("Mechanical Keyboard", "KB-001", null), null);
+        index.index(row("Laptop Sleeve", "SL-001", null), null);
+        index.refresh();
+
+        // when
+        List<ProductSearchHit> hits = index.search("mechanicl keybaord", SearchMode.FUZZY, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().name()).containsExactly("Mechanical Keyboard");
+    }
+
+    @Test
+    @DisplayName("Should find products by a SKU fragment in fuzzy mode")
+    void shouldFindBySkuFragment() {
+        // given
+        index.index(row("Gaming Laptop", "WH-0004242", null), null);
+        index.index(row("Laptop Sleeve", "WH-0004243", null), null);
+        index.index(row("Mechanical Keyboard", "KB-1000", null), null);
+        index.refresh();
+
+        // when
+        List<ProductSearchHit> hits = index.search("424", SearchMode.FUZZY, false, null, 10);
+
+        // then
+        assertThat(hits).extracting(hit -> hit.item().sku()).containsExactlyInAnyOrder("WH-0004242", "WH-0004243");
+    }
+
+    @Test
+    @DisplayName("Should page through equally ranked hits without gaps or repeats")
+    void shouldPageWithCursor() {
+        // given
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            ProductIndexRow row = row("Desk Lamp " + i, "LAMP-" + i, null);
+            index.index(row, null);
+            expected.add(row.id().toString());
+        }
+        index.refresh();
+
+        // when
+        List<String> seen = new ArrayList<>();
+        List<ProductSearchHit> page = index.search("lamp", SearchMode.FULL_TEXT, false, null, 3);
+        while (!page.isEmpty()) {
+            page.forEach(hit -> seen.add(hit.item().id()));
+            ProductSearchHit last = page.getLast();
+            page = index.search("lamp", SearchMode.FULL_TEXT, false, last.cursor(SearchMode.FULL_TEXT), 3);
+        }
+
+        // then
+        assertThat(seen).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    @DisplayName("Should only show writes after a refresh")
+    void shouldShowWritesAfterRefresh() {
+        // given
+        ProductIndexRow row = row("Desk Lamp", "LAMP-1", null);
+        index.index(row, null);
+
+        // when
+        List<ProductSearchHit> beforeRefresh = index.search("lamp", SearchMode.FULL_TEXT, false, null, 10);
+        index.refresh();
+        List<ProductSearchHit> afterRefresh = index.search("lamp", SearchMode.FULL_TEXT, false, null, 10);
+
+        // then
+        assertThat(beforeRefresh).isEmpty();
+        assertThat(afterRefresh).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should remove deleted products")
+    void shouldRemoveDeletedProducts() {
+        // given
+        ProductIndexRow row = row("Desk Lamp", "LAMP-1", null);
+        index.index(row, null);
+        index.refresh();
+
+        // when
+        index.delete(row.id());
+        index.refresh();
+
+        // then
+        assertThat(index.search("lamp", SearchMode.FULL_TEXT, false, null, 10)).isEmpty();
+        assertThat(index.isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should drop documents a rebuild did not rewrite")
+    void shouldDropOlderGenerations() throws InterruptedException {
+        // given
+        ProductIndexRow kept = row("Desk Lamp", "LAMP-1", null);
+        ProductIndexRow dropped = row("Floor Lamp", "LAMP-2", null);
+        index.beginGeneration();
+        index.index(kept, null);
+        index.index(dropped, null);
+        Thread.sleep(2);
+
+        // when
+        long generation = index.beginGeneration();
+        index.index(kept, null);
+        index.deleteOlderGenerations(generation);
+        index.refresh();
+
+        // then
+        assertThat(index.search("lamp", SearchMode.FULL_TEXT, false, null, 10))
+                .extracting(hit -> hit.item().name()).containsExactly("Desk Lamp");
+    }
+
+    @Test
+    @DisplayName("Should leave out-of-stock products out of in-stock searches")
+    void shouldFilterOutOfStockProducts() {
+        // given
+        index.index(row("Desk Lamp", "LAMP-1", null), null);
+        index.index(new ProductIndexRow(UUID.randomUUID(), "Floor Lamp", null, null, "LAMP-2", new BigDecimal("89.90"),
+                ProductStatus.ACTIVE, 3, 3, false, null, null, null, null), null);
+        index.refresh();
+
+        // when
+        List<ProductSearchHit> all = index.search("lamp", SearchMode.FULL_TEXT, false, null, 10);
+        List<ProductSearchHit> inStock = index.search("lamp", SearchMode.FULL_TEXT, true, null, 10);
+
+        // then
+        assertThat(all).hasSize(2);
+        assertThat(inStock).extracting(hit -> hit.item().name()).containsExactly("Desk Lamp");
+    }
+
+    private static ProductIndexRow row(String name, String sku, String description) {
+        return new ProductIndexRow(UUID.randomUUID(), name, null, description, sku, new BigDecimal("49.90"),
+                ProductStatus.ACTIVE, 10, 0, true, null, null, null, null);
+    }
+}
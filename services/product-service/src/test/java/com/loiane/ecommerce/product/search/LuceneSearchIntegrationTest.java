@@ -0,0 +1,154 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductDescriptionRepository;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import com.loiane.ecommerce.product.service.CategoryService;
+import com.loiane.ecommerce.product.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Lucene engine end to end: writes through {@link ProductService} reach the index after commit
+ * and the next refresh. No test transaction, since the index only listens for committed changes.
+ */
+@SpringBootTest(properties = "product.search.engine=lucene")
+@ActiveProfiles("test")
+@DisplayName("Lucene Search Integration Tests")
+class LuceneSearchIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private LuceneIndexUpdater updater;
+
+    private final List<Product> created = new ArrayList<>();
+    private final List<Category> createdCategories = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(product -> {
+            productDescriptionRepository.findById(product.getId()).ifPresent(productDescriptionRepository::delete);
+            productRepository.deleteById(product.getId());
+        });
+        createdCategories.reversed().forEach(category -> categoryRepository.deleteById(category.getId()));
+        updater.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should find a created product after the next refresh")
+    void shouldIndexCreatedProduct() {
+        // given
+        create("Ergonomic Office Chair", "LUCENE-CHAIR-001");
+
+        // when
+        updater.refresh();
+
+        // then
+        assertThat(search("ergonomic chairs")).extracting(ProductListItem::sku).containsExactly("LUCENE-CHAIR-001");
+    }
+
+    @Test
+    @DisplayName("Should stop finding a product once it is discontinued")
+    void shouldRemoveDiscontinuedProduct() {
+        // given
+        Product chair = create("Ergonomic Office Chair", "LUCENE-CHAIR-001");
+        updater.refresh();
+
+        // when
+        productService.discontinueProduct(chair.getId());
+        updater.refresh();
+
+        // then
+        assertThat(search("ergonomic chair")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index from the database")
+    void shouldRebuildFromDatabase() {
+        // given
+        created.add(productRepository.save(ProductTestDataFactory.aProduct()
+                .withName("Standing Desk")
+                .withSku("LUCENE-DESK-001")
+                .thatIsActive()
+                .build()));
+
+        // when
+        int indexed = updater.rebuild();
+
+        // then
+        assertThat(indexed).isGreaterThanOrEqualTo(1);
+        assertThat(search("standing desk")).extracting(ProductListItem::sku).containsExactly("LUCENE-DESK-001");
+    }
+
+    @Test
+    @DisplayName("Should find products by their category's new name once a parent category is renamed")
+    void shouldReindexRenamedCategorySubtree() {
+        // given
+        Category furniture = createCategory(CategoryTestDataFactory.createRoot("Lucene Furniture"));
+        Category chairs = createCategory(CategoryTestDataFactory.createChild("Lucene Chairs", furniture));
+        create("Ergonomic Office Chair", "LUCENE-CHAIR-001", chairs);
+        updater.refresh();
+        assertThat(search("zebrawood")).isEmpty();
+
+        // when
+        categoryService.updateCategory(furniture.getId(), Category.builder().name("Zebrawood Furniture").build());
+        updater.refresh();
+
+        // then
+        assertThat(search("zebrawood")).extracting(ProductListItem::sku).containsExactly("LUCENE-CHAIR-001");
+    }
+
+    private Category createCategory(Category category) {
+        Category saved = categoryService.createCategory(category);
+        createdCategories.add(saved);
+        return saved;
+    }
+
+    private Product create(String name, String sku) {
+        return create(name, sku, null);
+    }
+
+    private Product create(String name, String sku, Category category) {
+        Product product = productService.createProduct(ProductTestDataFactory.aProduct()
+                .withName(name)
+                .withSku(sku)
+                .withCategory(category)
+                .thatIsActive()
+                .build());
+        created.add(product);
+        return product;
+    }
+
+    private List<ProductListItem> search(String query) {
+        return productService.searchActiveProducts(query, SearchMode.FULL_TEXT, false, null, 10).items();
+    }
+}
@@ -0,0 +1,144 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.dto.product.ProductSuggestRow;
+import com.loiane.ecommerce.product.dto.product.Suggestion;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSuggesterTest {
+
+    private static final ProductSuggestRow GAMING_LAPTOP = row("Gaming Laptop", "LAP-001", 40);
+    private static final ProductSuggestRow LAPTOP_SLEEVE = row("Laptop Sleeve", "SLV-001", 5);
+    private static final ProductSuggestRow LAPTOP_STAND = row("Laptop Stand", "STD-001", 12);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @InjectMocks
+    private ProductSuggester productSuggester;
+
+    private Category laptops;
+
+    @BeforeEach
+    void setUp() {
+        laptops = CategoryTestDataFactory.createRoot("Laptops");
+        laptops.setId(UUID.randomUUID());
+        laptops.setActiveProductCount(25);
+        when(productRepository.findActiveSuggestRows()).thenReturn(List.of(GAMING_LAPTOP, LAPTOP_SLEEVE, LAPTOP_STAND));
+        when(categoryRepository.findByIsActiveTrue()).thenReturn(List.of(laptops));
+        productSuggester.reload();
+    }
+
+    @Test
+    @DisplayName("Should suggest the most popular completions first, ignoring case")
+    void shouldSuggestByPopularity() {
+        // when
+        List<Suggestion> suggestions = productSuggester.suggest("LAPT", 10);
+
+        // then
+        assertThat(suggestions).extracting(Suggestion::text, Suggestion::type).containsExactly(
+                tuple("Gaming Laptop", Suggestion.Type.PRODUCT),
+                tuple("Laptops", Suggestion.Type.CATEGORY),
+                tuple("Laptop Stand", Suggestion.Type.PRODUCT),
+                tuple("Laptop Sleeve", Suggestion.Type.PRODUCT));
+    }
+
+    @Test
+    @DisplayName("Should complete later words of a name and cap the number of suggestions")
+    void shouldCompleteLaterWords() {
+        // when
+        List<Suggestion> suggestions = productSuggester.suggest("laptop s", 1);
+
+        // then
+        assertThat(suggestions).extracting(Suggestion::text).containsExactly("Laptop Stand");
+        assertThat(productSuggester.suggest("sle", 10)).extracting(Suggestion::text).containsExactly("Laptop Sleeve");
+    }
+
+    @Test
+    @DisplayName("Should suggest SKUs by their prefix")
+    void shouldSuggestSkus() {
+        // when
+        List<Suggestion> suggestions = productSuggester.suggest("slv", 10);
+
+        // then
+        assertThat(suggestions).containsExactly(
+                new Suggestion("SLV-001", Suggestion.Type.SKU, LAPTOP_SLEEVE.id().toString()));
+    }
+
+    @Test
+    @DisplayName("Should suggest nothing for a blank prefix")
+    void shouldSuggestNothingForBlankPrefix() {
+        // when/then
+        assertThat(productSuggester.suggest("  ", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply committed product changes by id, without reloading everything")
+    void shouldApplyProductChangesIncrementally() {
+        // given
+        ProductSuggestRow renamed = new ProductSuggestRow(LAPTOP_STAND.id(), "Monitor Stand", "STD-001", 12);
+        when(productRepository.findActiveSuggestRowsByIdIn(anyCollection())).thenReturn(List.of(renamed));
+        productSuggester.onProductChanged(new ProductChangedEvent(List.of(LAPTOP_STAND.id(), LAPTOP_SLEEVE.id())));
+
+        // when
+        productSuggester.refresh();
+
+        // then
+        assertThat(productSuggester.suggest("laptop", 10)).extracting(Suggestion::text)
+                .containsExactly("Gaming Laptop", "Laptops");
+        assertThat(productSuggester.suggest("mon", 10)).extracting(Suggestion::text).containsExactly("Monitor Stand");
+        verify(productRepository, times(1)).findActiveSuggestRows();
+    }
+
+    @Test
+    @DisplayName("Should re-read categories after a category change")
+    void shouldReloadCategoriesAfterCategoryChange() {
+        // given
+        when(categoryRepository.findByIsActiveTrue()).thenReturn(List.of());
+        productSuggester.onCategoryChanged(new CategoryChangedEvent(laptops.getId()));
+
+        // when
+        productSuggester.refresh();
+
+        // then
+        assertThat(productSuggester.suggest("laptops", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should skip the refresh when nothing changed")
+    void shouldSkipRefreshWithoutChanges() {
+        // when
+        productSuggester.refresh();
+
+        // then
+        verify(categoryRepository, times(1)).findByIsActiveTrue();
+        verify(productRepository, never()).findActiveSuggestRowsByIdIn(anyCollection());
+    }
+
+    private static ProductSuggestRow row(String name, String sku, int reserved) {
+        return new ProductSuggestRow(UUID.randomUUID(), name, sku, reserved);
+    }
+}
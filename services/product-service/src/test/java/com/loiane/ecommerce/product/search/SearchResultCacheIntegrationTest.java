@@ -0,0 +1,170 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductDescriptionRepository;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import com.loiane.ecommerce.product.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the search result cache against the PostgreSQL engine, with no test transaction: entries are dropped
+ * by the tags a committed write touches, and only once it commits. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "product.search-cache.hits=100"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Search Result Cache Integration Tests")
+class SearchResultCacheIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Product> created = new ArrayList<>();
+    private Category desks;
+    private Category lamps;
+
+    @BeforeEach
+    void setUp() {
+        desks = categoryRepository.save(CategoryTestDataFactory.createRoot("Cached Desks"));
+        lamps = categoryRepository.save(CategoryTestDataFactory.createRoot("Cached Lamps"));
+        create("Walnut Desk", "CACHED-DESK-001", desks, "300.00");
+        cacheManager.getCache(CacheNames.SEARCH_RESULTS).clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(product -> {
+            productDescriptionRepository.findById(product.getId()).ifPresent(productDescriptionRepository::delete);
+            productRepository.deleteById(product.getId());
+        });
+        categoryRepository.deleteById(lamps.getId());
+        categoryRepository.deleteById(desks.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep answering from the entry until a write to one of its tags commits")
+    void shouldDropEntryOnceTouchingWriteCommits() {
+        // given
+        assertThat(searchDesks()).containsExactly("CACHED-DESK-001");
+
+        // when - same category and price band as the cached hit
+        transactionTemplate.executeWithoutResult(_ -> {
+            create("Oak Desk", "CACHED-DESK-002", desks, "320.00");
+
+            // then - another request, before the commit, is still answered from the entry
+            assertThat(CompletableFuture.supplyAsync(this::searchDesks).join()).containsExactly("CACHED-DESK-001");
+            assertThat(cachedEntries()).isEqualTo(1);
+        });
+
+        // then
+        assertThat(cachedEntries()).isZero();
+        assertThat(searchDesks()).containsExactlyInAnyOrder("CACHED-DESK-001", "CACHED-DESK-002");
+    }
+
+    @Test
+    @DisplayName("Should keep the entry when a committed write touches none of its tags")
+    void shouldKeepEntryOnUnrelatedWrite() {
+        // given
+        assertThat(searchDesks()).containsExactly("CACHED-DESK-001");
+
+        // when - another category and price band: the new match goes unnoticed until the entry expires
+        transactionTemplate.executeWithoutResult(_ -> create("Desk Lamp", "CACHED-LAMP-001", lamps, "20.00"));
+
+        // then
+        assertThat(cachedEntries()).isEqualTo(1);
+        assertThat(searchDesks()).containsExactly("CACHED-DESK-001");
+    }
+
+    @Test
+    @DisplayName("Should keep the entry when the write rolls back")
+    void shouldKeepEntryOnRollback() {
+        // given
+        assertThat(searchDesks()).containsExactly("CACHED-DESK-001");
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.createProduct(ProductTestDataFactory.aProduct()
+                    .withName("Oak Desk")
+                    .withSku("CACHED-DESK-002")
+                    .withCategory(desks)
+                    .withPrice("320.00")
+                    .thatIsActive()
+                    .build());
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(cachedEntries()).isEqualTo(1);
+        assertThat(searchDesks()).containsExactly("CACHED-DESK-001");
+    }
+
+    private void create(String name, String sku, Category category, String price) {
+        created.add(productService.createProduct(ProductTestDataFactory.aProduct()
+                .withName(name)
+                .withSku(sku)
+                .withCategory(category)
+                .withPrice(price)
+                .thatIsActive()
+                .build()));
+    }
+
+    private List<String> searchDesks() {
+        return productService.searchActiveProducts("desk", SearchMode.FULL_TEXT, false, null, 10).items().stream()
+                .map(ProductListItem::sku)
+                .toList();
+    }
+
+    private long cachedEntries() {
+        return ((CaffeineCache) cacheManager.getCache(CacheNames.SEARCH_RESULTS)).getNativeCache().asMap().size();
+    }
+}
@@ -0,0 +1,182 @@
+package com.loiane.ecommerce.product.search;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.dto.product.CategorySummary;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.entity.SearchQueryId;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent.Placement;
+import com.loiane.ecommerce.product.repository.ProductSearchHit;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchResultCacheTest {
+
+    private static final UUID LAPTOPS = UUID.randomUUID();
+    private static final UUID BAGS = UUID.randomUUID();
+    private static final List<BigDecimal> PRICE_BANDS = List.of(
+            new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("250"), new BigDecimal("500"));
+
+    @Mock
+    private ProductSearchEngine productSearchEngine;
+
+    @Mock
+    private SearchQueryLog searchQueryLog;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private SearchResultCache searchResultCache;
+
+    private final List<ProductSearchHit> laptopHits = List.of(
+            hit("Gaming Laptop", LAPTOPS, "1499.00", 0.9f),
+            hit("Budget Laptop", LAPTOPS, "349.00", 0.8f),
+            hit("Laptop Sleeve", BAGS, "24.90", 0.7f),
+            hit("Laptop Stand", null, "39.90", 0.6f),
+            hit("Laptop Lamp", null, "19.90", 0.5f));
+
+    @BeforeEach
+    void setUp() {
+        searchResultCache = new SearchResultCache(productSearchEngine, searchQueryLog, taskScheduler,
+                new CaffeineCacheManager(CacheNames.SEARCH_RESULTS), PRICE_BANDS, 4, 10, Duration.ofSeconds(2));
+    }
+
+    @Test
+    @DisplayName("Should share one entry between spellings of the same query")
+    void shouldNormalizeQueries() {
+        // given
+        when(productSearchEngine.search("laptop", SearchMode.FULL_TEXT, false, null, 5)).thenReturn(laptopHits);
+
+        // when
+        List<ProductSearchHit> first = searchResultCache.search("  Laptop ", SearchMode.FULL_TEXT, false, null, 3);
+        List<ProductSearchHit> second = searchResultCache.search("LAPTOP", SearchMode.FULL_TEXT, false, null, 3);
+
+        // then
+        assertThat(first).isEqualTo(laptopHits.subList(0, 3)).isEqualTo(second);
+        verify(productSearchEngine, times(1)).search(any(), any(), anyBoolean(), any(), anyInt());
+        verify(searchQueryLog, times(2)).record(SearchMode.FULL_TEXT, "laptop");
+    }
+
+    @Test
+    @DisplayName("Should serve later pages within the cached hits and ask the engine past them")
+    void shouldServeLaterPagesFromCachedHits() {
+        // given
+        when(productSearchEngine.search("laptop", SearchMode.FULL_TEXT, false, null, 5)).thenReturn(laptopHits);
+        searchResultCache.search("laptop", SearchMode.FULL_TEXT, false, null, 3);
+        var afterFirst = laptopHits.get(0).cursor(SearchMode.FULL_TEXT);
+        var afterSecond = laptopHits.get(1).cursor(SearchMode.FULL_TEXT);
+        when(productSearchEngine.search("laptop", SearchMode.FULL_TEXT, false, afterSecond, 3))
+                .thenReturn(laptopHits.subList(2, 5));
+
+        // when
+        List<ProductSearchHit> secondPage = searchResultCache.search("laptop", SearchMode.FULL_TEXT, false, afterFirst, 2);
+        List<ProductSearchHit> pastCachedHits = searchResultCache.search("laptop", SearchMode.FULL_TEXT, false, afterSecond, 3);
+
+        // then
+        assertThat(secondPage).isEqualTo(laptopHits.subList(1, 3));
+        assertThat(pastCachedHits).isEqualTo(laptopHits.subList(2, 5));
+        verify(searchQueryLog, times(1)).record(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should drop only the entries touching the category and price band of a changed product")
+    void shouldInvalidateByCategoryAndPriceBand() {
+        // given
+        when(productSearchEngine.search("laptop", SearchMode.FULL_TEXT, false, null, 5)).thenReturn(laptopHits);
+        searchResultCache.search("laptop", SearchMode.FULL_TEXT, false, null, 3);
+
+        // when
+        searchResultCache.onProductChanged(ProductChangedEvent.of(UUID.randomUUID(),
+                new Placement(LAPTOPS, new BigDecimal("79.00"))));
+        searchResultCache.search("laptop", SearchMode.FULL_TEXT, false, null, 3);
+        searchResultCache.onProductChanged(ProductChangedEvent.of(UUID.randomUUID(),
+                new Placement(LAPTOPS, new BigDecimal("79.00")), new Placement(LAPTOPS, new BigDecimal("399.00"))));
+        searchResultCache.search("laptop", SearchMode.FULL_TEXT, false, null, 3);
+
+        // then
+        verify(productSearchEngine, times(2)).search("laptop", SearchMode.FULL_TEXT, false, null, 5);
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should drop the entries showing a changed category")
+    void shouldInvalidateByCategory() {
+        // given
+        when(productSearchEngine.search("laptop", SearchMode.FULL_TEXT, false, null, 5)).thenReturn(laptopHits);
+        when(productSearchEngine.search("sleeve", SearchMode.FULL_TEXT, false, null, 5)).thenReturn(laptopHits.subList(2, 3));
+        searchResultCache.search("laptop", SearchMode.FULL_TEXT, false, null, 3);
+        searchResultCache.search("sleeve", SearchMode.FULL_TEXT, false, null, 3);
+
+        // when
+        searchResultCache.onCategoryChanged(new CategoryChangedEvent(LAPTOPS));
+        searchResultCache.search("laptop", SearchMode.FULL_TEXT, false, null, 3);
+        searchResultCache.search("sleeve", SearchMode.FULL_TEXT, false, null, 3);
+
+        // then
+        verify(productSearchEngine, times(2)).search("laptop", SearchMode.FULL_TEXT, false, null, 5);
+        verify(productSearchEngine, times(1)).search("sleeve", SearchMode.FULL_TEXT, false, null, 5);
+    }
+
+    @Test
+    @DisplayName("Should warm the most asked queries")
+    void shouldWarmHotQueries() {
+        // given
+        when(searchQueryLog.hotQueries(10)).thenReturn(List.of(new SearchQueryId(SearchMode.FUZZY, "labtop")));
+        when(productSearchEngine.search("labtop", SearchMode.FUZZY, false, null, 5)).thenReturn(laptopHits.subList(0, 2));
+        when(productSearchEngine.search("labtop", SearchMode.FUZZY, true, null, 5)).thenReturn(laptopHits.subList(1, 2));
+
+        // when
+        searchResultCache.warmUpLoads().forEach(Runnable::run);
+        List<ProductSearchHit> hits = searchResultCache.search("Labtop", SearchMode.FUZZY, false, null, 21);
+        List<ProductSearchHit> inStockHits = searchResultCache.search("Labtop", SearchMode.FUZZY, true, null, 21);
+
+        // then
+        assertThat(hits).isEqualTo(laptopHits.subList(0, 2));
+        assertThat(inStockHits).isEqualTo(laptopHits.subList(1, 2));
+        verify(productSearchEngine, times(2)).search(any(), any(), anyBoolean(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should keep in-stock results apart from the unfiltered ones")
+    void shouldCacheInStockResultsSeparately() {
+        // given
+        when(productSearchEngine.search("laptop", SearchMode.FULL_TEXT, false, null, 5)).thenReturn(laptopHits);
+        when(productSearchEngine.search("laptop", SearchMode.FULL_TEXT, true, null, 5)).thenReturn(laptopHits.subList(1, 4));
+
+        // when
+        List<ProductSearchHit> all = searchResultCache.search("laptop", SearchMode.FULL_TEXT, false, null, 3);
+        List<ProductSearchHit> inStock = searchResultCache.search("laptop", SearchMode.FULL_TEXT, true, null, 3);
+        List<ProductSearchHit> inStockAgain = searchResultCache.search("laptop", SearchMode.FULL_TEXT, true, null, 3);
+
+        // then
+        assertThat(all).isEqualTo(laptopHits.subList(0, 3));
+        assertThat(inStock).isEqualTo(laptopHits.subList(1, 4)).isEqualTo(inStockAgain);
+        verify(productSearchEngine, times(1)).search("laptop", SearchMode.FULL_TEXT, true, null, 5);
+    }
+
+    private static ProductSearchHit hit(String name, UUID categoryId, String price, float rank) {
+        CategorySummary category = categoryId != null ? new CategorySummary(categoryId.toString(), "Category", "category") : null;
+        return new ProductSearchHit(new ProductListItem(UUID.randomUUID().toString(), name, "SKU-" + rank,
+                new BigDecimal(price), ProductStatus.ACTIVE, category, 10, 0, null), rank);
+    }
+}
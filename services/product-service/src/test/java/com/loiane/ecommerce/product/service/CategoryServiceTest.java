@@ -1,7 +1,10 @@
 package com.loiane.ecommerce.product.service;
 
+import com.loiane.ecommerce.product.config.CacheNames;
 import com.loiane.ecommerce.product.entity.Category;
 import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
 import com.loiane.ecommerce.product.exception.CategoryNotFoundException;
 import com.loiane.ecommerce.product.exception.DuplicateSlugException;
 import com.loiane.ecommerce.product.exception.IllegalOperationException;
@@ -15,10 +18,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
+
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
@@ -33,20 +41,29 @@ class CategoryServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Spy
+    private NotFoundCache notFoundCache = new NotFoundCache(new CaffeineCacheManager(CacheNames.NOT_FOUND));
+
+    @Spy
+    private CacheManager cacheManager = new CaffeineCacheManager(CacheNames.CATEGORY_TREE);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private CategoryService categoryService;
 
     private Category rootCategory;
     private Category childCategory;
-    private String rootId;
-    private String childId;
+    private UUID rootId;
+    private UUID childId;
 
     @BeforeEach
     void setUp() {
         TestDataFactory.resetCounter();
         
-        rootId = "root-category-id";
-        childId = "child-category-id";
+        rootId = UUID.randomUUID();
+        childId = UUID.randomUUID();
 
         rootCategory = CategoryTestDataFactory.aCategory()
                 .withName("Electronics")
@@ -102,6 +119,7 @@ class CategoryServiceTest {
         // then
         assertThat(created.getLevel()).isEqualTo(1);
         assertThat(created.getParent()).isEqualTo(rootCategory);
+        verify(categoryRepository).adjustChildCount(rootId, 1);
         verify(categoryRepository).save(childCategory);
     }
 
@@ -124,7 +142,7 @@ class CategoryServiceTest {
     @DisplayName("Should find category by slug")
     void shouldFindCategoryBySlug() {
         // given
-        when(categoryRepository.findBySlug("electronics")).thenReturn(Optional.of(rootCategory));
+        when(categoryRepository.findWithParentAndChildrenBySlug("electronics")).thenReturn(Optional.of(rootCategory));
 
         // when
         Category found = categoryService.findBySlug("electronics");
@@ -137,7 +155,7 @@ class CategoryServiceTest {
     @DisplayName("Should throw exception when category not found by slug")
     void shouldThrowExceptionWhenCategoryNotFoundBySlug() {
         // given
-        when(categoryRepository.findBySlug("non-existent")).thenReturn(Optional.empty());
+        when(categoryRepository.findWithParentAndChildrenBySlug("non-existent")).thenReturn(Optional.empty());
 
         // when/then
         assertThatThrownBy(() -> categoryService.findBySlug("non-existent"))
@@ -146,17 +164,53 @@ class CategoryServiceTest {
     }
 
     @Test
-    @DisplayName("Should get category hierarchy")
-    void shouldGetCategoryHierarchy() {
+    @DisplayName("Should answer a recently missing slug without a query until a category changes")
+    void shouldRememberMissingSlugUntilCategoryChanges() {
+        // given
+        when(categoryRepository.findWithParentAndChildrenBySlug("non-existent")).thenReturn(Optional.empty());
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> categoryService.findBySlug("non-existent")).isInstanceOf(CategoryNotFoundException.class);
+        }
+        notFoundCache.onCategoryChanged(new CategoryChangedEvent(UUID.randomUUID()));
+        assertThatThrownBy(() -> categoryService.findBySlug("non-existent")).isInstanceOf(CategoryNotFoundException.class);
+
+        // then
+        verify(categoryRepository, times(2)).findWithParentAndChildrenBySlug("non-existent");
+    }
+
+    @Test
+    @DisplayName("Should load the category tree once until a write")
+    void shouldCacheCategoryHierarchy() {
+        // given
+        when(categoryRepository.findAllWithParent()).thenReturn(List.of(rootCategory, childCategory));
+
+        // when
+        List<Category> first = categoryService.getCategoryHierarchy();
+        List<Category> second = categoryService.getCategoryHierarchy();
+
+        // then
+        assertThat(first).containsExactly(rootCategory, childCategory);
+        assertThat(second).isSameAs(first);
+        verify(categoryRepository, times(1)).findAllWithParent();
+    }
+
+    @Test
+    @DisplayName("Should reload the category tree after a product or category write")
+    void shouldEvictCategoryHierarchyOnWrites() {
         // given
-        when(categoryRepository.findRootCategories()).thenReturn(Arrays.asList(rootCategory));
+        when(categoryRepository.findAllWithParent()).thenReturn(List.of(rootCategory));
+        categoryService.getCategoryHierarchy();
 
         // when
-        List<Category> hierarchy = categoryService.getCategoryHierarchy();
+        categoryService.onProductChanged(new ProductChangedEvent(List.of(UUID.randomUUID())));
+        categoryService.getCategoryHierarchy();
+        categoryService.onCategoryChanged(new CategoryChangedEvent(rootId));
+        categoryService.getCategoryHierarchy();
 
         // then
-        assertThat(hierarchy).hasSize(1);
-        assertThat(hierarchy.get(0)).isEqualTo(rootCategory);
+        verify(categoryRepository, times(3)).findAllWithParent();
     }
 
     // UPDATE OPERATIONS
@@ -170,7 +224,7 @@ class CategoryServiceTest {
                 .displayOrder(2)
                 .build();
         
-        when(categoryRepository.findById(rootId)).thenReturn(Optional.of(rootCategory));
+        when(categoryRepository.findWithParentAndChildrenById(rootId)).thenReturn(Optional.of(rootCategory));
         when(categoryRepository.save(any(Category.class))).thenReturn(rootCategory);
 
         // when
@@ -181,6 +235,7 @@ class CategoryServiceTest {
         assertThat(updated.getDescription()).isEqualTo("Updated description");
         assertThat(updated.getDisplayOrder()).isEqualTo(2);
         verify(categoryRepository).save(rootCategory);
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(rootId));
     }
 
     @Test
@@ -191,7 +246,7 @@ class CategoryServiceTest {
                 .slug("new-slug")
                 .build();
         
-        when(categoryRepository.findById(rootId)).thenReturn(Optional.of(rootCategory));
+        when(categoryRepository.findWithParentAndChildrenById(rootId)).thenReturn(Optional.of(rootCategory));
 
         // when/then
         assertThatThrownBy(() -> categoryService.updateCategory(rootId, updateData))
@@ -206,7 +261,7 @@ class CategoryServiceTest {
     @DisplayName("Should move category to new parent")
     void shouldMoveCategoryToNewParent() {
         // given
-        String newParentId = "new-parent-id";
+        UUID newParentId = UUID.randomUUID();
         Category newParent = Category.builder()
                 .name("Home & Garden")
                 .level(0)
@@ -223,6 +278,8 @@ class CategoryServiceTest {
         // then
         assertThat(moved.getParent()).isEqualTo(newParent);
         assertThat(moved.getLevel()).isEqualTo(1);
+        verify(categoryRepository).adjustChildCount(rootId, -1);
+        verify(categoryRepository).adjustChildCount(newParentId, 1);
         verify(categoryRepository).save(childCategory);
     }
 
@@ -257,6 +314,75 @@ class CategoryServiceTest {
         verify(categoryRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Should deactivate category subtree without active products")
+    void shouldDeactivateCategorySubtreeWithoutActiveProducts() {
+        // given
+        when(categoryRepository.existsById(rootId)).thenReturn(true);
+        when(categoryRepository.existsActiveProductInSubtree(rootId)).thenReturn(false);
+        when(categoryRepository.findSubtreeIds(rootId)).thenReturn(List.of(rootId, childId));
+        when(categoryRepository.deactivateSubtree(rootId)).thenReturn(2);
+
+        // when
+        int deactivated = categoryService.deactivateCategorySubtree(rootId);
+
+        // then
+        assertThat(deactivated).isEqualTo(2);
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(List.of(rootId, childId)));
+        verify(categoryRepository, never()).findById(any());
+        verify(categoryRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when deactivating subtree with active products")
+    void shouldThrowExceptionWhenDeactivatingSubtreeWithActiveProducts() {
+        // given
+        when(categoryRepository.existsById(rootId)).thenReturn(true);
+        when(categoryRepository.existsActiveProductInSubtree(rootId)).thenReturn(true);
+
+        // when/then
+        assertThatThrownBy(() -> categoryService.deactivateCategorySubtree(rootId))
+                .isInstanceOf(IllegalOperationException.class)
+                .hasMessage("Cannot deactivate category subtree with active products");
+
+        verify(categoryRepository, never()).deactivateSubtree(any());
+    }
+
+    @Test
+    @DisplayName("Should delete category subtree and detach remaining products")
+    void shouldDeleteCategorySubtreeAndDetachRemainingProducts() {
+        // given
+        when(categoryRepository.findById(childId)).thenReturn(Optional.of(childCategory));
+        when(categoryRepository.existsActiveProductInSubtree(childId)).thenReturn(false);
+        UUID grandchildId = UUID.randomUUID();
+        when(categoryRepository.findSubtreeIds(childId)).thenReturn(List.of(childId, grandchildId));
+        when(categoryRepository.deleteSubtree(childId)).thenReturn(2);
+
+        // when
+        int deleted = categoryService.deleteCategorySubtree(childId);
+
+        // then
+        assertThat(deleted).isEqualTo(2);
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(List.of(childId, grandchildId)));
+        verify(categoryRepository).detachProductsFromSubtree(childId);
+        verify(categoryRepository).adjustChildCount(rootId, -1);
+        verify(categoryRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when deleting subtree of non-existent category")
+    void shouldThrowExceptionWhenDeletingSubtreeOfNonExistentCategory() {
+        // given
+        when(categoryRepository.findById(rootId)).thenReturn(Optional.empty());
+
+        // when/then
+        assertThatThrownBy(() -> categoryService.deleteCategorySubtree(rootId))
+                .isInstanceOf(CategoryNotFoundException.class)
+                .hasMessage("Category not found with id: " + rootId);
+
+        verify(categoryRepository, never()).deleteSubtree(any());
+    }
+
     @Test
     @DisplayName("Should find categories by partial name")
     void shouldFindCategoriesByPartialName() {
@@ -273,39 +399,88 @@ class CategoryServiceTest {
     }
 
     @Test
-    @DisplayName("Should reorder categories")
+    @DisplayName("Should reorder categories with a single batched update")
     void shouldReorderCategories() {
         // given
-        Map<String, Integer> newOrder = new HashMap<>();
+        Map<UUID, Integer> newOrder = new LinkedHashMap<>();
         newOrder.put(rootId, 2);
         newOrder.put(childId, 1);
-        
-        when(categoryRepository.findAllById(newOrder.keySet()))
-                .thenReturn(Arrays.asList(rootCategory, childCategory));
-        when(categoryRepository.saveAll(anyList()))
-                .thenReturn(Arrays.asList(rootCategory, childCategory));
+
+        when(categoryRepository.updateDisplayOrders(any(UUID[].class), any(Integer[].class))).thenReturn(2);
 
         // when
-        categoryService.reorderCategories(newOrder);
+        int updated = categoryService.reorderCategories(newOrder);
 
         // then
-        assertThat(rootCategory.getDisplayOrder()).isEqualTo(2);
-        assertThat(childCategory.getDisplayOrder()).isEqualTo(1);
-        verify(categoryRepository).saveAll(anyList());
+        assertThat(updated).isEqualTo(2);
+        verify(categoryRepository).updateDisplayOrders(
+                new UUID[]{rootId, childId}, new Integer[]{2, 1});
+        verify(categoryRepository, never()).findAllById(any());
+        verify(categoryRepository, never()).saveAll(anyList());
+        verify(eventPublisher).publishEvent(new CategoryChangedEvent(Set.of(rootId, childId)));
     }
 
     @Test
     @DisplayName("Should count products in category")
     void shouldCountProductsInCategory() {
         // given
+        rootCategory.setActiveProductCount(42);
         when(categoryRepository.findById(rootId)).thenReturn(Optional.of(rootCategory));
-        when(productRepository.countByCategoryAndStatus(rootCategory, ProductStatus.ACTIVE)).thenReturn(42L);
 
         // when
         long count = categoryService.countActiveProductsInCategory(rootId);
 
         // then
         assertThat(count).isEqualTo(42L);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should delete leaf category and decrement parent child count")
+    void shouldDeleteLeafCategoryAndDecrementParentChildCount() {
+        // given
+        when(categoryRepository.findById(childId)).thenReturn(Optional.of(childCategory));
+
+        // when
+        categoryService.deleteCategory(childId);
+
+        // then
+        verify(categoryRepository).adjustChildCount(rootId, -1);
+        verify(categoryRepository).deleteById(childId);
+        verify(categoryRepository, never()).detachProductsFromSubtree(any());
+    }
+
+    @Test
+    @DisplayName("Should refuse to delete category with active products or children")
+    void shouldRefuseToDeleteCategoryWithActiveProductsOrChildren() {
+        // given
+        childCategory.setActiveProductCount(1);
+        rootCategory.setChildCount(1);
+        when(categoryRepository.findById(childId)).thenReturn(Optional.of(childCategory));
+        when(categoryRepository.findById(rootId)).thenReturn(Optional.of(rootCategory));
+
+        // when/then
+        assertThatThrownBy(() -> categoryService.deleteCategory(childId))
+                .isInstanceOf(IllegalOperationException.class)
+                .hasMessage("Cannot delete category with active products");
+        assertThatThrownBy(() -> categoryService.deleteCategory(rootId))
+                .isInstanceOf(IllegalOperationException.class)
+                .hasMessage("Cannot delete category with child categories");
+
+        verify(categoryRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Should repair counters in bulk")
+    void shouldRepairCountersInBulk() {
+        // given
+        when(categoryRepository.recomputeCounters()).thenReturn(7);
+
+        // when
+        int repaired = categoryService.repairCounters();
+
+        // then
+        assertThat(repaired).isEqualTo(7);
     }
 
     @Test
@@ -324,24 +499,14 @@ class CategoryServiceTest {
     }
 
     @Test
-    @DisplayName("Should handle categories with no new order in reorder")
-    void shouldHandleCategoriesWithNoNewOrderInReorder() {
-        // given
-        Map<String, Integer> newOrder = new HashMap<>();
-        newOrder.put(rootId, 2);
-        // childId is missing from the map
-        
-        when(categoryRepository.findAllById(newOrder.keySet()))
-                .thenReturn(Arrays.asList(rootCategory));
-        when(categoryRepository.saveAll(anyList()))
-                .thenReturn(Arrays.asList(rootCategory));
-
+    @DisplayName("Should skip the update when reorder map is empty")
+    void shouldSkipUpdateWhenReorderMapIsEmpty() {
         // when
-        categoryService.reorderCategories(newOrder);
+        int updated = categoryService.reorderCategories(Map.of());
 
         // then
-        assertThat(rootCategory.getDisplayOrder()).isEqualTo(2);
-        verify(categoryRepository).saveAll(anyList());
+        assertThat(updated).isZero();
+        verifyNoInteractions(categoryRepository);
     }
 
     @Test
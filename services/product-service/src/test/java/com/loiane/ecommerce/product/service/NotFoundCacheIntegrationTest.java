@@ -0,0 +1,191 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductDescriptionRepository;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Runs the 404 paths with the not-found cache on, against PostgreSQL and with no test transaction: a request
+ * reading before a create commits caches the miss, and the commit must forget it. Requests that must not
+ * see the open transaction run on another thread. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "product.cache.not-found.ttl=10m"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Not Found Cache Integration Tests")
+class NotFoundCacheIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Product product;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheNames.NOT_FOUND).clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (product != null) {
+            productDescriptionRepository.findById(product.getId()).ifPresent(productDescriptionRepository::delete);
+            productRepository.deleteById(product.getId());
+        }
+        if (category != null) {
+            categoryRepository.deleteById(category.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated 404 without a statement")
+    void shouldAnswerRepeatedNotFoundFromCache() throws Exception {
+        // given
+        String path = "/api/v1/products/" + UUID.randomUUID();
+        assertThat(statusOf(path)).isEqualTo(404);
+
+        // when
+        statistics.clear();
+        int status = statusOf(path);
+
+        // then
+        assertThat(status).isEqualTo(404);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should find a product once its create commits, though a request cached the miss before")
+    void shouldForgetProductMissOnCommit() {
+        // given
+        String path = transactionTemplate.execute(_ -> {
+            product = productService.createProduct(ProductTestDataFactory.aProduct()
+                    .withSku("NOT-FOUND-001")
+                    .thatIsActive()
+                    .build());
+            String productPath = "/api/v1/products/" + product.getId();
+
+            // when - another request reads before the commit
+            assertThat(statusOfElsewhere(productPath)).isEqualTo(404);
+            assertThat(statusOfElsewhere(productPath)).isEqualTo(404);
+            return productPath;
+        });
+
+        // then
+        assertThat(statusOf(path)).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should find a category once its create commits, though a request cached the miss before")
+    void shouldForgetCategoryMissOnCommit() {
+        // given
+        String path = "/api/v1/categories/not-found-desks";
+        assertThat(statusOf(path)).isEqualTo(404);
+
+        // when
+        transactionTemplate.executeWithoutResult(_ -> {
+            category = categoryService.createCategory(CategoryTestDataFactory.createWithSlug("not-found-desks"));
+            assertThat(statusOfElsewhere(path)).isEqualTo(404);
+        });
+
+        // then
+        assertThat(statusOf(path)).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should keep the miss when the create rolls back")
+    void shouldKeepMissOnRollback() {
+        // given
+        String path = "/api/v1/categories/not-found-lamps";
+        assertThat(statusOf(path)).isEqualTo(404);
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> {
+            categoryService.createCategory(CategoryTestDataFactory.createWithSlug("not-found-lamps"));
+            status.setRollbackOnly();
+        });
+        statistics.clear();
+
+        // then
+        assertThat(statusOf(path)).isEqualTo(404);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private int statusOf(String path) {
+        try {
+            return mockMvc.perform(get(path)).andReturn().getResponse().getStatus();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Outside the calling thread's transaction, like a concurrent request
+    private int statusOfElsewhere(String path) {
+        return CompletableFuture.supplyAsync(() -> statusOf(path)).join();
+    }
+}
@@ -0,0 +1,92 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.service.NotFoundCache.Kind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotFoundCacheTest {
+
+    private final UUID productId = UUID.randomUUID();
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private NotFoundCache notFoundCache;
+
+    @BeforeEach
+    void setUp() {
+        notFoundCache = new NotFoundCache(new CaffeineCacheManager(CacheNames.NOT_FOUND));
+    }
+
+    @Test
+    @DisplayName("Should keep only misses, and forget them once the product is written")
+    void shouldForgetMissingProductOnWrite() {
+        // given
+        notFoundCache.find(Kind.PRODUCT_ID, productId, this::miss);
+        notFoundCache.find(Kind.PRODUCT_ID, productId, this::miss);
+
+        // when
+        notFoundCache.onProductChanged(ProductChangedEvent.of(productId));
+        Optional<String> created = notFoundCache.find(Kind.PRODUCT_ID, productId, () -> hit("created"));
+        Optional<String> again = notFoundCache.find(Kind.PRODUCT_ID, productId, () -> hit("created"));
+
+        // then
+        assertThat(created).contains("created");
+        assertThat(again).contains("created");
+        assertThat(lookups).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("Should not keep a miss read while the key was being created")
+    void shouldNotKeepMissRacingCreate() {
+        // given
+        notFoundCache.find(Kind.PRODUCT_ID, productId, () -> {
+            notFoundCache.onProductChanged(ProductChangedEvent.of(productId));
+            return miss();
+        });
+
+        // when
+        Optional<String> found = notFoundCache.find(Kind.PRODUCT_ID, productId, () -> hit("created"));
+
+        // then
+        assertThat(found).contains("created");
+        assertThat(lookups).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Should forget every category key on a category change, and no product key")
+    void shouldForgetCategoryKeysOnCategoryChange() {
+        // given
+        notFoundCache.find(Kind.CATEGORY_SLUG, "laptops", this::miss);
+        notFoundCache.find(Kind.CATEGORY_ID, productId, this::miss);
+        notFoundCache.find(Kind.PRODUCT_ID, productId, this::miss);
+
+        // when
+        notFoundCache.onCategoryChanged(new CategoryChangedEvent(UUID.randomUUID()));
+        notFoundCache.find(Kind.CATEGORY_SLUG, "laptops", this::miss);
+        notFoundCache.find(Kind.CATEGORY_ID, productId, this::miss);
+        notFoundCache.find(Kind.PRODUCT_ID, productId, this::miss);
+
+        // then
+        assertThat(lookups).hasValue(5);
+    }
+
+    private Optional<String> miss() {
+        lookups.incrementAndGet();
+        return Optional.empty();
+    }
+
+    private Optional<String> hit(String value) {
+        lookups.incrementAndGet();
+        return Optional.of(value);
+    }
+}
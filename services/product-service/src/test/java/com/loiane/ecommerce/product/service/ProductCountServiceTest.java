@@ -0,0 +1,129 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.dto.CountStrategy;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCountServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductCountService productCountService;
+
+    @BeforeEach
+    void setUp() {
+        productCountService = new ProductCountService(productRepository,
+                new ConcurrentMapCacheManager(CacheNames.PRODUCT_COUNTS));
+    }
+
+    @Test
+    @DisplayName("Should run an exact count for the EXACT strategy")
+    void shouldRunExactCount() {
+        // given
+        when(productRepository.countByStatus(ProductStatus.ACTIVE)).thenReturn(42L);
+
+        // when
+        ProductCountService.Total total = productCountService.countActiveProducts(CountStrategy.EXACT, false, false);
+
+        // then
+        assertThat(total.value()).isEqualTo(42L);
+        assertThat(total.strategy()).isEqualTo(CountStrategy.EXACT);
+    }
+
+    @Test
+    @DisplayName("Should use the planner estimate for the ESTIMATED strategy")
+    void shouldUsePlannerEstimate() {
+        // given
+        when(productRepository.estimateActiveProducts()).thenReturn(OptionalLong.of(980L));
+
+        // when
+        ProductCountService.Total total = productCountService.countActiveProducts(CountStrategy.ESTIMATED, false, false);
+
+        // then
+        assertThat(total.value()).isEqualTo(980L);
+        assertThat(total.strategy()).isEqualTo(CountStrategy.ESTIMATED);
+        verify(productRepository, never()).countByStatus(any());
+    }
+
+    @Test
+    @DisplayName("Should fall back to an exact count when no estimate is available")
+    void shouldFallBackToExactCountWithoutEstimate() {
+        // given
+        when(productRepository.estimateActiveProducts()).thenReturn(OptionalLong.empty());
+        when(productRepository.countByStatus(ProductStatus.ACTIVE)).thenReturn(7L);
+
+        // when
+        ProductCountService.Total total = productCountService.countActiveProducts(CountStrategy.ESTIMATED, false, false);
+
+        // then
+        assertThat(total.value()).isEqualTo(7L);
+        assertThat(total.strategy()).isEqualTo(CountStrategy.EXACT);
+    }
+
+    @Test
+    @DisplayName("Should reuse the cached count across requests")
+    void shouldReuseCachedCount() {
+        // given
+        when(productRepository.countByStatus(ProductStatus.ACTIVE)).thenReturn(3L);
+
+        // when
+        ProductCountService.Total first = productCountService.countActiveProducts(CountStrategy.CACHED, false, false);
+        ProductCountService.Total second = productCountService.countActiveProducts(CountStrategy.CACHED, false, false);
+
+        // then
+        assertThat(first.value()).isEqualTo(3L);
+        assertThat(second.value()).isEqualTo(3L);
+        assertThat(second.strategy()).isEqualTo(CountStrategy.CACHED);
+        verify(productRepository, times(1)).countByStatus(ProductStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Should cache the in-stock count apart from the active count")
+    void shouldCacheInStockCountSeparately() {
+        // given
+        when(productRepository.countByStatus(ProductStatus.ACTIVE)).thenReturn(3L);
+        when(productRepository.countByStatusAndAvailableTrue(ProductStatus.ACTIVE)).thenReturn(2L);
+
+        // when
+        ProductCountService.Total active = productCountService.countActiveProducts(CountStrategy.CACHED, false, false);
+        ProductCountService.Total inStock = productCountService.countActiveProducts(CountStrategy.CACHED, true, false);
+
+        // then
+        assertThat(active.value()).isEqualTo(3L);
+        assertThat(inStock.value()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Should count and cache only published products for the newest listing")
+    void shouldCountPublishedProductsSeparately() {
+        // given
+        when(productRepository.countByStatus(ProductStatus.ACTIVE)).thenReturn(3L);
+        when(productRepository.countByStatusAndPublishedAtIsNotNull(ProductStatus.ACTIVE)).thenReturn(2L);
+        when(productRepository.estimatePublishedAvailableActiveProducts()).thenReturn(OptionalLong.of(1L));
+
+        // when
+        ProductCountService.Total active = productCountService.countActiveProducts(CountStrategy.CACHED, false, false);
+        ProductCountService.Total published = productCountService.countActiveProducts(CountStrategy.CACHED, false, true);
+        ProductCountService.Total inStock = productCountService.countActiveProducts(CountStrategy.ESTIMATED, true, true);
+
+        // then
+        assertThat(active.value()).isEqualTo(3L);
+        assertThat(published.value()).isEqualTo(2L);
+        assertThat(inStock.value()).isEqualTo(1L);
+    }
+}
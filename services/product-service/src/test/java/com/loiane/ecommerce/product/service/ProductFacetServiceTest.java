@@ -0,0 +1,141 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.dto.product.FacetCount;
+import com.loiane.ecommerce.product.dto.product.ProductFacets;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.event.ProductPricesChangedEvent;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductFacetServiceTest {
+
+    private static final List<BigDecimal> PRICE_BANDS = List.of(new BigDecimal("50"), new BigDecimal("100"));
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductFacetService productFacetService;
+
+    @BeforeEach
+    void setUp() {
+        productFacetService = new ProductFacetService(productRepository,
+                new ConcurrentMapCacheManager(CacheNames.PRODUCT_FACETS), transactionManager, PRICE_BANDS, 2);
+    }
+
+    @Test
+    @DisplayName("Should share one cached entry between queries that differ only in case and spacing")
+    void shouldCacheByNormalizedQuery() {
+        // given
+        ProductFacets facets = facets(List.of());
+        when(productRepository.findActiveProductFacets("gaming laptop", SearchMode.FULL_TEXT, false, PRICE_BANDS)).thenReturn(facets);
+
+        // when
+        ProductFacets first = productFacetService.findActiveProductFacets("Gaming  Laptop", SearchMode.FULL_TEXT, false);
+        ProductFacets second = productFacetService.findActiveProductFacets(" gaming laptop ", SearchMode.FULL_TEXT, false);
+
+        // then
+        assertThat(first).isSameAs(facets);
+        assertThat(second).isSameAs(facets);
+        verify(productRepository, times(1)).findActiveProductFacets("gaming laptop", SearchMode.FULL_TEXT, false, PRICE_BANDS);
+    }
+
+    @Test
+    @DisplayName("Should cache each search mode separately")
+    void shouldCacheEachModeSeparately() {
+        // given
+        when(productRepository.findActiveProductFacets(eq("laptop"), any(), anyBoolean(), eq(PRICE_BANDS))).thenReturn(facets(List.of()));
+
+        // when
+        productFacetService.findActiveProductFacets("laptop", SearchMode.FULL_TEXT, false);
+        productFacetService.findActiveProductFacets("laptop", SearchMode.FUZZY, false);
+
+        // then
+        verify(productRepository).findActiveProductFacets("laptop", SearchMode.FULL_TEXT, false, PRICE_BANDS);
+        verify(productRepository).findActiveProductFacets("laptop", SearchMode.FUZZY, false, PRICE_BANDS);
+    }
+
+    @Test
+    @DisplayName("Should cache the facets of in-stock pages separately")
+    void shouldCacheInStockFacetsSeparately() {
+        // given
+        when(productRepository.findActiveProductFacets(isNull(), isNull(), anyBoolean(), eq(PRICE_BANDS)))
+                .thenReturn(facets(List.of()));
+
+        // when
+        productFacetService.findActiveProductFacets(null, null, false);
+        productFacetService.findActiveProductFacets(null, null, true);
+
+        // then
+        verify(productRepository).findActiveProductFacets(null, null, false, PRICE_BANDS);
+        verify(productRepository).findActiveProductFacets(null, null, true, PRICE_BANDS);
+    }
+
+    @Test
+    @DisplayName("Should reload the facets after a product or price change")
+    void shouldEvictOnProductAndPriceChanges() {
+        // given
+        when(productRepository.findActiveProductFacets(null, null, false, PRICE_BANDS)).thenReturn(facets(List.of()));
+        productFacetService.findActiveProductFacets(null, null, false);
+
+        // when
+        productFacetService.onProductChanged(new ProductChangedEvent(List.of(UUID.randomUUID())));
+        productFacetService.findActiveProductFacets(null, null, false);
+        productFacetService.onPricesChanged(new ProductPricesChangedEvent(List.of(UUID.randomUUID())));
+        productFacetService.findActiveProductFacets(null, null, false);
+
+        // then
+        verify(productRepository, times(3)).findActiveProductFacets(null, null, false, PRICE_BANDS);
+    }
+
+    @Test
+    @DisplayName("Should keep only the largest categories")
+    void shouldLimitCategories() {
+        // given
+        when(productRepository.findActiveProductFacets(null, null, false, PRICE_BANDS)).thenReturn(facets(List.of(
+                new FacetCount("c1", "Laptops", 30), new FacetCount("c2", "Bags", 20), new FacetCount("c3", "Cables", 10))));
+
+        // when
+        ProductFacets facets = productFacetService.findActiveProductFacets(null, null, false);
+
+        // then
+        assertThat(facets.categories()).extracting(FacetCount::label).containsExactly("Laptops", "Bags");
+    }
+
+    @Test
+    @DisplayName("Should reject price bands that are not ascending")
+    void shouldRejectUnorderedPriceBands() {
+        // given
+        List<BigDecimal> unordered = List.of(new BigDecimal("100"), new BigDecimal("50"));
+        var cacheManager = new ConcurrentMapCacheManager(CacheNames.PRODUCT_FACETS);
+
+        // when/then
+        assertThatThrownBy(() -> new ProductFacetService(productRepository, cacheManager, transactionManager, unordered, 20))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ProductFacets facets(List<FacetCount> categories) {
+        return new ProductFacets(categories, List.of(new FacetCount("ACTIVE", null, 60)),
+                List.of(new FacetCount("IN_STOCK", null, 60)), List.of(new FacetCount("0-50", null, 60)));
+    }
+}
@@ -0,0 +1,160 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.dto.CursorPage;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent.Placement;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductFilter;
+import com.loiane.ecommerce.product.repository.ProductSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductListingCacheTest {
+
+    private static final UUID COMPUTERS = UUID.randomUUID();
+    private static final UUID LAPTOPS = UUID.randomUUID();
+    private static final UUID BAGS = UUID.randomUUID();
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductListingCache productListingCache;
+
+    // Loads per listing, keyed like the pages: category (null for the catalog) and includeDescendants
+    private final Map<List<Object>, Integer> loads = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        productListingCache = new ProductListingCache(categoryRepository,
+                new CaffeineCacheManager(CacheNames.PRODUCT_LISTINGS), transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should cache only listings narrowed by category and stock alone")
+    void shouldCoverCategoryListingsOnly() {
+        // then
+        assertThat(productListingCache.covers(new ProductFilter(LAPTOPS, true, null, null, null, true, null))).isTrue();
+        assertThat(productListingCache.covers(new ProductFilter(null, false, null, null, null, false, null))).isTrue();
+        assertThat(productListingCache.covers(new ProductFilter(LAPTOPS, false, BigDecimal.TEN, null, null, false, null)))
+                .isFalse();
+        assertThat(productListingCache.covers(new ProductFilter(null, false, null, null, null, false, "desk"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should load each first page once")
+    void shouldCacheFirstPages() {
+        // when
+        CursorPage<ProductListItem> first = firstPage(LAPTOPS, false);
+        CursorPage<ProductListItem> second = firstPage(LAPTOPS, false);
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(loads).containsExactly(Map.entry(List.of(LAPTOPS, false), 1));
+    }
+
+    @Test
+    @DisplayName("Should evict the changed category, the subtrees above it and the catalog, keeping the rest")
+    void shouldEvictAffectedPages() {
+        // given
+        when(categoryRepository.findSelfAndAncestorIds(new UUID[]{LAPTOPS})).thenReturn(List.of(LAPTOPS, COMPUTERS));
+        firstPage(LAPTOPS, false);
+        firstPage(COMPUTERS, true);
+        firstPage(COMPUTERS, false);
+        firstPage(BAGS, false);
+        firstPage(null, false);
+
+        // when
+        productListingCache.onProductChanged(ProductChangedEvent.of(UUID.randomUUID(),
+                new Placement(LAPTOPS, new BigDecimal("999.00"))));
+        firstPage(LAPTOPS, false);
+        firstPage(COMPUTERS, true);
+        firstPage(COMPUTERS, false);
+        firstPage(BAGS, false);
+        firstPage(null, false);
+
+        // then
+        assertThat(loads).containsOnly(
+                Map.entry(List.of(LAPTOPS, false), 2),
+                Map.entry(List.of(COMPUTERS, true), 2),
+                Map.entry(List.of("catalog", false), 2),
+                Map.entry(List.of(COMPUTERS, false), 1),
+                Map.entry(List.of(BAGS, false), 1));
+    }
+
+    @Test
+    @DisplayName("Should look no categories up while no subtree page is cached")
+    void shouldSkipAncestorLookupWithoutSubtreePages() {
+        // given
+        firstPage(BAGS, false);
+
+        // when
+        productListingCache.onProductChanged(ProductChangedEvent.of(UUID.randomUUID(),
+                new Placement(LAPTOPS, new BigDecimal("999.00"))));
+        firstPage(BAGS, false);
+
+        // then
+        verifyNoInteractions(categoryRepository);
+        assertThat(loads).containsExactly(Map.entry(List.of(BAGS, false), 1));
+    }
+
+    @Test
+    @DisplayName("Should evict every page when categories change")
+    void shouldEvictAllOnCategoryChange() {
+        // given
+        firstPage(BAGS, false);
+
+        // when
+        productListingCache.onCategoryChanged(new CategoryChangedEvent(LAPTOPS));
+        firstPage(BAGS, false);
+
+        // then
+        assertThat(loads).containsExactly(Map.entry(List.of(BAGS, false), 2));
+    }
+
+    @Test
+    @DisplayName("Should not keep a page read while a write committed")
+    void shouldDropPageLoadedDuringInvalidation() {
+        // when
+        productListingCache.firstPage(filter(BAGS, false), ProductSort.NEWEST, 20, () -> {
+            productListingCache.onCategoryChanged(new CategoryChangedEvent(BAGS));
+            return new CursorPage<>(List.of(), null);
+        });
+        firstPage(BAGS, false);
+
+        // then
+        assertThat(loads).containsExactly(Map.entry(List.of(BAGS, false), 1));
+    }
+
+    private CursorPage<ProductListItem> firstPage(UUID categoryId, boolean includeDescendants) {
+        return productListingCache.firstPage(filter(categoryId, includeDescendants), ProductSort.NEWEST, 20, () -> {
+            loads.merge(List.of(categoryId != null ? categoryId : "catalog", includeDescendants), 1, Integer::sum);
+            return new CursorPage<>(List.of(), null);
+        });
+    }
+
+    private static ProductFilter filter(UUID categoryId, boolean includeDescendants) {
+        return new ProductFilter(categoryId, includeDescendants, null, null, null, false, null);
+    }
+}
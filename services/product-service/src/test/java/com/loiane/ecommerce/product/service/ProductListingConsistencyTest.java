@@ -0,0 +1,103 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.dto.CountStrategy;
+import com.loiane.ecommerce.product.dto.PagedResponse;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.repository.ProductSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the offset listing and the keyset scroll return the same rows for the same sort, against a
+ * real PostgreSQL, whose NULL ordering differs from H2's. Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional
+@DisplayName("Product Listing Consistency Tests")
+class ProductListingConsistencyTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        OffsetDateTime now = OffsetDateTime.now();
+        save("Older Laptop", "OLDER-001", now.minusDays(2));
+        save("Newer Laptop", "NEWER-001", now.minusDays(1));
+        // Active but never published, as createProduct leaves a product created ACTIVE
+        save("Unpublished Laptop", "UNPUBLISHED-001", null);
+    }
+
+    @Test
+    @DisplayName("Should leave never-published products out of the newest listing, like the keyset scroll")
+    void shouldMatchKeysetForNewest() {
+        // when
+        List<ProductListItem> scrolled = productService.scrollActiveProducts(ProductSort.NEWEST, null, 20).items();
+        PagedResponse<ProductListItem> exact = productService.findActiveProducts(PageRequest.of(0, 20),
+                CountStrategy.EXACT, false);
+        PagedResponse<ProductListItem> cached = productService.findActiveProducts(PageRequest.of(0, 20),
+                CountStrategy.CACHED, false);
+
+        // then
+        assertThat(scrolled).extracting(ProductListItem::name).containsExactly("Newer Laptop", "Older Laptop");
+        assertThat(exact.content()).isEqualTo(scrolled);
+        assertThat(exact.totalElements()).isEqualTo(2);
+        assertThat(cached.content()).isEqualTo(scrolled);
+        assertThat(cached.totalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should keep never-published products in the other orders, like the keyset scroll")
+    void shouldMatchKeysetForOtherSorts() {
+        // when
+        List<ProductListItem> scrolled = productService.scrollActiveProducts(ProductSort.NAME, null, 20).items();
+        PagedResponse<ProductListItem> offset = productService.findActiveProducts(
+                PageRequest.of(0, 20, Sort.by("name")), CountStrategy.EXACT, false);
+
+        // then
+        assertThat(scrolled).extracting(ProductListItem::name)
+                .containsExactly("Newer Laptop", "Older Laptop", "Unpublished Laptop");
+        assertThat(offset.content()).isEqualTo(scrolled);
+        assertThat(offset.totalElements()).isEqualTo(3);
+    }
+
+    private void save(String name, String sku, OffsetDateTime publishedAt) {
+        Product product = ProductTestDataFactory.aProduct().withName(name).withSku(sku).build();
+        product.setStatus(ProductStatus.ACTIVE);
+        product.setPublishedAt(publishedAt);
+        productRepository.saveAndFlush(product);
+    }
+}
@@ -0,0 +1,111 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.config.CacheNames;
+import com.loiane.ecommerce.product.dto.product.PriceHistogram;
+import com.loiane.ecommerce.product.event.CategoryChangedEvent;
+import com.loiane.ecommerce.product.event.ProductPricesChangedEvent;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPriceHistogramServiceTest {
+
+    private static final UUID COMPUTERS = UUID.randomUUID();
+    private static final UUID LAPTOPS = UUID.randomUUID();
+    private static final UUID BAGS = UUID.randomUUID();
+    private static final PriceHistogram HISTOGRAM = new PriceHistogram(new BigDecimal("10.00"), new BigDecimal("30.00"), 3,
+            List.of(new PriceHistogram.Bucket(new BigDecimal("10.00"), new BigDecimal("20.00"), 1),
+                    new PriceHistogram.Bucket(new BigDecimal("20.00"), new BigDecimal("30.00"), 2)));
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProductPriceHistogramService productPriceHistogramService;
+
+    @BeforeEach
+    void setUp() {
+        productPriceHistogramService = new ProductPriceHistogramService(productRepository, categoryRepository,
+                new CaffeineCacheManager(CacheNames.PRICE_HISTOGRAMS), transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should cache each histogram and clamp the bucket count")
+    void shouldCacheHistograms() {
+        // given
+        when(productRepository.findActivePriceHistogram(LAPTOPS, false, ProductPriceHistogramService.MAX_BUCKETS))
+                .thenReturn(HISTOGRAM);
+
+        // when
+        PriceHistogram first = productPriceHistogramService.findActivePriceHistogram(LAPTOPS, false, 500);
+        PriceHistogram second = productPriceHistogramService.findActivePriceHistogram(LAPTOPS, false, 100);
+
+        // then
+        assertThat(first).isSameAs(HISTOGRAM).isSameAs(second);
+        verify(productRepository, times(1)).findActivePriceHistogram(any(), anyBoolean(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should evict the changed category, the subtrees above it and the catalog, keeping the rest")
+    void shouldEvictAffectedHistograms() {
+        // given
+        when(productRepository.findActivePriceHistogram(any(), anyBoolean(), anyInt())).thenReturn(HISTOGRAM);
+        when(categoryRepository.findSelfAndAncestorIds(new UUID[]{LAPTOPS})).thenReturn(List.of(LAPTOPS, COMPUTERS));
+        productPriceHistogramService.findActivePriceHistogram(LAPTOPS, false, 20);
+        productPriceHistogramService.findActivePriceHistogram(COMPUTERS, true, 20);
+        productPriceHistogramService.findActivePriceHistogram(COMPUTERS, false, 20);
+        productPriceHistogramService.findActivePriceHistogram(BAGS, false, 20);
+        productPriceHistogramService.findActivePriceHistogram(null, false, 20);
+
+        // when
+        productPriceHistogramService.onPricesChanged(new ProductPricesChangedEvent(List.of(LAPTOPS)));
+        productPriceHistogramService.findActivePriceHistogram(LAPTOPS, false, 20);
+        productPriceHistogramService.findActivePriceHistogram(COMPUTERS, true, 20);
+        productPriceHistogramService.findActivePriceHistogram(COMPUTERS, false, 20);
+        productPriceHistogramService.findActivePriceHistogram(BAGS, false, 20);
+        productPriceHistogramService.findActivePriceHistogram(null, false, 20);
+
+        // then
+        verify(productRepository, times(2)).findActivePriceHistogram(LAPTOPS, false, 20);
+        verify(productRepository, times(2)).findActivePriceHistogram(COMPUTERS, true, 20);
+        verify(productRepository, times(2)).findActivePriceHistogram(null, false, 20);
+        verify(productRepository, times(1)).findActivePriceHistogram(COMPUTERS, false, 20);
+        verify(productRepository, times(1)).findActivePriceHistogram(BAGS, false, 20);
+    }
+
+    @Test
+    @DisplayName("Should evict every histogram when categories change")
+    void shouldEvictAllOnCategoryChange() {
+        // given
+        when(productRepository.findActivePriceHistogram(BAGS, false, 20)).thenReturn(HISTOGRAM);
+        productPriceHistogramService.findActivePriceHistogram(BAGS, false, 20);
+
+        // when
+        productPriceHistogramService.onCategoryChanged(new CategoryChangedEvent(LAPTOPS));
+        productPriceHistogramService.findActivePriceHistogram(BAGS, false, 20);
+
+        // then
+        verify(productRepository, times(2)).findActivePriceHistogram(BAGS, false, 20);
+    }
+}
@@ -1,39 +1,68 @@
 package com.loiane.ecommerce.product.service;
 
+import com.loiane.ecommerce.product.dto.CountStrategy;
+import com.loiane.ecommerce.product.dto.CursorPage;
+import com.loiane.ecommerce.product.dto.PagedResponse;
+import com.loiane.ecommerce.product.dto.product.CategorySummary;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.config.CacheNames;
 import com.loiane.ecommerce.product.entity.Category;
 import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.entity.ProductDescription;
 import com.loiane.ecommerce.product.entity.ProductStatus;
+import com.loiane.ecommerce.product.event.ProductChangedEvent;
+import com.loiane.ecommerce.product.event.ProductChangedEvent.Placement;
+import com.loiane.ecommerce.product.event.ProductPricesChangedEvent;
 import com.loiane.ecommerce.product.exception.DuplicateSkuException;
 import com.loiane.ecommerce.product.exception.IllegalOperationException;
 import com.loiane.ecommerce.product.exception.InactiveCategoryException;
 import com.loiane.ecommerce.product.exception.InsufficientStockException;
+import com.loiane.ecommerce.product.exception.InvalidCursorException;
+import com.loiane.ecommerce.product.exception.InvalidSortException;
 import com.loiane.ecommerce.product.exception.ProductNotFoundException;
+import com.loiane.ecommerce.product.exception.UnknownCategoryException;
 import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
 import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
 import com.loiane.ecommerce.product.factory.TestDataFactory;
 import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductCursor;
+import com.loiane.ecommerce.product.repository.ProductFilter;
+import com.loiane.ecommerce.product.repository.ProductDescriptionRepository;
 import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.repository.ProductSearchHit;
+import com.loiane.ecommerce.product.repository.ProductSort;
+import com.loiane.ecommerce.product.repository.SearchCursor;
+import com.loiane.ecommerce.product.repository.SearchMode;
+import com.loiane.ecommerce.product.search.SearchResultCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,20 +74,39 @@ class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private ProductCountService productCountService;
+
+    @Mock
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Spy
+    private NotFoundCache notFoundCache = new NotFoundCache(new CaffeineCacheManager(CacheNames.NOT_FOUND));
+
+    @Spy
+    private ProductListingCache productListingCache = new ProductListingCache(mock(CategoryRepository.class),
+            new CaffeineCacheManager(CacheNames.PRODUCT_LISTINGS), mock(PlatformTransactionManager.class));
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService;
 
     private Product testProduct;
     private Category testCategory;
-    private String productId;
-    private String categoryId;
+    private UUID productId;
+    private UUID categoryId;
 
     @BeforeEach
     void setUp() {
         TestDataFactory.resetCounter();
         
-        productId = "test-product-id";
-        categoryId = "test-category-id";
+        productId = UUID.randomUUID();
+        categoryId = UUID.randomUUID();
 
         testCategory = CategoryTestDataFactory.aCategory()
                 .withName("Electronics")
@@ -102,6 +150,9 @@ class ProductServiceTest {
         assertThat(created.getName()).isEqualTo("Test Product");
         verify(productRepository).existsBySku("TEST-001");
         verify(productRepository).save(testProduct);
+        verify(productDescriptionRepository).save(any(ProductDescription.class));
+        verify(categoryRepository).adjustProductCounts(categoryId, 1, 1);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.of(productId, new Placement(categoryId, new BigDecimal("99.99"))));
     }
 
     @Test
@@ -143,7 +194,7 @@ class ProductServiceTest {
 
         // when & then
         assertThatThrownBy(() -> productService.createProduct(testProduct))
-                .isInstanceOf(IllegalArgumentException.class)
+                .isInstanceOf(UnknownCategoryException.class)
                 .hasMessage("Category not found"); // Actual message from service implementation
         
         verify(productRepository, never()).save(any());
@@ -154,7 +205,7 @@ class ProductServiceTest {
     @DisplayName("Should find product by id")
     void shouldFindProductById() {
         // given
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
 
         // when
         Product found = productService.findById(productId);
@@ -163,11 +214,30 @@ class ProductServiceTest {
         assertThat(found).isEqualTo(testProduct);
     }
 
+    @Test
+    @DisplayName("Should read the description from the side table only when requested")
+    void shouldReadDescriptionOnlyWhenRequested() {
+        // given
+        testProduct.setDescription(null);
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
+        when(productDescriptionRepository.findContentByProductId(productId)).thenReturn(Optional.of("<p>Rich</p>"));
+
+        // when
+        Product withoutDescription = productService.findById(productId, false);
+        String descriptionBefore = withoutDescription.getDescription();
+        Product withDescription = productService.findById(productId, true);
+
+        // then
+        assertThat(descriptionBefore).isNull();
+        assertThat(withDescription.getDescription()).isEqualTo("<p>Rich</p>");
+        verify(productDescriptionRepository, times(1)).findContentByProductId(productId);
+    }
+
     @Test
     @DisplayName("Should throw exception when product not found")
     void shouldThrowExceptionWhenProductNotFound() {
         // given
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.empty());
 
         // when/then
         assertThatThrownBy(() -> productService.findById(productId))
@@ -175,6 +245,26 @@ class ProductServiceTest {
                 .hasMessage("Product not found with id: " + productId);
     }
 
+    @Test
+    @DisplayName("Should answer a recently missing product without a query until it is created")
+    void shouldRememberMissingProductUntilCreated() {
+        // given
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.empty());
+        assertThatThrownBy(() -> productService.findById(productId)).isInstanceOf(ProductNotFoundException.class);
+
+        // when
+        Throwable again = catchThrowable(() -> productService.findById(productId));
+        notFoundCache.onProductChanged(ProductChangedEvent.of(productId));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
+        Product created = productService.findById(productId);
+
+        // then
+        assertThat(again).isInstanceOf(ProductNotFoundException.class);
+        assertThat(again.getStackTrace()).isEmpty();
+        assertThat(created).isEqualTo(testProduct);
+        verify(productRepository, times(2)).findWithCategoryById(productId);
+    }
+
     @Test
     @DisplayName("Should find active products with pagination")
     void shouldFindActiveProductsWithPagination() {
@@ -192,6 +282,101 @@ class ProductServiceTest {
         assertThat(result.getContent().get(0)).isEqualTo(testProduct);
     }
 
+    @Test
+    @DisplayName("Should keep the exact page count when EXACT strategy is requested")
+    void shouldKeepExactPageCountWhenExactStrategyRequested() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10);
+        Pageable newest = PageRequest.of(0, 10, ProductSort.NEWEST.toSort());
+        ProductListItem item = listItemOf(testProduct);
+        when(productRepository.findPublishedActiveListItems(newest))
+                .thenReturn(new PageImpl<>(List.of(item), newest, 1));
+
+        // when
+        PagedResponse<ProductListItem> result = productService.findActiveProducts(pageable, CountStrategy.EXACT, false);
+
+        // then
+        assertThat(result.content()).containsExactly(item);
+        assertThat(result.totalElements()).isEqualTo(1);
+        assertThat(result.countStrategy()).isEqualTo(CountStrategy.EXACT);
+        verifyNoInteractions(productCountService);
+    }
+
+    @Test
+    @DisplayName("Should fetch a slice and delegate the total when a non-exact strategy is requested")
+    void shouldFetchSliceAndDelegateTotalForNonExactStrategy() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10);
+        Pageable newest = PageRequest.of(0, 10, ProductSort.NEWEST.toSort());
+        ProductListItem item = listItemOf(testProduct);
+        when(productRepository.findPublishedActiveListItemsAsSlice(newest))
+                .thenReturn(new SliceImpl<>(List.of(item), newest, true));
+        when(productCountService.countActiveProducts(CountStrategy.ESTIMATED, false, true))
+                .thenReturn(new ProductCountService.Total(1_000, CountStrategy.ESTIMATED));
+
+        // when
+        PagedResponse<ProductListItem> result = productService.findActiveProducts(pageable, CountStrategy.ESTIMATED, false);
+
+        // then
+        assertThat(result.content()).containsExactly(item);
+        assertThat(result.totalElements()).isEqualTo(1_000);
+        assertThat(result.totalPages()).isEqualTo(100);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.countStrategy()).isEqualTo(CountStrategy.ESTIMATED);
+        verify(productRepository, never()).findPublishedActiveListItems(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should list and count only available products when in stock only is requested")
+    void shouldListOnlyAvailableProductsWhenInStockOnly() {
+        // given
+        Pageable pageable = PageRequest.of(0, 10);
+        Pageable newest = PageRequest.of(0, 10, ProductSort.NEWEST.toSort());
+        ProductListItem item = listItemOf(testProduct);
+        when(productRepository.findPublishedAvailableActiveListItemsAsSlice(newest))
+                .thenReturn(new SliceImpl<>(List.of(item), newest, false));
+        when(productCountService.countActiveProducts(CountStrategy.CACHED, true, true))
+                .thenReturn(new ProductCountService.Total(1, CountStrategy.CACHED));
+
+        // when
+        PagedResponse<ProductListItem> result = productService.findActiveProducts(pageable, CountStrategy.CACHED, true);
+
+        // then
+        assertThat(result.content()).containsExactly(item);
+        assertThat(result.totalElements()).isEqualTo(1);
+        verify(productRepository, never()).findPublishedActiveListItemsAsSlice(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should list by a supported sort, tie-broken by id")
+    void shouldListBySupportedSort() {
+        // given
+        Pageable byPrice = PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "basePrice"));
+        Pageable expected = PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "basePrice", "id"));
+        when(productRepository.findActiveListItems(expected)).thenReturn(new PageImpl<>(List.of(), expected, 20));
+
+        // when
+        productService.findActiveProducts(byPrice, CountStrategy.EXACT, false);
+
+        // then
+        verify(productRepository).findActiveListItems(expected);
+    }
+
+    @Test
+    @DisplayName("Should reject sorts that no index serves")
+    void shouldRejectUnsupportedSort() {
+        // given
+        Pageable bySku = PageRequest.of(0, 10, Sort.by("sku"));
+        Pageable byNameDescending = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "name"));
+
+        // when/then
+        assertThatThrownBy(() -> productService.findActiveProducts(bySku, CountStrategy.EXACT, false))
+                .isInstanceOf(InvalidSortException.class);
+        assertThatThrownBy(() -> productService.findActiveProducts(byNameDescending, CountStrategy.EXACT, false))
+                .isInstanceOf(InvalidSortException.class);
+        verifyNoInteractions(productRepository);
+    }
+
     // UPDATE OPERATIONS
     @Test
     @DisplayName("Should update product successfully")
@@ -203,7 +388,7 @@ class ProductServiceTest {
                 .basePrice(new BigDecimal("149.99"))
                 .build();
         
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // when
@@ -214,6 +399,27 @@ class ProductServiceTest {
         assertThat(updated.getDescription()).isEqualTo("Updated Description");
         assertThat(updated.getBasePrice()).isEqualByComparingTo("149.99");
         verify(productRepository).save(testProduct);
+        verify(productDescriptionRepository).save(argThat(description ->
+                description.getContent().equals("Updated Description")));
+        verify(eventPublisher).publishEvent(new ProductPricesChangedEvent(List.of(categoryId)));
+    }
+
+    @Test
+    @DisplayName("Should not publish a price change when an update leaves price and category alone")
+    void shouldNotPublishPriceChangeForOtherFields() {
+        // given
+        Product updatedData = Product.builder()
+                .name("Renamed Product")
+                .basePrice(new BigDecimal("99.990"))
+                .build();
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+
+        // when
+        productService.updateProduct(productId, updatedData);
+
+        // then
+        verify(eventPublisher, never()).publishEvent(any(ProductPricesChangedEvent.class));
     }
 
     @Test
@@ -224,7 +430,7 @@ class ProductServiceTest {
                 .sku("NEW-SKU")
                 .build();
         
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
 
         // when/then
         assertThatThrownBy(() -> productService.updateProduct(productId, updatedData))
@@ -240,7 +446,7 @@ class ProductServiceTest {
     void shouldReserveStockSuccessfully() {
         // given
         int quantityToReserve = 10;
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // when
@@ -257,7 +463,7 @@ class ProductServiceTest {
     void shouldThrowExceptionWhenInsufficientStockForReservation() {
         // given
         int quantityToReserve = 110; // more than available
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
 
         // when/then
         assertThatThrownBy(() -> productService.reserveStock(productId, quantityToReserve))
@@ -267,13 +473,46 @@ class ProductServiceTest {
         verify(productRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Should mark a product unavailable when its last units are reserved, and available again on release")
+    void shouldMaintainAvailabilityThroughReservations() {
+        // given
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+
+        // when
+        productService.reserveStock(productId, 100);
+        Boolean afterReserve = testProduct.getAvailable();
+        productService.releaseStock(productId, 1);
+
+        // then
+        assertThat(afterReserve).isFalse();
+        assertThat(testProduct.getAvailable()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep untracked products available whatever their stock")
+    void shouldKeepUntrackedProductsAvailable() {
+        // given
+        Product updatedData = Product.builder().trackInventory(false).stockQuantity(0).build();
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+
+        // when
+        productService.updateProduct(productId, updatedData);
+
+        // then
+        assertThat(testProduct.getStockQuantity()).isZero();
+        assertThat(testProduct.getAvailable()).isTrue();
+    }
+
     @Test
     @DisplayName("Should release stock successfully")
     void shouldReleaseStockSuccessfully() {
         // given
         testProduct.setReservedQuantity(20);
         int quantityToRelease = 10;
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // when
@@ -290,7 +529,7 @@ class ProductServiceTest {
         // given
         testProduct.setReservedQuantity(5);
         int quantityToRelease = 10;
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
 
         // when/then
         assertThatThrownBy(() -> productService.releaseStock(productId, quantityToRelease))
@@ -306,7 +545,7 @@ class ProductServiceTest {
         // given
         testProduct.setReservedQuantity(20);
         int quantityToConfirm = 15;
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // when
@@ -325,7 +564,7 @@ class ProductServiceTest {
         // given
         testProduct.setStatus(ProductStatus.INACTIVE);
         testProduct.setPublishedAt(null);
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // when
@@ -335,13 +574,14 @@ class ProductServiceTest {
         assertThat(published.getStatus()).isEqualTo(ProductStatus.ACTIVE);
         assertThat(published.getPublishedAt()).isNotNull();
         verify(productRepository).save(testProduct);
+        verify(categoryRepository).adjustProductCounts(categoryId, 1, 0);
     }
 
     @Test
     @DisplayName("Should discontinue product successfully")
     void shouldDiscontinueProductSuccessfully() {
         // given
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // when
@@ -350,6 +590,8 @@ class ProductServiceTest {
         // then
         assertThat(discontinued.getStatus()).isEqualTo(ProductStatus.DISCONTINUED);
         verify(productRepository).save(testProduct);
+        verify(categoryRepository).adjustProductCounts(categoryId, -1, 0);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.of(productId, new Placement(categoryId, new BigDecimal("99.99"))));
     }
 
     @Test
@@ -368,29 +610,123 @@ class ProductServiceTest {
     }
 
     @Test
-    @DisplayName("Should search active products by name")
-    void shouldSearchActiveProductsByName() {
+    @DisplayName("Should return ranked search hits with a cursor at the last hit")
+    void shouldReturnRankedSearchHitsWithCursor() {
         // given
-        String searchTerm = "Test";
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Product> products = Arrays.asList(testProduct);
-        Page<Product> productPage = new PageImpl<>(products, pageable, 1);
-        when(productRepository.findActiveProductsByNameContainingWithPagination(searchTerm, pageable))
-                .thenReturn(productPage);
+        Product next = ProductTestDataFactory.aProduct().withName("Test Product Case").thatIsActive().build();
+        next.setId(UUID.randomUUID());
+        when(searchResultCache.search("test", SearchMode.FULL_TEXT, false, null, 2))
+                .thenReturn(List.of(new ProductSearchHit(listItemOf(testProduct), 0.6f),
+                        new ProductSearchHit(listItemOf(next), 0.3f)));
 
         // when
-        Page<Product> result = productService.searchActiveProducts(searchTerm, pageable);
+        CursorPage<ProductListItem> page = productService.searchActiveProducts("test", SearchMode.FULL_TEXT, false, null, 1);
 
         // then
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getContent().get(0).getName()).contains(searchTerm);
+        assertThat(page.items()).containsExactly(listItemOf(testProduct));
+        assertThat(SearchCursor.decode(page.nextCursor(), SearchMode.FULL_TEXT))
+                .isEqualTo(new SearchCursor(SearchMode.FULL_TEXT, 0.6f, productId));
+    }
+
+    @Test
+    @DisplayName("Should resume a search after the decoded cursor")
+    void shouldResumeSearchAfterDecodedCursor() {
+        // given
+        SearchCursor after = new SearchCursor(SearchMode.FUZZY, 0.0607927f, productId);
+        when(searchResultCache.search("tset", SearchMode.FUZZY, false, after, 21)).thenReturn(List.of());
+
+        // when
+        CursorPage<ProductListItem> page = productService.searchActiveProducts("tset", SearchMode.FUZZY, false, after.encode(), 20);
+
+        // then
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor issued for another search mode")
+    void shouldRejectCursorIssuedForAnotherSearchMode() {
+        // given
+        String token = new SearchCursor(SearchMode.FULL_TEXT, 0.6f, productId).encode();
+
+        // when/then
+        assertThatThrownBy(() -> productService.searchActiveProducts("test", SearchMode.FUZZY, false, token, 20))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should return next cursor when more active products exist")
+    void shouldReturnNextCursorWhenMoreActiveProductsExist() {
+        // given
+        Product next = ProductTestDataFactory.aProduct().withName("Z Product").thatIsActive().build();
+        next.setId(UUID.randomUUID());
+        when(productRepository.findActiveProductsAfter(ProductSort.NAME, null, 2))
+                .thenReturn(Arrays.asList(listItemOf(testProduct), listItemOf(next)));
+
+        // when
+        CursorPage<ProductListItem> page = productService.scrollActiveProducts(ProductSort.NAME, null, 1);
+
+        // then
+        assertThat(page.items()).containsExactly(listItemOf(testProduct));
+        ProductCursor cursor = ProductCursor.decode(page.nextCursor(), ProductSort.NAME);
+        assertThat(cursor.sortKey()).isEqualTo("Test Product");
+        assertThat(cursor.id()).isEqualTo(productId);
+    }
+
+    @Test
+    @DisplayName("Should resume keyset scan after decoded cursor")
+    void shouldResumeKeysetScanAfterDecodedCursor() {
+        // given
+        String token = new ProductCursor(ProductSort.PRICE_ASC, new BigDecimal("99.99"), productId).encode();
+        when(productRepository.findActiveProductsAfter(eq(ProductSort.PRICE_ASC), any(ProductCursor.class), eq(21)))
+                .thenReturn(List.of());
+
+        // when
+        CursorPage<ProductListItem> page = productService.scrollActiveProducts(ProductSort.PRICE_ASC, token, 20);
+
+        // then
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+        verify(productRepository).findActiveProductsAfter(ProductSort.PRICE_ASC,
+                new ProductCursor(ProductSort.PRICE_ASC, new BigDecimal("99.99"), productId), 21);
+    }
+
+    @Test
+    @DisplayName("Should page through composed filters with a keyset cursor")
+    void shouldFilterProductsWithCursor() {
+        // given
+        var filter = new ProductFilter(null, false, new BigDecimal("10"), null, null, true, null);
+        String token = new ProductCursor(ProductSort.NAME, "A Product", productId).encode();
+        when(productRepository.findProductsAfter(filter, ProductSort.NAME,
+                new ProductCursor(ProductSort.NAME, "A Product", productId), 21))
+                .thenReturn(List.of(listItemOf(testProduct)));
+
+        // when
+        CursorPage<ProductListItem> page = productService.filterProducts(filter, ProductSort.NAME, token, 20);
+
+        // then
+        assertThat(page.items()).containsExactly(listItemOf(testProduct));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject cursor issued for a different sort")
+    void shouldRejectCursorIssuedForDifferentSort() {
+        // given
+        String token = new ProductCursor(ProductSort.NAME, "Test Product", productId).encode();
+
+        // when/then
+        assertThatThrownBy(() -> productService.scrollActiveProducts(ProductSort.NEWEST, token, 20))
+                .isInstanceOf(InvalidCursorException.class);
+        verifyNoInteractions(productRepository);
     }
 
     @Test
     @DisplayName("Should bulk update product status")
     void shouldBulkUpdateProductStatus() {
         // given
-        List<String> productIds = Arrays.asList(productId, "another-id");
+        List<UUID> productIds = Arrays.asList(productId, UUID.randomUUID());
         ProductStatus newStatus = ProductStatus.INACTIVE;
         when(productRepository.findAllById(productIds)).thenReturn(Arrays.asList(testProduct));
         when(productRepository.saveAll(anyList())).thenReturn(Arrays.asList(testProduct));
@@ -402,13 +738,42 @@ class ProductServiceTest {
         assertThat(updatedCount).isEqualTo(1);
         assertThat(testProduct.getStatus()).isEqualTo(ProductStatus.INACTIVE);
         verify(productRepository).saveAll(anyList());
+        verify(categoryRepository).adjustProductCounts(categoryId, -1, 0);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.of(productId, new Placement(categoryId, new BigDecimal("99.99"))));
+    }
+
+    @Test
+    @DisplayName("Should move product counters when category changes")
+    void shouldMoveProductCountersWhenCategoryChanges() {
+        // given
+        Category newCategory = CategoryTestDataFactory.aCategory()
+                .withName("Gadgets")
+                .withSlug("gadgets")
+                .thatIsActive()
+                .build();
+        UUID newCategoryId = UUID.randomUUID();
+        newCategory.setId(newCategoryId);
+        Product updatedData = Product.builder().category(newCategory).build();
+
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
+        when(categoryRepository.findById(newCategoryId)).thenReturn(Optional.of(newCategory));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+
+        // when
+        Product updated = productService.updateProduct(productId, updatedData);
+
+        // then
+        assertThat(updated.getCategory()).isEqualTo(newCategory);
+        verify(categoryRepository).adjustProductCounts(categoryId, -1, -1);
+        verify(categoryRepository).adjustProductCounts(newCategoryId, 1, 1);
+        verify(eventPublisher).publishEvent(new ProductPricesChangedEvent(List.of(categoryId, newCategoryId)));
     }
 
     @Test
     @DisplayName("Should handle empty product list in bulk update")
     void shouldHandleEmptyProductListInBulkUpdate() {
         // Given
-        List<String> emptyIds = Collections.emptyList();
+        List<UUID> emptyIds = Collections.emptyList();
         ProductStatus newStatus = ProductStatus.INACTIVE;
         
         when(productRepository.findAllById(emptyIds)).thenReturn(Collections.emptyList());
@@ -426,7 +791,7 @@ class ProductServiceTest {
         // given
         testProduct.setReservedQuantity(5);
         int quantityToConfirm = 10;
-        when(productRepository.findById(productId)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findWithCategoryById(productId)).thenReturn(Optional.of(testProduct));
 
         // when & then
         assertThatThrownBy(() -> productService.confirmStock(productId, quantityToConfirm))
@@ -435,4 +800,12 @@ class ProductServiceTest {
         
         verify(productRepository, never()).save(any());
     }
+
+    private static ProductListItem listItemOf(Product product) {
+        Category category = product.getCategory();
+        return new ProductListItem(product.getId().toString(), product.getName(), product.getSku(), product.getBasePrice(),
+                product.getStatus(),
+                category != null ? new CategorySummary(category.getId().toString(), category.getName(), category.getSlug()) : null,
+                product.getStockQuantity(), product.getReservedQuantity(), product.getPublishedAt());
+    }
 }
@@ -0,0 +1,227 @@
+package com.loiane.ecommerce.product.service;
+
+import com.loiane.ecommerce.product.dto.CursorPage;
+import com.loiane.ecommerce.product.dto.product.ProductListItem;
+import com.loiane.ecommerce.product.entity.Category;
+import com.loiane.ecommerce.product.entity.Product;
+import com.loiane.ecommerce.product.factory.CategoryTestDataFactory;
+import com.loiane.ecommerce.product.factory.ProductTestDataFactory;
+import com.loiane.ecommerce.product.repository.CategoryRepository;
+import com.loiane.ecommerce.product.repository.ProductDescriptionRepository;
+import com.loiane.ecommerce.product.repository.ProductFilter;
+import com.loiane.ecommerce.product.repository.ProductRepository;
+import com.loiane.ecommerce.product.repository.ProductSort;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the coalesced detail, category and listing lookups on real repositories over a two-connection pool (Flyway
+ * needs both), against PostgreSQL and with no test transaction. The test holds every connection, one of
+ * them in a writing transaction, while the requests arrive, so one load waits for the commit and the others
+ * wait for that load; were they to wait holding a connection, or to load on their own, the pool would run
+ * dry or the statements add up.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=10000",
+        // No background reads while statements are counted
+        "product.suggest.refresh-interval=1h",
+        "product.search-cache.query-log.flush-interval=1h"
+})
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Single Flight Integration Tests")
+class SingleFlightIntegrationTest {
+
+    private static final int CALLERS = 8;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductDescriptionRepository productDescriptionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Statistics statistics;
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        category = categoryRepository.save(CategoryTestDataFactory.createWithSlug("single-flight-desks"));
+        product = productService.createProduct(ProductTestDataFactory.aProduct()
+                .withName("Walnut Desk")
+                .withSku("SINGLE-FLIGHT-001")
+                .withDescription("Solid walnut top")
+                .withCategory(category)
+                .thatIsActive()
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        productDescriptionRepository.findById(product.getId()).ifPresent(productDescriptionRepository::delete);
+        productRepository.deleteById(product.getId());
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    @DisplayName("Should share one detail load among concurrent requests, reading what committed before it ran")
+    void shouldShareDetailLoad() throws Exception {
+        // given
+        long oneLoad = statementsOf(() -> productService.findById(product.getId(), true));
+
+        // when
+        List<Product> loaded = whileRenaming(
+                () -> productRepository.findById(product.getId()).ifPresent(held -> held.setName("Oak Desk")),
+                () -> productService.findById(product.getId(), true));
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(oneLoad);
+        assertThat(loaded).allSatisfy(shared -> {
+            assertThat(shared).isSameAs(loaded.getFirst());
+            assertThat(shared.getName()).isEqualTo("Oak Desk");
+            assertThat(shared.getDescription()).isEqualTo("Solid walnut top");
+        });
+    }
+
+    @Test
+    @DisplayName("Should share one category page lookup among concurrent requests for a slug")
+    void shouldShareSlugLoad() throws Exception {
+        // given
+        long oneLoad = statementsOf(() -> categoryService.findBySlug("single-flight-desks"));
+
+        // when
+        List<Category> loaded = whileRenaming(
+                () -> categoryRepository.findById(category.getId()).ifPresent(held -> held.setName("Standing Desks")),
+                () -> categoryService.findBySlug("single-flight-desks"));
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(oneLoad);
+        assertThat(loaded).allSatisfy(shared -> {
+            assertThat(shared).isSameAs(loaded.getFirst());
+            assertThat(shared.getName()).isEqualTo("Standing Desks");
+        });
+    }
+
+    @Test
+    @DisplayName("Should share one first page load among concurrent requests for a category listing")
+    void shouldShareListingLoad() throws Exception {
+        // given
+        var byCategory = new ProductFilter(category.getId(), false, null, null, null, false, null);
+        long oneLoad = statementsOf(() -> productService.filterProducts(byCategory, ProductSort.NAME, null, 20));
+
+        // when
+        List<CursorPage<ProductListItem>> loaded = whileRenaming(
+                () -> productRepository.findById(product.getId()).ifPresent(held -> held.setName("Oak Desk")),
+                () -> productService.filterProducts(byCategory, ProductSort.NAME, null, 20));
+
+        // then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(oneLoad);
+        assertThat(loaded).allSatisfy(shared -> {
+            assertThat(shared).isSameAs(loaded.getFirst());
+            assertThat(shared.items()).extracting(ProductListItem::name).containsExactly("Oak Desk");
+        });
+    }
+
+    private long statementsOf(Runnable load) {
+        statistics.clear();
+        load.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Sends the lookups while a transaction renames the row, then commits; the other connection stays taken
+    private <T> List<T> whileRenaming(Runnable rename, Callable<T> lookup) throws Exception {
+        List<Thread> callers = new ArrayList<>();
+        List<Future<T>> results = new ArrayList<>();
+        try (Connection _ = dataSource.getConnection();
+             ExecutorService executor = Executors.newFixedThreadPool(CALLERS, runnable -> {
+            Thread thread = new Thread(runnable);
+            callers.add(thread);
+            return thread;
+        })) {
+            transactionTemplate.executeWithoutResult(_ -> {
+                rename.run();
+                productRepository.flush();
+                statistics.clear();
+                for (int i = 0; i < CALLERS; i++) {
+                    results.add(executor.submit(lookup));
+                }
+                // One load waiting for the connection, the other callers for that load
+                awaitAllWaiting(callers);
+            });
+
+            List<T> loaded = new ArrayList<>();
+            for (Future<T> result : results) {
+                loaded.add(result.get(10, TimeUnit.SECONDS));
+            }
+            return loaded;
+        }
+    }
+
+    private static void awaitAllWaiting(List<Thread> threads) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (threads.size() < CALLERS || !threads.stream().allMatch(thread ->
+                thread.getState() == Thread.State.WAITING || thread.getState() == Thread.State.TIMED_WAITING)) {
+            assertThat(System.nanoTime()).as("callers blocked in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}